@@ -1,4 +1,4 @@
-import apiClient from './config';
+import apiClient, { fetchAllPages } from './config';
 
 // Create new booking
 export const createBooking = async (bookingData) => {
@@ -10,8 +10,7 @@ export const createBooking = async (bookingData) => {
 
 // Get all bookings
 export const getAllBookings = async () => {
-    const response = await apiClient.get('/bookings');
-    return response.data;
+    return fetchAllPages('/bookings');
 };
 
 // Get booking by ID
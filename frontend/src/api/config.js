@@ -41,6 +41,18 @@ apiClient.interceptors.response.use(
     }
 );
 
+// Walks a keyset-paginated list endpoint ({ items, nextCursor, hasMore }) and returns every item
+export const fetchAllPages = async (path, params = {}) => {
+    const items = [];
+    let cursor;
+    do {
+        const response = await apiClient.get(path, { params: { ...params, limit: 200, cursor } });
+        items.push(...response.data.items);
+        cursor = response.data.hasMore ? response.data.nextCursor : undefined;
+    } while (cursor);
+    return items;
+};
+
 // Token management functions
 export const setToken = (token) => {
     localStorage.setItem('wheelio_token', token);
@@ -1,9 +1,8 @@
-import apiClient from './config';
+import apiClient, { fetchAllPages } from './config';
 
 // Get all damage reports
 export const getAllDamageReports = async () => {
-    const response = await apiClient.get('/damage-reports');
-    return response.data;
+    return fetchAllPages('/damage-reports');
 };
 
 // Get damage report by ID
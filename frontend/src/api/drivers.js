@@ -1,9 +1,8 @@
-import apiClient from './config';
+import apiClient, { fetchAllPages } from './config';
 
 // Get all drivers
 export const getAllDrivers = async () => {
-    const response = await apiClient.get('/drivers');
-    return response.data;
+    return fetchAllPages('/drivers');
 };
 
 export const getDriverProfile = async (userId) => {
@@ -1,9 +1,8 @@
-import apiClient from './config';
+import apiClient, { fetchAllPages } from './config';
 
 // Get all vehicles
 export const getAllVehicles = async () => {
-    const response = await apiClient.get('/vehicles');
-    return response.data;
+    return fetchAllPages('/vehicles');
 };
 
 // Get vehicle by ID
@@ -18,6 +17,12 @@ export const getAvailableVehicles = async () => {
     return response.data;
 };
 
+// Get the server's price for a rental period; this is what a booking is charged
+export const getQuote = async (id, start, end, driver) => {
+    const response = await apiClient.get(`/vehicles/${id}/quote`, { params: { start, end, driver } });
+    return response.data;
+};
+
 // Create new vehicle (admin only)
 export const createVehicle = async (vehicleData) => {
     const response = await apiClient.post('/vehicles', vehicleData);
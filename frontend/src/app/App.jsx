@@ -436,7 +436,6 @@ const App = () => {
       const toastId = toast.loading('Confirming your booking...');
 
       // Handle license upload if present (Verification System)
-      let driverProfileId = null;
       if (bookingData.license) {
         try {
           // If license is a File object, upload it
@@ -462,12 +461,10 @@ const App = () => {
               // First check if profile exists
               try {
                 const existingProfile = await driversAPI.getDriverProfile(user.id);
-                const updatedProfile = await driversAPI.updateDriverProfile(user.id, profileUpdate);
-                driverProfileId = updatedProfile.id;
+                await driversAPI.updateDriverProfile(user.id, profileUpdate);
               } catch (e) {
                 // Not found, create new
-                const newProfile = await driversAPI.createDriverProfile(profileUpdate);
-                driverProfileId = newProfile.id;
+                await driversAPI.createDriverProfile(profileUpdate);
               }
             } catch (profileErr) {
               console.error("Failed to manage driver profile:", profileErr);
@@ -479,11 +476,8 @@ const App = () => {
         }
       }
 
-      // Send driverId if it's a valid format (UUID or MongoDB ObjectId)
-      let finalDriverId = driverProfileId || null;
-      if (!finalDriverId && bookingData.driver?.id && isValidId(bookingData.driver.id)) {
-        finalDriverId = bookingData.driver.id;
-      }
+      // Only a driver the customer picked is sent; the server prices a driver fee for it, as the quote did
+      const finalDriverId = bookingData.driver?.id && isValidId(bookingData.driver.id) ? bookingData.driver.id : null;
 
       // Prepare booking data for backend
       const bookingPayload = {
@@ -492,7 +486,8 @@ const App = () => {
         driverId: finalDriverId,
         startDate: startDateStr,
         endDate: endDateStr,
-        totalAmount: bookingData.totalAmount || parseFloat((bookingData.vehicle.price * 1.05 + 96).toFixed(2)),
+        withDriver: !!bookingData.driver,
+        totalAmount: bookingData.totalAmount,
         pickupLocation: bookingData.pickupLocation || bookingData.vehicle?.location || 'Coimbatore',
         dropLocation: bookingData.dropLocation,
         contactPhone: bookingData.phone
@@ -507,7 +502,7 @@ const App = () => {
       const newBooking = {
         ...createdBooking,
         date: new Date().toLocaleDateString(),
-        cost: '₹' + (bookingPayload.totalAmount || 0).toFixed(0),
+        cost: '₹' + (createdBooking.totalAmount || 0),
         userName: user.name,
         vehicleName: bookingData.vehicle.name,
         vehicle: bookingData.vehicle,
@@ -847,8 +847,10 @@ const AdminDashboard = ({ onNavigate, onAddVehicle, onDeleteVehicle, onUpdateVeh
                                                             <p className="text-xs text-gray-500 uppercase tracking-wide mb-1">Evidence</p>
                                                             {report.images && report.images.length > 0 ? (
                                                                 <div className="flex gap-2 overflow-x-auto pb-2">
-                                                                    {report.images.map((photo, idx) => (
-                                                                        <img key={idx} src={photo} alt="damage" className="h-24 w-24 object-cover rounded-lg border border-white/10" />
+                                                                    {(report.thumbnails || report.images).map((photo, idx) => (
+                                                                        <a key={idx} href={report.images[idx]} target="_blank" rel="noreferrer">
+                                                                            <img src={photo} alt="damage" className="h-24 w-24 object-cover rounded-lg border border-white/10" />
+                                                                        </a>
                                                                     ))}
                                                                 </div>
                                                             ) : (
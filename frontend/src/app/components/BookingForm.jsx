@@ -1,7 +1,8 @@
-import { Calendar as CalendarIcon, Clock, ArrowLeft, ShieldCheck, MapPin, Check, ChevronsUpDown, User, Star, CreditCard, Wallet, Building, Tag } from 'lucide-react';
+import { Calendar as CalendarIcon, Clock, ArrowLeft, ShieldCheck, MapPin, Check, ChevronsUpDown, User, Star, CreditCard, Wallet, Building } from 'lucide-react';
 import { format, isWithinInterval, startOfDay } from 'date-fns';
 import { Calendar } from './ui/calendar';
 import { getBookedDates } from '../api/bookings';
+import { getQuote } from '../api/vehicles';
 import VehicleMap from './VehicleMap';
 import { toast } from 'sonner';
 import { cn } from "./ui/utils";
@@ -50,60 +51,15 @@ const BookingForm = ({ vehicle, bookingData, onBack, onConfirm }) => {
         gst: 0,
         adjustments: 0,
         driverCost: 0,
-        total: 0
+        deposit: 0,
+        total: 0,
+        payableNow: 0
     });
 
     const [bookedRanges, setBookedRanges] = useState([]);
 
     const [isPaymentProcessing, setIsPaymentProcessing] = useState(false);
 
-    const [couponCode, setCouponCode] = useState('');
-    const [discount, setDiscount] = useState(0);
-
-    const applyCoupon = () => {
-        if (!couponCode) return;
-
-        const code = couponCode.toUpperCase();
-        let calculatedDiscount = 0;
-
-        // Reset discount first
-        setDiscount(0);
-
-        if (code === 'SUMMER25') {
-            if (vehicle.type === 'SUV') {
-                calculatedDiscount = (vehicle.price * costBreakdown.days) * 0.20;
-                toast.success('SUMMER25 applied! 20% off on rental.');
-            } else {
-                toast.error('SUMMER25 is only applicable for SUVs.');
-                return;
-            }
-        } else if (code === 'BIKEWKND') {
-            if (vehicle.type === 'Bike') {
-                if (costBreakdown.days >= 3) {
-                    calculatedDiscount = vehicle.price * 1; // 1 Day Free
-                    toast.success('BIKEWKND applied! Get 1 day free.');
-                } else {
-                    toast.error('BIKEWKND requires a minimum booking of 3 days.');
-                    return;
-                }
-            } else {
-                toast.error('BIKEWKND is only applicable for Bikes.');
-                return;
-            }
-        } else {
-            toast.error('Invalid Coupon Code');
-            return;
-        }
-
-        setDiscount(calculatedDiscount);
-    };
-
-    // Helper to check for weekend (Fri, Sat, Sun)
-    const isWeekend = (date) => {
-        const day = date.getDay();
-        return day === 0 || day === 5 || day === 6;
-    };
-
     useEffect(() => {
         getBookedDates(vehicle.id).then(dates => {
             setBookedRanges(dates.map(range => ({
@@ -122,101 +78,41 @@ const BookingForm = ({ vehicle, bookingData, onBack, onConfirm }) => {
         );
     };
 
-    // Calculate costs whenever dates or addon props change
+    // Price the period with the server's quote; this is the amount charged and stored on the booking
     useEffect(() => {
-        if (formData.startDate && formData.endDate) {
-            const start = new Date(formData.startDate);
-            const end = new Date(formData.endDate);
-            const diffTime = Math.abs(end - start);
-            const diffDays = Math.ceil(diffTime / (1000 * 60 * 60 * 24)) || 1; // Minimum 1 day
-
-            const days = diffDays > 0 ? diffDays : 1;
-            const rentalCost = days * vehicle.price;
-
-            // Calculate Add-ons cost
-            const addOnsTotalPerDay = bookingData?.addOns?.reduce((acc, curr) => acc + curr.price, 0) || 0;
-            const addOnsCost = addOnsTotalPerDay * days;
-
-            // Calculate Pricing Adjustments
-            let pricingRules = [];
-            try {
-                pricingRules = JSON.parse(localStorage.getItem('pricingRules') || '[]');
-            } catch (e) {
-                pricingRules = [];
+        if (!formData.startDate || !formData.endDate) return;
+        const start = `${formData.startDate}T${formData.startTime || '00:00'}:00`;
+        const end = `${formData.endDate}T${formData.dropTime || '00:00'}:00`;
+        let cancelled = false;
+        getQuote(vehicle.id, start, end, !!bookingData.driver).then(quote => {
+            if (cancelled) return;
+            const adjustments = [];
+            if (quote.weekendSurchargeMinor > 0) {
+                adjustments.push({ name: 'Weekend surcharge', amount: quote.weekendSurchargeMinor / 100 });
+            }
+            if (quote.durationDiscountMinor > 0) {
+                adjustments.push({ name: 'Long rental discount', amount: -quote.durationDiscountMinor / 100 });
             }
-            let adjustmentAmount = 0;
-            let activeAdjustments = [];
-
-            pricingRules.forEach(rule => {
-                if (rule.status !== 'active') return;
-
-                let applyRule = false;
-
-                if (rule.condition === 'weekend') {
-                    // Check if any day in the range is a weekend
-                    let current = new Date(start);
-                    while (current <= end) {
-                        if (isWeekend(current)) {
-                            applyRule = true;
-                            break;
-                        }
-                        current.setDate(current.getDate() + 1);
-                    }
-                } else if (rule.condition === 'advance_30') {
-                    const today = new Date();
-                    const diffTime = start - today;
-                    const diffDays = Math.ceil(diffTime / (1000 * 60 * 60 * 24));
-                    if (diffDays >= 30) applyRule = true;
-                } else if (rule.condition === 'holiday') {
-                    const holidays = [
-                        '2026-01-01', // New Year
-                        '2026-01-14', // Pongal
-                        '2026-01-26', // Republic Day
-                        '2026-08-15', // Independence Day
-                        '2026-10-02', // Gandhi Jayanti
-                        '2026-10-20', // Dussehra (Approx)
-                        '2026-11-08', // Diwali (Approx)
-                        '2026-12-25'  // Christmas
-                    ];
-
-                    let current = new Date(start);
-                    while (current <= end) {
-                        const dateStr = current.toISOString().split('T')[0];
-                        if (holidays.includes(dateStr)) {
-                            applyRule = true;
-                            break;
-                        }
-                        current.setDate(current.getDate() + 1);
-                    }
-                }
-
-                if (applyRule) {
-                    const adjustment = (rentalCost * rule.value) / 100;
-                    adjustmentAmount += adjustment;
-                    activeAdjustments.push({ name: rule.name, amount: adjustment });
-                }
-            });
-
-            // Driver Cost Calculation
-            const driverCostPerDay = 800;
-            const driverCost = bookingData.driver ? (driverCostPerDay * days) : 0;
-
-            const subTotal = (rentalCost - discount) + addOnsCost + adjustmentAmount + driverCost;
-            const gst = Math.round(subTotal * 0.18);
-            const total = Math.max(0, subTotal + gst);
-
             setCostBreakdown({
-                days,
-                rentalCost,
-                addOnsCost,
-                driverCost,
-                gst,
-                adjustments: adjustmentAmount,
-                activeAdjustments,
-                total
+                days: quote.days,
+                rentalCost: quote.rentalMinor / 100,
+                addOnsCost: 0,
+                driverCost: quote.driverMinor / 100,
+                gst: quote.taxMinor / 100,
+                adjustments: adjustments.reduce((acc, adj) => acc + adj.amount, 0),
+                activeAdjustments: adjustments,
+                deposit: quote.deposit,
+                total: quote.total,
+                payableNow: quote.payableNow
             });
-        }
-    }, [formData.startDate, formData.endDate, vehicle.price, bookingData.addOns, discount]);
+        }).catch(err => {
+            if (cancelled) return;
+            console.error("Error fetching quote:", err);
+            setCostBreakdown(prev => ({ ...prev, total: 0, payableNow: 0 }));
+            toast.error(err.response?.data?.error || 'Could not price the selected dates.');
+        });
+        return () => { cancelled = true; };
+    }, [formData.startDate, formData.startTime, formData.endDate, formData.dropTime, vehicle.id, bookingData.driver]);
 
 
     const handleRazorpayPayment = async () => {
@@ -242,7 +138,7 @@ const BookingForm = ({ vehicle, bookingData, onBack, onConfirm }) => {
 
         const options = {
             key: "rzp_test_1DP5mmOlF5G5ag", // Test Key ID
-            amount: costBreakdown.total * 100, // Amount in paise
+            amount: Math.round(costBreakdown.payableNow * 100), // Amount in paise: quote total plus deposit
             currency: "INR",
             name: "Wheelio Rentals",
             description: `Booking for ${vehicle.name}`,
@@ -665,7 +561,7 @@ const BookingForm = ({ vehicle, bookingData, onBack, onConfirm }) => {
                                         Processing...
                                     </>
                                 ) : (
-                                    `Pay ₹${costBreakdown.total.toLocaleString()} & Confirm Booking`
+                                    `Pay ₹${(costBreakdown.payableNow || 0).toLocaleString()} & Confirm Booking`
                                 )}
                             </button>
                         </form>
@@ -734,32 +630,6 @@ const BookingForm = ({ vehicle, bookingData, onBack, onConfirm }) => {
 
                             <div className="border-t border-white/10 my-6"></div>
 
-                            {/* Coupon Section */}
-                            <div className="space-y-3 mb-6">
-                                <p className="text-xs font-bold text-gray-500 uppercase tracking-wider pl-1">Promo Code</p>
-                                <div className="flex gap-2">
-                                    <input
-                                        type="text"
-                                        placeholder="Enter Coupon Code"
-                                        value={couponCode}
-                                        onChange={(e) => setCouponCode(e.target.value.toUpperCase())}
-                                        className="flex-1 bg-black/20 border border-white/10 rounded-lg px-3 py-2 text-sm text-white focus:outline-none focus:border-primary/50 uppercase placeholder:normal-case"
-                                    />
-                                    <button
-                                        type="button"
-                                        onClick={applyCoupon}
-                                        className="bg-white/10 hover:bg-white/20 text-white px-4 py-2 rounded-lg text-sm font-medium transition-colors"
-                                    >
-                                        Apply
-                                    </button>
-                                </div>
-                                {discount > 0 && (
-                                    <div className="text-green-400 text-xs flex items-center gap-1 animate-in fade-in">
-                                        <Check size={12} /> Coupon Applied! You saved ₹{discount.toLocaleString()}
-                                    </div>
-                                )}
-                            </div>
-
                             {/* Cost Breakdown */}
                             <div className="space-y-3">
                                 <div className="flex justify-between text-sm">
@@ -795,23 +665,22 @@ const BookingForm = ({ vehicle, bookingData, onBack, onConfirm }) => {
                                     </div>
                                 ))}
 
-                                {discount > 0 && (
-                                    <div className="flex justify-between text-sm">
-                                        <span className="text-green-400 flex items-center gap-1"><Tag size={12} /> Discount</span>
-                                        <span className="text-green-400 font-bold">-₹{discount.toLocaleString()}</span>
-                                    </div>
-                                )}
-
                                 <div className="flex justify-between text-sm">
                                     <span className="text-gray-400">GST (18%)</span>
                                     <span className="text-white font-medium">₹{costBreakdown.gst.toLocaleString()}</span>
                                 </div>
+                                {costBreakdown.deposit > 0 && (
+                                    <div className="flex justify-between text-sm">
+                                        <span className="text-gray-400">Refundable Deposit</span>
+                                        <span className="text-white font-medium">₹{costBreakdown.deposit.toLocaleString()}</span>
+                                    </div>
+                                )}
                             </div>
 
                             <div className="flex justify-between items-end border-t border-white/10 pt-6 mt-4">
                                 <div>
                                     <p className="text-xs text-gray-500 mb-1">Total Amount Payable</p>
-                                    <div className="text-3xl font-bold text-primary">₹{costBreakdown.total.toLocaleString()}</div>
+                                    <div className="text-3xl font-bold text-primary">₹{(costBreakdown.payableNow || 0).toLocaleString()}</div>
                                 </div>
                             </div>
                         </div>
@@ -0,0 +1,55 @@
+# Compares platform vs virtual threads under concurrent load (PowerShell 7+).
+# Run the backend twice, once with VIRTUAL_THREADS_ENABLED=false and once with
+# VIRTUAL_THREADS_ENABLED=true (Java 21 image: docker build --build-arg JAVA_VERSION=21),
+# then run this script against each and compare the summaries.
+param(
+    [string]$BaseUrl = "http://localhost:8073/api",
+    [int]$Clients = 2000,
+    [int]$RequestsPerClient = 5,
+    [string]$Email = "user@wheelio.com",
+    [string]$Password = "User@123"
+)
+
+$login = Invoke-RestMethod -Uri "$BaseUrl/auth/login" -Method Post -ContentType "application/json" `
+    -Body (@{ email = $Email; password = $Password } | ConvertTo-Json)
+$token = $login.token
+$userId = $login.user.id
+$vehicles = Invoke-RestMethod -Uri "$BaseUrl/vehicles?all=true"
+$vehicleIds = @($vehicles | ForEach-Object { $_.id })
+
+function Measure-Scenario($Name, [scriptblock]$Request) {
+    $sw = [System.Diagnostics.Stopwatch]::StartNew()
+    $latencies = 1..$Clients | ForEach-Object -ThrottleLimit $Clients -Parallel {
+        $req = [scriptblock]::Create($using:Request)
+        $client = $_
+        for ($i = 0; $i -lt $using:RequestsPerClient; $i++) {
+            $t = [System.Diagnostics.Stopwatch]::StartNew()
+            try { & $req $client $i | Out-Null } catch { }
+            $t.Elapsed.TotalMilliseconds
+        }
+    }
+    $sw.Stop()
+    $sorted = $latencies | Sort-Object
+    $p = { param($q) $sorted[[math]::Min($sorted.Count - 1, [math]::Floor($sorted.Count * $q))] }
+    "{0,-16} {1,7} req  {2,8:N0} req/s  p50 {3,7:N1} ms  p99 {4,8:N1} ms" -f $Name, $sorted.Count,
+        ($sorted.Count / $sw.Elapsed.TotalSeconds), (& $p 0.50), (& $p 0.99)
+}
+
+Measure-Scenario "GET /vehicles" {
+    param($client, $i)
+    Invoke-RestMethod -Uri "$using:BaseUrl/vehicles?all=true"
+}
+
+Measure-Scenario "POST /bookings" {
+    param($client, $i)
+    $ids = $using:vehicleIds
+    $start = (Get-Date).Date.AddDays(30 + ($client * $using:RequestsPerClient + $i) % 300)
+    $body = @{
+        userId    = $using:userId
+        vehicleId = $ids[($client + $i) % $ids.Count]
+        startDate = $start.ToString("yyyy-MM-ddTHH:mm:ss")
+        endDate   = $start.AddHours(4).ToString("yyyy-MM-ddTHH:mm:ss")
+    } | ConvertTo-Json
+    Invoke-RestMethod -Uri "$using:BaseUrl/bookings" -Method Post -ContentType "application/json" `
+        -Headers @{ Authorization = "Bearer $using:token" } -Body $body
+}
@@ -6,6 +6,7 @@ import com.wheelio.backend.model.Vehicle;
 import com.wheelio.backend.repository.DriverProfileRepository;
 import com.wheelio.backend.repository.UserRepository;
 import com.wheelio.backend.repository.VehicleRepository;
+import com.wheelio.backend.service.VehicleCatalogueCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,8 @@ public class DataSeeder implements CommandLineRunner {
         @Autowired
         private DriverProfileRepository driverProfileRepository;
         @Autowired
+        private VehicleCatalogueCache vehicleCatalogueCache;
+        @Autowired
         private PasswordEncoder passwordEncoder;
 
         @Override
@@ -273,6 +276,7 @@ public class DataSeeder implements CommandLineRunner {
                                                 2, "Petrol", "Manual", 4.9, 280));
 
                 vehicleRepository.saveAll(vehicles);
+                vehicleCatalogueCache.clear();
                 logger.info("Seeded {} vehicles.", vehicles.size());
         }
 
@@ -1,9 +1,21 @@
 package com.wheelio.backend.config;
 
+import com.fasterxml.jackson.databind.Module;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.geo.GeoJsonModule;
 
 @Configuration
 @EnableMongoAuditing
 public class MongoConfig {
+
+    /**
+     * Writes GeoJSON types as {@code {"type": "Point", "coordinates": [lng, lat]}};
+     * Spring Data already registers the matching deserializers.
+     */
+    @Bean
+    public Module geoJsonSerializers() {
+        return GeoJsonModule.serializers();
+    }
 }
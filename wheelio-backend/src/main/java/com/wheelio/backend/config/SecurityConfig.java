@@ -1,6 +1,7 @@
 package com.wheelio.backend.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -18,9 +19,12 @@ public class SecurityConfig {
         @Autowired
         private com.wheelio.backend.security.JwtRequestFilter jwtRequestFilter;
 
+        @Value("${wheelio.password.bcrypt-cost:10}")
+        private int bcryptCost;
+
         @Bean
         public PasswordEncoder passwordEncoder() {
-                return new BCryptPasswordEncoder();
+                return new BCryptPasswordEncoder(bcryptCost);
         }
 
         @Bean
@@ -55,6 +59,7 @@ public class SecurityConfig {
                                 }))
                                 .csrf(csrf -> csrf.disable())
                                 .authorizeHttpRequests(auth -> auth
+                                                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                                                 .anyRequest().authenticated())
                                 .addFilterBefore(jwtRequestFilter,
                                                 org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,36 @@
+package com.wheelio.backend.config;
+
+import com.wheelio.backend.util.WorkerThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Reports which execution mode the app came up in. Virtual threads are opt-in
+ * via {@code spring.threads.virtual.enabled} and need a Java 21 runtime (build
+ * with {@code -Pjava21}); on older runtimes the flag is ignored.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logThreadingMode() {
+        if (!virtualThreads) {
+            logger.info("Request handling on platform threads");
+        } else if (WorkerThreads.virtualThreadsAvailable()) {
+            logger.info("Request handling, scheduler and email outbox on virtual threads (Java {})",
+                    Runtime.version().feature());
+        } else {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; using platform threads",
+                    Runtime.version().feature());
+        }
+    }
+}
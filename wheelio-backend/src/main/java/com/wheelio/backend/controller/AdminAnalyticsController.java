@@ -0,0 +1,86 @@
+package com.wheelio.backend.controller;
+
+import com.wheelio.backend.model.BookingRollup;
+import com.wheelio.backend.service.BookingRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/** Dashboard analytics; every endpoint reads booking_rollups only. */
+@RestController
+@RequestMapping("/api/admin/analytics")
+public class AdminAnalyticsController {
+
+    private static final int MAX_DAYS = 366;
+    private static final int MAX_LIMIT = 200;
+
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "revenue", "revenueMinor",
+            "bookings", "bookings",
+            "hours", "bookedMinutes",
+            "cancelled", "cancelled");
+
+    @Autowired
+    private BookingRollupService bookingRollupService;
+
+    @GetMapping("/summary")
+    public ResponseEntity<?> summary() {
+        return ResponseEntity.ok(bookingRollupService.summary());
+    }
+
+    @GetMapping("/daily")
+    public ResponseEntity<?> daily(@RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        LocalDate end;
+        LocalDate start;
+        try {
+            end = to != null ? LocalDate.parse(to) : LocalDate.now();
+            start = from != null ? LocalDate.parse(from) : end.minusDays(29);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Dates must be YYYY-MM-DD"));
+        }
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "from must be on or before to, at most " + MAX_DAYS + " days apart"));
+        }
+        return ResponseEntity.ok(bookingRollupService.daily(start, end));
+    }
+
+    @GetMapping("/vehicles")
+    public ResponseEntity<?> vehicles(@RequestParam(defaultValue = "revenue") String sort,
+            @RequestParam(defaultValue = "20") int limit) {
+        return top(BookingRollup.Dimension.VEHICLE, sort, limit);
+    }
+
+    @GetMapping("/cities")
+    public ResponseEntity<?> cities(@RequestParam(defaultValue = "revenue") String sort,
+            @RequestParam(defaultValue = "20") int limit) {
+        return top(BookingRollup.Dimension.CITY, sort, limit);
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<?> rebuild() {
+        long buckets = bookingRollupService.rebuild();
+        if (buckets < 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Rebuild already running"));
+        }
+        return ResponseEntity.ok(Map.of("buckets", buckets));
+    }
+
+    private ResponseEntity<?> top(BookingRollup.Dimension dimension, String sort, int limit) {
+        String field = SORT_FIELDS.get(sort);
+        if (field == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "sort must be one of " + SORT_FIELDS.keySet()));
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().body(Map.of("error", "limit must be between 1 and " + MAX_LIMIT));
+        }
+        return ResponseEntity.ok(bookingRollupService.top(dimension, field, limit));
+    }
+}
@@ -0,0 +1,21 @@
+package com.wheelio.backend.controller;
+
+import com.wheelio.backend.service.DamageReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/damage-reports")
+public class AdminDamageReportController {
+
+    @Autowired
+    private DamageReportService damageReportService;
+
+    @PostMapping("/migrate-images")
+    public ResponseEntity<?> migrateInlineImages() {
+        return ResponseEntity.ok(Map.of("migratedReports", damageReportService.migrateInlineImages()));
+    }
+}
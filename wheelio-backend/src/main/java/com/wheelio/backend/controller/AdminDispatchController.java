@@ -0,0 +1,51 @@
+package com.wheelio.backend.controller;
+
+import com.wheelio.backend.service.BookingService;
+import com.wheelio.backend.service.DriverDispatchEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/dispatch")
+public class AdminDispatchController {
+
+    @Autowired
+    private DriverDispatchEngine dispatchEngine;
+
+    @Autowired
+    private BookingService bookingService;
+
+    /** Batch-assigns drivers to the day's bookings that asked for one (default: today). */
+    @PostMapping("/run")
+    public ResponseEntity<?> run(@RequestParam(required = false) String date) {
+        LocalDate day;
+        try {
+            day = date != null ? LocalDate.parse(date) : LocalDate.now();
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "date must be YYYY-MM-DD"));
+        }
+        return ResponseEntity.ok(dispatchEngine.assignDay(day));
+    }
+
+    @PostMapping("/bookings/{id}")
+    public ResponseEntity<?> assign(@PathVariable String id) {
+        return bookingService.getBookingById(id)
+                .<ResponseEntity<?>>map(booking -> {
+                    if (booking.getDriverId() != null) {
+                        return ResponseEntity.ok(Map.of("bookingId", id, "driverId", booking.getDriverId()));
+                    }
+                    return dispatchEngine.assign(booking)
+                            .<ResponseEntity<?>>map(driverId -> ResponseEntity.ok(
+                                    Map.of("bookingId", id, "driverId", driverId)))
+                            .orElse(ResponseEntity.status(HttpStatus.CONFLICT).body(
+                                    Map.of("error", "No driver is free for this booking, or it did not ask for one")));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
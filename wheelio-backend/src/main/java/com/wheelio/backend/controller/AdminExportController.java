@@ -0,0 +1,85 @@
+package com.wheelio.backend.controller;
+
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.service.ExportService;
+import com.wheelio.backend.util.DateUtils;
+import com.wheelio.backend.util.ExportWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/export")
+public class AdminExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminExportController.class);
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/bookings")
+    public ResponseEntity<?> exportBookings(@RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String status) {
+        return export("bookings", format, from, to, status,
+                (f, t, fmt, out) -> exportService.exportBookings(f, t, status, fmt, out));
+    }
+
+    @GetMapping("/payments")
+    public ResponseEntity<?> exportPayments(@RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String status) {
+        return export("payments", format, from, to, status,
+                (f, t, fmt, out) -> exportService.exportPayments(f, t, status, fmt, out));
+    }
+
+    private ResponseEntity<?> export(String name, String format, String from, String to, String status,
+            Exporter exporter) {
+        if ("bookings".equals(name) && status != null) {
+            try {
+                Booking.BookingStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Unknown booking status: " + status));
+            }
+        }
+        LocalDateTime start = from != null ? DateUtils.parseFlexibleDate(from) : null;
+        LocalDateTime end = to != null ? DateUtils.parseFlexibleDate(to) : null;
+        ExportWriter.Format fmt = ExportWriter.Format.parse(format);
+
+        StreamingResponseBody body = out -> {
+            long t0 = System.currentTimeMillis();
+            try {
+                long rows = exporter.write(start, end, fmt, out);
+                logger.info("Exported {} {} as {} in {} ms", rows, name, fmt, System.currentTimeMillis() - t0);
+            } catch (IOException e) {
+                // client went away; the cursor is already closed by the service
+                logger.info("Export of {} aborted by client after {} ms: {}", name,
+                        System.currentTimeMillis() - t0, e.getMessage());
+            }
+        };
+        String filename = "wheelio-" + name + "-" + LocalDate.now() + "." + fmt.extension;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fmt.contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    @FunctionalInterface
+    private interface Exporter {
+        long write(LocalDateTime from, LocalDateTime to, ExportWriter.Format format, OutputStream out)
+                throws IOException;
+    }
+}
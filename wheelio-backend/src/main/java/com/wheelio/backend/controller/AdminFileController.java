@@ -0,0 +1,40 @@
+package com.wheelio.backend.controller;
+
+import com.wheelio.backend.service.FileStorageService;
+import com.wheelio.backend.service.ImageRenditionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/files")
+public class AdminFileController {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private ImageRenditionService imageRenditionService;
+
+    @GetMapping("/dedup-report")
+    public ResponseEntity<?> dedupReport() {
+        return ResponseEntity.ok(fileStorageService.dedupReport());
+    }
+
+    @PostMapping("/gc")
+    public ResponseEntity<?> collectGarbage() {
+        return ResponseEntity.ok(Map.of("removedBlobs", fileStorageService.collectGarbage()));
+    }
+
+    @PostMapping("/renditions/backfill")
+    public ResponseEntity<?> backfillRenditions() {
+        int processed = imageRenditionService.backfill();
+        if (processed < 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Backfill already running"));
+        }
+        return ResponseEntity.ok(Map.of("processedImages", processed));
+    }
+}
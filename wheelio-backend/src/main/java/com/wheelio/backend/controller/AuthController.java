@@ -1,17 +1,21 @@
 package com.wheelio.backend.controller;
 
+import com.wheelio.backend.exception.ServiceBusyException;
 import com.wheelio.backend.model.User;
 import com.wheelio.backend.service.UserService;
+import com.wheelio.backend.security.JwtPrincipal;
 import com.wheelio.backend.security.JwtUtil;
+import com.wheelio.backend.security.JwtVerifier;
+import com.wheelio.backend.security.PasswordHasher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -24,63 +28,90 @@ public class AuthController {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private JwtVerifier jwtVerifier;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private com.wheelio.backend.service.EmailService emailService;
 
     @PostMapping("/signup")
-    public ResponseEntity<?> signup(@RequestBody SignupRequest request) {
+    public CompletableFuture<ResponseEntity<?>> signup(@RequestBody SignupRequest request) {
         if (userService.existsByEmail(request.getEmail())) {
             Map<String, String> error = new HashMap<>();
             error.put("error", "Email already registered");
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.CONFLICT).body(error));
         }
 
-        User user = new User();
-        user.setEmail(request.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
-        user.setFullName(request.getFullName());
-        user.setRole(User.Role.valueOf(request.getRole().toUpperCase()));
-        user.setPhone(request.getPhone());
-        user.setCity(request.getCity());
-
-        User savedUser = userService.createUser(user);
-
-        String token = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getId(), savedUser.getRole().toString());
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("token", token);
-        response.put("user", createUserResponse(savedUser));
-        return ResponseEntity.ok(response);
+        return passwordHasher.encode(request.getPassword()).thenApply(hash -> {
+            User user = new User();
+            user.setEmail(request.getEmail());
+            user.setPasswordHash(hash);
+            user.setFullName(request.getFullName());
+            user.setRole(User.Role.valueOf(request.getRole().toUpperCase()));
+            user.setPhone(request.getPhone());
+            user.setCity(request.getCity());
+
+            User savedUser = userService.createUser(user);
+
+            String token = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getId(),
+                    savedUser.getRole().toString());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("token", token);
+            response.put("user", createUserResponse(savedUser));
+            return ResponseEntity.ok(response);
+        });
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request) {
         Optional<User> userOpt = userService.getUserByEmail(request.getEmail());
         if (userOpt.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid credentials"));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid credentials")));
         }
 
         User user = userOpt.get();
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid credentials"));
-        }
+        return passwordHasher.matches(request.getPassword(), user.getPasswordHash()).thenApply(matched -> {
+            if (!matched) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid credentials"));
+            }
+            if (passwordHasher.needsRehash(user.getPasswordHash())) {
+                rehash(user, request.getPassword());
+            }
+
+            String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().toString());
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole().toString());
+            Map<String, Object> response = new HashMap<>();
+            response.put("token", token);
+            response.put("user", createUserResponse(user));
+            return ResponseEntity.ok(response);
+        });
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("token", token);
-        response.put("user", createUserResponse(user));
-        return ResponseEntity.ok(response);
+    /** Re-encodes a hash made with an older cost factor; skipped when the hasher is busy. */
+    private void rehash(User user, String rawPassword) {
+        try {
+            passwordHasher.encode(rawPassword).thenAccept(hash -> {
+                user.setPasswordHash(hash);
+                userService.updateUser(user);
+            });
+        } catch (ServiceBusyException e) {
+            // try again on the next login
+        }
     }
 
+    /** Served from the verified-token and user caches, so a warm call does not touch Mongo. */
     @GetMapping("/me")
     public ResponseEntity<?> getCurrentUser(@RequestHeader("Authorization") String authHeader) {
         try {
-            String token = authHeader.replace("Bearer ", "");
-            String email = jwtUtil.extractEmail(token);
-            Optional<User> userOpt = userService.getUserByEmail(email);
+            JwtPrincipal principal = jwtVerifier.verify(authHeader.replace("Bearer ", ""));
+            if (principal == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid token"));
+            }
+            Optional<User> userOpt = userService.getUserByEmail(principal.getEmail());
             if (userOpt.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "User not found"));
             }
@@ -173,23 +204,25 @@ public class AuthController {
     }
 
     @PostMapping("/reset-password")
-    public ResponseEntity<?> resetPassword(@RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<?>> resetPassword(@RequestBody Map<String, String> request) {
         String token = request.get("token");
         String newPassword = request.get("newPassword");
 
         Optional<User> userOpt = userService.getUserByResetToken(token);
         if (userOpt.isEmpty() || userOpt.get().getResetTokenExpiry().isBefore(java.time.LocalDateTime.now())) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("error", "Invalid or expired reset token"));
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Invalid or expired reset token")));
         }
 
         User user = userOpt.get();
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
-        user.setResetToken(null);
-        user.setResetTokenExpiry(null);
-        userService.updateUser(user);
+        return passwordHasher.encode(newPassword).thenApply(hash -> {
+            user.setPasswordHash(hash);
+            user.setResetToken(null);
+            user.setResetTokenExpiry(null);
+            userService.updateUser(user);
 
-        return ResponseEntity.ok(Map.of("message", "Password has been reset successfully."));
+            return ResponseEntity.ok(Map.of("message", "Password has been reset successfully."));
+        });
     }
 
     private Map<String, Object> createUserResponse(User user) {
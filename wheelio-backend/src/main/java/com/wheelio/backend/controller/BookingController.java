@@ -1,10 +1,16 @@
 package com.wheelio.backend.controller;
 
+import com.wheelio.backend.exception.BookingConflictException;
 import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.model.PriceQuote;
 import com.wheelio.backend.model.Vehicle;
+import com.wheelio.backend.service.AvailabilityCalendar;
 import com.wheelio.backend.service.BookingService;
+import com.wheelio.backend.service.DriverDispatchEngine;
+import com.wheelio.backend.service.PricingService;
 import com.wheelio.backend.service.UserService;
 import com.wheelio.backend.service.VehicleService;
+import com.wheelio.backend.util.DateUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,11 +19,15 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -37,9 +47,34 @@ public class BookingController {
     @Autowired
     private com.wheelio.backend.service.EmailService emailService;
 
+    @Autowired
+    private AvailabilityCalendar availabilityCalendar;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private DriverDispatchEngine dispatchEngine;
+
+    private static final int MAX_CALENDAR_DAYS = 366;
+
+    /**
+     * Newest bookings first ({@code sort=-createdAt}); {@code createdAt}, {@code id}
+     * and {@code -id} also work. {@code all=true} returns every booking.
+     */
     @GetMapping
-    public List<Booking> getAllBookings() {
-        return bookingService.getAllBookings();
+    public ResponseEntity<?> getAllBookings(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean all) {
+        if (all) {
+            return ResponseEntity.ok(bookingService.getAllBookings());
+        }
+        try {
+            return ResponseEntity.ok(bookingService.getBookingsPage(cursor, limit, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -86,10 +121,10 @@ public class BookingController {
             Vehicle vehicle = vehicleOpt.get();
             var user = userOpt.get();
 
-            LocalDateTime startTime = parseFlexibleDate(request.getStartDate());
-            LocalDateTime endTime = parseFlexibleDate(request.getEndDate());
+            LocalDateTime startTime = DateUtils.parseFlexibleDate(request.getStartDate());
+            LocalDateTime endTime = DateUtils.parseFlexibleDate(request.getEndDate());
 
-            // Validate vehicle availability
+            // Fast pre-check; the reservation in createBooking is what actually guards the slot
             if (!bookingService.isVehicleAvailable(request.getVehicleId(), startTime, endTime)) {
                 return ResponseEntity.status(HttpStatus.CONFLICT)
                         .body(Map.of("error", "Vehicle is already booked for the selected period."));
@@ -109,11 +144,25 @@ public class BookingController {
 
             if (request.getDriverId() != null && !request.getDriverId().isEmpty()) {
                 booking.setDriverId(request.getDriverId());
+            } else if (request.isWithDriver()) {
+                booking.setDriverRequested(true);
+            }
+
+            PriceQuote quote = pricingService.quote(vehicle, startTime, endTime,
+                    booking.getDriverId() != null || Boolean.TRUE.equals(booking.getDriverRequested()));
+            // the client charged the amount it showed; a different quote means the price moved under it
+            if (request.getTotalAmount() != null && request.getTotalAmount().compareTo(quote.getTotal()) != 0) {
+                logger.warn("Client total {} for vehicle {} differs from quote {}; rejecting",
+                        request.getTotalAmount(), vehicle.getId(), quote.getTotal());
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "The price for this period has changed. Please review the new total.",
+                                "quote", quote));
             }
 
             booking.setStartDate(startTime);
             booking.setEndDate(endTime);
-            booking.setTotalAmount(request.getTotalAmount());
+            booking.setTotalAmount(quote.getTotal());
+            booking.setDepositAmount(quote.getDeposit());
             booking.setPickupLocation(request.getPickupLocation());
             booking.setDropLocation(request.getDropLocation());
             booking.setContactPhone(request.getContactPhone());
@@ -124,9 +173,15 @@ public class BookingController {
             Booking saved = bookingService.createBooking(booking);
             logger.info("Booking created: {}", saved.getId());
 
-            // Update Vehicle Status to BOOKED
-            vehicle.setStatus(Vehicle.Status.BOOKED);
-            vehicleService.updateVehicle(vehicle);
+            // left unassigned if no driver is free now (or dispatch fails); the evening batch retries
+            // the next day's bookings, and the booking itself is already saved
+            try {
+                dispatchEngine.assign(saved);
+            } catch (Exception dispatchErr) {
+                logger.error("Driver dispatch failed for booking {}: {}", saved.getId(), dispatchErr.getMessage());
+            }
+
+            // the vehicle's status follows the booking's start and end (FleetStatusEngine)
 
             // Send Confirmation Email
             try {
@@ -138,6 +193,8 @@ public class BookingController {
             }
 
             return ResponseEntity.ok(saved);
+        } catch (BookingConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             logger.error("Booking creation failed: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -145,70 +202,69 @@ public class BookingController {
         }
     }
 
-    private LocalDateTime parseFlexibleDate(String dateStr) {
-        if (dateStr == null || dateStr.isEmpty())
-            return LocalDateTime.now();
-        dateStr = dateStr.replace("Z", "");
+    /**
+     * Applies {@code bookingStatus} and/or {@code paymentStatus} as one guarded
+     * field update. Optional {@code expectedStatus} and {@code version} make
+     * the change conditional; a mismatch or a transition the state machine
+     * does not allow is answered with 409 and the current status and version.
+     */
+    @PutMapping("/{id}/status")
+    public ResponseEntity<?> updateBookingStatus(@PathVariable String id, @RequestBody Map<String, String> request) {
+        Booking.BookingStatus target;
+        Booking.BookingStatus expected;
+        Booking.PaymentStatus payment;
+        Long version;
         try {
-            return LocalDateTime.parse(dateStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        } catch (DateTimeParseException e1) {
-            try {
-                return LocalDateTime.parse(dateStr, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
-            } catch (DateTimeParseException e2) {
-                try {
-                    return LocalDateTime.parse(dateStr + "T00:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-                } catch (DateTimeParseException e3) {
-                    return LocalDateTime.now();
-                }
-            }
+            target = request.get("bookingStatus") != null
+                    ? Booking.BookingStatus.valueOf(request.get("bookingStatus")) : null;
+            expected = request.get("expectedStatus") != null
+                    ? Booking.BookingStatus.valueOf(request.get("expectedStatus")) : null;
+            payment = request.get("paymentStatus") != null
+                    ? Booking.PaymentStatus.valueOf(request.get("paymentStatus")) : null;
+            version = request.get("version") != null ? Long.valueOf(request.get("version")) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid status or version: " + e.getMessage()));
         }
-    }
 
-    @PutMapping("/{id}/status")
-    public ResponseEntity<?> updateBookingStatus(@PathVariable String id, @RequestBody Map<String, String> request) {
-        return bookingService.getBookingById(id)
-                .map(booking -> {
-                    if (request.containsKey("bookingStatus")) {
-                        Booking.BookingStatus newStatus = Booking.BookingStatus.valueOf(request.get("bookingStatus"));
-                        booking.setStatus(newStatus);
-
-                        // If booking is COMPLETED or CANCELLED, make vehicle AVAILABLE again
-                        if (newStatus == Booking.BookingStatus.COMPLETED
-                                || newStatus == Booking.BookingStatus.CANCELLED) {
-                            vehicleService.getVehicleById(booking.getVehicleId()).ifPresent(v -> {
-                                v.setStatus(Vehicle.Status.AVAILABLE);
-                                vehicleService.updateVehicle(v);
-                            });
-                        }
-                    }
-                    if (request.containsKey("paymentStatus")) {
-                        booking.setPaymentStatus(Booking.PaymentStatus.valueOf(request.get("paymentStatus")));
-                    }
-                    return ResponseEntity.ok(bookingService.updateBooking(booking));
-                })
-                .orElse(ResponseEntity.notFound().build());
+        // both fields go in one guarded update, so a conflict leaves neither applied
+        Optional<Booking> result;
+        if (target != null) {
+            result = bookingService.changeStatus(id, target, payment, expected, version);
+        } else if (payment != null) {
+            result = bookingService.changePaymentStatus(id, payment, version);
+        } else {
+            result = bookingService.getBookingById(id);
+        }
+        return result.<ResponseEntity<?>>map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> cancelBooking(@PathVariable String id) {
-        return bookingService.getBookingById(id)
-                .map(booking -> {
-                    booking.setStatus(Booking.BookingStatus.CANCELLED);
-                    bookingService.updateBooking(booking);
-
-                    // Make vehicle AVAILABLE again
-                    vehicleService.getVehicleById(booking.getVehicleId()).ifPresent(v -> {
-                        v.setStatus(Vehicle.Status.AVAILABLE);
-                        vehicleService.updateVehicle(v);
-                    });
-
-                    return ResponseEntity.ok(Map.of("message", "Booking cancelled successfully"));
-                })
+        return bookingService.changeStatus(id, Booking.BookingStatus.CANCELLED, null, null)
+                .<ResponseEntity<?>>map(b -> ResponseEntity.ok(Map.of("message", "Booking cancelled successfully")))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/vehicle/{vehicleId}/booked-dates")
     public List<Map<String, Object>> getBookedDatesByVehicle(@PathVariable String vehicleId) {
+        // Bookings ending past the calendar window are only known to Mongo
+        if (availabilityCalendar.isReady() && !availabilityCalendar.hasBookingsAfterWindow(vehicleId)) {
+            // Day-level runs from the bitset calendar; the frontend only disables whole days
+            LocalDate today = LocalDate.now();
+            int days = (int) ChronoUnit.DAYS.between(today,
+                    availabilityCalendar.getBaseDay().plusDays(availabilityCalendar.getDays()));
+            long[] bits = availabilityCalendar.bookedDays(vehicleId, today, days);
+            return AvailabilityCalendar.toRuns(bits, today).stream()
+                    .map(run -> {
+                        Map<String, Object> map = new HashMap<>();
+                        map.put("startDate", run[0].atStartOfDay());
+                        map.put("endDate", run[1].atStartOfDay());
+                        map.put("status", "BOOKED");
+                        return map;
+                    })
+                    .toList();
+        }
+
         List<Booking.BookingStatus> activeStatuses = List.of(Booking.BookingStatus.PENDING,
                 Booking.BookingStatus.CONFIRMED);
         List<Booking> activeBookings = bookingService.getBookingsByVehicleId(vehicleId).stream()
@@ -217,7 +273,7 @@ public class BookingController {
 
         return activeBookings.stream()
                 .map(b -> {
-                    Map<String, Object> map = new java.util.HashMap<>();
+                    Map<String, Object> map = new HashMap<>();
                     map.put("startDate", b.getStartDate());
                     map.put("endDate", b.getEndDate());
                     map.put("status", b.getStatus());
@@ -226,11 +282,62 @@ public class BookingController {
                 .toList();
     }
 
+    /**
+     * Month-view calendar for several vehicles at once: booked days per vehicle,
+     * the days on which every vehicle / at least one vehicle is free, and the
+     * vehicles free for the whole range.
+     */
+    @GetMapping("/calendar")
+    public ResponseEntity<?> getCalendar(@RequestParam(required = false) List<String> vehicleIds,
+            @RequestParam(required = false) String from,
+            @RequestParam(defaultValue = "31") int days) {
+        if (!availabilityCalendar.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Availability calendar is warming up, retry shortly"));
+        }
+        if (days < 1 || days > MAX_CALENDAR_DAYS) {
+            return ResponseEntity.badRequest().body(Map.of("error", "days must be between 1 and " + MAX_CALENDAR_DAYS));
+        }
+        LocalDate fromDay = from != null ? DateUtils.parseFlexibleDate(from).toLocalDate() : LocalDate.now();
+        List<String> ids = vehicleIds != null && !vehicleIds.isEmpty()
+                ? vehicleIds
+                : vehicleService.getAllVehicles().stream().map(Vehicle::getId).toList();
+
+        Map<String, Object> perVehicle = new LinkedHashMap<>();
+        for (String id : ids) {
+            perVehicle.put(id, AvailabilityCalendar.toDates(availabilityCalendar.bookedDays(id, fromDay, days), fromDay));
+        }
+
+        long[] anyBooked = availabilityCalendar.anyBooked(ids, fromDay, days);
+        long[] allBooked = availabilityCalendar.allBooked(ids, fromDay, days);
+        List<LocalDate> allFree = new ArrayList<>();
+        List<LocalDate> anyFree = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            long mask = 1L << (i & 63);
+            if ((anyBooked[i >>> 6] & mask) == 0) {
+                allFree.add(fromDay.plusDays(i));
+            }
+            if ((allBooked[i >>> 6] & mask) == 0) {
+                anyFree.add(fromDay.plusDays(i));
+            }
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("from", fromDay);
+        response.put("days", days);
+        response.put("bookedDays", perVehicle);
+        response.put("allFreeDays", allFree);
+        response.put("anyFreeDays", anyFree);
+        response.put("freeForWholeRange", availabilityCalendar.freeForWholeRange(ids, fromDay, days));
+        return ResponseEntity.ok(response);
+    }
+
     // DTO
     static class BookingRequest {
         private String userId;
         private String vehicleId;
         private String driverId;
+        private boolean withDriver;
         private String startDate;
         private String endDate;
         private BigDecimal totalAmount;
@@ -262,6 +369,14 @@ public class BookingController {
             this.driverId = driverId;
         }
 
+        public boolean isWithDriver() {
+            return withDriver;
+        }
+
+        public void setWithDriver(boolean withDriver) {
+            this.withDriver = withDriver;
+        }
+
         public String getStartDate() {
             return startDate;
         }
@@ -1,6 +1,7 @@
 package com.wheelio.backend.controller;
 
 import com.wheelio.backend.model.DamageReport;
+import com.wheelio.backend.model.DamageReportSummary;
 import com.wheelio.backend.service.DamageReportService;
 import com.wheelio.backend.service.UserService;
 import com.wheelio.backend.service.VehicleService;
@@ -25,9 +26,25 @@ public class DamageReportController {
     @Autowired
     private UserService userService;
 
+    /**
+     * Newest reports first ({@code sort=-createdAt}); {@code createdAt}, {@code id}
+     * and {@code -id} also work. {@code all=true} returns every report. List
+     * endpoints return summaries (image URLs and thumbnails, no inline image
+     * data); GET /{id} returns the full report.
+     */
     @GetMapping
-    public List<DamageReport> getAllReports() {
-        return damageReportService.getAllDamageReports();
+    public ResponseEntity<?> getAllReports(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean all) {
+        if (all) {
+            return ResponseEntity.ok(damageReportService.getAllDamageReportSummaries());
+        }
+        try {
+            return ResponseEntity.ok(damageReportService.getDamageReportSummariesPage(cursor, limit, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -38,19 +55,19 @@ public class DamageReportController {
     }
 
     @GetMapping("/vehicle/{vehicleId}")
-    public List<DamageReport> getReportsByVehicle(@PathVariable String vehicleId) {
-        return damageReportService.getDamageReportsByVehicleId(vehicleId);
+    public List<DamageReportSummary> getReportsByVehicle(@PathVariable String vehicleId) {
+        return damageReportService.getDamageReportSummariesByVehicleId(vehicleId);
     }
 
     @GetMapping("/status/{status}")
-    public List<DamageReport> getReportsByStatus(@PathVariable String status) {
-        return damageReportService.getDamageReportsByStatus(
+    public List<DamageReportSummary> getReportsByStatus(@PathVariable String status) {
+        return damageReportService.getDamageReportSummariesByStatus(
                 DamageReport.DamageStatus.valueOf(status.toUpperCase()));
     }
 
     @GetMapping("/user/{userId}")
-    public List<DamageReport> getReportsByUser(@PathVariable String userId) {
-        return damageReportService.getDamageReportsByUserId(userId);
+    public List<DamageReportSummary> getReportsByUser(@PathVariable String userId) {
+        return damageReportService.getDamageReportSummariesByUserId(userId);
     }
 
     @PostMapping
@@ -89,24 +106,18 @@ public class DamageReportController {
         }
     }
 
+    /** Targeted updates: the report's images are never written back here. */
     @PutMapping("/{id}/status")
     public ResponseEntity<?> updateReportStatus(@PathVariable String id, @RequestBody Map<String, Object> request) {
         try {
-            return damageReportService.getDamageReportById(id)
-                    .map(report -> {
-                        if (request.containsKey("status") && request.get("status") != null) {
-                            report.setStatus(DamageReport.DamageStatus.valueOf(
-                                    ((String) request.get("status")).toUpperCase()));
-                        }
-                        if (request.containsKey("severity") && request.get("severity") != null) {
-                            report.setSeverity(DamageReport.Severity.valueOf(
-                                    ((String) request.get("severity")).toUpperCase()));
-                        }
-                        if (request.containsKey("estimatedCost") && request.get("estimatedCost") != null) {
-                            report.setEstimatedCost(new BigDecimal(request.get("estimatedCost").toString()));
-                        }
-                        return ResponseEntity.ok(damageReportService.updateDamageReport(report));
-                    })
+            DamageReport.DamageStatus status = request.get("status") != null
+                    ? DamageReport.DamageStatus.valueOf(((String) request.get("status")).toUpperCase()) : null;
+            DamageReport.Severity severity = request.get("severity") != null
+                    ? DamageReport.Severity.valueOf(((String) request.get("severity")).toUpperCase()) : null;
+            BigDecimal estimatedCost = request.get("estimatedCost") != null
+                    ? new BigDecimal(request.get("estimatedCost").toString()) : null;
+            return damageReportService.updateDamageReportFields(id, status, severity, estimatedCost, null)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -116,15 +127,10 @@ public class DamageReportController {
 
     @PutMapping("/{id}/pay")
     public ResponseEntity<?> markReportAsPaid(@PathVariable String id, @RequestBody Map<String, String> request) {
-        return damageReportService.getDamageReportById(id)
-                .map(report -> {
-                    report.setStatus(DamageReport.DamageStatus.PAID);
-                    if (request.containsKey("razorpayPaymentId")) {
-                        report.setRazorpayPaymentId(request.get("razorpayPaymentId"));
-                    }
-                    DamageReport updated = damageReportService.updateDamageReport(report);
-                    return ResponseEntity.ok(Map.of("message", "Payment recorded", "report", updated));
-                })
+        return damageReportService.updateDamageReportFields(id, DamageReport.DamageStatus.PAID, null, null,
+                        request.get("razorpayPaymentId"))
+                .<ResponseEntity<?>>map(updated -> ResponseEntity.ok(Map.of("message", "Payment recorded",
+                        "report", updated)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -1,23 +1,30 @@
 package com.wheelio.backend.controller;
 
+import com.wheelio.backend.exception.ServiceBusyException;
 import com.wheelio.backend.model.DriverProfile;
 import com.wheelio.backend.model.User;
+import com.wheelio.backend.security.PasswordHasher;
 import com.wheelio.backend.service.DriverService;
 import com.wheelio.backend.service.UserService;
+import com.wheelio.backend.util.DateUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/drivers")
 public class DriverController {
 
+    private static final int MAX_AVAILABLE = 100;
+
     @Autowired
     private DriverService driverService;
 
@@ -25,16 +32,49 @@ public class DriverController {
     private UserService userService;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
+    /**
+     * Driver profiles in id order, the only sort they support ({@code sort=-id}
+     * reverses it). {@code all=true} returns every profile.
+     */
     @GetMapping
-    public List<DriverProfile> getAllDrivers() {
-        return driverService.getAllDrivers();
+    public ResponseEntity<?> getAllDrivers(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean all) {
+        if (all) {
+            return ResponseEntity.ok(driverService.getAllDrivers());
+        }
+        try {
+            return ResponseEntity.ok(driverService.getDriversPage(cursor, limit, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
+    /**
+     * Every ACTIVE driver; with {@code start}/{@code end}, only those with no
+     * overlapping assignment, ranked for dispatch (city match, rating, idle time).
+     */
     @GetMapping("/available")
-    public List<DriverProfile> getAvailableDrivers() {
-        return driverService.getAvailableDrivers();
+    public ResponseEntity<?> getAvailableDrivers(@RequestParam(required = false) String start,
+            @RequestParam(required = false) String end,
+            @RequestParam(required = false) String city,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (start == null && end == null) {
+            return ResponseEntity.ok(driverService.getAvailableDrivers());
+        }
+        if (start == null || end == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "start and end must be given together"));
+        }
+        LocalDateTime startTime = DateUtils.parseFlexibleDate(start);
+        LocalDateTime endTime = DateUtils.parseFlexibleDate(end);
+        if (!endTime.isAfter(startTime)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "end must be after start"));
+        }
+        return ResponseEntity.ok(driverService.getAvailableDrivers(city, startTime, endTime,
+                Math.min(Math.max(limit, 1), MAX_AVAILABLE)));
     }
 
     @GetMapping("/{userId}")
@@ -45,7 +85,7 @@ public class DriverController {
     }
 
     @PostMapping
-    public ResponseEntity<?> createDriver(@RequestBody DriverCreateRequest request) {
+    public CompletableFuture<ResponseEntity<?>> createDriver(@RequestBody DriverCreateRequest request) {
         try {
             // Create user account for the driver
             if (userService.existsByEmail(request.getEmail())) {
@@ -61,27 +101,37 @@ public class DriverController {
                         u.setRole(User.Role.DRIVER);
                         userService.updateUser(u);
                     }
-                    return createDriverProfile(request, u.getId());
+                    return CompletableFuture.completedFuture(createDriverProfile(request, u.getId()));
                 }
             }
 
-            User user = new User();
-            user.setEmail(request.getEmail());
-            user.setPasswordHash(passwordEncoder.encode(
-                    request.getPassword() != null ? request.getPassword() : "Driver@123"));
-            user.setFullName(request.getFullName());
-            user.setRole(User.Role.DRIVER);
-            user.setPhone(request.getPhone());
-            user.setCity(request.getCity());
-            User savedUser = userService.createUser(user);
-
-            return createDriverProfile(request, savedUser.getId());
+            return passwordHasher.encode(request.getPassword() != null ? request.getPassword() : "Driver@123")
+                    .<ResponseEntity<?>>thenApply(hash -> {
+                        User user = new User();
+                        user.setEmail(request.getEmail());
+                        user.setPasswordHash(hash);
+                        user.setFullName(request.getFullName());
+                        user.setRole(User.Role.DRIVER);
+                        user.setPhone(request.getPhone());
+                        user.setCity(request.getCity());
+                        User savedUser = userService.createUser(user);
+
+                        return createDriverProfile(request, savedUser.getId());
+                    })
+                    .exceptionally(DriverController::createFailed);
+        } catch (ServiceBusyException e) {
+            throw e;
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to create driver: " + e.getMessage()));
+            return CompletableFuture.completedFuture(createFailed(e));
         }
     }
 
+    private static ResponseEntity<?> createFailed(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", "Failed to create driver: " + cause.getMessage()));
+    }
+
     private ResponseEntity<?> createDriverProfile(DriverCreateRequest request, String userId) {
         DriverProfile profile = new DriverProfile();
         profile.setUserId(userId);
@@ -89,6 +139,9 @@ public class DriverController {
         profile.setEmail(request.getEmail());
         profile.setPhone(request.getPhone());
         profile.setCity(request.getCity());
+        if (request.getLat() != null && request.getLng() != null) {
+            profile.setCoordinates(new GeoJsonPoint(request.getLng(), request.getLat()));
+        }
         profile.setLicenseNumber(request.getLicenseNumber());
         profile.setStatus("ACTIVE");
         return ResponseEntity.ok(driverService.createDriver(profile));
@@ -106,6 +159,9 @@ public class DriverController {
                         Map<String, String> docs = (Map<String, String>) updates.get("documents");
                         profile.setDocuments(docs);
                     }
+                    if (updates.get("lat") instanceof Number lat && updates.get("lng") instanceof Number lng) {
+                        profile.setCoordinates(new GeoJsonPoint(lng.doubleValue(), lat.doubleValue()));
+                    }
                     if (updates.containsKey("licenseNumber")) {
                         profile.setLicenseNumber(updates.get("licenseNumber").toString());
                     }
@@ -139,6 +195,8 @@ public class DriverController {
         private String phone;
         private String city;
         private String licenseNumber;
+        private Double lat;
+        private Double lng;
 
         public String getEmail() {
             return email;
@@ -187,5 +245,21 @@ public class DriverController {
         public void setLicenseNumber(String licenseNumber) {
             this.licenseNumber = licenseNumber;
         }
+
+        public Double getLat() {
+            return lat;
+        }
+
+        public void setLat(Double lat) {
+            this.lat = lat;
+        }
+
+        public Double getLng() {
+            return lng;
+        }
+
+        public void setLng(Double lng) {
+            this.lng = lng;
+        }
     }
 }
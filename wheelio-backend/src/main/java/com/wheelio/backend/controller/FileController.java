@@ -1,25 +1,36 @@
 package com.wheelio.backend.controller;
 
-import com.wheelio.backend.model.FileEntity;
+import com.wheelio.backend.model.StoredFile;
 import com.wheelio.backend.service.FileStorageService;
+import com.wheelio.backend.service.ImageRenditionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/files")
 public class FileController {
 
+    private static final int COPY_BUFFER = 64 * 1024;
+
     @Autowired
     private FileStorageService fileStorageService;
 
     @PostMapping("/upload")
     public ResponseEntity<?> uploadFile(@RequestParam("file") MultipartFile file) {
         try {
-            FileEntity saved = fileStorageService.storeFile(file);
+            StoredFile saved = fileStorageService.storeFile(file);
             return ResponseEntity.ok(java.util.Map.of(
                     "fileId", saved.getId(),
                     "fileName", saved.getName(),
@@ -29,14 +40,82 @@ public class FileController {
         }
     }
 
+    /**
+     * Streams the file from the chunked store. Supports a single byte range
+     * (206) and conditional requests via ETag; multi-range requests get the
+     * whole file. {@code size=thumb|card|full} serves the downscaled rendition
+     * of an image, or the original (marked no-cache) until one has been generated.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<byte[]> downloadFile(@PathVariable String id) {
-        FileEntity file = fileStorageService.getFile(id);
+    public ResponseEntity<StreamingResponseBody> downloadFile(@PathVariable String id,
+            @RequestParam(required = false) String size,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String rendition;
+        try {
+            ImageRenditionService.Size parsed = ImageRenditionService.Size.parse(size);
+            rendition = parsed != null ? parsed.key() : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        StoredFile file = fileStorageService.getFile(id, rendition);
         if (file == null)
             return ResponseEntity.notFound().build();
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + file.getName() + "\"")
+
+        String etag = "\"" + file.getEtag() + "\"";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        // a missing rendition falls back to the original; don't let caches keep it in place of the rendition
+        boolean fallback = rendition != null && file.getRendition() == null;
+        headers.setCacheControl(fallback ? CacheControl.noCache() : CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(etag))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        long length = file.getLength();
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+        if (range != null) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    if (start >= length || start > end) {
+                        throw new IllegalArgumentException("Range outside the file");
+                    }
+                    status = HttpStatus.PARTIAL_CONTENT;
+                    headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+        }
+
+        long offset = start;
+        long count = Math.max(0, end - start + 1);
+        headers.setContentLength(count);
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + file.getName() + "\"");
+        StreamingResponseBody body = out -> {
+            try (InputStream in = fileStorageService.openStream(file, offset)) {
+                byte[] buffer = new byte[COPY_BUFFER];
+                long remaining = count;
+                while (remaining > 0) {
+                    int n = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (n < 0) {
+                        break;
+                    }
+                    out.write(buffer, 0, n);
+                    remaining -= n;
+                }
+            }
+        };
+        return ResponseEntity.status(status)
+                .headers(headers)
                 .contentType(MediaType.parseMediaType(file.getContentType()))
-                .body(file.getData());
+                .body(body);
     }
 }
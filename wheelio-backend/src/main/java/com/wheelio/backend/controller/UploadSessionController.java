@@ -0,0 +1,151 @@
+package com.wheelio.backend.controller;
+
+import com.wheelio.backend.exception.UploadIntegrityException;
+import com.wheelio.backend.model.StoredFile;
+import com.wheelio.backend.model.UploadSession;
+import com.wheelio.backend.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resumable uploads for large evidence files:
+ * POST /api/files/uploads creates a session, PUT /{id}?offset=N appends the
+ * raw request body, GET /{id} reports how far the upload got, and
+ * POST /{id}/complete verifies it and returns the file like /api/files/upload.
+ */
+@RestController
+@RequestMapping("/api/files/uploads")
+public class UploadSessionController {
+
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
+    @PostMapping
+    public ResponseEntity<?> createSession(@RequestBody CreateUploadRequest request) {
+        try {
+            UploadSession session = uploadSessionService.create(request.getName(), request.getContentType(),
+                    request.getLength(), request.getSha256());
+            return ResponseEntity.created(URI.create("/api/files/uploads/" + session.getId()))
+                    .body(Map.of(
+                            "uploadId", session.getId(),
+                            "offset", session.getOffset(),
+                            "length", session.getLength(),
+                            "maxChunkBytes", uploadSessionService.maxChunkBytes(),
+                            "expiresAt", session.getExpiresAt()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getSession(@PathVariable String id) {
+        return uploadSessionService.get(id)
+                .<ResponseEntity<?>>map(session -> ResponseEntity.ok()
+                        .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                        .body(Map.of(
+                                "uploadId", session.getId(),
+                                "offset", session.getOffset(),
+                                "length", session.getLength(),
+                                "expiresAt", session.getExpiresAt())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<?> appendChunk(@PathVariable String id, @RequestParam long offset,
+            HttpServletRequest request) throws IOException {
+        if (request.getContentLengthLong() > uploadSessionService.maxChunkBytes()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("error", "Chunk larger than " + uploadSessionService.maxChunkBytes() + " bytes"));
+        }
+        try (InputStream body = request.getInputStream()) {
+            long newOffset = uploadSessionService.append(id, offset, body);
+            return ResponseEntity.ok()
+                    .header(UPLOAD_OFFSET, String.valueOf(newOffset))
+                    .body(Map.of("offset", newOffset));
+        } catch (IllegalStateException e) {
+            return conflict(id, e);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<?> complete(@PathVariable String id) throws IOException {
+        try {
+            StoredFile saved = uploadSessionService.complete(id);
+            return ResponseEntity.ok(Map.of(
+                    "fileId", saved.getId(),
+                    "fileName", saved.getName(),
+                    "sha256", saved.getEtag(),
+                    "url", "/api/files/" + saved.getId()));
+        } catch (IllegalStateException e) {
+            return conflict(id, e);
+        } catch (UploadIntegrityException e) {
+            return ResponseEntity.unprocessableEntity().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> abort(@PathVariable String id) {
+        return uploadSessionService.abort(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<?> conflict(String id, IllegalStateException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", e.getMessage());
+        uploadSessionService.get(id).ifPresent(session -> body.put("offset", session.getOffset()));
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    static class CreateUploadRequest {
+        private String name;
+        private String contentType;
+        private long length;
+        private String sha256;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public long getLength() {
+            return length;
+        }
+
+        public void setLength(long length) {
+            this.length = length;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public void setSha256(String sha256) {
+            this.sha256 = sha256;
+        }
+    }
+}
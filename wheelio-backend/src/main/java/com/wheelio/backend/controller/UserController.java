@@ -16,9 +16,23 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    /**
+     * Most recently registered users first ({@code sort=-createdAt}); {@code createdAt},
+     * {@code id} and {@code -id} also work. {@code all=true} returns every user.
+     */
     @GetMapping
-    public List<User> getAllUsers() {
-        return userService.getAllUsers();
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean all) {
+        if (all) {
+            return ResponseEntity.ok(userService.getAllUsers());
+        }
+        try {
+            return ResponseEntity.ok(userService.getUsersPage(cursor, limit, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
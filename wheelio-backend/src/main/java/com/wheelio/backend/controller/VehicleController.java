@@ -1,11 +1,18 @@
 package com.wheelio.backend.controller;
 
 import com.wheelio.backend.model.Vehicle;
+import com.wheelio.backend.service.PricingService;
+import com.wheelio.backend.service.VehicleSearchIndex;
 import com.wheelio.backend.service.VehicleService;
+import com.wheelio.backend.util.DateUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -13,12 +20,33 @@ import java.util.Map;
 @RequestMapping("/api/vehicles")
 public class VehicleController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final double MAX_RADIUS_KM = 200;
+
     @Autowired
     private VehicleService vehicleService;
 
+    @Autowired
+    private PricingService pricingService;
+
+    /**
+     * Newest vehicles first ({@code sort=-createdAt}); {@code createdAt}, {@code id}
+     * and {@code -id} also work. {@code all=true} returns the whole catalogue.
+     */
     @GetMapping
-    public List<Vehicle> getAllVehicles() {
-        return vehicleService.getAllVehicles();
+    public ResponseEntity<?> getAllVehicles(@RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean all) {
+        if (all) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(vehicleService.getAllVehiclesJson());
+        }
+        try {
+            return ResponseEntity.ok(vehicleService.getVehiclesPage(cursor, limit, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
@@ -29,8 +57,155 @@ public class VehicleController {
     }
 
     @GetMapping("/available")
-    public List<Vehicle> getAvailableVehicles() {
-        return vehicleService.getAvailableVehicles();
+    public ResponseEntity<byte[]> getAvailableVehicles() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(vehicleService.getAvailableVehiclesJson());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> searchVehicles(@RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Integer seats,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        LocalDateTime startTime = DateUtils.parseFlexibleDate(start);
+        LocalDateTime endTime = DateUtils.parseFlexibleDate(end);
+        if (!endTime.isAfter(startTime)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "end must be after start"));
+        }
+        Vehicle.VehicleType vehicleType = null;
+        if (type != null && !type.isBlank()) {
+            try {
+                vehicleType = Vehicle.VehicleType.valueOf(type.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid vehicle type: " + type));
+            }
+        }
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        return ResponseEntity.ok(vehicleService.searchAvailableVehicles(
+                startTime, endTime, location, vehicleType, seats, pageable));
+    }
+
+    /**
+     * Faceted catalogue search served from the in-memory index. Repeated
+     * params are ORed within a facet (all {@code features} are required);
+     * {@code start}/{@code end} restrict to vehicles free for that period.
+     */
+    @GetMapping("/catalogue")
+    public ResponseEntity<?> searchCatalogue(@RequestParam(required = false) List<String> type,
+            @RequestParam(required = false) List<String> fuelType,
+            @RequestParam(required = false) List<String> transmission,
+            @RequestParam(required = false) List<String> location,
+            @RequestParam(required = false) List<String> priceBand,
+            @RequestParam(required = false) List<String> features,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) Integer minSeats,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        VehicleSearchIndex.Filters filters = new VehicleSearchIndex.Filters();
+        filters.getValues().put(VehicleSearchIndex.Facet.TYPE, type);
+        filters.getValues().put(VehicleSearchIndex.Facet.FUEL_TYPE, fuelType);
+        filters.getValues().put(VehicleSearchIndex.Facet.TRANSMISSION, transmission);
+        filters.getValues().put(VehicleSearchIndex.Facet.LOCATION, location);
+        filters.getValues().put(VehicleSearchIndex.Facet.PRICE_BAND, priceBand);
+        filters.getValues().put(VehicleSearchIndex.Facet.FEATURES, features);
+        filters.getValues().put(VehicleSearchIndex.Facet.STATUS, status);
+        filters.setMinSeats(minSeats);
+        filters.setMinPrice(minPrice);
+        filters.setMaxPrice(maxPrice);
+        filters.setSort(sort);
+        filters.setPage(Math.max(page, 0));
+        filters.setSize(Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+
+        LocalDateTime startTime = null;
+        LocalDateTime endTime = null;
+        if (start != null || end != null) {
+            if (start == null || end == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "start and end must be given together"));
+            }
+            startTime = DateUtils.parseFlexibleDate(start);
+            endTime = DateUtils.parseFlexibleDate(end);
+            if (!endTime.isAfter(startTime)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "end must be after start"));
+            }
+        }
+        try {
+            return ResponseEntity.ok(vehicleService.searchCatalogue(filters, startTime, endTime));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Vehicles with coordinates within {@code radiusKm} of the point, nearest
+     * first; with {@code start}/{@code end} only those free for that period.
+     */
+    @GetMapping("/nearby")
+    public ResponseEntity<?> nearby(@RequestParam double lat, @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(required = false) String start,
+            @RequestParam(required = false) String end,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            return ResponseEntity.badRequest().body(Map.of("error", "lat must be within +-90 and lng within +-180"));
+        }
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "radiusKm must be greater than 0 and at most " + (int) MAX_RADIUS_KM));
+        }
+        LocalDateTime startTime = null;
+        LocalDateTime endTime = null;
+        if (start != null || end != null) {
+            if (start == null || end == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "start and end must be given together"));
+            }
+            startTime = DateUtils.parseFlexibleDate(start);
+            endTime = DateUtils.parseFlexibleDate(end);
+            if (!endTime.isAfter(startTime)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "end must be after start"));
+            }
+        }
+        return ResponseEntity.ok(vehicleService.findNearby(lat, lng, radiusKm, startTime, endTime,
+                Math.min(Math.max(limit, 1), MAX_PAGE_SIZE)));
+    }
+
+    @GetMapping("/{id}/quote")
+    public ResponseEntity<?> quote(@PathVariable String id, @RequestParam String start, @RequestParam String end,
+            @RequestParam(defaultValue = "false") boolean driver) {
+        try {
+            return pricingService.quote(id, DateUtils.parseFlexibleDate(start), DateUtils.parseFlexibleDate(end), driver)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /** Prices a whole search-result page for one period in a single call. */
+    @PostMapping("/quotes")
+    public ResponseEntity<?> quoteBatch(@RequestBody QuoteBatchRequest request) {
+        if (request.getVehicleIds() == null || request.getVehicleIds().isEmpty()
+                || request.getVehicleIds().size() > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "vehicleIds must hold between 1 and " + MAX_PAGE_SIZE + " ids"));
+        }
+        if (request.getStart() == null || request.getEnd() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "start and end are required"));
+        }
+        try {
+            return ResponseEntity.ok(pricingService.quoteAll(request.getVehicleIds(),
+                    DateUtils.parseFlexibleDate(request.getStart()), DateUtils.parseFlexibleDate(request.getEnd()),
+                    request.isDriver()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @PostMapping
@@ -57,6 +232,7 @@ public class VehicleController {
                         vehicle.setType(vehicleDetails.getType());
                         vehicle.setPricePerDay(vehicleDetails.getPricePerDay());
                         vehicle.setLocation(vehicleDetails.getLocation());
+                        vehicle.setCoordinates(vehicleDetails.getCoordinates());
                         vehicle.setStatus(vehicleDetails.getStatus());
                         vehicle.setImageUrl(vehicleDetails.getImageUrl());
                         vehicle.setFeatures(vehicleDetails.getFeatures());
@@ -96,4 +272,43 @@ public class VehicleController {
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    static class QuoteBatchRequest {
+        private String start;
+        private String end;
+        private boolean driver;
+        private List<String> vehicleIds;
+
+        public String getStart() {
+            return start;
+        }
+
+        public void setStart(String start) {
+            this.start = start;
+        }
+
+        public String getEnd() {
+            return end;
+        }
+
+        public void setEnd(String end) {
+            this.end = end;
+        }
+
+        public boolean isDriver() {
+            return driver;
+        }
+
+        public void setDriver(boolean driver) {
+            this.driver = driver;
+        }
+
+        public List<String> getVehicleIds() {
+            return vehicleIds;
+        }
+
+        public void setVehicleIds(List<String> vehicleIds) {
+            this.vehicleIds = vehicleIds;
+        }
+    }
 }
@@ -0,0 +1,9 @@
+package com.wheelio.backend.exception;
+
+/** Thrown when a booking cannot be placed because its slot is already taken. */
+public class BookingConflictException extends RuntimeException {
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
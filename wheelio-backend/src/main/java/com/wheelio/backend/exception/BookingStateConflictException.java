@@ -0,0 +1,28 @@
+package com.wheelio.backend.exception;
+
+import com.wheelio.backend.model.Booking;
+
+/**
+ * Thrown when a booking status change does not apply: the transition is not
+ * allowed from the current status, or the booking changed since the caller
+ * read it. Carries the current state so the client can re-decide.
+ */
+public class BookingStateConflictException extends RuntimeException {
+
+    private final Booking.BookingStatus currentStatus;
+    private final Long currentVersion;
+
+    public BookingStateConflictException(String message, Booking.BookingStatus currentStatus, Long currentVersion) {
+        super(message);
+        this.currentStatus = currentStatus;
+        this.currentVersion = currentVersion;
+    }
+
+    public Booking.BookingStatus getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public Long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -1,5 +1,7 @@
 package com.wheelio.backend.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -8,6 +10,8 @@ import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -17,6 +21,33 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("File too large!");
     }
 
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<Map<String, String>> handleBookingConflict(BookingConflictException exc) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", exc.getMessage()));
+    }
+
+    @ExceptionHandler(BookingStateConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleBookingStateConflict(BookingStateConflictException exc) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", exc.getMessage());
+        body.put("status", exc.getCurrentStatus());
+        body.put("version", exc.getCurrentVersion());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleOptimisticLock(OptimisticLockingFailureException exc) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "The record was modified concurrently; reload and retry"));
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, String>> handleServiceBusy(ServiceBusyException exc) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exc.getRetryAfterSeconds()))
+                .body(Map.of("error", exc.getMessage()));
+    }
+
     @ExceptionHandler(FileNotFoundException.class)
     public ResponseEntity<String> handleFileNotFound(FileNotFoundException exc) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(exc.getMessage());
@@ -0,0 +1,9 @@
+package com.wheelio.backend.exception;
+
+/** Thrown when a finished resumable upload fails verification; the partial file has been discarded. */
+public class UploadIntegrityException extends RuntimeException {
+
+    public UploadIntegrityException(String message) {
+        super(message);
+    }
+}
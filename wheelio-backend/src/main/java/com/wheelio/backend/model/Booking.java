@@ -4,12 +4,19 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
+@CompoundIndex(name = "status_endDate", def = "{'status': 1, 'endDate': 1}")
+@CompoundIndex(name = "driverRequested_startDate", def = "{'driverRequested': 1, 'startDate': 1}")
 @Document(collection = "bookings")
 @Data
 @NoArgsConstructor
@@ -25,8 +32,12 @@ public class Booking {
     @Indexed
     private String vehicleId;
 
+    /** Driver's userId, set by the client or by DriverDispatchEngine. */
     private String driverId;
 
+    /** The customer asked for a driver; DriverDispatchEngine assigns one while driverId is unset. */
+    private Boolean driverRequested;
+
     // Denormalized snapshot for display (vehicle name, image, etc.)
     private VehicleSummary vehicleSummary;
 
@@ -37,8 +48,12 @@ public class Booking {
 
     private LocalDateTime endDate;
 
+    /** Server-side quote total (see PricingService); the client's figure is not trusted. */
     private BigDecimal totalAmount;
 
+    /** Refundable damage deposit collected on top of totalAmount. */
+    private BigDecimal depositAmount;
+
     private BookingStatus status = BookingStatus.PENDING;
 
     private PaymentStatus paymentStatus = PaymentStatus.PENDING;
@@ -49,8 +64,34 @@ public class Booking {
 
     private LocalDateTime createdAt;
 
+    private LocalDateTime statusChangedAt;
+
+    /** Bumped by every write; status changes are guarded on it (see BookingService.changeStatus). */
+    @Version
+    private Long version;
+
     public enum BookingStatus {
-        PENDING, CONFIRMED, COMPLETED, CANCELLED
+        PENDING, CONFIRMED, COMPLETED, CANCELLED;
+
+        /** PENDING -> CONFIRMED -> COMPLETED, and cancellation from either open state. */
+        public boolean canTransitionTo(BookingStatus next) {
+            return switch (this) {
+                case PENDING -> next == CONFIRMED || next == CANCELLED;
+                case CONFIRMED -> next == COMPLETED || next == CANCELLED;
+                case COMPLETED, CANCELLED -> false;
+            };
+        }
+
+        /** The states from which {@code target} can be reached. */
+        public static List<BookingStatus> sourcesOf(BookingStatus target) {
+            List<BookingStatus> sources = new ArrayList<>();
+            for (BookingStatus s : values()) {
+                if (s.canTransitionTo(target)) {
+                    sources.add(s);
+                }
+            }
+            return sources;
+        }
     }
 
     public enum PaymentStatus {
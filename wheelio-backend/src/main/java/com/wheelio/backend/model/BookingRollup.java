@@ -0,0 +1,58 @@
+package com.wheelio.backend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Pre-aggregated booking totals for one bucket: a day (by booking start), a
+ * vehicle or a city. Cancelled bookings only count towards {@code cancelled};
+ * everything else towards bookings, revenue and booked time.
+ */
+@CompoundIndex(name = "dimension_key", def = "{'dimension': 1, 'key': 1}")
+@Document(collection = "booking_rollups")
+@Data
+@NoArgsConstructor
+public class BookingRollup {
+
+    /** {@code <dimension>:<key>}, e.g. {@code DAY:2024-05-01}. */
+    @Id
+    private String id;
+
+    private Dimension dimension;
+
+    private String key;
+
+    /** Display name for the bucket (vehicle name); null for days and cities. */
+    private String label;
+
+    private long bookings;
+
+    private long cancelled;
+
+    private long completed;
+
+    /** Revenue in paise, so $inc stays exact. */
+    private long revenueMinor;
+
+    private long bookedMinutes;
+
+    private LocalDateTime updatedAt;
+
+    public BigDecimal getRevenue() {
+        return BigDecimal.valueOf(revenueMinor, 2);
+    }
+
+    public double getBookedHours() {
+        return bookedMinutes / 60.0;
+    }
+
+    public enum Dimension {
+        DAY, VEHICLE, CITY
+    }
+}
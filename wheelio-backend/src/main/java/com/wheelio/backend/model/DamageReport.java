@@ -6,12 +6,14 @@ import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
 @Document(collection = "damage_reports")
 @Data
 @NoArgsConstructor
@@ -0,0 +1,47 @@
+package com.wheelio.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * List view of a DamageReport: image references only (never inline image
+ * data), plus thumbnail URLs for grids.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DamageReportSummary {
+
+    private String id;
+
+    private String vehicleId;
+
+    private String vehicleName;
+
+    private String reportedById;
+
+    private String reportedByName;
+
+    private String description;
+
+    private DamageReport.Severity severity;
+
+    private DamageReport.DamageStatus status;
+
+    private BigDecimal estimatedCost;
+
+    private String razorpayPaymentId;
+
+    private LocalDateTime createdAt;
+
+    private int imageCount;
+
+    private List<String> images;
+
+    private List<String> thumbnails;
+}
@@ -0,0 +1,29 @@
+package com.wheelio.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/** Outcome of one batch dispatch over a day's bookings. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchRun {
+
+    private LocalDate date;
+
+    /** Bookings that asked for a driver and had none. */
+    private int considered;
+
+    private int assigned;
+
+    /** Bookings no free driver could take. */
+    private int unassigned;
+
+    /** Claims lost to a concurrent dispatch (ledger or booking changed), then retried one by one. */
+    private int conflicts;
+
+    private long durationMs;
+}
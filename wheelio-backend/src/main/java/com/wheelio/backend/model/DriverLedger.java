@@ -0,0 +1,29 @@
+package com.wheelio.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One document per driver listing the bookings they are assigned to, claimed
+ * the same way as ReservationLedger slots so no two nodes can give a driver
+ * overlapping work. Completed bookings stay until they are older than
+ * {@code wheelio.dispatch.history-days}, for idle-time scoring.
+ */
+@Document(collection = "driver_ledgers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverLedger {
+
+    // driver's userId, as stored in Booking.driverId
+    @Id
+    private String id;
+
+    private List<ReservationLedger.Slot> slots = new ArrayList<>();
+}
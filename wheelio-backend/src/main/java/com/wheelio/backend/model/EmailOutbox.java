@@ -0,0 +1,56 @@
+package com.wheelio.backend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/** Durable queue entry for an outgoing email, drained by EmailOutboxDispatcher. */
+@Document(collection = "email_outbox")
+@Data
+@NoArgsConstructor
+public class EmailOutbox {
+
+    @Id
+    private String id;
+
+    private String to;
+    private String subject;
+    private String body;
+    private boolean html;
+
+    @Indexed
+    private Status status = Status.PENDING;
+
+    private int attempts;
+
+    @Indexed
+    private LocalDateTime nextAttemptAt;
+
+    // lease held by the node currently sending this message
+    private LocalDateTime lockedUntil;
+
+    private String lastError;
+
+    private LocalDateTime createdAt;
+
+    // delivered messages are kept for a week for troubleshooting
+    @Indexed(expireAfter = "7d")
+    private LocalDateTime sentAt;
+
+    public EmailOutbox(String to, String subject, String body, boolean html) {
+        this.to = to;
+        this.subject = subject;
+        this.body = body;
+        this.html = html;
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    public enum Status {
+        PENDING, SENDING, SENT, DEAD
+    }
+}
@@ -0,0 +1,43 @@
+package com.wheelio.backend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One stored copy of some content, keyed by its SHA-256. Every FileRef pointing
+ * at it holds one reference; blobs that drop to zero are removed by the GC job.
+ */
+@Document(collection = "file_blobs")
+@Data
+@NoArgsConstructor
+public class FileBlob {
+
+    // hex SHA-256 of the content
+    @Id
+    private String id;
+
+    // GridFS file holding the bytes
+    private String gridFsId;
+
+    private long length;
+
+    private String contentType;
+
+    // rendition name (thumb, card, full) -> GridFS id; set once processed
+    private Map<String, String> renditions;
+
+    private LocalDateTime renditionsAt;
+
+    @Indexed
+    private int refCount;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime unreferencedSince;
+}
@@ -0,0 +1,27 @@
+package com.wheelio.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/** A file as the API sees it: its own id and name, sharing a FileBlob with identical uploads. */
+@Document(collection = "file_refs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileRef {
+
+    @Id
+    private String id;
+
+    private String name;
+    private String contentType;
+    private String digest;
+    private String gridFsId;
+    private long length;
+    private Date uploadDate;
+}
@@ -0,0 +1,15 @@
+package com.wheelio.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyVehicle {
+
+    private Vehicle vehicle;
+
+    private double distanceKm;
+}
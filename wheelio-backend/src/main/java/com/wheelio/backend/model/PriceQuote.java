@@ -0,0 +1,50 @@
+package com.wheelio.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Server-side price for one vehicle and period. Amounts are held in paise;
+ * the rupee getters are for display. {@code total} is what the rental costs,
+ * the refundable deposit is collected on top of it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuote {
+
+    private String vehicleId;
+
+    private int days;
+
+    private int weekendDays;
+
+    private long rentalMinor;
+
+    private long weekendSurchargeMinor;
+
+    private long durationDiscountMinor;
+
+    private long driverMinor;
+
+    private long taxMinor;
+
+    private long totalMinor;
+
+    private long depositMinor;
+
+    public BigDecimal getTotal() {
+        return BigDecimal.valueOf(totalMinor, 2);
+    }
+
+    public BigDecimal getDeposit() {
+        return BigDecimal.valueOf(depositMinor, 2);
+    }
+
+    public BigDecimal getPayableNow() {
+        return BigDecimal.valueOf(totalMinor + depositMinor, 2);
+    }
+}
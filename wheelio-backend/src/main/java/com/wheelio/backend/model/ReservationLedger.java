@@ -0,0 +1,38 @@
+package com.wheelio.backend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One document per vehicle listing its reserved time slots. Reservations are
+ * claimed with a single conditional upsert that only matches when no existing
+ * slot overlaps, so concurrent requests on any node cannot double-book.
+ */
+@Document(collection = "reservation_ledgers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationLedger {
+
+    // vehicleId
+    @Id
+    private String id;
+
+    private List<Slot> slots = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Slot {
+        private String bookingId;
+        private LocalDateTime startDate;
+        private LocalDateTime endDate;
+    }
+}
@@ -0,0 +1,25 @@
+package com.wheelio.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/** Metadata of a file in the chunked store (the bytes are streamed separately). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+
+    private String id;
+    private String name;
+    private String contentType;
+    private long length;
+    private String etag;
+    private Date uploadDate;
+    /** The rendition served ("thumb", "card", "full"), or null for the original. */
+    private String rendition;
+    /** The GridFS file holding these bytes, or null for a legacy document. */
+    private String gridFsId;
+}
@@ -0,0 +1,50 @@
+package com.wheelio.backend.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A resumable upload in progress. Received bytes are already in GridFS as
+ * whole chunks of {@code gridFsId}; {@code carry} holds the tail that does
+ * not fill a chunk yet.
+ */
+@Document(collection = "upload_sessions")
+@Data
+@NoArgsConstructor
+public class UploadSession {
+
+    @Id
+    private String id;
+
+    private String gridFsId;
+
+    private String name;
+
+    private String contentType;
+
+    /** Declared total size in bytes. */
+    private long length;
+
+    /** Optional SHA-256 (hex) the finished file must match. */
+    private String sha256;
+
+    /** Bytes received so far; the next chunk must start here. */
+    private long offset;
+
+    private int nextChunk;
+
+    private byte[] carry;
+
+    /** Set while a request is writing to the session. */
+    private LocalDateTime lockedUntil;
+
+    private LocalDateTime createdAt;
+
+    @Indexed
+    private LocalDateTime expiresAt;
+}
@@ -8,10 +8,12 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
 @Document(collection = "users")
 @Data
 @NoArgsConstructor
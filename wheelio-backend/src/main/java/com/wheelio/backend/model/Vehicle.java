@@ -5,12 +5,17 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
+@CompoundIndex(name = "createdAt_id", def = "{'createdAt': -1, '_id': -1}")
 @Document(collection = "vehicles")
 @Data
 @NoArgsConstructor
@@ -28,6 +33,11 @@ public class Vehicle {
 
     private BigDecimal pricePerDay;
     private String location;
+
+    /** Optional pickup point; vehicles without one are left out of nearby searches. */
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoJsonPoint coordinates;
+
     private Status status = Status.AVAILABLE;
     private String imageUrl;
     private List<String> features;
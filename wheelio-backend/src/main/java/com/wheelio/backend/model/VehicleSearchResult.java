@@ -0,0 +1,30 @@
+package com.wheelio.backend.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of catalogue search hits plus facet counts. Each facet's counts
+ * apply every filter except that facet's own (features excepted, which are
+ * all required), so the UI can show what selecting another value would give.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VehicleSearchResult {
+
+    private int total;
+
+    private int page;
+
+    private int size;
+
+    private List<Vehicle> items;
+
+    /** facet name -> value -> matching vehicles */
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -14,6 +14,8 @@ public interface BookingRepository extends MongoRepository<Booking, String> {
 
     List<Booking> findByStatus(Booking.BookingStatus status);
 
+    List<Booking> findByStatusIn(List<Booking.BookingStatus> statuses);
+
     List<Booking> findByDriverId(String driverId);
 
     List<Booking> findByUserIdOrderByCreatedAtDesc(String userId);
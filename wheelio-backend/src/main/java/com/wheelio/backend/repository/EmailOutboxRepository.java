@@ -0,0 +1,14 @@
+package com.wheelio.backend.repository;
+
+import com.wheelio.backend.model.EmailOutbox;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends MongoRepository<EmailOutbox, String> {
+    long countByStatus(EmailOutbox.Status status);
+
+    List<EmailOutbox> findByStatus(EmailOutbox.Status status);
+}
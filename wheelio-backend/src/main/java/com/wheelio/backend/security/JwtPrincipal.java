@@ -0,0 +1,47 @@
+package com.wheelio.backend.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/** Verified identity carried by a JWT; built once per distinct token. */
+public final class JwtPrincipal {
+
+    private final String email;
+    private final String userId;
+    private final String role;
+    private final long expiresAtMillis;
+    private final List<SimpleGrantedAuthority> authorities;
+
+    public JwtPrincipal(String email, String userId, String role, long expiresAtMillis) {
+        this.email = email;
+        this.userId = userId;
+        this.role = role;
+        this.expiresAtMillis = expiresAtMillis;
+        this.authorities = role != null ? List.of(new SimpleGrantedAuthority("ROLE_" + role)) : List.of();
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public List<SimpleGrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,102 @@
+package com.wheelio.backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verifies a bearer token once and remembers the result until the token
+ * expires. Entries are keyed by a SHA-256 digest of the token so raw tokens are
+ * never held in memory; the cache is capped at {@code wheelio.jwt.cache-size}
+ * entries, dropping expired ones first.
+ */
+@Component
+public class JwtVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtVerifier.class);
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${wheelio.jwt.cache-size:10000}")
+    private int maxEntries = 10000;
+
+    private final ConcurrentHashMap<String, JwtPrincipal> cache = new ConcurrentHashMap<>();
+
+    /** Returns the verified principal, or null if the token is invalid or expired. */
+    public JwtPrincipal verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        String key = digest(token);
+        JwtPrincipal cached = cache.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            cache.remove(key, cached);
+            return null;
+        }
+
+        JwtPrincipal principal;
+        try {
+            Claims claims = jwtUtil.extractClaims(token);
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return null;
+            }
+            principal = new JwtPrincipal(claims.getSubject(), claims.get("userId", String.class),
+                    claims.get("role", String.class), claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+        if (principal.isExpired(now)) {
+            return null;
+        }
+        if (cache.size() >= maxEntries) {
+            evict(now);
+        }
+        cache.put(key, principal);
+        return principal;
+    }
+
+    public int cacheSize() {
+        return cache.size();
+    }
+
+    private void evict(long now) {
+        cache.values().removeIf(p -> p.isExpired(now));
+        // still full of live tokens: drop an arbitrary tenth rather than refuse to cache
+        Iterator<String> it = cache.keySet().iterator();
+        int excess = cache.size() - maxEntries + Math.max(1, maxEntries / 10);
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+        return Base64.getEncoder().withoutPadding().encodeToString(hash);
+    }
+}
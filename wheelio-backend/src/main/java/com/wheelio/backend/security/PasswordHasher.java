@@ -0,0 +1,97 @@
+package com.wheelio.backend.security;
+
+import com.wheelio.backend.exception.ServiceBusyException;
+import com.wheelio.backend.util.WorkerThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt on its own small pool so a burst of logins cannot occupy every
+ * Tomcat worker. The queue is bounded; once it is full callers get a
+ * ServiceBusyException (503) immediately instead of waiting behind it.
+ *
+ * The returned futures complete on the application task executor, not on a
+ * hasher thread, so callers' continuations (saving the user, signing a token)
+ * never hold a BCrypt worker while they wait on Mongo.
+ */
+@Component
+public class PasswordHasher {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor completionExecutor;
+
+    @Value("${wheelio.password.workers:0}")
+    private int workers;
+
+    @Value("${wheelio.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        int threads = workers > 0 ? workers : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        // BCrypt is CPU-bound, so this pool stays on platform threads even in virtual-thread mode
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), WorkerThreads.factory("password-hasher-", false),
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("wheelio.password.queue.depth", executor, e -> e.getQueue().size())
+                .description("Password hash/verify jobs waiting for a worker")
+                .register(meterRegistry);
+        rejected = Counter.builder("wheelio.password.rejected")
+                .description("Password jobs refused because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> encodedPassword != null && passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /** True when the stored hash was made with a lower cost than the one configured now. */
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> job) {
+        try {
+            return CompletableFuture.supplyAsync(job, executor).thenApplyAsync(result -> result, completionExecutor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Authentication is busy, please retry shortly.", 1);
+        }
+    }
+}
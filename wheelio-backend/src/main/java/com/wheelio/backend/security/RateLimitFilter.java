@@ -0,0 +1,181 @@
+package com.wheelio.backend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Throttles the endpoints that cost BCrypt, SMTP or several queries per call:
+ * login, forgot-password and booking creation. Each route has its own
+ * {@link TokenBuckets}, keyed by client IP or, for {@code key=user}, by the
+ * user id in a valid bearer token (falling back to the IP).
+ *
+ * Registered as a plain servlet filter ordered ahead of the Spring Security
+ * chain and JwtRequestFilter, since these routes are excluded from the chain
+ * in SecurityConfig. Rejected requests get 429 with Retry-After.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String TOO_MANY = "{\"error\":\"Too many requests, please retry later\"}";
+
+    @Autowired
+    private JwtVerifier jwtVerifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wheelio.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    /** Only behind a proxy that overwrites X-Forwarded-For; otherwise clients could pick their own key. */
+    @Value("${wheelio.ratelimit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    @Value("${wheelio.ratelimit.max-clients:100000}")
+    private int maxClients;
+
+    @Value("${wheelio.ratelimit.login.capacity:10}")
+    private int loginCapacity;
+
+    @Value("${wheelio.ratelimit.login.per-minute:10}")
+    private double loginPerMinute;
+
+    @Value("${wheelio.ratelimit.login.key:ip}")
+    private String loginKey;
+
+    @Value("${wheelio.ratelimit.forgot-password.capacity:3}")
+    private int forgotCapacity;
+
+    @Value("${wheelio.ratelimit.forgot-password.per-minute:2}")
+    private double forgotPerMinute;
+
+    @Value("${wheelio.ratelimit.forgot-password.key:ip}")
+    private String forgotKey;
+
+    @Value("${wheelio.ratelimit.bookings.capacity:10}")
+    private int bookingsCapacity;
+
+    @Value("${wheelio.ratelimit.bookings.per-minute:20}")
+    private double bookingsPerMinute;
+
+    @Value("${wheelio.ratelimit.bookings.key:user}")
+    private String bookingsKey;
+
+    private List<Route> routes;
+
+    private record Route(String name, String path, boolean byUser, TokenBuckets buckets, Counter allowed,
+            Counter rejected) {
+    }
+
+    @PostConstruct
+    void init() {
+        routes = List.of(
+                route("login", "/api/auth/login", loginKey, loginCapacity, loginPerMinute),
+                route("forgot-password", "/api/auth/forgot-password", forgotKey, forgotCapacity, forgotPerMinute),
+                route("bookings", "/api/bookings", bookingsKey, bookingsCapacity, bookingsPerMinute));
+    }
+
+    private Route route(String name, String path, String key, int capacity, double perMinute) {
+        if (!key.equals("ip") && !key.equals("user")) {
+            throw new IllegalArgumentException("wheelio.ratelimit." + name + ".key must be ip or user");
+        }
+        TokenBuckets buckets = new TokenBuckets(capacity, perMinute / 60, maxClients, System.nanoTime());
+        Gauge.builder("wheelio.ratelimit.clients", buckets, TokenBuckets::size).tag("route", name)
+                .register(meterRegistry);
+        return new Route(name, path, key.equals("user"), buckets,
+                Counter.builder("wheelio.ratelimit.requests").tag("route", name).tag("result", "allowed")
+                        .register(meterRegistry),
+                Counter.builder("wheelio.ratelimit.requests").tag("route", name).tag("result", "rejected")
+                        .register(meterRegistry));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Route route = enabled ? match(request) : null;
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String key = route.byUser ? userId(request) : null;
+        long waitNanos = route.buckets.tryAcquire(key != null ? key : clientIp(request), System.nanoTime());
+        if (waitNanos == 0) {
+            route.allowed.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+        route.rejected.increment();
+        long retryAfter = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(TOO_MANY);
+    }
+
+    /**
+     * All three routes are POSTs to an exact path. The path is compared the way
+     * Spring MVC resolves it (percent-decoded, ;params and duplicate slashes
+     * removed), so an encoded spelling of a route cannot slip past the limit.
+     */
+    private Route match(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return null;
+        }
+        String path = UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+        for (Route r : routes) {
+            if (r.path.equals(path)) {
+                return r;
+            }
+        }
+        return null;
+    }
+
+    private String userId(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        JwtPrincipal principal = jwtVerifier.verify(header.substring(7));
+        return principal != null ? principal.getUserId() : null;
+    }
+
+    private String clientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwarded = request.getHeader("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                int comma = forwarded.indexOf(',');
+                return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    @Scheduled(fixedDelayString = "${wheelio.ratelimit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Route r : routes) {
+            r.buckets.evictIdle(now);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.wheelio.backend.security;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets for one route. Each bucket is a single long, the
+ * time at which it will be full again (the generic cell rate algorithm, which
+ * admits exactly what a bucket of {@code capacity} tokens refilled at a fixed
+ * rate would); taking a token is one compare-and-set, so the hot path neither
+ * locks nor allocates once a client's bucket exists.
+ *
+ * A bucket that has refilled completely holds no state worth keeping and is
+ * dropped by {@link #evictIdle}, which the owner runs periodically. When the
+ * map holds {@code maxBuckets} clients, new clients share one overflow bucket
+ * until the next sweep makes room. Times are {@link System#nanoTime()} values.
+ */
+public final class TokenBuckets {
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxBuckets;
+    private final Bucket overflow;
+
+    public TokenBuckets(int capacity, double refillPerSecond, int maxBuckets, long nowNanos) {
+        if (capacity < 1 || refillPerSecond <= 0 || maxBuckets < 1) {
+            throw new IllegalArgumentException("capacity, refill rate and bucket count must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+        this.maxBuckets = maxBuckets;
+        this.overflow = new Bucket(nowNanos);
+    }
+
+    /** Takes a token for {@code key}; returns 0 if admitted, otherwise the nanoseconds until one is free. */
+    public long tryAcquire(String key, long nowNanos) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = admit(key, nowNanos);
+        }
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full - nowNanos, 0) + intervalNanos;
+            if (next > burstNanos) {
+                return next - burstNanos;
+            }
+            if (bucket.compareAndSet(full, nowNanos + next)) {
+                return 0;
+            }
+        }
+    }
+
+    /** Drops buckets that have refilled completely; returns how many were removed. */
+    public int evictIdle(long nowNanos) {
+        int before = buckets.size();
+        buckets.values().removeIf(b -> b.get() - nowNanos <= 0);
+        return Math.max(0, before - buckets.size());
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private Bucket admit(String key, long nowNanos) {
+        // no sweep here: under a flood of new clients every miss would scan the whole map
+        if (buckets.size() >= maxBuckets) {
+            return overflow;
+        }
+        Bucket fresh = new Bucket(nowNanos);
+        Bucket raced = buckets.putIfAbsent(key, fresh);
+        return raced != null ? raced : fresh;
+    }
+
+    /** Holds the time at which the bucket is full again. */
+    private static final class Bucket extends AtomicLong {
+        Bucket(long fullAt) {
+            super(fullAt);
+        }
+    }
+}
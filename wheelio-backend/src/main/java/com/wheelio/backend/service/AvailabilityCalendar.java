@@ -0,0 +1,449 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Booking;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Day-granularity booking calendar: one bit per vehicle per day, packed into
+ * long words and covering a rolling window around today. Multi-vehicle
+ * questions ("which of these are free all weekend", "which days is any of them
+ * free") become word-wise OR/AND instead of LocalDateTime comparisons.
+ *
+ * A booking occupies every calendar day it touches; an end exactly at midnight
+ * does not occupy the following day. Bookings reaching past the window are
+ * remembered per vehicle ({@link #hasBookingsAfterWindow}) so callers can fall
+ * back to Mongo for them.
+ *
+ * The window and the per-vehicle map are published together as one state.
+ * Writers share the read side of a lock; a reload swaps in a new state under
+ * the write side, and only if no write happened since its snapshot was read
+ * (see {@link #generation()}); one vehicle can be reloaded the same way
+ * against writes to that vehicle only (see {@link #generation(String)}).
+ */
+@Component
+public class AvailabilityCalendar {
+
+    @Value("${wheelio.calendar.lookback-days:31}")
+    private int lookbackDays = 31;
+
+    @Value("${wheelio.calendar.horizon-days:400}")
+    private int horizonDays = 400;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final int VEHICLE_STRIPES = 64;
+
+    /** Bumped on every apply/remove so a reload that raced with one is refused. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** The same per vehicle, striped by id; vehicles sharing a stripe only cost each other a retry. */
+    private final AtomicLongArray vehicleGenerations = new AtomicLongArray(VEHICLE_STRIPES);
+
+    private volatile State state = new State(new Window(LocalDate.now().minusDays(31), 431));
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public LocalDate getBaseDay() {
+        return state.window.base;
+    }
+
+    public int getDays() {
+        return state.window.days;
+    }
+
+    /** True once the window (anchored on the day it was loaded) has slid a week past today. */
+    public boolean needsRebase() {
+        return ChronoUnit.DAYS.between(state.window.base, LocalDate.now()) > lookbackDays + 7L;
+    }
+
+    /** Read before querying the bookings passed to {@link #load(Collection, long)}. */
+    public long generation() {
+        return generation.get();
+    }
+
+    /** Read before querying the bookings passed to {@link #reloadVehicle}. */
+    public long generation(String vehicleId) {
+        return vehicleGenerations.get(stripe(vehicleId));
+    }
+
+    /** Rebuilds the calendar with a window re-centred on today. */
+    public void load(Collection<Booking> bookings) {
+        load(bookings, generation());
+    }
+
+    /**
+     * Rebuilds the calendar with a window re-centred on today, unless a booking
+     * was applied or removed after {@code expectedGeneration} was read.
+     */
+    public boolean load(Collection<Booking> bookings, long expectedGeneration) {
+        State fresh = new State(new Window(LocalDate.now().minusDays(lookbackDays), lookbackDays + horizonDays));
+        Map<String, Map<String, int[]>> ranges = new HashMap<>();
+        Map<String, Set<String>> beyond = new HashMap<>();
+        for (Booking b : bookings) {
+            if (!AvailabilityIndex.isActive(b) || b.getId() == null) {
+                continue;
+            }
+            int[] range = fresh.window.range(b);
+            if (range != null) {
+                ranges.computeIfAbsent(b.getVehicleId(), k -> new HashMap<>()).put(b.getId(), range);
+            }
+            if (fresh.window.endsAfter(b)) {
+                beyond.computeIfAbsent(b.getVehicleId(), k -> new HashSet<>()).add(b.getId());
+            }
+        }
+        Set<String> vehicles = new HashSet<>(ranges.keySet());
+        vehicles.addAll(beyond.keySet());
+        for (String vehicleId : vehicles) {
+            fresh.byVehicle.put(vehicleId, new VehicleDays(ranges.getOrDefault(vehicleId, new HashMap<>()),
+                    beyond.getOrDefault(vehicleId, new HashSet<>()), fresh.window.words()));
+        }
+        lock.writeLock().lock();
+        try {
+            if (generation.get() != expectedGeneration) {
+                return false;
+            }
+            state = fresh;
+            ready = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds one vehicle's days from its active bookings among
+     * {@code bookings}, in the current window, unless that vehicle was written
+     * after {@code expectedGeneration} was read or the window moved meanwhile.
+     * Does nothing until the calendar has been loaded.
+     */
+    public boolean reloadVehicle(String vehicleId, Collection<Booking> bookings, long expectedGeneration) {
+        State s = state;
+        Map<String, int[]> ranges = new HashMap<>();
+        Set<String> beyond = new HashSet<>();
+        for (Booking b : bookings) {
+            if (!AvailabilityIndex.isActive(b) || b.getId() == null || !vehicleId.equals(b.getVehicleId())) {
+                continue;
+            }
+            int[] range = s.window.range(b);
+            if (range != null) {
+                ranges.put(b.getId(), range);
+            }
+            if (s.window.endsAfter(b)) {
+                beyond.add(b.getId());
+            }
+        }
+        VehicleDays fresh = ranges.isEmpty() && beyond.isEmpty() ? null
+                : new VehicleDays(ranges, beyond, s.window.words());
+        lock.writeLock().lock();
+        try {
+            if (!ready || state != s || vehicleGenerations.get(stripe(vehicleId)) != expectedGeneration) {
+                return false;
+            }
+            if (fresh == null) {
+                s.byVehicle.remove(vehicleId);
+            } else {
+                s.byVehicle.put(vehicleId, fresh);
+            }
+            // a full reload whose snapshot was read before this one must not overwrite it
+            generation.incrementAndGet();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Applies the current state of a booking, adding or clearing its days. */
+    public void apply(Booking booking) {
+        if (booking == null || booking.getId() == null || booking.getVehicleId() == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            State s = state;
+            boolean active = AvailabilityIndex.isActive(booking);
+            int[] range = active ? s.window.range(booking) : null;
+            boolean beyond = active && s.window.endsAfter(booking);
+            if (range == null && !beyond) {
+                s.remove(booking.getId(), booking.getVehicleId());
+            } else {
+                s.byVehicle.compute(booking.getVehicleId(), (k, cur) -> {
+                    Map<String, int[]> ranges = cur == null ? new HashMap<>() : new HashMap<>(cur.ranges);
+                    Set<String> after = cur == null ? new HashSet<>() : new HashSet<>(cur.beyond);
+                    if (range != null) {
+                        ranges.put(booking.getId(), range);
+                    } else {
+                        ranges.remove(booking.getId());
+                    }
+                    if (beyond) {
+                        after.add(booking.getId());
+                    } else {
+                        after.remove(booking.getId());
+                    }
+                    return new VehicleDays(ranges, after, s.window.words());
+                });
+            }
+            generation.incrementAndGet();
+            vehicleGenerations.incrementAndGet(stripe(booking.getVehicleId()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(String bookingId, String vehicleId) {
+        if (bookingId == null || vehicleId == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            state.remove(bookingId, vehicleId);
+            generation.incrementAndGet();
+            vehicleGenerations.incrementAndGet(stripe(vehicleId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** True if an active booking of the vehicle ends after the last day of the window. */
+    public boolean hasBookingsAfterWindow(String vehicleId) {
+        VehicleDays vd = state.byVehicle.get(vehicleId);
+        return vd != null && !vd.beyond.isEmpty();
+    }
+
+    /**
+     * Booked-day bits for one vehicle starting at {@code from}, bit i = from + i
+     * days. Days outside the window read as free.
+     */
+    public long[] bookedDays(String vehicleId, LocalDate from, int days) {
+        State s = state;
+        Window w = s.window;
+        long[] out = new long[(days + 63) >>> 6];
+        VehicleDays vd = s.byVehicle.get(vehicleId);
+        if (vd == null || days <= 0) {
+            return out;
+        }
+        long offset = ChronoUnit.DAYS.between(w.base, from);
+        for (int k = 0; k < out.length; k++) {
+            out[k] = wordAt(vd.words, offset + ((long) k << 6));
+        }
+        clearTail(out, days);
+        return out;
+    }
+
+    /** Days on which at least one of the vehicles is booked (word-wise OR). */
+    public long[] anyBooked(Collection<String> vehicleIds, LocalDate from, int days) {
+        long[] acc = new long[(days + 63) >>> 6];
+        for (String id : vehicleIds) {
+            long[] bits = bookedDays(id, from, days);
+            for (int k = 0; k < acc.length; k++) {
+                acc[k] |= bits[k];
+            }
+        }
+        return acc;
+    }
+
+    /** Days on which every one of the vehicles is booked (word-wise AND). */
+    public long[] allBooked(Collection<String> vehicleIds, LocalDate from, int days) {
+        long[] acc = new long[(days + 63) >>> 6];
+        Arrays.fill(acc, -1L);
+        clearTail(acc, days);
+        for (String id : vehicleIds) {
+            long[] bits = bookedDays(id, from, days);
+            for (int k = 0; k < acc.length; k++) {
+                acc[k] &= bits[k];
+            }
+        }
+        return vehicleIds.isEmpty() ? new long[acc.length] : acc;
+    }
+
+    /** Vehicles with no booked day anywhere in [from, from + days). */
+    public List<String> freeForWholeRange(Collection<String> vehicleIds, LocalDate from, int days) {
+        List<String> free = new ArrayList<>();
+        for (String id : vehicleIds) {
+            long any = 0;
+            for (long word : bookedDays(id, from, days)) {
+                any |= word;
+            }
+            if (any == 0) {
+                free.add(id);
+            }
+        }
+        return free;
+    }
+
+    /** Converts a day bitmap back to a list of dates starting at {@code from}. */
+    public static List<LocalDate> toDates(long[] bits, LocalDate from) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (int k = 0; k < bits.length; k++) {
+            long word = bits[k];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                dates.add(from.plusDays(((long) k << 6) + bit));
+                word &= word - 1;
+            }
+        }
+        return dates;
+    }
+
+    /** Groups a day bitmap into inclusive [first, last] runs of consecutive days. */
+    public static List<LocalDate[]> toRuns(long[] bits, LocalDate from) {
+        List<LocalDate[]> runs = new ArrayList<>();
+        LocalDate runStart = null;
+        LocalDate prev = null;
+        for (LocalDate d : toDates(bits, from)) {
+            if (prev == null || !d.equals(prev.plusDays(1))) {
+                if (runStart != null) {
+                    runs.add(new LocalDate[] { runStart, prev });
+                }
+                runStart = d;
+            }
+            prev = d;
+        }
+        if (runStart != null) {
+            runs.add(new LocalDate[] { runStart, prev });
+        }
+        return runs;
+    }
+
+    /** 64 bits of the window starting at an arbitrary (possibly negative) bit offset. */
+    private static int stripe(String vehicleId) {
+        return Math.floorMod(vehicleId.hashCode(), VEHICLE_STRIPES);
+    }
+
+    private static long wordAt(long[] words, long bitOffset) {
+        if (bitOffset <= -64 || bitOffset >= ((long) words.length << 6)) {
+            return 0L;
+        }
+        if (bitOffset < 0) {
+            return words[0] << (int) -bitOffset;
+        }
+        int idx = (int) (bitOffset >>> 6);
+        int shift = (int) (bitOffset & 63);
+        long low = words[idx] >>> shift;
+        if (shift != 0 && idx + 1 < words.length) {
+            low |= words[idx + 1] << (64 - shift);
+        }
+        return low;
+    }
+
+    private static void clearTail(long[] bits, int days) {
+        int rem = days & 63;
+        if (rem != 0 && bits.length > 0) {
+            bits[bits.length - 1] &= (1L << rem) - 1;
+        }
+    }
+
+    private static final class Window {
+        final LocalDate base;
+        final int days;
+
+        Window(LocalDate base, int days) {
+            this.base = base;
+            this.days = days;
+        }
+
+        int words() {
+            return (days + 63) >>> 6;
+        }
+
+        /** Day indexes [first, last] covered by the booking, clipped to the window. */
+        int[] range(Booking b) {
+            if (b.getVehicleId() == null || b.getStartDate() == null || b.getEndDate() == null
+                    || !b.getEndDate().isAfter(b.getStartDate())) {
+                return null;
+            }
+            LocalDateTime lastInstant = b.getEndDate().minusNanos(1);
+            long first = ChronoUnit.DAYS.between(base, b.getStartDate().toLocalDate());
+            long last = ChronoUnit.DAYS.between(base, lastInstant.toLocalDate());
+            if (last < 0 || first >= days) {
+                return null;
+            }
+            return new int[] { (int) Math.max(first, 0), (int) Math.min(last, days - 1) };
+        }
+
+        boolean endsAfter(Booking b) {
+            return b.getVehicleId() != null && b.getStartDate() != null && b.getEndDate() != null
+                    && b.getEndDate().isAfter(b.getStartDate())
+                    && ChronoUnit.DAYS.between(base, b.getEndDate().minusNanos(1).toLocalDate()) >= days;
+        }
+    }
+
+    /** A window and the per-vehicle bits computed against it, always swapped together. */
+    private static final class State {
+        final Window window;
+        final ConcurrentHashMap<String, VehicleDays> byVehicle = new ConcurrentHashMap<>();
+
+        State(Window window) {
+            this.window = window;
+        }
+
+        void remove(String bookingId, String vehicleId) {
+            byVehicle.computeIfPresent(vehicleId, (k, cur) -> {
+                if (!cur.ranges.containsKey(bookingId) && !cur.beyond.contains(bookingId)) {
+                    return cur;
+                }
+                Map<String, int[]> ranges = new HashMap<>(cur.ranges);
+                ranges.remove(bookingId);
+                Set<String> beyond = new HashSet<>(cur.beyond);
+                beyond.remove(bookingId);
+                return ranges.isEmpty() && beyond.isEmpty() ? null
+                        : new VehicleDays(ranges, beyond, window.words());
+            });
+        }
+    }
+
+    /**
+     * Immutable per-vehicle state: the contributing bookings, their OR-ed bits
+     * and the bookings that end after the window.
+     */
+    private static final class VehicleDays {
+        final Map<String, int[]> ranges;
+        final Set<String> beyond;
+        final long[] words;
+
+        VehicleDays(Map<String, int[]> ranges, Set<String> beyond, int wordCount) {
+            this.ranges = ranges;
+            this.beyond = beyond;
+            this.words = new long[wordCount];
+            for (int[] r : ranges.values()) {
+                setRange(words, r[0], r[1]);
+            }
+        }
+
+        private static void setRange(long[] words, int from, int to) {
+            int fw = from >>> 6;
+            int tw = to >>> 6;
+            long firstMask = -1L << (from & 63);
+            long lastMask = -1L >>> (63 - (to & 63));
+            if (fw == tw) {
+                words[fw] |= firstMask & lastMask;
+                return;
+            }
+            words[fw] |= firstMask;
+            for (int i = fw + 1; i < tw; i++) {
+                words[i] = -1L;
+            }
+            words[tw] |= lastMask;
+        }
+    }
+}
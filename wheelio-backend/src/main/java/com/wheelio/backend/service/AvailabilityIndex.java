@@ -0,0 +1,347 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Booking;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of active (PENDING / CONFIRMED) booking intervals per vehicle.
+ * Each vehicle holds an immutable snapshot of intervals sorted by start time with
+ * a running maximum of end times, so an overlap check is a binary search with no
+ * locking on the read path. Writers replace the snapshot through
+ * {@link ConcurrentHashMap#compute}, which serialises updates per vehicle only.
+ *
+ * Writers share the read side of a lock; a reload builds a new map from a
+ * Mongo snapshot and swaps it in under the write side, but only if no write
+ * happened since the snapshot was read (see {@link #generation()}). A single
+ * vehicle can be reloaded the same way, refused only by writes to that vehicle
+ * (see {@link #generation(String)}).
+ */
+@Component
+public class AvailabilityIndex {
+
+    public static final List<Booking.BookingStatus> ACTIVE_STATUSES = List.of(
+            Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED);
+
+    private volatile ConcurrentHashMap<String, Intervals> byVehicle = new ConcurrentHashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final int VEHICLE_STRIPES = 64;
+
+    /** Bumped on every apply/remove so a reload that raced with one is refused. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** The same per vehicle, striped by id; vehicles sharing a stripe only cost each other a retry. */
+    private final AtomicLongArray vehicleGenerations = new AtomicLongArray(VEHICLE_STRIPES);
+
+    private volatile boolean ready;
+
+    public static boolean isActive(Booking booking) {
+        return booking.getStatus() != null && ACTIVE_STATUSES.contains(booking.getStatus());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Read before querying the bookings passed to {@link #load(Collection, long)}. */
+    public long generation() {
+        return generation.get();
+    }
+
+    /** Read before querying the bookings passed to {@link #reloadVehicle}. */
+    public long generation(String vehicleId) {
+        return vehicleGenerations.get(stripe(vehicleId));
+    }
+
+    /** Replaces the whole index with the given bookings and marks it ready. */
+    public void load(Collection<Booking> bookings) {
+        load(bookings, generation());
+    }
+
+    /**
+     * Replaces the whole index with the given bookings, unless a booking was
+     * applied or removed after {@code expectedGeneration} was read; that write
+     * may be missing from the snapshot, so the caller should re-read and retry.
+     */
+    public boolean load(Collection<Booking> bookings, long expectedGeneration) {
+        Map<String, List<Booking>> grouped = new HashMap<>();
+        for (Booking b : bookings) {
+            if (isIndexable(b)) {
+                grouped.computeIfAbsent(b.getVehicleId(), k -> new ArrayList<>()).add(b);
+            }
+        }
+        ConcurrentHashMap<String, Intervals> fresh = new ConcurrentHashMap<>();
+        grouped.forEach((vehicleId, list) -> fresh.put(vehicleId, Intervals.of(list)));
+        lock.writeLock().lock();
+        try {
+            if (generation.get() != expectedGeneration) {
+                return false;
+            }
+            byVehicle = fresh;
+            ready = true;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces one vehicle's intervals with its active bookings among
+     * {@code bookings}, unless that vehicle was written after
+     * {@code expectedGeneration} was read. Writes to other vehicles do not
+     * refuse it. Does nothing until the index has been loaded.
+     */
+    public boolean reloadVehicle(String vehicleId, Collection<Booking> bookings, long expectedGeneration) {
+        List<Booking> own = new ArrayList<>();
+        for (Booking b : bookings) {
+            if (isIndexable(b) && vehicleId.equals(b.getVehicleId())) {
+                own.add(b);
+            }
+        }
+        Intervals fresh = Intervals.of(own);
+        lock.writeLock().lock();
+        try {
+            if (!ready || vehicleGenerations.get(stripe(vehicleId)) != expectedGeneration) {
+                return false;
+            }
+            if (fresh.size() == 0) {
+                byVehicle.remove(vehicleId);
+            } else {
+                byVehicle.put(vehicleId, fresh);
+            }
+            // a full reload whose snapshot was read before this one must not overwrite it
+            generation.incrementAndGet();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the current state of a booking: active bookings are inserted or
+     * moved, anything else is removed.
+     */
+    public void apply(Booking booking) {
+        if (booking == null || booking.getId() == null || booking.getVehicleId() == null) {
+            return;
+        }
+        if (!isIndexable(booking)) {
+            remove(booking.getId(), booking.getVehicleId());
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            byVehicle.compute(booking.getVehicleId(),
+                    (k, cur) -> (cur == null ? Intervals.EMPTY : cur).with(booking));
+            generation.incrementAndGet();
+            vehicleGenerations.incrementAndGet(stripe(booking.getVehicleId()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void remove(String bookingId, String vehicleId) {
+        if (bookingId == null || vehicleId == null) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            byVehicle.computeIfPresent(vehicleId, (k, cur) -> {
+                Intervals next = cur.without(bookingId);
+                return next.size() == 0 ? null : next;
+            });
+            generation.incrementAndGet();
+            vehicleGenerations.incrementAndGet(stripe(vehicleId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Same semantics as BookingRepository.findOverlappingBookings: start < end && endDate > start. */
+    public boolean isAvailable(String vehicleId, LocalDateTime start, LocalDateTime end) {
+        Intervals intervals = byVehicle.get(vehicleId);
+        return intervals == null || !intervals.overlaps(toSeconds(start), toSeconds(end));
+    }
+
+    /** Booking ids currently indexed for the vehicle, ordered by start time. */
+    public List<String> bookingIds(String vehicleId) {
+        Intervals intervals = byVehicle.get(vehicleId);
+        return intervals == null ? List.of() : List.of(intervals.ids);
+    }
+
+    public int vehicleCount() {
+        return byVehicle.size();
+    }
+
+    /**
+     * Compares the index against the authoritative set of active bookings and
+     * returns the ids of vehicles whose intervals differ.
+     */
+    public List<String> diff(Collection<Booking> activeBookings) {
+        Map<String, Intervals> expected = new HashMap<>();
+        Map<String, List<Booking>> grouped = new HashMap<>();
+        for (Booking b : activeBookings) {
+            if (isIndexable(b)) {
+                grouped.computeIfAbsent(b.getVehicleId(), k -> new ArrayList<>()).add(b);
+            }
+        }
+        grouped.forEach((vehicleId, list) -> expected.put(vehicleId, Intervals.of(list)));
+
+        Map<String, Intervals> current = byVehicle;
+        List<String> drifted = new ArrayList<>();
+        for (Map.Entry<String, Intervals> e : expected.entrySet()) {
+            if (!e.getValue().sameAs(current.get(e.getKey()))) {
+                drifted.add(e.getKey());
+            }
+        }
+        for (String vehicleId : current.keySet()) {
+            if (!expected.containsKey(vehicleId)) {
+                drifted.add(vehicleId);
+            }
+        }
+        return drifted;
+    }
+
+    private static boolean isIndexable(Booking b) {
+        return b.getId() != null && b.getVehicleId() != null && b.getStartDate() != null
+                && b.getEndDate() != null && isActive(b);
+    }
+
+    private static int stripe(String vehicleId) {
+        return Math.floorMod(vehicleId.hashCode(), VEHICLE_STRIPES);
+    }
+
+    private static long toSeconds(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** Immutable, start-sorted interval list with prefix-max of end times. */
+    private static final class Intervals {
+
+        static final Intervals EMPTY = new Intervals(new String[0], new long[0], new long[0]);
+
+        final String[] ids;
+        final long[] starts;
+        final long[] ends;
+        final long[] maxEnd;
+
+        private Intervals(String[] ids, long[] starts, long[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnd = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnd[i] = max;
+            }
+        }
+
+        static Intervals of(List<Booking> bookings) {
+            Intervals result = EMPTY;
+            for (Booking b : bookings) {
+                result = result.with(b);
+            }
+            return result;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        boolean overlaps(long start, long end) {
+            // last interval whose start is strictly before the requested end
+            int lo = 0;
+            int hi = starts.length - 1;
+            int idx = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < end) {
+                    idx = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return idx >= 0 && maxEnd[idx] > start;
+        }
+
+        Intervals with(Booking b) {
+            Intervals base = without(b.getId());
+            long s = toSeconds(b.getStartDate());
+            long e = toSeconds(b.getEndDate());
+            int n = base.ids.length;
+            int pos = 0;
+            while (pos < n && base.starts[pos] <= s) {
+                pos++;
+            }
+            String[] ids = new String[n + 1];
+            long[] starts = new long[n + 1];
+            long[] ends = new long[n + 1];
+            System.arraycopy(base.ids, 0, ids, 0, pos);
+            System.arraycopy(base.starts, 0, starts, 0, pos);
+            System.arraycopy(base.ends, 0, ends, 0, pos);
+            ids[pos] = b.getId();
+            starts[pos] = s;
+            ends[pos] = e;
+            System.arraycopy(base.ids, pos, ids, pos + 1, n - pos);
+            System.arraycopy(base.starts, pos, starts, pos + 1, n - pos);
+            System.arraycopy(base.ends, pos, ends, pos + 1, n - pos);
+            return new Intervals(ids, starts, ends);
+        }
+
+        Intervals without(String bookingId) {
+            int idx = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i].equals(bookingId)) {
+                    idx = i;
+                    break;
+                }
+            }
+            if (idx < 0) {
+                return this;
+            }
+            int n = ids.length - 1;
+            String[] nIds = new String[n];
+            long[] nStarts = new long[n];
+            long[] nEnds = new long[n];
+            System.arraycopy(ids, 0, nIds, 0, idx);
+            System.arraycopy(starts, 0, nStarts, 0, idx);
+            System.arraycopy(ends, 0, nEnds, 0, idx);
+            System.arraycopy(ids, idx + 1, nIds, idx, n - idx);
+            System.arraycopy(starts, idx + 1, nStarts, idx, n - idx);
+            System.arraycopy(ends, idx + 1, nEnds, idx, n - idx);
+            return new Intervals(nIds, nStarts, nEnds);
+        }
+
+        boolean sameAs(Intervals other) {
+            if (other == null || other.ids.length != ids.length) {
+                return false;
+            }
+            Map<String, Integer> positions = new HashMap<>();
+            for (int i = 0; i < other.ids.length; i++) {
+                positions.put(other.ids[i], i);
+            }
+            for (int i = 0; i < ids.length; i++) {
+                Integer j = positions.get(ids[i]);
+                if (j == null || starts[i] != other.starts[j] || ends[i] != other.ends[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.wheelio.backend.service;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.model.RenameCollectionOptions;
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.model.BookingRollup;
+import com.wheelio.backend.util.WorkerThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Revenue and utilization per day, vehicle and city, kept in booking_rollups
+ * so the admin analytics never scan bookings.
+ *
+ * Each booking status change applies the difference between what the booking
+ * contributed before and after as $inc upserts on its three buckets, in one
+ * bulk write. {@link #rebuild()} recomputes everything from the bookings with
+ * one aggregation per dimension, run in parallel into a staging collection
+ * that then replaces the live one. Changes landing while a rebuild runs can be
+ * missed by it, so run it when booking traffic is quiet.
+ */
+@Service
+public class BookingRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingRollupService.class);
+
+    private static final String COLLECTION = "booking_rollups";
+    private static final String STAGING = "booking_rollups_rebuild";
+    private static final String UNKNOWN = "unknown";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private Counter updateFailures;
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    void init() {
+        updateFailures = Counter.builder("wheelio.rollups.update.failures")
+                .description("Booking changes whose rollup update failed; a rebuild repairs them")
+                .register(meterRegistry);
+        rebuildTimer = Timer.builder("wheelio.rollups.rebuild.duration")
+                .description("Time to recompute booking rollups from scratch")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onStatusChanged(BookingStatusChangedEvent event) {
+        Booking booking = event.getBooking();
+        Contribution delta = Contribution.of(booking, event.getTo()).minus(Contribution.of(booking, event.getFrom()));
+        if (delta.isZero()) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookingRollup.class);
+            for (BookingRollup.Dimension dimension : BookingRollup.Dimension.values()) {
+                String key = keyOf(booking, dimension);
+                Update update = delta.toUpdate()
+                        .set("updatedAt", now)
+                        .setOnInsert("dimension", dimension)
+                        .setOnInsert("key", key);
+                if (dimension == BookingRollup.Dimension.VEHICLE && booking.getVehicleSummary() != null
+                        && booking.getVehicleSummary().getName() != null) {
+                    update.set("label", booking.getVehicleSummary().getName());
+                }
+                ops.upsert(new Query(Criteria.where("_id").is(dimension + ":" + key)), update);
+            }
+            ops.execute();
+        } catch (Exception e) {
+            updateFailures.increment();
+            logger.error("Could not update rollups for booking {} ({} -> {}): {}", booking.getId(),
+                    event.getFrom(), event.getTo(), e.getMessage());
+        }
+    }
+
+    /** Day buckets between {@code from} and {@code to}, inclusive, oldest first. */
+    public List<BookingRollup> daily(LocalDate from, LocalDate to) {
+        return mongoTemplate.find(new Query(Criteria.where("dimension").is(BookingRollup.Dimension.DAY)
+                .and("key").gte(from.toString()).lte(to.toString())).with(Sort.by("key")), BookingRollup.class);
+    }
+
+    /** The {@code limit} largest buckets of a dimension by {@code field}, e.g. revenueMinor. */
+    public List<BookingRollup> top(BookingRollup.Dimension dimension, String field, int limit) {
+        return mongoTemplate.find(new Query(Criteria.where("dimension").is(dimension))
+                .with(Sort.by(Sort.Direction.DESC, field).and(Sort.by("key"))).limit(limit), BookingRollup.class);
+    }
+
+    /** Totals across all bookings, summed from the city buckets. */
+    public Map<String, Object> summary() {
+        long bookings = 0, cancelled = 0, completed = 0, revenueMinor = 0, bookedMinutes = 0;
+        for (BookingRollup r : mongoTemplate.find(new Query(Criteria.where("dimension")
+                .is(BookingRollup.Dimension.CITY)), BookingRollup.class)) {
+            bookings += r.getBookings();
+            cancelled += r.getCancelled();
+            completed += r.getCompleted();
+            revenueMinor += r.getRevenueMinor();
+            bookedMinutes += r.getBookedMinutes();
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("bookings", bookings);
+        summary.put("cancelled", cancelled);
+        summary.put("completed", completed);
+        summary.put("revenue", BigDecimal.valueOf(revenueMinor, 2));
+        summary.put("bookedHours", bookedMinutes / 60.0);
+        return summary;
+    }
+
+    /**
+     * Recomputes all buckets from the bookings collection. Returns the number
+     * of buckets written, or -1 if a rebuild is already running.
+     */
+    public long rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return -1;
+        }
+        long t0 = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(BookingRollup.Dimension.values().length,
+                WorkerThreads.factory("rollup-rebuild-", false));
+        try {
+            mongoTemplate.dropCollection(STAGING);
+            mongoTemplate.indexOps(STAGING).ensureIndex(new Index()
+                    .on("dimension", Sort.Direction.ASC).on("key", Sort.Direction.ASC).named("dimension_key"));
+            LocalDateTime now = LocalDateTime.now();
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (BookingRollup.Dimension dimension : BookingRollup.Dimension.values()) {
+                tasks.add(() -> {
+                    mongoTemplate.getCollection("bookings").aggregate(pipeline(dimension, now))
+                            .allowDiskUse(true).toCollection();
+                    return null;
+                });
+            }
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+            long buckets = mongoTemplate.getCollection(STAGING).countDocuments();
+            mongoTemplate.getCollection(STAGING).renameCollection(
+                    new MongoNamespace(mongoTemplate.getDb().getName(), COLLECTION),
+                    new RenameCollectionOptions().dropTarget(true));
+            logger.info("Rebuilt booking rollups: {} bucket(s) in {} ms", buckets,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0));
+            return buckets;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rollup rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rollup rebuild failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+            rebuildTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+            rebuilding.set(false);
+        }
+    }
+
+    /** Same bucketing and arithmetic as {@link Contribution}, done in Mongo. */
+    private static List<Document> pipeline(BookingRollup.Dimension dimension, LocalDateTime now) {
+        Document key = switch (dimension) {
+            case DAY -> new Document("$dateToString", new Document("format", "%Y-%m-%d")
+                    .append("date", "$startDate")
+                    .append("timezone", mongoTimezone(ZoneId.systemDefault()))
+                    .append("onNull", UNKNOWN));
+            case VEHICLE -> new Document("$ifNull", List.of("$vehicleId", UNKNOWN));
+            case CITY -> new Document("$ifNull", List.of("$vehicleSummary.location", UNKNOWN));
+        };
+        Document amountMinor = new Document("$toLong", new Document("$round", List.of(
+                new Document("$multiply", List.of(
+                        new Document("$toDecimal", new Document("$ifNull", List.of("$totalAmount", "0"))), 100)),
+                0)));
+        Document minutes = new Document("$cond", List.of(
+                new Document("$and", List.of("$startDate", "$endDate")),
+                new Document("$toLong", new Document("$divide", List.of(
+                        new Document("$subtract", List.of("$endDate", "$startDate")), 60000))),
+                0));
+        Document live = new Document("$cond", List.of(new Document("$eq", List.of("$status", "CANCELLED")), 0, 1));
+        Document done = new Document("$cond", List.of(new Document("$eq", List.of("$status", "COMPLETED")), 1, 0));
+
+        Document output = new Document("_id", new Document("$concat", List.of(dimension + ":", "$_id")))
+                .append("dimension", dimension.name())
+                .append("key", "$_id")
+                .append("bookings", 1)
+                .append("cancelled", 1)
+                .append("completed", 1)
+                .append("revenueMinor", 1)
+                .append("bookedMinutes", 1)
+                .append("updatedAt", new Document("$literal", Date.from(now.atZone(ZoneId.systemDefault()).toInstant())));
+        Document group = new Document("_id", "$k")
+                .append("bookings", new Document("$sum", "$live"))
+                .append("cancelled", new Document("$sum", new Document("$subtract", List.of(1, "$live"))))
+                .append("completed", new Document("$sum", "$done"))
+                .append("revenueMinor", new Document("$sum", new Document("$multiply", List.of("$live", "$amount"))))
+                .append("bookedMinutes", new Document("$sum", new Document("$multiply", List.of("$live", "$minutes"))));
+        Document project = new Document("k", key)
+                .append("live", live)
+                .append("done", done)
+                .append("amount", amountMinor)
+                .append("minutes", minutes);
+        if (dimension == BookingRollup.Dimension.VEHICLE) {
+            project.append("label", "$vehicleSummary.name");
+            group.append("label", new Document("$last", "$label"));
+            output.append("label", 1);
+        }
+        return List.of(
+                new Document("$match", new Document("status", new Document("$exists", true))),
+                new Document("$project", project),
+                new Document("$group", group),
+                new Document("$project", output),
+                new Document("$merge", new Document("into", STAGING)
+                        .append("whenMatched", "replace")
+                        .append("whenNotMatched", "insert")));
+    }
+
+    private static String mongoTimezone(ZoneId zone) {
+        if (zone instanceof ZoneOffset offset) {
+            return offset.equals(ZoneOffset.UTC) ? "UTC" : offset.getId();
+        }
+        return zone.getId();
+    }
+
+    static String keyOf(Booking booking, BookingRollup.Dimension dimension) {
+        String key = switch (dimension) {
+            case DAY -> booking.getStartDate() != null ? booking.getStartDate().toLocalDate().toString() : null;
+            case VEHICLE -> booking.getVehicleId();
+            case CITY -> booking.getVehicleSummary() != null ? booking.getVehicleSummary().getLocation() : null;
+        };
+        return key != null ? key : UNKNOWN;
+    }
+
+    /** What one booking in one status adds to each of its buckets. */
+    static final class Contribution {
+        final long bookings;
+        final long cancelled;
+        final long completed;
+        final long revenueMinor;
+        final long bookedMinutes;
+
+        Contribution(long bookings, long cancelled, long completed, long revenueMinor, long bookedMinutes) {
+            this.bookings = bookings;
+            this.cancelled = cancelled;
+            this.completed = completed;
+            this.revenueMinor = revenueMinor;
+            this.bookedMinutes = bookedMinutes;
+        }
+
+        static Contribution of(Booking booking, Booking.BookingStatus status) {
+            if (status == null) {
+                return new Contribution(0, 0, 0, 0, 0);
+            }
+            if (status == Booking.BookingStatus.CANCELLED) {
+                return new Contribution(0, 1, 0, 0, 0);
+            }
+            // half-even and millisecond truncation match $round and the stored dates
+            long amount = booking.getTotalAmount() != null
+                    ? booking.getTotalAmount().movePointRight(2).setScale(0, RoundingMode.HALF_EVEN).longValue()
+                    : 0;
+            long minutes = booking.getStartDate() != null && booking.getEndDate() != null
+                    ? Duration.between(booking.getStartDate().truncatedTo(ChronoUnit.MILLIS),
+                            booking.getEndDate().truncatedTo(ChronoUnit.MILLIS)).toMinutes()
+                    : 0;
+            return new Contribution(1, 0, status == Booking.BookingStatus.COMPLETED ? 1 : 0, amount, minutes);
+        }
+
+        Contribution minus(Contribution other) {
+            return new Contribution(bookings - other.bookings, cancelled - other.cancelled,
+                    completed - other.completed, revenueMinor - other.revenueMinor,
+                    bookedMinutes - other.bookedMinutes);
+        }
+
+        boolean isZero() {
+            return bookings == 0 && cancelled == 0 && completed == 0 && revenueMinor == 0 && bookedMinutes == 0;
+        }
+
+        Update toUpdate() {
+            return new Update()
+                    .inc("bookings", bookings)
+                    .inc("cancelled", cancelled)
+                    .inc("completed", completed)
+                    .inc("revenueMinor", revenueMinor)
+                    .inc("bookedMinutes", bookedMinutes);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.wheelio.backend.service;
 
 import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.util.CursorPage;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +12,8 @@ public interface BookingService {
 
     List<Booking> getAllBookings();
 
+    CursorPage<Booking> getBookingsPage(String cursor, Integer limit, String sort);
+
     List<Booking> getBookingsByUserId(String userId);
 
     List<Booking> getBookingsByVehicleId(String vehicleId);
@@ -19,6 +22,24 @@ public interface BookingService {
 
     Booking updateBooking(Booking booking);
 
+    /**
+     * Moves the booking to {@code target} if the state machine allows it from
+     * the current status, optionally also requiring {@code expectedStatus} and
+     * {@code expectedVersion}. Empty when the booking does not exist; throws
+     * BookingStateConflictException when the guard does not match.
+     */
+    Optional<Booking> changeStatus(String id, Booking.BookingStatus target, Booking.BookingStatus expectedStatus,
+            Long expectedVersion);
+
+    /** As above, also setting {@code paymentStatus} (if not null) in the same guarded update. */
+    Optional<Booking> changeStatus(String id, Booking.BookingStatus target, Booking.PaymentStatus paymentStatus,
+            Booking.BookingStatus expectedStatus, Long expectedVersion);
+
+    Optional<Booking> changePaymentStatus(String id, Booking.PaymentStatus target, Long expectedVersion);
+
+    /** Marks CONFIRMED bookings ended by {@code cutoff} as COMPLETED, up to {@code batchSize}; returns those changed. */
+    List<Booking> completeExpiredBookings(java.time.LocalDateTime cutoff, int batchSize);
+
     void deleteBooking(String id);
 
     boolean isVehicleAvailable(String vehicleId, java.time.LocalDateTime start, java.time.LocalDateTime end);
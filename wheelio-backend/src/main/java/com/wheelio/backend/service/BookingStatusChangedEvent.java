@@ -0,0 +1,30 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Booking;
+
+/** Published after a booking status change has been written. */
+public class BookingStatusChangedEvent {
+
+    private final Booking booking;
+    private final Booking.BookingStatus from;
+    private final Booking.BookingStatus to;
+
+    public BookingStatusChangedEvent(Booking booking, Booking.BookingStatus from, Booking.BookingStatus to) {
+        this.booking = booking;
+        this.from = from;
+        this.to = to;
+    }
+
+    /** The booking as written, including its new version. */
+    public Booking getBooking() {
+        return booking;
+    }
+
+    public Booking.BookingStatus getFrom() {
+        return from;
+    }
+
+    public Booking.BookingStatus getTo() {
+        return to;
+    }
+}
@@ -0,0 +1,41 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.util.EmailTemplates;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Customer notifications for booking status changes. Failures are logged,
+ * never propagated, since the status change itself has already been written.
+ * Vehicle status is handled by FleetStatusEngine.
+ */
+@Component
+public class BookingStatusListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingStatusListener.class);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @EventListener
+    public void onStatusChanged(BookingStatusChangedEvent event) {
+        if (event.getTo() != Booking.BookingStatus.CANCELLED || event.getFrom() == null) {
+            return;
+        }
+        Booking booking = event.getBooking();
+        try {
+            userService.getUserById(booking.getUserId()).ifPresent(user -> emailService.sendHtmlEmail(
+                    user.getEmail(), "Wheelio - Booking Cancelled #" + booking.getId(),
+                    EmailTemplates.getBookingCancelledEmail(user.getFullName(), booking)));
+        } catch (Exception e) {
+            logger.error("Failed to send cancellation email for booking {}: {}", booking.getId(), e.getMessage());
+        }
+    }
+}
@@ -1,16 +1,22 @@
 package com.wheelio.backend.service;
 
 import com.wheelio.backend.model.DamageReport;
+import com.wheelio.backend.model.DamageReportSummary;
+import com.wheelio.backend.util.CursorPage;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 public interface DamageReportService {
+    /** Saves the report; inline (data URI) images are moved to the file store first. */
     DamageReport createDamageReport(DamageReport report);
 
     Optional<DamageReport> getDamageReportById(String id);
 
     List<DamageReport> getAllDamageReports();
 
+    CursorPage<DamageReport> getDamageReportsPage(String cursor, Integer limit, String sort);
+
     List<DamageReport> getDamageReportsByVehicleId(String vehicleId);
 
     List<DamageReport> getDamageReportsByUserId(String userId);
@@ -19,5 +25,26 @@ public interface DamageReportService {
 
     DamageReport updateDamageReport(DamageReport report);
 
+    /**
+     * Sets the given review fields (nulls are left as they are) with a
+     * targeted update, so images are never rewritten. Empty when the report
+     * does not exist.
+     */
+    Optional<DamageReport> updateDamageReportFields(String id, DamageReport.DamageStatus status,
+            DamageReport.Severity severity, BigDecimal estimatedCost, String razorpayPaymentId);
+
     void deleteDamageReport(String id);
+
+    List<DamageReportSummary> getAllDamageReportSummaries();
+
+    CursorPage<DamageReportSummary> getDamageReportSummariesPage(String cursor, Integer limit, String sort);
+
+    List<DamageReportSummary> getDamageReportSummariesByVehicleId(String vehicleId);
+
+    List<DamageReportSummary> getDamageReportSummariesByUserId(String userId);
+
+    List<DamageReportSummary> getDamageReportSummariesByStatus(DamageReport.DamageStatus status);
+
+    /** Rewrites reports that still hold inline images; returns how many were migrated. */
+    int migrateInlineImages();
 }
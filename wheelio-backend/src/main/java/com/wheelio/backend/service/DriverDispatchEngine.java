@@ -0,0 +1,450 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.model.DispatchRun;
+import com.wheelio.backend.model.DriverLedger;
+import com.wheelio.backend.model.DriverProfile;
+import com.wheelio.backend.model.ReservationLedger;
+import com.wheelio.backend.repository.DriverProfileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Assigns drivers to bookings that asked for one (Booking.driverRequested).
+ * Candidates come from the in-memory DriverRoster, ranked by city match,
+ * rating and idle time before the booking. The winner is claimed in memory,
+ * then on its DriverLedger (a conditional upsert that fails on overlap, like
+ * vehicle reservations), then on the booking itself while it has no driver.
+ * A failed step undoes the earlier ones and the next candidate is tried, so
+ * concurrent dispatches on any node cannot double-book a driver.
+ *
+ * The roster is rebuilt from driver profiles and ledgers at startup and every
+ * {@code wheelio.dispatch.reload-interval-ms}; DriverServiceImpl and booking
+ * status events keep it current in between.
+ */
+@Component
+public class DriverDispatchEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverDispatchEngine.class);
+
+    @Autowired
+    private DriverProfileRepository driverProfileRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wheelio.dispatch.enabled:true}")
+    private boolean enabled;
+
+    @Value("${wheelio.dispatch.weight.city:0.5}")
+    private double cityWeight;
+
+    @Value("${wheelio.dispatch.weight.rating:0.3}")
+    private double ratingWeight;
+
+    @Value("${wheelio.dispatch.weight.idle:0.2}")
+    private double idleWeight;
+
+    @Value("${wheelio.dispatch.idle-cap-hours:24}")
+    private long idleCapHours;
+
+    /** Ranked drivers tried per booking before giving up. */
+    @Value("${wheelio.dispatch.candidates:5}")
+    private int candidates;
+
+    @Value("${wheelio.dispatch.history-days:2}")
+    private int historyDays;
+
+    private volatile DriverRoster roster;
+
+    /** Bumped on every roster write so a reload that raced with one is redone. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private Timer assignedTimer;
+    private Timer unavailableTimer;
+    private Timer staleTimer;
+    private Timer batchTimer;
+    private Counter conflicts;
+
+    @PostConstruct
+    void init() {
+        roster = newRoster();
+        assignedTimer = assignTimer("assigned");
+        unavailableTimer = assignTimer("unavailable");
+        staleTimer = assignTimer("stale");
+        batchTimer = Timer.builder("wheelio.dispatch.batch.duration")
+                .description("One day's batch dispatch, including its Mongo writes")
+                .register(meterRegistry);
+        conflicts = Counter.builder("wheelio.dispatch.conflicts")
+                .description("Driver claims lost to a concurrent dispatch")
+                .register(meterRegistry);
+        Gauge.builder("wheelio.dispatch.drivers", this, e -> e.roster.size()).register(meterRegistry);
+    }
+
+    private Timer assignTimer(String result) {
+        return Timer.builder("wheelio.dispatch.assign")
+                .description("Single-booking dispatch")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private DriverRoster newRoster() {
+        return new DriverRoster(new DriverRoster.Weights(cityWeight, ratingWeight, idleWeight,
+                TimeUnit.HOURS.toSeconds(Math.max(1, idleCapHours))));
+    }
+
+    /** Adds assignments made before driver ledgers existed to the ledgers, then loads the roster. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        LocalDateTime horizon = LocalDateTime.now().minusDays(historyDays);
+        List<Booking> assigned = mongoTemplate.find(new Query(Criteria.where("driverId").ne(null)
+                .and("status").in(Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED,
+                        Booking.BookingStatus.COMPLETED)
+                .and("endDate").gte(horizon)), Booking.class);
+        Set<String> held = new HashSet<>();
+        for (DriverLedger ledger : mongoTemplate.findAll(DriverLedger.class)) {
+            ledger.getSlots().forEach(slot -> held.add(slot.getBookingId()));
+        }
+        int added = 0;
+        for (Booking b : assigned) {
+            if (b.getStartDate() != null && b.getEndDate() != null && !held.contains(b.getId())) {
+                recordLedger(b.getDriverId(), b);
+                added++;
+            }
+        }
+        if (added > 0) {
+            logger.info("Driver ledger backfilled with {} existing assignment(s)", added);
+        }
+        reload();
+    }
+
+    /** Rebuilds the roster from driver profiles and ledgers, dropping history older than the horizon. */
+    @Scheduled(fixedDelayString = "${wheelio.dispatch.reload-interval-ms:300000}",
+            initialDelayString = "${wheelio.dispatch.reload-interval-ms:300000}")
+    public void reload() {
+        Date horizon = Date.from(LocalDateTime.now().minusDays(historyDays).atZone(ZoneId.systemDefault()).toInstant());
+        mongoTemplate.updateMulti(new Query(), new Update().pull("slots",
+                new Document("endDate", new Document("$lt", horizon))), DriverLedger.class);
+
+        for (int attempt = 1;; attempt++) {
+            long gen = generation.get();
+            DriverRoster fresh = newRoster();
+            for (DriverProfile p : driverProfileRepository.findAll()) {
+                putDriver(fresh, p);
+            }
+            for (DriverLedger ledger : mongoTemplate.findAll(DriverLedger.class)) {
+                for (ReservationLedger.Slot slot : ledger.getSlots()) {
+                    fresh.occupy(ledger.getId(), slot.getBookingId(), seconds(slot.getStartDate()),
+                            seconds(slot.getEndDate()));
+                }
+            }
+            if (generation.get() == gen || attempt == 3) {
+                roster = fresh;
+                logger.debug("Driver roster reloaded with {} driver(s)", fresh.size());
+                return;
+            }
+        }
+    }
+
+    public void driverSaved(DriverProfile profile) {
+        if (profile != null && profile.getUserId() != null) {
+            generation.incrementAndGet();
+            putDriver(roster, profile);
+        }
+    }
+
+    public void driverRemoved(String userId) {
+        if (userId != null) {
+            generation.incrementAndGet();
+            roster.removeDriver(userId);
+        }
+    }
+
+    /** Active drivers free for the period, best first. */
+    public List<DriverRoster.Candidate> candidates(String city, LocalDateTime start, LocalDateTime end, int limit) {
+        return roster.rank(city, seconds(start), seconds(end), limit);
+    }
+
+    /**
+     * Releases a cancelled booking's driver, and records drivers the client
+     * picked themselves when the booking is created.
+     */
+    @EventListener
+    public void onStatusChanged(BookingStatusChangedEvent event) {
+        Booking b = event.getBooking();
+        if (b.getDriverId() == null || b.getId() == null) {
+            return;
+        }
+        try {
+            if (event.getTo() == Booking.BookingStatus.CANCELLED) {
+                release(b.getDriverId(), b.getId());
+            } else if (event.getFrom() == null && b.getStartDate() != null && b.getEndDate() != null) {
+                generation.incrementAndGet();
+                roster.occupy(b.getDriverId(), b.getId(), seconds(b.getStartDate()), seconds(b.getEndDate()));
+                recordLedger(b.getDriverId(), b);
+            }
+        } catch (Exception e) {
+            // the booking itself is saved; the ledger backfill in warm() records a missed assignment
+            logger.error("Could not update driver {} for booking {} ({} -> {}): {}", b.getDriverId(), b.getId(),
+                    event.getFrom(), event.getTo(), e.getMessage());
+        }
+    }
+
+    /**
+     * Assigns the best free driver to the booking if it asked for one and has
+     * none. On success the booking's driverId and version are updated in place.
+     */
+    public Optional<String> assign(Booking booking) {
+        if (!enabled || !needsDriver(booking)) {
+            return Optional.empty();
+        }
+        long t0 = System.nanoTime();
+        Timer outcome = unavailableTimer;
+        try {
+            DriverRoster r = roster;
+            long start = seconds(booking.getStartDate());
+            long end = seconds(booking.getEndDate());
+            for (DriverRoster.Candidate c : r.rank(cityOf(booking), start, end, candidates)) {
+                generation.incrementAndGet();
+                if (!r.claim(c.driverId(), booking.getId(), start, end)) {
+                    conflicts.increment();
+                    continue;
+                }
+                if (!claimLedger(c.driverId(), booking)) {
+                    r.release(c.driverId(), booking.getId());
+                    conflicts.increment();
+                    continue;
+                }
+                if (!setDriver(booking.getId(), c.driverId())) {
+                    // cancelled or given a driver elsewhere meanwhile
+                    release(c.driverId(), booking.getId());
+                    outcome = staleTimer;
+                    return Optional.empty();
+                }
+                booking.setDriverId(c.driverId());
+                booking.setVersion((booking.getVersion() != null ? booking.getVersion() : 0L) + 1);
+                outcome = assignedTimer;
+                return Optional.of(c.driverId());
+            }
+            return Optional.empty();
+        } finally {
+            outcome.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Assigns drivers to every booking starting on {@code day} that asked for
+     * one, in a single pass ordered by start time: claims are made in memory,
+     * then written with one unordered bulk per collection. Claims that lose to
+     * a concurrent dispatch are retried one by one through {@link #assign}.
+     */
+    public DispatchRun assignDay(LocalDate day) {
+        long t0 = System.currentTimeMillis();
+        List<Booking> pending = mongoTemplate.find(new Query(Criteria.where("driverRequested").is(true)
+                .and("driverId").is(null)
+                .and("status").in(AvailabilityIndex.ACTIVE_STATUSES)
+                .and("startDate").gte(day.atStartOfDay()).lt(day.plusDays(1).atStartOfDay()))
+                .with(Sort.by("startDate")), Booking.class);
+
+        DriverRoster r = roster;
+        List<Booking> claimed = new ArrayList<>();
+        List<String> drivers = new ArrayList<>();
+        int unassigned = 0;
+        generation.incrementAndGet();
+        for (Booking b : pending) {
+            long start = seconds(b.getStartDate());
+            long end = seconds(b.getEndDate());
+            String driver = null;
+            for (DriverRoster.Candidate c : r.rank(cityOf(b), start, end, candidates)) {
+                if (r.claim(c.driverId(), b.getId(), start, end)) {
+                    driver = c.driverId();
+                    break;
+                }
+            }
+            if (driver == null) {
+                unassigned++;
+            } else {
+                claimed.add(b);
+                drivers.add(driver);
+            }
+        }
+
+        Set<Integer> lost = new HashSet<>();
+        if (!claimed.isEmpty()) {
+            BulkOperations ledgers = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DriverLedger.class);
+            for (int i = 0; i < claimed.size(); i++) {
+                ledgers.upsert(ledgerClaim(drivers.get(i), claimed.get(i)), ledgerPush(claimed.get(i)));
+            }
+            try {
+                ledgers.execute();
+            } catch (BulkOperationException e) {
+                e.getErrors().forEach(error -> lost.add(error.getIndex()));
+            }
+
+            BulkOperations bookings = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Booking.class);
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < claimed.size(); i++) {
+                if (!lost.contains(i)) {
+                    bookings.updateOne(unassignedGuard(claimed.get(i).getId()), assignUpdate(drivers.get(i)));
+                    ids.add(claimed.get(i).getId());
+                }
+            }
+            Map<String, String> written = new HashMap<>();
+            if (!ids.isEmpty()) {
+                bookings.execute();
+                Query readBack = new Query(Criteria.where("_id").in(ids));
+                readBack.fields().include("_id", "driverId");
+                mongoTemplate.find(readBack, Booking.class).forEach(b -> written.put(b.getId(), b.getDriverId()));
+            }
+            for (int i = 0; i < claimed.size(); i++) {
+                Booking b = claimed.get(i);
+                if (lost.contains(i)) {
+                    r.release(drivers.get(i), b.getId());
+                } else if (!drivers.get(i).equals(written.get(b.getId()))) {
+                    release(drivers.get(i), b.getId());
+                    lost.add(i);
+                } else {
+                    b.setDriverId(drivers.get(i));
+                }
+            }
+        }
+
+        int assigned = claimed.size() - lost.size();
+        for (int i : lost) {
+            conflicts.increment();
+            Booking fresh = mongoTemplate.findById(claimed.get(i).getId(), Booking.class);
+            if (assign(fresh).isPresent()) {
+                assigned++;
+            } else if (needsDriver(fresh)) {
+                unassigned++;
+            }
+        }
+        long took = System.currentTimeMillis() - t0;
+        batchTimer.record(took, TimeUnit.MILLISECONDS);
+        logger.info("Dispatch for {}: {} of {} booking(s) assigned, {} without a free driver, {} conflict(s), {} ms",
+                day, assigned, pending.size(), unassigned, lost.size(), took);
+        return new DispatchRun(day, pending.size(), assigned, unassigned, lost.size(), took);
+    }
+
+    /** Evening pass over tomorrow's bookings, so drivers know their day in advance. */
+    @Scheduled(cron = "${wheelio.dispatch.batch-cron:0 0 20 * * *}")
+    public void dispatchTomorrow() {
+        if (enabled) {
+            assignDay(LocalDate.now().plusDays(1));
+        }
+    }
+
+    private static boolean needsDriver(Booking b) {
+        return b != null && Boolean.TRUE.equals(b.getDriverRequested()) && b.getDriverId() == null
+                && b.getId() != null && b.getStartDate() != null && b.getEndDate() != null
+                && AvailabilityIndex.isActive(b);
+    }
+
+    /** The pickup city: where the vehicle is listed, else the free-text pickup location. */
+    private static String cityOf(Booking b) {
+        if (b.getVehicleSummary() != null && b.getVehicleSummary().getLocation() != null) {
+            return b.getVehicleSummary().getLocation();
+        }
+        return b.getPickupLocation();
+    }
+
+    private static void putDriver(DriverRoster r, DriverProfile p) {
+        if (p.getUserId() == null) {
+            return;
+        }
+        r.putDriver(p.getUserId(), p.getCity(), p.getRating() != null ? p.getRating().doubleValue() : 0,
+                "ACTIVE".equalsIgnoreCase(p.getStatus()));
+    }
+
+    private boolean claimLedger(String driverId, Booking b) {
+        // as in BookingServiceImpl.reserveSlot, the first claim can lose a create race once
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                mongoTemplate.upsert(ledgerClaim(driverId, b), ledgerPush(b), DriverLedger.class);
+                return true;
+            } catch (DuplicateKeyException e) {
+                // ledger exists and the filter did not match
+            }
+        }
+        return false;
+    }
+
+    private void recordLedger(String driverId, Booking b) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(driverId)), new Update().addToSet("slots",
+                new ReservationLedger.Slot(b.getId(), b.getStartDate(), b.getEndDate())), DriverLedger.class);
+    }
+
+    private void release(String driverId, String bookingId) {
+        generation.incrementAndGet();
+        roster.release(driverId, bookingId);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(driverId)),
+                new Update().pull("slots", new Document("bookingId", bookingId)), DriverLedger.class);
+    }
+
+    private boolean setDriver(String bookingId, String driverId) {
+        return mongoTemplate.updateFirst(unassignedGuard(bookingId), assignUpdate(driverId), Booking.class)
+                .getModifiedCount() == 1;
+    }
+
+    private static Query ledgerClaim(String driverId, Booking b) {
+        return new Query(Criteria.where("_id").is(driverId)
+                .and("slots").not().elemMatch(new Criteria().orOperator(
+                        Criteria.where("bookingId").is(b.getId()),
+                        Criteria.where("startDate").lt(b.getEndDate()).and("endDate").gt(b.getStartDate()))));
+    }
+
+    private static Update ledgerPush(Booking b) {
+        return new Update().push("slots", new ReservationLedger.Slot(b.getId(), b.getStartDate(), b.getEndDate()));
+    }
+
+    private static Query unassignedGuard(String bookingId) {
+        return new Query(Criteria.where("_id").is(bookingId).and("driverId").is(null)
+                .and("status").in(AvailabilityIndex.ACTIVE_STATUSES));
+    }
+
+    private static Update assignUpdate(String driverId) {
+        return new Update().set("driverId", driverId).inc("version", 1);
+    }
+
+    private static long seconds(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC);
+    }
+}
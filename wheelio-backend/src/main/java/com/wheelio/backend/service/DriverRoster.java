@@ -0,0 +1,316 @@
+package com.wheelio.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory driver availability for dispatch. Each driver is an immutable
+ * snapshot of city, rating and busy intervals (start-sorted with a running
+ * maximum of end times, as in AvailabilityIndex) behind an
+ * {@link AtomicReference}; a claim swaps the snapshot with compare-and-set, so
+ * two threads can never both claim overlapping work for one driver and ranking
+ * never blocks. Times are epoch seconds.
+ */
+public final class DriverRoster {
+
+    /** Score weights; idle time before the booking counts up to {@code idleCapSeconds}. */
+    public record Weights(double city, double rating, double idle, long idleCapSeconds) {
+    }
+
+    public record Candidate(String driverId, double score) {
+    }
+
+    private static final Comparator<Candidate> BEST_FIRST = Comparator.comparingDouble(Candidate::score).reversed()
+            .thenComparing(Candidate::driverId);
+
+    private final ConcurrentHashMap<String, AtomicReference<Driver>> drivers = new ConcurrentHashMap<>();
+
+    /** The same slots grouped by normalized city, so a ranking can start with the pickup city. */
+    private final ConcurrentHashMap<String, Set<AtomicReference<Driver>>> byCity = new ConcurrentHashMap<>();
+
+    private final Weights weights;
+
+    /** When the city bonus outweighs rating and idle together, no other city can beat a local driver. */
+    private final boolean cityFirst;
+
+    public DriverRoster(Weights weights) {
+        this.weights = weights;
+        this.cityFirst = weights.city() >= weights.rating() + weights.idle();
+    }
+
+    /** Adds or updates a driver; their busy intervals are kept. Inactive drivers are never ranked. */
+    public void putDriver(String driverId, String city, double rating, boolean active) {
+        String c = normalize(city);
+        drivers.compute(driverId, (k, slot) -> {
+            if (slot == null) {
+                slot = new AtomicReference<>(new Driver(driverId, c, rating, active, Busy.EMPTY));
+            } else {
+                Driver cur;
+                do {
+                    cur = slot.get();
+                } while (!slot.compareAndSet(cur, new Driver(driverId, c, rating, active, cur.busy)));
+                if (cur.city != null && !cur.city.equals(c)) {
+                    members(cur.city).remove(slot);
+                }
+            }
+            if (c != null) {
+                members(c).add(slot);
+            }
+            return slot;
+        });
+    }
+
+    public void removeDriver(String driverId) {
+        drivers.computeIfPresent(driverId, (k, slot) -> {
+            String city = slot.get().city;
+            if (city != null) {
+                members(city).remove(slot);
+            }
+            return null;
+        });
+    }
+
+    public int size() {
+        return drivers.size();
+    }
+
+    /** Records work that is already assigned; unlike {@link #claim} there is no overlap check. */
+    public void occupy(String driverId, String bookingId, long start, long end) {
+        AtomicReference<Driver> slot = drivers.get(driverId);
+        if (slot != null) {
+            slot.updateAndGet(cur -> cur.with(cur.busy.with(bookingId, start, end)));
+        }
+    }
+
+    /** Claims the driver for the period if they are active and free; false otherwise. */
+    public boolean claim(String driverId, String bookingId, long start, long end) {
+        AtomicReference<Driver> slot = drivers.get(driverId);
+        if (slot == null) {
+            return false;
+        }
+        while (true) {
+            Driver cur = slot.get();
+            if (!cur.active || cur.busy.gapBefore(start, end) < 0) {
+                return false;
+            }
+            if (slot.compareAndSet(cur, cur.with(cur.busy.with(bookingId, start, end)))) {
+                return true;
+            }
+        }
+    }
+
+    public void release(String driverId, String bookingId) {
+        AtomicReference<Driver> slot = drivers.get(driverId);
+        if (slot != null) {
+            slot.updateAndGet(cur -> cur.with(cur.busy.without(bookingId)));
+        }
+    }
+
+    /** Drops intervals that ended before {@code cutoff}; they only matter for idle time. */
+    public void prune(long cutoff) {
+        for (AtomicReference<Driver> slot : drivers.values()) {
+            slot.updateAndGet(cur -> cur.with(cur.busy.pruned(cutoff)));
+        }
+    }
+
+    /**
+     * Up to {@code limit} active drivers free for the period, best score first.
+     * Drivers in the pickup city are scored first; the rest of the roster is
+     * only scanned when they cannot fill the list on their own.
+     */
+    public List<Candidate> rank(String city, long start, long end, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        String wanted = normalize(city);
+        PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        if (wanted != null) {
+            Set<AtomicReference<Driver>> local = byCity.get(wanted);
+            if (local != null) {
+                score(local, null, start, end, limit, weights.city(), top);
+            }
+        }
+        if (!cityFirst || top.size() < limit) {
+            score(drivers.values(), wanted, start, end, limit, 0, top);
+        }
+        List<Candidate> out = new ArrayList<>(top);
+        out.sort(BEST_FIRST);
+        return out;
+    }
+
+    /** Booking ids held by the driver, ordered by start. */
+    public List<String> bookingIds(String driverId) {
+        AtomicReference<Driver> slot = drivers.get(driverId);
+        return slot == null ? List.of() : List.of(slot.get().busy.ids);
+    }
+
+    private Set<AtomicReference<Driver>> members(String city) {
+        return byCity.computeIfAbsent(city, k -> ConcurrentHashMap.newKeySet());
+    }
+
+    /** Scores every slot not in {@code skipCity} into the bounded min-heap {@code top}. */
+    private void score(Collection<AtomicReference<Driver>> slots, String skipCity, long start, long end, int limit,
+            double cityBonus, PriorityQueue<Candidate> top) {
+        for (AtomicReference<Driver> slot : slots) {
+            Driver d = slot.get();
+            if (!d.active || (skipCity != null && skipCity.equals(d.city))) {
+                continue;
+            }
+            long gap = d.busy.gapBefore(start, end);
+            if (gap < 0) {
+                continue;
+            }
+            double idle = Math.min(gap, weights.idleCapSeconds()) / (double) weights.idleCapSeconds();
+            double score = cityBonus
+                    + weights.rating() * Math.max(0, Math.min(d.rating, 5)) / 5
+                    + weights.idle() * idle;
+            top.add(new Candidate(d.id, score));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+    }
+
+    private static String normalize(String city) {
+        return city == null || city.isBlank() ? null : city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Driver {
+        final String id;
+        final String city;
+        final double rating;
+        final boolean active;
+        final Busy busy;
+
+        Driver(String id, String city, double rating, boolean active, Busy busy) {
+            this.id = id;
+            this.city = city;
+            this.rating = rating;
+            this.active = active;
+            this.busy = busy;
+        }
+
+        Driver with(Busy next) {
+            return next == busy ? this : new Driver(id, city, rating, active, next);
+        }
+    }
+
+    private static final class Busy {
+
+        static final Busy EMPTY = new Busy(new String[0], new long[0], new long[0]);
+
+        final String[] ids;
+        final long[] starts;
+        final long[] ends;
+        final long[] maxEnd;
+
+        Busy(String[] ids, long[] starts, long[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnd = new long[ends.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnd[i] = max;
+            }
+        }
+
+        /**
+         * -1 if anything overlaps [start, end), otherwise the seconds since the
+         * latest earlier interval ended ({@link Long#MAX_VALUE} if there is none).
+         */
+        long gapBefore(long start, long end) {
+            int lo = 0;
+            int hi = starts.length - 1;
+            int idx = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < end) {
+                    idx = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            if (idx < 0) {
+                return Long.MAX_VALUE;
+            }
+            return maxEnd[idx] > start ? -1 : start - maxEnd[idx];
+        }
+
+        Busy with(String bookingId, long start, long end) {
+            Busy base = without(bookingId);
+            int n = base.ids.length;
+            int pos = 0;
+            while (pos < n && base.starts[pos] <= start) {
+                pos++;
+            }
+            String[] nIds = new String[n + 1];
+            long[] nStarts = new long[n + 1];
+            long[] nEnds = new long[n + 1];
+            System.arraycopy(base.ids, 0, nIds, 0, pos);
+            System.arraycopy(base.starts, 0, nStarts, 0, pos);
+            System.arraycopy(base.ends, 0, nEnds, 0, pos);
+            nIds[pos] = bookingId;
+            nStarts[pos] = start;
+            nEnds[pos] = end;
+            System.arraycopy(base.ids, pos, nIds, pos + 1, n - pos);
+            System.arraycopy(base.starts, pos, nStarts, pos + 1, n - pos);
+            System.arraycopy(base.ends, pos, nEnds, pos + 1, n - pos);
+            return new Busy(nIds, nStarts, nEnds);
+        }
+
+        Busy without(String bookingId) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i].equals(bookingId)) {
+                    return removeAt(i);
+                }
+            }
+            return this;
+        }
+
+        /** Without the intervals that ended before {@code cutoff}. */
+        Busy pruned(long cutoff) {
+            List<Integer> keep = new ArrayList<>();
+            for (int i = 0; i < ids.length; i++) {
+                if (ends[i] >= cutoff) {
+                    keep.add(i);
+                }
+            }
+            if (keep.size() == ids.length) {
+                return this;
+            }
+            String[] nIds = new String[keep.size()];
+            long[] nStarts = new long[keep.size()];
+            long[] nEnds = new long[keep.size()];
+            for (int j = 0; j < keep.size(); j++) {
+                nIds[j] = ids[keep.get(j)];
+                nStarts[j] = starts[keep.get(j)];
+                nEnds[j] = ends[keep.get(j)];
+            }
+            return new Busy(nIds, nStarts, nEnds);
+        }
+
+        private Busy removeAt(int idx) {
+            int n = ids.length - 1;
+            String[] nIds = new String[n];
+            long[] nStarts = new long[n];
+            long[] nEnds = new long[n];
+            System.arraycopy(ids, 0, nIds, 0, idx);
+            System.arraycopy(starts, 0, nStarts, 0, idx);
+            System.arraycopy(ends, 0, nEnds, 0, idx);
+            System.arraycopy(ids, idx + 1, nIds, idx, n - idx);
+            System.arraycopy(starts, idx + 1, nStarts, idx, n - idx);
+            System.arraycopy(ends, idx + 1, nEnds, idx, n - idx);
+            return new Busy(nIds, nStarts, nEnds);
+        }
+    }
+}
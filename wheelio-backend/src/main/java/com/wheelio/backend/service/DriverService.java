@@ -1,6 +1,8 @@
 package com.wheelio.backend.service;
 
 import com.wheelio.backend.model.DriverProfile;
+import com.wheelio.backend.util.CursorPage;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,8 +13,13 @@ public interface DriverService {
 
     List<DriverProfile> getAllDrivers();
 
+    CursorPage<DriverProfile> getDriversPage(String cursor, Integer limit, String sort);
+
     List<DriverProfile> getAvailableDrivers();
 
+    /** Active drivers with no assignment overlapping the period, best dispatch candidates first. */
+    List<DriverProfile> getAvailableDrivers(String city, LocalDateTime start, LocalDateTime end, int limit);
+
     DriverProfile updateDriver(DriverProfile profile);
 
     void deleteDriver(String id);
@@ -0,0 +1,225 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.EmailOutbox;
+import com.wheelio.backend.repository.EmailOutboxRepository;
+import com.wheelio.backend.util.WorkerThreads;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the email_outbox collection on a small, bounded worker pool.
+ *
+ * Messages are claimed with findAndModify and a lease, so several nodes can
+ * drain the same outbox without sending twice. Each worker delivers its claimed
+ * batch through one SMTP connection; failures are retried with exponential
+ * backoff and parked as DEAD once attempts run out.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Value("${wheelio.mail.outbox.workers:2}")
+    private int workers;
+
+    @Value("${wheelio.mail.outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${wheelio.mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${wheelio.mail.outbox.backoff-ms:30000}")
+    private long backoffMs;
+
+    @Value("${wheelio.mail.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer sendTimer;
+
+    @PostConstruct
+    void init() {
+        // the pool stays bounded with virtual threads too: workers caps concurrent SMTP sessions
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers), WorkerThreads.factory("email-outbox-", virtualThreads));
+        sendTimer = Timer.builder("wheelio.email.send.latency")
+                .description("SMTP delivery time per outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("wheelio.email.outbox.depth",
+                emailOutboxRepository, r -> r.countByStatus(EmailOutbox.Status.PENDING))
+                .description("Emails waiting to be sent")
+                .register(meterRegistry);
+        Gauge.builder("wheelio.email.outbox.dead",
+                emailOutboxRepository, r -> r.countByStatus(EmailOutbox.Status.DEAD))
+                .description("Emails that exhausted their retries")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${wheelio.mail.outbox.poll-interval-ms:1000}")
+    public void drain() {
+        int capacity = workers - executor.getActiveCount() - executor.getQueue().size();
+        for (int i = 0; i < capacity; i++) {
+            List<EmailOutbox> batch = claimBatch();
+            if (batch.isEmpty()) {
+                return;
+            }
+            executor.execute(() -> {
+                Map<String, String> failures = deliver(batch);
+                record(batch, failures);
+            });
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        List<EmailOutbox> batch = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(EmailOutbox.Status.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(EmailOutbox.Status.SENDING).and("lockedUntil").lt(now)));
+        Update update = new Update()
+                .set("status", EmailOutbox.Status.SENDING)
+                .set("lockedUntil", now.plus(Duration.ofMillis(leaseMs)))
+                .inc("attempts", 1);
+        for (int i = 0; i < batchSize; i++) {
+            EmailOutbox claimed = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(true), EmailOutbox.class);
+            if (claimed == null) {
+                break;
+            }
+            batch.add(claimed);
+        }
+        return batch;
+    }
+
+    /**
+     * Sends the batch over a single SMTP connection and returns the error
+     * message for every outbox id that failed.
+     */
+    public Map<String, String> deliver(List<EmailOutbox> batch) {
+        Map<String, String> failures = new HashMap<>();
+        Map<MimeMessage, EmailOutbox> byMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>();
+        for (EmailOutbox entry : batch) {
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, entry.isHtml(), "UTF-8");
+                helper.setFrom(fromEmail);
+                helper.setTo(entry.getTo());
+                helper.setSubject(entry.getSubject());
+                helper.setText(entry.getBody(), entry.isHtml());
+                byMessage.put(message, entry);
+                messages.add(message);
+            } catch (Exception e) {
+                failures.put(entry.getId(), e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        long t0 = System.nanoTime();
+        try {
+            mailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((msg, ex) -> {
+                EmailOutbox entry = byMessage.get(msg);
+                if (entry != null) {
+                    failures.put(entry.getId(), ex.getMessage());
+                }
+            });
+            if (e.getFailedMessages().isEmpty()) {
+                messages.forEach(m -> failures.put(byMessage.get(m).getId(), e.getMessage()));
+            }
+        } catch (MailException e) {
+            messages.forEach(m -> failures.put(byMessage.get(m).getId(), e.getMessage()));
+        } finally {
+            sendTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+        return failures;
+    }
+
+    private void record(List<EmailOutbox> batch, Map<String, String> failures) {
+        LocalDateTime now = LocalDateTime.now();
+        for (EmailOutbox entry : batch) {
+            Query byId = new Query(Criteria.where("_id").is(entry.getId()));
+            String error = failures.get(entry.getId());
+            if (error == null) {
+                mongoTemplate.updateFirst(byId, new Update()
+                        .set("status", EmailOutbox.Status.SENT)
+                        .set("sentAt", now)
+                        .unset("lockedUntil"), EmailOutbox.class);
+            } else if (entry.getAttempts() >= maxAttempts) {
+                logger.error("Email {} to {} moved to dead letters after {} attempts: {}",
+                        entry.getId(), entry.getTo(), entry.getAttempts(), error);
+                mongoTemplate.updateFirst(byId, new Update()
+                        .set("status", EmailOutbox.Status.DEAD)
+                        .set("lastError", error)
+                        .unset("lockedUntil"), EmailOutbox.class);
+            } else {
+                long delay = Math.min(backoffMs << Math.min(entry.getAttempts() - 1, 10), TimeUnit.HOURS.toMillis(1));
+                logger.warn("Email {} to {} failed (attempt {}), retrying in {} ms: {}",
+                        entry.getId(), entry.getTo(), entry.getAttempts(), delay, error);
+                mongoTemplate.updateFirst(byId, new Update()
+                        .set("status", EmailOutbox.Status.PENDING)
+                        .set("nextAttemptAt", now.plus(Duration.ofMillis(delay)))
+                        .set("lastError", error)
+                        .unset("lockedUntil"), EmailOutbox.class);
+            }
+        }
+        logger.info("Email outbox batch: {} sent, {} failed", batch.size() - failures.size(), failures.size());
+    }
+}
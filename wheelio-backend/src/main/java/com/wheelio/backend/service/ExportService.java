@@ -0,0 +1,15 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.util.ExportWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface ExportService {
+    long exportBookings(LocalDateTime from, LocalDateTime to, String status, ExportWriter.Format format,
+            OutputStream out) throws IOException;
+
+    long exportPayments(LocalDateTime from, LocalDateTime to, String status, ExportWriter.Format format,
+            OutputStream out) throws IOException;
+}
@@ -1,32 +1,630 @@
 package com.wheelio.backend.service;
 
+import com.mongodb.MongoGridFSException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSDownloadStream;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.wheelio.backend.exception.UploadIntegrityException;
+import com.wheelio.backend.model.FileBlob;
 import com.wheelio.backend.model.FileEntity;
+import com.wheelio.backend.model.FileRef;
+import com.wheelio.backend.model.StoredFile;
 import com.wheelio.backend.repository.FileRepository;
+import jakarta.annotation.PostConstruct;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
+/**
+ * Files live in a GridFS bucket ("fs.files" / "fs.chunks"), so uploads and
+ * downloads are streamed chunk by chunk instead of as one document.
+ *
+ * Storage is content-addressed: uploads are hashed while they stream in, and
+ * identical content is kept once as a FileBlob with a reference count. Each
+ * upload still gets its own FileRef id. Ids from before deduplication (plain
+ * GridFS files and the legacy "files" collection) keep resolving until the
+ * startup migration has registered them.
+ */
 @Service
 public class FileStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final int CHUNK_SIZE = 255 * 1024;
+
     @Autowired
     private FileRepository fileRepository;
 
-    public FileEntity storeFile(MultipartFile file) throws IOException {
-        FileEntity entity = new FileEntity(
-                file.getOriginalFilename(),
-                file.getContentType(),
-                file.getBytes());
-        return fileRepository.save(entity);
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${wheelio.files.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Value("${wheelio.files.gc.batch-size:100}")
+    private int gcBatchSize;
+
+    @Value("${wheelio.files.gc.grace-ms:600000}")
+    private long gcGraceMs;
+
+    @Value("${wheelio.files.register-grace-ms:600000}")
+    private long registerGraceMs;
+
+    private GridFSBucket bucket;
+
+    @PostConstruct
+    void init() {
+        bucket = GridFSBuckets.create(mongoTemplate.getDb()).withChunkSizeBytes(CHUNK_SIZE);
+    }
+
+    public StoredFile storeFile(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return store(in, file.getOriginalFilename(), file.getContentType());
+        }
+    }
+
+    public StoredFile store(InputStream in, String name, String contentType) {
+        return store(new ObjectId(), in, name, contentType);
+    }
+
+    private StoredFile store(ObjectId id, InputStream in, String name, String contentType) {
+        String type = contentType != null ? contentType : "application/octet-stream";
+        String fileName = name != null ? name : id.toHexString();
+        MessageDigest sha256 = sha256();
+        GridFSUploadOptions options = new GridFSUploadOptions()
+                .metadata(new Document("contentType", type));
+        bucket.uploadFromStream(new BsonObjectId(id), fileName, new DigestInputStream(in, sha256), options);
+        GridFSFile uploaded = bucket.find(Filters.eq("_id", id)).first();
+        long length = uploaded != null ? uploaded.getLength() : 0L;
+
+        return register(id, fileName, type, HexFormat.of().formatHex(sha256.digest()), length,
+                uploaded != null ? uploaded.getUploadDate() : new Date());
+    }
+
+    /** Points a new FileRef at the freshly written GridFS file {@code id}, or at an identical existing blob. */
+    private StoredFile register(ObjectId id, String fileName, String type, String digest, long length,
+            Date uploadDate) {
+        FileBlob blob = addReference(digest, id, length, type);
+        if (!blob.getGridFsId().equals(id.toHexString())) {
+            // same content is already stored: keep the existing copy
+            bucket.delete(id);
+        } else {
+            eventPublisher.publishEvent(new FileStoredEvent(blob.getId(), blob.getGridFsId(), type));
+        }
+        FileRef ref = new FileRef(id.toHexString(), fileName, type, blob.getId(), blob.getGridFsId(), length,
+                uploadDate);
+        mongoTemplate.save(ref);
+        return toStoredFile(ref);
+    }
+
+    /** Result of {@link #appendChunks}: bytes consumed, next chunk number, and the bytes short of a full chunk. */
+    public static class AppendResult {
+        private final long bytesRead;
+        private final int nextChunk;
+        private final byte[] carry;
+
+        AppendResult(long bytesRead, int nextChunk, byte[] carry) {
+            this.bytesRead = bytesRead;
+            this.nextChunk = nextChunk;
+            this.carry = carry;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public int getNextChunk() {
+            return nextChunk;
+        }
+
+        public byte[] getCarry() {
+            return carry;
+        }
+    }
+
+    /**
+     * Writes up to {@code maxBytes} from {@code in} as GridFS chunks of file
+     * {@code gridFsId}, starting at chunk {@code nextChunk} and prefixed by
+     * {@code carry} (the partial chunk left by the previous append). Nothing
+     * is buffered beyond one chunk. Chunks from an earlier failed attempt at
+     * the same position are replaced. The file stays invisible until
+     * {@link #completeUpload} writes its fs.files entry.
+     */
+    public AppendResult appendChunks(String gridFsId, int nextChunk, byte[] carry, InputStream in, long maxBytes)
+            throws IOException {
+        ObjectId filesId = new ObjectId(gridFsId);
+        MongoCollection<Document> chunks = mongoTemplate.getCollection("fs.chunks");
+        chunks.deleteMany(Filters.and(Filters.eq("files_id", filesId), Filters.gte("n", nextChunk)));
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int filled = carry != null ? carry.length : 0;
+        if (filled > 0) {
+            System.arraycopy(carry, 0, buffer, 0, filled);
+        }
+        long read = 0;
+        int n = nextChunk;
+        while (read < maxBytes) {
+            int r = in.read(buffer, filled, (int) Math.min(CHUNK_SIZE - filled, maxBytes - read));
+            if (r < 0) {
+                break;
+            }
+            filled += r;
+            read += r;
+            if (filled == CHUNK_SIZE) {
+                chunks.insertOne(new Document("files_id", filesId).append("n", n++).append("data", new Binary(buffer)));
+                filled = 0;
+            }
+        }
+        if (read == maxBytes && in.read() >= 0) {
+            throw new IllegalArgumentException("Chunk exceeds the remaining upload size or the per-request limit");
+        }
+        return new AppendResult(read, n, Arrays.copyOf(buffer, filled));
+    }
+
+    /**
+     * Writes the last partial chunk and the fs.files entry, then re-reads the
+     * file to check the chunk layout and compute its SHA-256. The file is
+     * deleted and {@link UploadIntegrityException} thrown if either check
+     * fails, including a mismatch with {@code expectedSha256} when given.
+     */
+    public StoredFile completeUpload(String gridFsId, int nextChunk, byte[] carry, long length, String name,
+            String contentType, String expectedSha256) {
+        ObjectId filesId = new ObjectId(gridFsId);
+        String type = contentType != null ? contentType : "application/octet-stream";
+        String fileName = name != null ? name : gridFsId;
+        MongoCollection<Document> chunks = mongoTemplate.getCollection("fs.chunks");
+        chunks.deleteMany(Filters.and(Filters.eq("files_id", filesId), Filters.gte("n", nextChunk)));
+        if (carry != null && carry.length > 0) {
+            chunks.insertOne(new Document("files_id", filesId).append("n", nextChunk).append("data", new Binary(carry)));
+        }
+        long expectedChunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if (chunks.countDocuments(Filters.eq("files_id", filesId)) != expectedChunks) {
+            discardUpload(gridFsId);
+            throw new UploadIntegrityException("Stored chunk count does not match the upload length");
+        }
+        Date uploadDate = new Date();
+        mongoTemplate.getCollection("fs.files").replaceOne(Filters.eq("_id", filesId),
+                new Document("_id", filesId)
+                        .append("length", length)
+                        .append("chunkSize", CHUNK_SIZE)
+                        .append("uploadDate", uploadDate)
+                        .append("filename", fileName)
+                        .append("metadata", new Document("contentType", type)),
+                new ReplaceOptions().upsert(true));
+
+        MessageDigest sha256 = sha256();
+        try (GridFSDownloadStream in = bucket.openDownloadStream(filesId)) {
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int r;
+            while ((r = in.read(buffer)) > 0) {
+                sha256.update(buffer, 0, r);
+            }
+        } catch (MongoGridFSException e) {
+            discardUpload(gridFsId);
+            throw new UploadIntegrityException("Stored chunks are inconsistent: " + e.getMessage());
+        }
+        String digest = HexFormat.of().formatHex(sha256.digest());
+        if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(digest)) {
+            discardUpload(gridFsId);
+            throw new UploadIntegrityException("SHA-256 mismatch: expected " + expectedSha256 + ", got " + digest);
+        }
+        return register(filesId, fileName, type, digest, length, uploadDate);
+    }
+
+    /** Drops the chunks (and fs.files entry, if any) of an unfinished upload. */
+    public void discardUpload(String gridFsId) {
+        ObjectId filesId = new ObjectId(gridFsId);
+        mongoTemplate.getCollection("fs.chunks").deleteMany(Filters.eq("files_id", filesId));
+        mongoTemplate.getCollection("fs.files").deleteOne(Filters.eq("_id", filesId));
+    }
+
+    /**
+     * Adds one reference to the blob for {@code digest}, creating it around
+     * {@code candidate} if the content is new. The returned blob's gridFsId
+     * tells the caller which copy won.
+     */
+    private FileBlob addReference(String digest, ObjectId candidate, long length, String contentType) {
+        Query byDigest = new Query(Criteria.where("_id").is(digest));
+        Update update = new Update()
+                .inc("refCount", 1)
+                .unset("unreferencedSince")
+                .setOnInsert("gridFsId", candidate.toHexString())
+                .setOnInsert("length", length)
+                .setOnInsert("contentType", contentType)
+                .setOnInsert("createdAt", LocalDateTime.now());
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        try {
+            return mongoTemplate.findAndModify(byDigest, update, options, FileBlob.class);
+        } catch (DuplicateKeyException e) {
+            // lost the insert race to an identical upload; the blob exists now
+            return mongoTemplate.findAndModify(byDigest, update, options, FileBlob.class);
+        }
     }
 
-    public FileEntity getFile(String id) {
-        return fileRepository.findById(id).orElse(null);
+    private void dropReference(String digest) {
+        FileBlob blob = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(digest)),
+                new Update().inc("refCount", -1), FindAndModifyOptions.options().returnNew(true), FileBlob.class);
+        if (blob != null && blob.getRefCount() <= 0) {
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(digest).and("refCount").lte(0)),
+                    new Update().set("unreferencedSince", LocalDateTime.now()), FileBlob.class);
+        }
+    }
+
+    /** Metadata only; null when the id is unknown. */
+    public StoredFile getFile(String id) {
+        return getFile(id, null);
+    }
+
+    /**
+     * Metadata of a rendition ("thumb", "card", "full") of the file, or of the
+     * original when {@code size} is null or that rendition does not exist.
+     */
+    public StoredFile getFile(String id, String size) {
+        FileRef ref = mongoTemplate.findById(id, FileRef.class);
+        if (ref != null) {
+            GridFSFile rendition = rendition(ref, size);
+            if (rendition != null) {
+                Document meta = rendition.getMetadata();
+                return new StoredFile(id, ref.getName(), meta != null ? meta.getString("contentType") : "image/jpeg",
+                        rendition.getLength(), ref.getDigest() + "-" + size, rendition.getUploadDate(), size,
+                        rendition.getObjectId().toHexString());
+            }
+            return toStoredFile(ref);
+        }
+        if (!ObjectId.isValid(id)) {
+            return legacyMetadata(id);
+        }
+        GridFSFile file = bucket.find(Filters.eq("_id", new ObjectId(id))).first();
+        if (file == null) {
+            return legacyMetadata(id);
+        }
+        Document meta = file.getMetadata();
+        String type = meta != null ? meta.getString("contentType") : null;
+        return new StoredFile(id, file.getFilename(), type != null ? type : "application/octet-stream",
+                file.getLength(), id, file.getUploadDate(), null, id);
+    }
+
+    private static StoredFile toStoredFile(FileRef ref) {
+        return new StoredFile(ref.getId(), ref.getName(), ref.getContentType(), ref.getLength(), ref.getDigest(),
+                ref.getUploadDate(), null, ref.getGridFsId());
+    }
+
+    /** Opens the file positioned at {@code offset}; the caller closes the stream. */
+    public InputStream openStream(String id, long offset) throws IOException {
+        StoredFile file = getFile(id);
+        if (file == null) {
+            throw new FileNotFoundException("File not found: " + id);
+        }
+        return openStream(file, offset);
+    }
+
+    /**
+     * Opens exactly the bytes {@code file} was resolved to by getFile, so the
+     * body matches its length and etag even if a rendition appears meanwhile.
+     */
+    public InputStream openStream(StoredFile file, long offset) throws IOException {
+        String id = file.getId();
+        String gridFsId = file.getGridFsId();
+        if (gridFsId != null && ObjectId.isValid(gridFsId)) {
+            try {
+                GridFSDownloadStream stream = bucket.openDownloadStream(new ObjectId(gridFsId));
+                if (offset > 0) {
+                    stream.skip(offset);
+                }
+                return stream;
+            } catch (MongoGridFSException e) {
+                // not in GridFS yet, try the legacy collection
+            }
+        }
+        FileEntity legacy = fileRepository.findById(id)
+                .orElseThrow(() -> new FileNotFoundException("File not found: " + id));
+        ByteArrayInputStream in = new ByteArrayInputStream(legacy.getData());
+        in.skip(offset);
+        return in;
+    }
+
+    private GridFSFile rendition(FileRef ref, String size) {
+        if (size == null) {
+            return null;
+        }
+        FileBlob blob = mongoTemplate.findById(ref.getDigest(), FileBlob.class);
+        String renditionId = blob != null && blob.getRenditions() != null ? blob.getRenditions().get(size) : null;
+        return renditionId != null && ObjectId.isValid(renditionId)
+                ? bucket.find(Filters.eq("_id", new ObjectId(renditionId))).first()
+                : null;
+    }
+
+    /** Raw content of a blob, for derived processing such as renditions. */
+    public InputStream openBlob(String gridFsId) {
+        return bucket.openDownloadStream(new ObjectId(gridFsId));
+    }
+
+    /**
+     * Stores generated renditions for a blob and records them on it. An empty
+     * map marks the blob as processed (e.g. a format ImageIO cannot read).
+     */
+    public void saveRenditions(String digest, Map<String, byte[]> renditions, String contentType) {
+        Map<String, String> ids = new LinkedHashMap<>();
+        renditions.forEach((size, bytes) -> {
+            ObjectId rid = new ObjectId();
+            bucket.uploadFromStream(new BsonObjectId(rid), digest + "-" + size, new ByteArrayInputStream(bytes),
+                    new GridFSUploadOptions().metadata(new Document("contentType", contentType)
+                            .append("renditionOf", digest)));
+            ids.put(size, rid.toHexString());
+        });
+        FileBlob previous = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(digest)),
+                new Update().set("renditions", ids).set("renditionsAt", LocalDateTime.now()), FileBlob.class);
+        List<ObjectId> stale = new ArrayList<>();
+        if (previous == null) {
+            ids.values().forEach(rid -> stale.add(new ObjectId(rid)));
+        } else if (previous.getRenditions() != null) {
+            previous.getRenditions().values().forEach(rid -> stale.add(new ObjectId(rid)));
+        }
+        stale.forEach(rid -> {
+            try {
+                bucket.delete(rid);
+            } catch (MongoGridFSException e) {
+                // already gone
+            }
+        });
+    }
+
+    /**
+     * Blobs that have not been through the rendition pipeline yet: images, and
+     * blobs stored before the content type was recorded on them.
+     */
+    public List<FileBlob> blobsWithoutRenditions(int limit) {
+        return mongoTemplate.find(new Query(Criteria.where("renditionsAt").exists(false).and("refCount").gt(0)
+                .orOperator(Criteria.where("contentType").regex("^image/"),
+                        Criteria.where("contentType").exists(false))).limit(limit), FileBlob.class);
     }
 
     public void deleteFile(String id) {
+        FileRef ref = mongoTemplate.findAndRemove(new Query(Criteria.where("_id").is(id)), FileRef.class);
+        if (ref != null) {
+            dropReference(ref.getDigest());
+            return;
+        }
+        if (ObjectId.isValid(id) && bucket.find(Filters.eq("_id", new ObjectId(id))).first() != null) {
+            bucket.delete(new ObjectId(id));
+        }
         fileRepository.deleteById(id);
     }
+
+    private StoredFile legacyMetadata(String id) {
+        return fileRepository.findById(id)
+                .map(f -> new StoredFile(id, f.getName(),
+                        f.getContentType() != null ? f.getContentType() : "application/octet-stream",
+                        f.getData() != null ? f.getData().length : 0L, id, null, null, null))
+                .orElse(null);
+    }
+
+    /**
+     * Moves documents from the legacy "files" collection into the store under
+     * the same id, one blob at a time, then registers GridFS files uploaded
+     * before deduplication. Safe to rerun.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyFiles() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        Thread worker = new Thread(() -> {
+            migrateAll();
+            registerExisting();
+        }, "file-migration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public int migrateAll() {
+        Query idsOnly = new Query();
+        idsOnly.fields().include("_id");
+        List<String> ids = new ArrayList<>();
+        try (Stream<FileEntity> legacy = mongoTemplate.stream(idsOnly, FileEntity.class)) {
+            legacy.forEach(f -> ids.add(f.getId()));
+        }
+        int moved = 0;
+        for (String id : ids) {
+            try {
+                if (migrate(id)) {
+                    moved++;
+                }
+            } catch (Exception e) {
+                logger.error("Could not migrate file {} to GridFS: {}", id, e.getMessage());
+            }
+        }
+        if (moved > 0) {
+            logger.info("Migrated {} file(s) from the files collection to GridFS", moved);
+        }
+        return moved;
+    }
+
+    private boolean migrate(String id) {
+        if (!ObjectId.isValid(id)) {
+            return false;
+        }
+        ObjectId oid = new ObjectId(id);
+        boolean stored = mongoTemplate.exists(new Query(Criteria.where("_id").is(id)), FileRef.class)
+                || bucket.find(Filters.eq("_id", oid)).first() != null;
+        if (!stored) {
+            FileEntity legacy = fileRepository.findById(id).orElse(null);
+            if (legacy == null || legacy.getData() == null) {
+                return false;
+            }
+            store(oid, new ByteArrayInputStream(legacy.getData()), legacy.getName(), legacy.getContentType());
+        }
+        fileRepository.deleteById(id);
+        return true;
+    }
+
+    /**
+     * Hashes GridFS files that have no FileRef yet (uploaded before
+     * deduplication) and folds duplicates into the existing blob, keeping their
+     * ids. A live upload writes its fs.files row before its FileBlob and
+     * FileRef, so for a moment it looks unregistered too; files younger than
+     * {@code wheelio.files.register-grace-ms} are skipped so such an upload is
+     * not counted twice.
+     */
+    public int registerExisting() {
+        Date cutoff = new Date(System.currentTimeMillis() - registerGraceMs);
+        List<GridFSFile> candidates = new ArrayList<>();
+        // renditions are derived files owned by their blob, not uploads
+        bucket.find(Filters.and(Filters.lt("uploadDate", cutoff), Filters.exists("metadata.renditionOf", false)))
+                .forEach(candidates::add);
+        int registered = 0;
+        for (GridFSFile file : candidates) {
+            String id = file.getObjectId().toHexString();
+            if (mongoTemplate.exists(new Query(Criteria.where("_id").is(id)), FileRef.class)
+                    || mongoTemplate.exists(new Query(Criteria.where("gridFsId").is(id)), FileBlob.class)) {
+                continue;
+            }
+            try {
+                MessageDigest sha256 = sha256();
+                try (InputStream in = bucket.openDownloadStream(file.getObjectId())) {
+                    byte[] buffer = new byte[64 * 1024];
+                    int n;
+                    while ((n = in.read(buffer)) > 0) {
+                        sha256.update(buffer, 0, n);
+                    }
+                }
+                Document meta = file.getMetadata();
+                String type = meta != null && meta.getString("contentType") != null ? meta.getString("contentType")
+                        : "application/octet-stream";
+                FileBlob blob = addReference(HexFormat.of().formatHex(sha256.digest()), file.getObjectId(),
+                        file.getLength(), type);
+                mongoTemplate.save(new FileRef(id, file.getFilename(), type, blob.getId(), blob.getGridFsId(),
+                        file.getLength(), file.getUploadDate()));
+                if (!blob.getGridFsId().equals(id)) {
+                    bucket.delete(file.getObjectId());
+                }
+                registered++;
+            } catch (Exception e) {
+                logger.error("Could not register GridFS file {}: {}", id, e.getMessage());
+            }
+        }
+        if (registered > 0) {
+            logger.info("Registered {} pre-existing GridFS file(s) for deduplication", registered);
+        }
+        return registered;
+    }
+
+    /**
+     * Deletes blobs nobody references any more, in batches: one findAndRemove
+     * per blob (which re-checks the count, so a concurrent upload of the same
+     * content wins) and one bulk delete of their GridFS files and chunks.
+     */
+    @Scheduled(fixedDelayString = "${wheelio.files.gc.interval-ms:600000}",
+            initialDelayString = "${wheelio.files.gc.interval-ms:600000}")
+    public int collectGarbage() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(gcGraceMs));
+        Query unreferenced = new Query(Criteria.where("refCount").lte(0).and("unreferencedSince").lt(cutoff))
+                .limit(gcBatchSize);
+        int removed = 0;
+        while (true) {
+            List<FileBlob> batch = mongoTemplate.find(unreferenced, FileBlob.class);
+            List<ObjectId> gridFsIds = new ArrayList<>();
+            for (FileBlob candidate : batch) {
+                FileBlob gone = mongoTemplate.findAndRemove(new Query(Criteria.where("_id").is(candidate.getId())
+                        .and("refCount").lte(0)), FileBlob.class);
+                if (gone == null) {
+                    continue;
+                }
+                removed++;
+                if (ObjectId.isValid(gone.getGridFsId())) {
+                    gridFsIds.add(new ObjectId(gone.getGridFsId()));
+                }
+                if (gone.getRenditions() != null) {
+                    gone.getRenditions().values().forEach(rid -> gridFsIds.add(new ObjectId(rid)));
+                }
+            }
+            if (!gridFsIds.isEmpty()) {
+                mongoTemplate.getCollection("fs.chunks").deleteMany(Filters.in("files_id", gridFsIds));
+                mongoTemplate.getCollection("fs.files").deleteMany(Filters.in("_id", gridFsIds));
+            }
+            if (batch.size() < gcBatchSize) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            logger.info("File GC removed {} unreferenced blob(s)", removed);
+        }
+        return removed;
+    }
+
+    /** Physical vs logical bytes across all blobs. */
+    public Map<String, Object> dedupReport() {
+        Document totals = mongoTemplate.getCollection("file_blobs").aggregate(List.of(
+                new Document("$match", new Document("refCount", new Document("$gt", 0))),
+                new Document("$group", new Document("_id", null)
+                        .append("blobs", new Document("$sum", 1))
+                        .append("references", new Document("$sum", "$refCount"))
+                        .append("physicalBytes", new Document("$sum", "$length"))
+                        .append("logicalBytes", new Document("$sum",
+                                new Document("$multiply", List.of("$length", "$refCount")))))))
+                .first();
+        long blobs = totals != null ? ((Number) totals.get("blobs")).longValue() : 0L;
+        long references = totals != null ? ((Number) totals.get("references")).longValue() : 0L;
+        long physical = totals != null ? ((Number) totals.get("physicalBytes")).longValue() : 0L;
+        long logical = totals != null ? ((Number) totals.get("logicalBytes")).longValue() : 0L;
+        long pending = mongoTemplate.count(new Query(Criteria.where("refCount").lte(0)), FileBlob.class);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("blobs", blobs);
+        report.put("references", references);
+        report.put("physicalBytes", physical);
+        report.put("logicalBytes", logical);
+        report.put("bytesSaved", logical - physical);
+        report.put("blobsAwaitingGc", pending);
+        return report;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,27 @@
+package com.wheelio.backend.service;
+
+/** Published by FileStorageService when new content (not a duplicate) has been stored. */
+public class FileStoredEvent {
+
+    private final String digest;
+    private final String gridFsId;
+    private final String contentType;
+
+    public FileStoredEvent(String digest, String gridFsId, String contentType) {
+        this.digest = digest;
+        this.gridFsId = gridFsId;
+        this.contentType = contentType;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public String getGridFsId() {
+        return gridFsId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
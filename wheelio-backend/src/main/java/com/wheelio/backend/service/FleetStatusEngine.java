@@ -0,0 +1,286 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.model.Vehicle;
+import com.wheelio.backend.repository.BookingRepository;
+import com.wheelio.backend.util.WorkerThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps Vehicle.status in line with the bookings: BOOKED while an active
+ * booking covers the current time, AVAILABLE otherwise (MAINTENANCE is manual
+ * and left alone), and CONFIRMED bookings become COMPLETED once they end.
+ *
+ * Every booking start and end is a tick in a DelayQueue (a priority queue by
+ * due time) drained by one worker thread, so nothing polls between
+ * transitions. Ticks that fall due together are handled as one pass: at most
+ * one expiry sweep plus one status refresh per vehicle. Status changes made
+ * through BookingService add ticks as they happen; a periodic reconcile
+ * reloads the queue to pick up bookings written by other nodes.
+ */
+@Component
+public class FleetStatusEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetStatusEngine.class);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wheelio.fleet.enabled:true}")
+    private boolean enabled;
+
+    @Value("${wheelio.fleet.sweep-batch-size:200}")
+    private int sweepBatchSize;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private final DelayQueue<Tick> ticks = new DelayQueue<>();
+
+    /** Keys of queued start/end ticks, so a reconcile does not queue a booking twice. */
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+
+    private volatile Thread worker;
+
+    private Timer sweepTimer;
+    private Timer tickLag;
+    private Timer expiryLag;
+    private Counter completed;
+    private Counter flips;
+
+    @PostConstruct
+    void init() {
+        sweepTimer = Timer.builder("wheelio.fleet.sweep.duration")
+                .description("Time to complete expired bookings, all batches")
+                .register(meterRegistry);
+        tickLag = Timer.builder("wheelio.fleet.tick.lag")
+                .description("How late booking start/end ticks are processed")
+                .register(meterRegistry);
+        expiryLag = Timer.builder("wheelio.fleet.expiry.lag")
+                .description("Time between a booking's end and it being marked COMPLETED")
+                .register(meterRegistry);
+        completed = Counter.builder("wheelio.fleet.bookings.completed")
+                .description("Bookings completed by the expiry sweep")
+                .register(meterRegistry);
+        flips = Counter.builder("wheelio.fleet.vehicle.flips")
+                .description("Vehicle status changes derived from bookings")
+                .register(meterRegistry);
+        Gauge.builder("wheelio.fleet.ticks.pending", ticks, DelayQueue::size)
+                .description("Scheduled booking start/end ticks")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || worker != null) {
+            return;
+        }
+        worker = WorkerThreads.factory("fleet-status-", virtualThreads).newThread(this::run);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        Thread w = worker;
+        if (w != null) {
+            w.interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            logger.error("Initial fleet status reconcile failed: {}", e.getMessage(), e);
+        }
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Tick> due = new ArrayList<>();
+            try {
+                due.add(ticks.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            ticks.drainTo(due);
+            long now = System.currentTimeMillis();
+            boolean anyEnd = false;
+            Set<String> vehicles = new LinkedHashSet<>();
+            for (Tick t : due) {
+                tickLag.record(Math.max(0, now - t.atMillis), TimeUnit.MILLISECONDS);
+                anyEnd |= t.end;
+                vehicles.add(t.vehicleId);
+                if (t.key != null) {
+                    scheduled.remove(t.key);
+                }
+            }
+            try {
+                if (anyEnd) {
+                    sweepExpired();
+                }
+                vehicles.forEach(this::refresh);
+            } catch (Exception e) {
+                logger.error("Fleet status tick failed for {}: {}", vehicles, e.getMessage());
+            }
+        }
+    }
+
+    @EventListener
+    public void onStatusChanged(BookingStatusChangedEvent event) {
+        Booking b = event.getBooking();
+        if (!enabled || b.getVehicleId() == null) {
+            return;
+        }
+        ticks.add(new Tick(System.currentTimeMillis(), b.getVehicleId(), false, null));
+        schedule(b);
+    }
+
+    private void schedule(Booking b) {
+        if (!AvailabilityIndex.isActive(b) || b.getStartDate() == null || b.getEndDate() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long start = toMillis(b.getStartDate());
+        long end = toMillis(b.getEndDate());
+        if (start > now && scheduled.add(b.getId() + ":s:" + start)) {
+            ticks.add(new Tick(start, b.getVehicleId(), false, b.getId() + ":s:" + start));
+        }
+        if (end > now && scheduled.add(b.getId() + ":e:" + end)) {
+            ticks.add(new Tick(end, b.getVehicleId(), true, b.getId() + ":e:" + end));
+        }
+    }
+
+    /**
+     * Completes every CONFIRMED booking that has ended, in batches of
+     * {@code wheelio.fleet.sweep-batch-size}. Returns how many were completed.
+     */
+    public int sweepExpired() {
+        long t0 = System.nanoTime();
+        int total = 0;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now();
+            long nowMillis = System.currentTimeMillis();
+            while (true) {
+                List<Booking> batch = bookingService.completeExpiredBookings(cutoff, sweepBatchSize);
+                for (Booking b : batch) {
+                    expiryLag.record(Math.max(0, nowMillis - toMillis(b.getEndDate())), TimeUnit.MILLISECONDS);
+                }
+                total += batch.size();
+                if (batch.size() < sweepBatchSize) {
+                    break;
+                }
+            }
+        } finally {
+            sweepTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+        if (total > 0) {
+            completed.increment(total);
+            logger.info("Completed {} expired booking(s)", total);
+        }
+        return total;
+    }
+
+    /** Derives the vehicle's status from its bookings now and writes it if it differs. */
+    public void refresh(String vehicleId) {
+        if (vehicleService.updateStatus(vehicleId, derive(vehicleId, LocalDateTime.now()))) {
+            flips.increment();
+        }
+    }
+
+    /**
+     * Full pass: completes expired bookings, queues ticks for any active
+     * booking in Mongo not already queued and re-derives every vehicle's
+     * status. Ticks of bookings cancelled meanwhile stay queued; they only
+     * cause a harmless refresh.
+     */
+    @Scheduled(fixedDelayString = "${wheelio.fleet.reconcile-interval-ms:900000}",
+            initialDelayString = "${wheelio.fleet.reconcile-interval-ms:900000}")
+    public void reconcile() {
+        if (!enabled) {
+            return;
+        }
+        sweepExpired();
+        bookingRepository.findByStatusIn(AvailabilityIndex.ACTIVE_STATUSES).forEach(this::schedule);
+        LocalDateTime now = LocalDateTime.now();
+        for (Vehicle v : vehicleService.getAllVehicles()) {
+            if (v.getStatus() == Vehicle.Status.MAINTENANCE) {
+                continue;
+            }
+            Vehicle.Status derived = derive(v.getId(), now);
+            if (derived != v.getStatus() && vehicleService.updateStatus(v.getId(), derived)) {
+                flips.increment();
+            }
+        }
+    }
+
+    /** BOOKED if an active booking covers {@code now}; the 1 ms probe matches Mongo's date precision. */
+    private Vehicle.Status derive(String vehicleId, LocalDateTime now) {
+        return bookingService.isVehicleAvailable(vehicleId, now, now.plus(1, ChronoUnit.MILLIS))
+                ? Vehicle.Status.AVAILABLE
+                : Vehicle.Status.BOOKED;
+    }
+
+    public int pendingTicks() {
+        return ticks.size();
+    }
+
+    private static long toMillis(LocalDateTime t) {
+        return t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Tick implements Delayed {
+        final long atMillis;
+        final String vehicleId;
+        final boolean end;
+        final String key;
+
+        Tick(long atMillis, String vehicleId, boolean end, String key) {
+            this.atMillis = atMillis;
+            this.vehicleId = vehicleId;
+            this.end = end;
+            this.key = key;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(atMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(atMillis, ((Tick) other).atMillis);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.wheelio.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Point index for k-nearest lookups. Points are bucketed by their geohash
+ * cell at the given precision (5 characters is roughly 4.9 x 4.9 km at the
+ * equator). A query scans rings of cells outward from the query's cell and
+ * stops once no unscanned cell can hold anything closer than the current
+ * k-th hit, or anything inside the radius.
+ *
+ * Not thread-safe; VehicleGeoIndex guards it with a read/write lock.
+ */
+public final class GeoGrid<T> {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    public record Hit<T>(T value, double distanceKm) {
+    }
+
+    private static final class Point<T> {
+        final String id;
+        final double lat;
+        final double lng;
+        final long cell;
+        final T value;
+
+        Point(String id, double lat, double lng, long cell, T value) {
+            this.id = id;
+            this.lat = lat;
+            this.lng = lng;
+            this.cell = cell;
+            this.value = value;
+        }
+    }
+
+    private final int rows;
+    private final int cols;
+    private final double cellLat;
+    private final double cellLng;
+    private final Map<Long, List<Point<T>>> cells = new HashMap<>();
+    private final Map<String, Point<T>> byId = new HashMap<>();
+
+    /** @param precision geohash length in characters, 1 to 8 */
+    public GeoGrid(int precision) {
+        if (precision < 1 || precision > 8) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and 8");
+        }
+        // geohash alternates longitude and latitude bits, longitude first
+        int bits = precision * 5;
+        rows = 1 << (bits / 2);
+        cols = 1 << ((bits + 1) / 2);
+        cellLat = 180.0 / rows;
+        cellLng = 360.0 / cols;
+    }
+
+    public void put(String id, double lat, double lng, T value) {
+        if (!(lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180)) {
+            throw new IllegalArgumentException("Coordinates out of range: " + lat + ", " + lng);
+        }
+        remove(id);
+        Point<T> p = new Point<>(id, lat, lng, cell(row(lat), col(lng)), value);
+        byId.put(id, p);
+        cells.computeIfAbsent(p.cell, k -> new ArrayList<>()).add(p);
+    }
+
+    public void remove(String id) {
+        Point<T> old = byId.remove(id);
+        if (old == null) {
+            return;
+        }
+        List<Point<T>> bucket = cells.get(old.cell);
+        bucket.remove(old);
+        if (bucket.isEmpty()) {
+            cells.remove(old.cell);
+        }
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Up to {@code limit} values within {@code radiusKm} that pass {@code filter},
+     * nearest first.
+     */
+    public List<Hit<T>> nearest(double lat, double lng, double radiusKm, int limit, Predicate<? super T> filter) {
+        if (limit <= 0 || radiusKm <= 0 || byId.isEmpty()) {
+            return List.of();
+        }
+        int row = row(lat);
+        int col = col(lng);
+        double latSpan = radiusKm / KM_PER_DEGREE;
+        double cos = Math.cos(Math.toRadians(Math.min(90, Math.abs(lat) + latSpan + cellLat)));
+        int maxRows = (int) Math.ceil(latSpan / cellLat);
+        int maxCols = cos < 1e-9 ? cols : (int) Math.ceil(latSpan / cos / cellLng);
+        maxCols = Math.min(maxCols, (cols - 1) / 2);
+        // every cell in ring r is at least r - 1 whole cells from the query point
+        double ringKm = Math.min(cellLat, cellLng * cos) * KM_PER_DEGREE;
+
+        PriorityQueue<Hit<T>> best = new PriorityQueue<>(limit + 1,
+                Comparator.comparingDouble((Hit<T> h) -> h.distanceKm()).reversed());
+        int maxRing = Math.max(maxRows, maxCols);
+        for (int r = 0; r <= maxRing; r++) {
+            double bound = (r - 1) * ringKm;
+            if (bound > radiusKm || (best.size() == limit && bound > best.peek().distanceKm())) {
+                break;
+            }
+            for (int dr = -Math.min(r, maxRows); dr <= Math.min(r, maxRows); dr++) {
+                // inner rows of the ring only contribute their two end cells
+                int step = Math.abs(dr) == r ? 1 : 2 * r;
+                for (int dc = -r; dc <= r; dc += step) {
+                    if (Math.abs(dc) <= maxCols) {
+                        scan(row + dr, col + dc, lat, lng, radiusKm, limit, filter, best);
+                    }
+                }
+            }
+        }
+        List<Hit<T>> out = new ArrayList<>(best);
+        out.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return out;
+    }
+
+    private void scan(int row, int col, double lat, double lng, double radiusKm, int limit,
+            Predicate<? super T> filter, PriorityQueue<Hit<T>> best) {
+        if (row < 0 || row >= rows) {
+            return;
+        }
+        List<Point<T>> bucket = cells.get(cell(row, Math.floorMod(col, cols)));
+        if (bucket == null) {
+            return;
+        }
+        for (Point<T> p : bucket) {
+            double d = distanceKm(lat, lng, p.lat, p.lng);
+            if (d > radiusKm || (best.size() == limit && d >= best.peek().distanceKm())) {
+                continue;
+            }
+            if (filter != null && !filter.test(p.value)) {
+                continue;
+            }
+            best.add(new Hit<>(p.value, d));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+    }
+
+    private int row(double lat) {
+        return Math.min(rows - 1, (int) ((lat + 90) / cellLat));
+    }
+
+    private int col(double lng) {
+        return Math.floorMod((int) ((lng + 180) / cellLng), cols);
+    }
+
+    private static long cell(int row, int col) {
+        return ((long) row << 32) | col;
+    }
+
+    /** Great-circle distance by the haversine formula. */
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                        * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,218 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.FileBlob;
+import com.wheelio.backend.util.ImageResizer;
+import com.wheelio.backend.util.WorkerThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates downscaled renditions of uploaded images so list and grid views
+ * don't pull originals. Work happens per blob (not per upload), so duplicate
+ * uploads reuse the renditions of the content they share.
+ */
+@Service
+public class ImageRenditionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageRenditionService.class);
+
+    public enum Size {
+        THUMB(160), CARD(480), FULL(1600);
+
+        private final int maxDimension;
+
+        Size(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public int getMaxDimension() {
+            return maxDimension;
+        }
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /** Null for null; IllegalArgumentException for anything but thumb, card or full. */
+        public static Size parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("size must be one of thumb, card, full");
+            }
+        }
+    }
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wheelio.images.workers:2}")
+    private int workers;
+
+    @Value("${wheelio.images.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${wheelio.images.backfill-batch-size:64}")
+    private int backfillBatchSize;
+
+    private ThreadPoolExecutor executor;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+    private Timer renderTimer;
+
+    private Counter skipped;
+
+    @PostConstruct
+    void init() {
+        // decoding is CPU and heap heavy: a small fixed pool, and uploads never wait on it
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), WorkerThreads.factory("image-render-", false),
+                new ThreadPoolExecutor.AbortPolicy());
+        renderTimer = Timer.builder("wheelio.images.render.latency")
+                .description("Time to decode an image and write its renditions")
+                .register(meterRegistry);
+        skipped = Counter.builder("wheelio.images.render.skipped")
+                .description("Uploads not rendered because the queue was full (picked up by backfill)")
+                .register(meterRegistry);
+        Gauge.builder("wheelio.images.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @EventListener
+    public void onFileStored(FileStoredEvent event) {
+        if (event.getContentType() == null || !event.getContentType().startsWith("image/")) {
+            return;
+        }
+        try {
+            executor.execute(() -> render(event.getDigest(), event.getGridFsId()));
+        } catch (RejectedExecutionException e) {
+            skipped.increment();
+            logger.warn("Rendition queue full, leaving {} for the backfill", event.getDigest());
+        }
+    }
+
+    /**
+     * Decodes the blob once (subsampled to about the largest size) and scales
+     * each smaller rendition from the previous one. Sizes the original already
+     * fits in are not generated; downloads fall back to the original for them.
+     * Always marks the blob as processed, so undecodable images are not retried.
+     */
+    public void render(String digest, String gridFsId) {
+        long t0 = System.nanoTime();
+        Map<String, byte[]> renditions = new LinkedHashMap<>();
+        String contentType = null;
+        try (InputStream in = fileStorageService.openBlob(gridFsId)) {
+            BufferedImage image = ImageResizer.decode(in, Size.FULL.getMaxDimension());
+            if (image != null) {
+                int longest = Math.max(image.getWidth(), image.getHeight());
+                contentType = ImageResizer.contentTypeFor(image);
+                for (Size size : new Size[] { Size.FULL, Size.CARD, Size.THUMB }) {
+                    if (longest <= size.getMaxDimension()) {
+                        continue;
+                    }
+                    image = ImageResizer.scaleToFit(image, size.getMaxDimension());
+                    renditions.put(size.key(), ImageResizer.encode(image));
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Could not render image {}: {}", digest, e.getMessage());
+            renditions.clear();
+        }
+        try {
+            fileStorageService.saveRenditions(digest, renditions, contentType);
+        } finally {
+            renderTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Renders every image blob that has no renditions yet, one batch at a time
+     * on a pool sized to the CPU count. Returns the number of blobs processed,
+     * or -1 if a backfill is already running.
+     */
+    public int backfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return -1;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(backfillBatchSize), WorkerThreads.factory("image-backfill-", false),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        Set<String> attempted = new HashSet<>();
+        int processed = 0;
+        try {
+            while (true) {
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (FileBlob blob : fileStorageService.blobsWithoutRenditions(backfillBatchSize)) {
+                    if (attempted.add(blob.getId())) {
+                        tasks.add(() -> {
+                            render(blob.getId(), blob.getGridFsId());
+                            return null;
+                        });
+                    }
+                }
+                if (tasks.isEmpty()) {
+                    break;
+                }
+                for (Future<Void> f : pool.invokeAll(tasks)) {
+                    try {
+                        f.get();
+                        processed++;
+                    } catch (ExecutionException e) {
+                        logger.warn("Rendition backfill task failed: {}", e.getCause().getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdown();
+            backfillRunning.set(false);
+        }
+        if (processed > 0) {
+            logger.info("Rendition backfill processed {} image(s)", processed);
+        }
+        return processed;
+    }
+}
@@ -0,0 +1,154 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.PriceQuote;
+import com.wheelio.backend.model.Vehicle;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.TreeMap;
+
+/**
+ * Pricing rules compiled into flat arrays so a quote is a few table lookups
+ * and long arithmetic. All money is in paise and percentages in basis points.
+ *
+ * A rental is billed per started 24 hours (minimum one day) at the vehicle's
+ * daily rate. Billed days falling on a weekend day carry the weekend
+ * surcharge; the highest duration tier reached discounts rental plus
+ * surcharge; the driver add-on is per billed day; tax applies to the sum.
+ * The damage deposit depends on the vehicle type and is not taxed.
+ */
+public final class PriceRules {
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private final long driverPerDayMinor;
+    private final int weekendBps;
+    private final int weekendDaysPerWeek;
+    /** weekendPrefix[d][n]: weekend days among the n days starting on DayOfWeek value d. */
+    private final int[][] weekendPrefix = new int[8][7];
+    private final int[] tierMinDays;
+    private final int[] tierBps;
+    private final int taxBps;
+    private final long defaultDepositMinor;
+    private final long[] depositByType;
+
+    private PriceRules(long driverPerDayMinor, int weekendBps, boolean[] weekend, int[] tierMinDays, int[] tierBps,
+            int taxBps, long defaultDepositMinor, long[] depositByType) {
+        this.driverPerDayMinor = driverPerDayMinor;
+        this.weekendBps = weekendBps;
+        int perWeek = 0;
+        for (int d = 1; d <= 7; d++) {
+            perWeek += weekend[d] ? 1 : 0;
+            for (int n = 1; n < 7; n++) {
+                int dow = (d - 1 + n - 1) % 7 + 1;
+                weekendPrefix[d][n] = weekendPrefix[d][n - 1] + (weekend[dow] ? 1 : 0);
+            }
+        }
+        this.weekendDaysPerWeek = perWeek;
+        this.tierMinDays = tierMinDays;
+        this.tierBps = tierBps;
+        this.taxBps = taxBps;
+        this.defaultDepositMinor = defaultDepositMinor;
+        this.depositByType = depositByType;
+    }
+
+    /**
+     * Builds the rule table. {@code weekendDays} is a comma-separated list of
+     * day names, {@code durationTiers} of {@code minDays:percent} pairs and
+     * {@code depositByType} of {@code TYPE:amount} pairs; blank lists are
+     * allowed. Throws IllegalArgumentException on malformed input.
+     */
+    public static PriceRules compile(BigDecimal driverPerDay, BigDecimal weekendPercent, String weekendDays,
+            String durationTiers, BigDecimal taxPercent, BigDecimal deposit, String depositByType) {
+        boolean[] weekend = new boolean[8];
+        for (String day : split(weekendDays)) {
+            weekend[DayOfWeek.valueOf(day.toUpperCase(Locale.ROOT)).getValue()] = true;
+        }
+
+        TreeMap<Integer, Integer> tiers = new TreeMap<>();
+        for (String tier : split(durationTiers)) {
+            String[] parts = pair(tier);
+            int minDays = Integer.parseInt(parts[0]);
+            if (minDays < 1) {
+                throw new IllegalArgumentException("Duration tier must start at 1 day or more: " + tier);
+            }
+            tiers.put(minDays, bps(new BigDecimal(parts[1])));
+        }
+
+        long[] deposits = new long[Vehicle.VehicleType.values().length];
+        Arrays.fill(deposits, minor(deposit));
+        for (String entry : split(depositByType)) {
+            String[] parts = pair(entry);
+            deposits[Vehicle.VehicleType.valueOf(parts[0].toUpperCase(Locale.ROOT)).ordinal()] =
+                    minor(new BigDecimal(parts[1]));
+        }
+
+        return new PriceRules(minor(driverPerDay), bps(weekendPercent), weekend,
+                tiers.keySet().stream().mapToInt(Integer::intValue).toArray(),
+                tiers.values().stream().mapToInt(Integer::intValue).toArray(),
+                bps(taxPercent), minor(deposit), deposits);
+    }
+
+    /** Quotes a rental; throws IllegalArgumentException unless {@code end} is after {@code start}. */
+    public PriceQuote quote(long dailyRateMinor, Vehicle.VehicleType type, LocalDateTime start, LocalDateTime end,
+            boolean withDriver) {
+        long millis = Duration.between(start, end).toMillis();
+        if (millis <= 0) {
+            throw new IllegalArgumentException("end must be after start");
+        }
+        int days = (int) Math.max(1, (millis + DAY_MILLIS - 1) / DAY_MILLIS);
+        int weekendDays = (days / 7) * weekendDaysPerWeek + weekendPrefix[start.getDayOfWeek().getValue()][days % 7];
+
+        long rental = dailyRateMinor * days;
+        long surcharge = percentOf(dailyRateMinor * weekendDays, weekendBps);
+        long discount = percentOf(rental + surcharge, tierBpsFor(days));
+        long driver = withDriver ? driverPerDayMinor * days : 0;
+        long subtotal = rental + surcharge - discount + driver;
+        long tax = percentOf(subtotal, taxBps);
+        long deposit = type != null ? depositByType[type.ordinal()] : defaultDepositMinor;
+        return new PriceQuote(null, days, weekendDays, rental, surcharge, discount, driver, tax, subtotal + tax,
+                deposit);
+    }
+
+    private int tierBpsFor(int days) {
+        int bps = 0;
+        for (int i = 0; i < tierMinDays.length && tierMinDays[i] <= days; i++) {
+            bps = tierBps[i];
+        }
+        return bps;
+    }
+
+    /** Rupees to paise, rounded half-up. */
+    public static long minor(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static long percentOf(long amount, int bps) {
+        return (amount * bps + 5_000) / 10_000;
+    }
+
+    private static int bps(BigDecimal percent) {
+        int bps = percent.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+        if (bps < 0 || bps > 10_000) {
+            throw new IllegalArgumentException("Percentage out of range: " + percent);
+        }
+        return bps;
+    }
+
+    private static String[] split(String list) {
+        return list == null || list.isBlank() ? new String[0] : list.trim().split("\\s*,\\s*");
+    }
+
+    private static String[] pair(String entry) {
+        String[] parts = entry.split("\\s*:\\s*");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected key:value, got " + entry);
+        }
+        return parts;
+    }
+}
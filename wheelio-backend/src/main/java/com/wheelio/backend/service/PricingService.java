@@ -0,0 +1,89 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.PriceQuote;
+import com.wheelio.backend.model.Vehicle;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Prices rentals from Vehicle.pricePerDay and the wheelio.pricing.* rules,
+ * which are compiled once into a {@link PriceRules} table at startup.
+ * Vehicles are read from the catalogue cache, so quoting a whole search page
+ * does not touch Mongo.
+ */
+@Service
+public class PricingService {
+
+    @Autowired
+    private VehicleCatalogueCache catalogueCache;
+
+    @Value("${wheelio.pricing.driver-per-day:800}")
+    private BigDecimal driverPerDay;
+
+    @Value("${wheelio.pricing.weekend-surcharge-percent:10}")
+    private BigDecimal weekendSurchargePercent;
+
+    @Value("${wheelio.pricing.weekend-days:FRIDAY,SATURDAY,SUNDAY}")
+    private String weekendDays;
+
+    @Value("${wheelio.pricing.duration-tiers:3:5,7:10,30:20}")
+    private String durationTiers;
+
+    @Value("${wheelio.pricing.tax-percent:18}")
+    private BigDecimal taxPercent;
+
+    @Value("${wheelio.pricing.deposit:500}")
+    private BigDecimal deposit;
+
+    @Value("${wheelio.pricing.deposit-by-type:}")
+    private String depositByType;
+
+    private PriceRules rules;
+
+    @PostConstruct
+    void init() {
+        rules = PriceRules.compile(driverPerDay, weekendSurchargePercent, weekendDays, durationTiers, taxPercent,
+                deposit, depositByType);
+    }
+
+    /** Throws IllegalArgumentException if the vehicle has no daily rate or the period is empty. */
+    public PriceQuote quote(Vehicle vehicle, LocalDateTime start, LocalDateTime end, boolean withDriver) {
+        if (vehicle.getPricePerDay() == null) {
+            throw new IllegalArgumentException("Vehicle " + vehicle.getId() + " has no daily rate");
+        }
+        PriceQuote quote = rules.quote(PriceRules.minor(vehicle.getPricePerDay()), vehicle.getType(), start, end,
+                withDriver);
+        quote.setVehicleId(vehicle.getId());
+        return quote;
+    }
+
+    public Optional<PriceQuote> quote(String vehicleId, LocalDateTime start, LocalDateTime end, boolean withDriver) {
+        return catalogueCache.byId(vehicleId).map(v -> quote(v, start, end, withDriver));
+    }
+
+    /**
+     * Quotes each vehicle for the same period, in the order given. Unknown
+     * vehicles and vehicles without a daily rate are left out.
+     */
+    public List<PriceQuote> quoteAll(List<String> vehicleIds, LocalDateTime start, LocalDateTime end,
+            boolean withDriver) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("end must be after start");
+        }
+        List<PriceQuote> quotes = new ArrayList<>(vehicleIds.size());
+        for (String id : vehicleIds) {
+            catalogueCache.byId(id)
+                    .filter(v -> v.getPricePerDay() != null)
+                    .ifPresent(v -> quotes.add(quote(v, start, end, withDriver)));
+        }
+        return quotes;
+    }
+}
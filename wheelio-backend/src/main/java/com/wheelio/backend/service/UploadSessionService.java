@@ -0,0 +1,228 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.exception.UploadIntegrityException;
+import com.wheelio.backend.model.StoredFile;
+import com.wheelio.backend.model.UploadSession;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable uploads: a session is created with the total size, the client
+ * PUTs consecutive byte ranges (each written straight into GridFS chunks),
+ * can ask for the current offset after a dropped connection, and finally
+ * completes the session, which verifies the file and registers it like a
+ * regular upload.
+ *
+ * Each write claims the session with a short lease via findAndModify keyed on
+ * the expected offset, so concurrent or replayed PUTs for the same range
+ * cannot interleave. Sessions idle past the TTL are swept with their chunks.
+ */
+@Service
+public class UploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-fA-F]{64}");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wheelio.uploads.max-bytes:1073741824}")
+    private long maxBytes;
+
+    @Value("${wheelio.uploads.max-chunk-bytes:16777216}")
+    private long maxChunkBytes;
+
+    @Value("${wheelio.uploads.session-ttl-ms:86400000}")
+    private long sessionTtlMs;
+
+    @Value("${wheelio.uploads.lock-ms:300000}")
+    private long lockMs;
+
+    @Value("${wheelio.uploads.sweep-batch-size:100}")
+    private int sweepBatchSize;
+
+    private Counter expired;
+
+    @PostConstruct
+    void init() {
+        expired = Counter.builder("wheelio.uploads.expired")
+                .description("Resumable upload sessions removed after their TTL")
+                .register(meterRegistry);
+    }
+
+    public UploadSession create(String name, String contentType, long length, String sha256) {
+        if (length <= 0 || length > maxBytes) {
+            throw new IllegalArgumentException("length must be between 1 and " + maxBytes + " bytes");
+        }
+        if (sha256 != null && !SHA256_HEX.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("sha256 must be 64 hex characters");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession session = new UploadSession();
+        session.setId(new ObjectId().toHexString());
+        session.setGridFsId(new ObjectId().toHexString());
+        session.setName(name);
+        session.setContentType(contentType);
+        session.setLength(length);
+        session.setSha256(sha256 != null ? sha256.toLowerCase() : null);
+        session.setCarry(new byte[0]);
+        session.setCreatedAt(now);
+        session.setExpiresAt(now.plus(Duration.ofMillis(sessionTtlMs)));
+        return mongoTemplate.insert(session);
+    }
+
+    public Optional<UploadSession> get(String id) {
+        UploadSession session = mongoTemplate.findById(id, UploadSession.class);
+        return session != null && session.getExpiresAt().isAfter(LocalDateTime.now())
+                ? Optional.of(session)
+                : Optional.empty();
+    }
+
+    public long maxChunkBytes() {
+        return maxChunkBytes;
+    }
+
+    /**
+     * Appends the request body at {@code offset} and returns the new offset.
+     * Throws IllegalStateException when {@code offset} is not the session's
+     * current offset (or another request is writing), and
+     * IllegalArgumentException when the body would run past the declared length.
+     */
+    public long append(String id, long offset, InputStream body) throws IOException {
+        UploadSession session = claim(id, Criteria.where("offset").is(offset));
+        try {
+            FileStorageService.AppendResult written = fileStorageService.appendChunks(session.getGridFsId(),
+                    session.getNextChunk(), session.getCarry(), body,
+                    Math.min(maxChunkBytes, session.getLength() - offset));
+            long newOffset = offset + written.getBytesRead();
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id).and("offset").is(offset)),
+                    new Update().set("offset", newOffset)
+                            .set("nextChunk", written.getNextChunk())
+                            .set("carry", written.getCarry())
+                            .set("expiresAt", LocalDateTime.now().plus(Duration.ofMillis(sessionTtlMs)))
+                            .unset("lockedUntil"),
+                    UploadSession.class);
+            return newOffset;
+        } catch (IOException | RuntimeException e) {
+            release(id);
+            throw e;
+        }
+    }
+
+    /** Verifies and registers the finished file, then removes the session. */
+    public StoredFile complete(String id) throws IOException {
+        UploadSession session = claim(id, null);
+        if (session.getOffset() != session.getLength()) {
+            release(id);
+            throw new IllegalStateException("Upload incomplete: " + session.getOffset() + " of "
+                    + session.getLength() + " bytes received");
+        }
+        try {
+            StoredFile file = fileStorageService.completeUpload(session.getGridFsId(), session.getNextChunk(),
+                    session.getCarry(), session.getLength(), session.getName(), session.getContentType(),
+                    session.getSha256());
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(id)), UploadSession.class);
+            return file;
+        } catch (UploadIntegrityException e) {
+            // the chunks are gone; the client has to start a new session
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(id)), UploadSession.class);
+            throw e;
+        } catch (RuntimeException e) {
+            release(id);
+            throw e;
+        }
+    }
+
+    public boolean abort(String id) {
+        UploadSession session = mongoTemplate.findAndRemove(new Query(Criteria.where("_id").is(id)),
+                UploadSession.class);
+        if (session == null) {
+            return false;
+        }
+        fileStorageService.discardUpload(session.getGridFsId());
+        return true;
+    }
+
+    /** Removes sessions idle past their TTL, together with the chunks they wrote. */
+    @Scheduled(fixedDelayString = "${wheelio.uploads.sweep-interval-ms:900000}",
+            initialDelayString = "${wheelio.uploads.sweep-interval-ms:900000}")
+    public int sweepExpired() {
+        int removed = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Criteria stale = Criteria.where("expiresAt").lt(now).orOperator(
+                    Criteria.where("lockedUntil").exists(false), Criteria.where("lockedUntil").lt(now));
+            List<UploadSession> batch = mongoTemplate.find(new Query(stale).limit(sweepBatchSize),
+                    UploadSession.class);
+            for (UploadSession candidate : batch) {
+                UploadSession gone = mongoTemplate.findAndRemove(
+                        new Query(Criteria.where("_id").is(candidate.getId()).andOperator(stale)),
+                        UploadSession.class);
+                if (gone != null) {
+                    fileStorageService.discardUpload(gone.getGridFsId());
+                    removed++;
+                }
+            }
+            if (batch.size() < sweepBatchSize) {
+                break;
+            }
+        }
+        if (removed > 0) {
+            expired.increment(removed);
+            logger.info("Removed {} expired upload session(s)", removed);
+        }
+        return removed;
+    }
+
+    private UploadSession claim(String id, Criteria extra) throws FileNotFoundException {
+        LocalDateTime now = LocalDateTime.now();
+        Criteria claimable = Criteria.where("_id").is(id).and("expiresAt").gt(now).orOperator(
+                Criteria.where("lockedUntil").exists(false), Criteria.where("lockedUntil").lt(now));
+        Query query = new Query(extra != null ? new Criteria().andOperator(claimable, extra) : claimable);
+        UploadSession session = mongoTemplate.findAndModify(query,
+                new Update().set("lockedUntil", now.plus(Duration.ofMillis(lockMs))),
+                FindAndModifyOptions.options().returnNew(true), UploadSession.class);
+        if (session != null) {
+            return session;
+        }
+        UploadSession current = get(id).orElseThrow(() -> new FileNotFoundException("Upload not found: " + id));
+        if (current.getLockedUntil() != null && current.getLockedUntil().isAfter(now)) {
+            throw new IllegalStateException("Another request is writing to this upload");
+        }
+        throw new IllegalStateException("Offset mismatch: upload is at " + current.getOffset());
+    }
+
+    private void release(String id) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(id)), new Update().unset("lockedUntil"),
+                UploadSession.class);
+    }
+}
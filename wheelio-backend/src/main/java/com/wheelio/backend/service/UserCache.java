@@ -0,0 +1,193 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.User;
+import com.wheelio.backend.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near-cache for user documents, keyed by email and by id. Login and
+ * {@code /api/auth/me} look users up by email on every call, so unknown emails
+ * are remembered too (for {@code wheelio.users.cache.negative-ttl-ms}) to keep
+ * probes for made-up addresses away from Mongo.
+ *
+ * UserServiceImpl writes through on every save and delete; entries also expire
+ * after {@code wheelio.users.cache.ttl-ms} to pick up writes from other nodes.
+ * Both maps are capped at {@code wheelio.users.cache.max-entries}.
+ */
+@Component
+public class UserCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wheelio.users.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${wheelio.users.cache.negative-ttl-ms:10000}")
+    private long negativeTtlMs;
+
+    @Value("${wheelio.users.cache.max-entries:10000}")
+    private int maxEntries;
+
+    /** A null user marks an email that is known not to exist. */
+    private final ConcurrentHashMap<String, Entry> byEmail = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Entry> byId = new ConcurrentHashMap<>();
+
+    /** Bumped on every write so a load that raced with it is not stored. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+    private Counter negativeHits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    void init() {
+        hits = Counter.builder("wheelio.users.cache.requests").tag("result", "hit").register(meterRegistry);
+        negativeHits = Counter.builder("wheelio.users.cache.requests").tag("result", "negative")
+                .description("Lookups answered by a remembered unknown email")
+                .register(meterRegistry);
+        misses = Counter.builder("wheelio.users.cache.requests").tag("result", "miss").register(meterRegistry);
+        evictions = Counter.builder("wheelio.users.cache.evictions")
+                .description("Entries dropped for size or age")
+                .register(meterRegistry);
+        Gauge.builder("wheelio.users.cache.size", byEmail, Map::size).register(meterRegistry);
+        Gauge.builder("wheelio.users.cache.hit.ratio", this, UserCache::hitRatio)
+                .description("Share of lookups answered without Mongo since startup")
+                .register(meterRegistry);
+    }
+
+    public Optional<User> byEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        Entry e = byEmail.get(email);
+        if (e != null && now < e.expiresAt) {
+            (e.user != null ? hits : negativeHits).increment();
+            return Optional.ofNullable(e.user);
+        }
+        misses.increment();
+        long gen = generation.get();
+        Optional<User> loaded = userRepository.findByEmail(email);
+        if (generation.get() == gen) {
+            if (loaded.isPresent()) {
+                store(loaded.get(), now);
+            } else {
+                makeRoom(now);
+                byEmail.put(email, new Entry(null, now + negativeTtlMs));
+            }
+        }
+        return loaded;
+    }
+
+    public Optional<User> byId(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        Entry e = byId.get(id);
+        if (e != null && now < e.expiresAt) {
+            hits.increment();
+            return Optional.of(e.user);
+        }
+        misses.increment();
+        long gen = generation.get();
+        Optional<User> loaded = userRepository.findById(id);
+        if (loaded.isPresent() && generation.get() == gen) {
+            store(loaded.get(), now);
+        }
+        return loaded;
+    }
+
+    /** Write-through after a save; also replaces a negative entry for the email. */
+    public void put(User saved) {
+        if (saved == null || saved.getId() == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        Entry old = byId.get(saved.getId());
+        if (old != null && old.user.getEmail() != null && !old.user.getEmail().equals(saved.getEmail())) {
+            byEmail.remove(old.user.getEmail());
+        }
+        store(saved, System.currentTimeMillis());
+    }
+
+    public void remove(String id) {
+        generation.incrementAndGet();
+        byId.remove(id);
+        // deletes are rare; the scan also catches an email entry whose id entry was already evicted
+        byEmail.values().removeIf(e -> e.user != null && id.equals(e.user.getId()));
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        byEmail.clear();
+        byId.clear();
+    }
+
+    private void store(User user, long now) {
+        makeRoom(now);
+        Entry e = new Entry(user, now + ttlMs);
+        byId.put(user.getId(), e);
+        if (user.getEmail() != null) {
+            byEmail.put(user.getEmail(), e);
+        }
+    }
+
+    private void makeRoom(long now) {
+        if (byEmail.size() >= maxEntries || byId.size() >= maxEntries) {
+            evict(now);
+        }
+    }
+
+    private void evict(long now) {
+        int before = byEmail.size() + byId.size();
+        byEmail.values().removeIf(e -> now >= e.expiresAt);
+        byId.values().removeIf(e -> now >= e.expiresAt);
+        trim(byEmail);
+        trim(byId);
+        evictions.increment(Math.max(0, before - byEmail.size() - byId.size()));
+    }
+
+    private void trim(ConcurrentHashMap<String, Entry> map) {
+        Iterator<String> it = map.keySet().iterator();
+        int excess = map.size() - maxEntries + Math.max(1, maxEntries / 10);
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private double hitRatio() {
+        double answered = hits.count() + negativeHits.count();
+        double total = answered + misses.count();
+        return total == 0 ? 0 : answered / total;
+    }
+
+    private static final class Entry {
+        final User user;
+        final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
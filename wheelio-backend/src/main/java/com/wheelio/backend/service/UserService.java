@@ -1,6 +1,7 @@
 package com.wheelio.backend.service;
 
 import com.wheelio.backend.model.User;
+import com.wheelio.backend.util.CursorPage;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +14,8 @@ public interface UserService {
 
     List<User> getAllUsers();
 
+    CursorPage<User> getUsersPage(String cursor, Integer limit, String sort);
+
     List<User> getUsersByRole(User.Role role);
 
     User updateUser(User user);
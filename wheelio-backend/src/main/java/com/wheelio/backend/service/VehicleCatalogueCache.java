@@ -0,0 +1,255 @@
+package com.wheelio.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wheelio.backend.model.Vehicle;
+import com.wheelio.backend.repository.VehicleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Near-cache for the public vehicle catalogue. The full fleet is held as one
+ * immutable snapshot together with its serialized JSON, so list requests are a
+ * byte copy; keyset pages are slices of sorted views of the same snapshot, and
+ * single vehicles come from the snapshot or a bounded per-id map.
+ *
+ * VehicleServiceImpl writes through on every save and delete, so status flips
+ * from the booking flow are visible immediately. Entries also expire after
+ * {@code wheelio.vehicles.cache.ttl-ms} to pick up writes from other nodes.
+ */
+@Component
+public class VehicleCatalogueCache {
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wheelio.vehicles.cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    @Value("${wheelio.vehicles.cache.max-entries:5000}")
+    private int maxEntries;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    private final ConcurrentHashMap<String, Entry> byId = new ConcurrentHashMap<>();
+
+    /** Bumped on every write so a load that raced with it is not stored. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    void init() {
+        hits = Counter.builder("wheelio.vehicles.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("wheelio.vehicles.cache.requests").tag("result", "miss").register(meterRegistry);
+        evictions = Counter.builder("wheelio.vehicles.cache.evictions")
+                .description("Per-id entries dropped for size or age")
+                .register(meterRegistry);
+        Gauge.builder("wheelio.vehicles.cache.size", byId, Map::size).register(meterRegistry);
+    }
+
+    public List<Vehicle> all() {
+        return fleet().vehicles;
+    }
+
+    public byte[] allJson() {
+        return fleet().allJson();
+    }
+
+    public List<Vehicle> available() {
+        return fleet().available;
+    }
+
+    public byte[] availableJson() {
+        return fleet().availableJson();
+    }
+
+    /**
+     * The fleet in {@code order}; sorted once per snapshot and kept under
+     * {@code key} until the next write or reload.
+     */
+    public List<Vehicle> sorted(String key, Comparator<Vehicle> order) {
+        Snapshot s = fleet();
+        return s.sorted.computeIfAbsent(key, k -> s.vehicles.stream().sorted(order).toList());
+    }
+
+    public Optional<Vehicle> byId(String id) {
+        long now = System.currentTimeMillis();
+        Snapshot s = snapshot.get();
+        if (s != null && !s.isExpired(now)) {
+            hits.increment();
+            return Optional.ofNullable(s.byId.get(id));
+        }
+        Entry e = byId.get(id);
+        if (e != null && now < e.expiresAt) {
+            hits.increment();
+            return Optional.of(e.vehicle);
+        }
+        misses.increment();
+        long gen = generation.get();
+        Optional<Vehicle> loaded = vehicleRepository.findById(id);
+        if (loaded.isPresent() && generation.get() == gen) {
+            if (byId.size() >= maxEntries) {
+                evict(now);
+            }
+            byId.put(id, new Entry(loaded.get(), now + ttlMs));
+        }
+        return loaded;
+    }
+
+    /** Write-through after a save: replaces (or appends) the vehicle in the cached views. */
+    public void put(Vehicle saved) {
+        if (saved == null || saved.getId() == null) {
+            return;
+        }
+        generation.incrementAndGet();
+        byId.put(saved.getId(), new Entry(saved, System.currentTimeMillis() + ttlMs));
+        snapshot.updateAndGet(s -> s == null ? null : s.with(saved));
+    }
+
+    public void remove(String id) {
+        generation.incrementAndGet();
+        byId.remove(id);
+        snapshot.updateAndGet(s -> s == null ? null : s.without(id));
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        byId.clear();
+        snapshot.set(null);
+    }
+
+    private Snapshot fleet() {
+        long now = System.currentTimeMillis();
+        Snapshot s = snapshot.get();
+        if (s != null && !s.isExpired(now)) {
+            hits.increment();
+            return s;
+        }
+        misses.increment();
+        long gen = generation.get();
+        Snapshot fresh = new Snapshot(vehicleRepository.findAll(), now + ttlMs);
+        if (generation.get() == gen) {
+            snapshot.compareAndSet(s, fresh);
+        }
+        return fresh;
+    }
+
+    private void evict(long now) {
+        int before = byId.size();
+        byId.values().removeIf(e -> now >= e.expiresAt);
+        Iterator<String> it = byId.keySet().iterator();
+        int excess = byId.size() - maxEntries + Math.max(1, maxEntries / 10);
+        while (excess-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+        evictions.increment(Math.max(0, before - byId.size()));
+    }
+
+    private static final class Entry {
+        final Vehicle vehicle;
+        final long expiresAt;
+
+        Entry(Vehicle vehicle, long expiresAt) {
+            this.vehicle = vehicle;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /** Immutable view of the fleet; JSON is rendered on first use and reused until replaced. */
+    private final class Snapshot {
+        final List<Vehicle> vehicles;
+        final List<Vehicle> available;
+        final Map<String, Vehicle> byId;
+        final Map<String, List<Vehicle>> sorted = new ConcurrentHashMap<>();
+        final long expiresAt;
+        private volatile byte[] allJson;
+        private volatile byte[] availableJson;
+
+        Snapshot(List<Vehicle> vehicles, long expiresAt) {
+            this.vehicles = List.copyOf(vehicles);
+            this.available = vehicles.stream().filter(v -> v.getStatus() == Vehicle.Status.AVAILABLE).toList();
+            Map<String, Vehicle> index = new LinkedHashMap<>();
+            vehicles.forEach(v -> index.put(v.getId(), v));
+            this.byId = index;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        Snapshot with(Vehicle saved) {
+            List<Vehicle> next = new ArrayList<>(vehicles.size() + 1);
+            boolean replaced = false;
+            for (Vehicle v : vehicles) {
+                if (v.getId().equals(saved.getId())) {
+                    next.add(saved);
+                    replaced = true;
+                } else {
+                    next.add(v);
+                }
+            }
+            if (!replaced) {
+                next.add(saved);
+            }
+            return new Snapshot(next, expiresAt);
+        }
+
+        Snapshot without(String id) {
+            if (!byId.containsKey(id)) {
+                return this;
+            }
+            return new Snapshot(vehicles.stream().filter(v -> !v.getId().equals(id)).toList(), expiresAt);
+        }
+
+        byte[] allJson() {
+            byte[] json = allJson;
+            if (json == null) {
+                json = allJson = serialize(vehicles);
+            }
+            return json;
+        }
+
+        byte[] availableJson() {
+            byte[] json = availableJson;
+            if (json == null) {
+                json = availableJson = serialize(available);
+            }
+            return json;
+        }
+    }
+
+    private byte[] serialize(List<Vehicle> vehicles) {
+        try {
+            return objectMapper.writeValueAsBytes(vehicles);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize vehicle catalogue", e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Vehicle;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory nearest-vehicle lookups over a GeoGrid of every vehicle with
+ * coordinates, so "cars near me" does not need a $geoNear round trip.
+ * Maintained like VehicleSearchIndex: VehicleServiceImpl writes through on
+ * save and delete, and a periodic rebuild from the catalogue picks up writes
+ * made on other nodes. Until the first build completes the service answers
+ * from Mongo instead.
+ */
+@Component
+public class VehicleGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleGeoIndex.class);
+
+    @Autowired
+    private VehicleCatalogueCache catalogueCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wheelio.geo.precision:5}")
+    private int precision;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Bumped on every put/remove so a rebuild that raced with one is redone. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private GeoGrid<Vehicle> grid;
+    private volatile boolean built;
+
+    private Timer queryTimer;
+
+    @PostConstruct
+    void init() {
+        grid = new GeoGrid<>(precision);
+        queryTimer = Timer.builder("wheelio.geo.nearby")
+                .description("In-memory nearest-vehicle lookups")
+                .register(meterRegistry);
+        Gauge.builder("wheelio.geo.points", this, VehicleGeoIndex::size).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${wheelio.geo.rebuild-interval-ms:60000}")
+    public void rebuild() {
+        for (int attempt = 1;; attempt++) {
+            long gen = generation.get();
+            GeoGrid<Vehicle> fresh = new GeoGrid<>(precision);
+            for (Vehicle v : catalogueCache.all()) {
+                add(fresh, v);
+            }
+            lock.writeLock().lock();
+            try {
+                if (generation.get() == gen || attempt == 3) {
+                    grid = fresh;
+                    built = true;
+                    logger.debug("Vehicle geo index rebuilt with {} point(s)", fresh.size());
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    public void put(Vehicle vehicle) {
+        if (vehicle == null || vehicle.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            grid.remove(vehicle.getId());
+            add(grid, vehicle);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            grid.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return grid.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<GeoGrid.Hit<Vehicle>> nearest(double lat, double lng, double radiusKm, int limit,
+            Predicate<Vehicle> filter) {
+        long t0 = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return grid.nearest(lat, lng, radiusKm, limit, filter);
+        } finally {
+            lock.readLock().unlock();
+            queryTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void add(GeoGrid<Vehicle> grid, Vehicle v) {
+        GeoJsonPoint at = v.getCoordinates();
+        if (at == null) {
+            return;
+        }
+        try {
+            grid.put(v.getId(), at.getY(), at.getX(), v);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Vehicle {} has invalid coordinates, not indexed: {}", v.getId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Vehicle;
+import com.wheelio.backend.model.VehicleSearchResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory faceted search over the vehicle catalogue. Every vehicle gets a
+ * dense doc id; each facet value keeps a BitSet of the docs that have it.
+ * A query ORs the selected values within a facet, ANDs across facets
+ * (features are all required) and counts facets with the same bitmaps, so
+ * cost depends on fleet size / 64 words rather than on documents.
+ *
+ * VehicleServiceImpl applies every save and delete in place, under the write
+ * lock. A periodic rebuild from the catalogue picks up writes made by other
+ * nodes and replaces the whole index at once.
+ */
+@Component
+public class VehicleSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleSearchIndex.class);
+
+    public enum Facet {
+        TYPE("type"), FUEL_TYPE("fuelType"), TRANSMISSION("transmission"), SEATS("seats"),
+        LOCATION("location"), PRICE_BAND("priceBand"), FEATURES("features"), STATUS("status");
+
+        private final String param;
+
+        Facet(String param) {
+            this.param = param;
+        }
+
+        public String param() {
+            return param;
+        }
+    }
+
+    @Data
+    public static class Filters {
+        private Map<Facet, List<String>> values = new EnumMap<>(Facet.class);
+        private Integer minSeats;
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+        /** price, -price, rating or name; null keeps index order. */
+        private String sort;
+        private int page;
+        private int size = 20;
+        /** Extra per-vehicle condition, e.g. free for a period; applied before facets are counted. */
+        private Predicate<String> vehicleFilter;
+    }
+
+    @Autowired
+    private VehicleCatalogueCache catalogueCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wheelio.search.price-bands:1000,2000,3000,5000}")
+    private String priceBands;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Bumped on every put/remove so a rebuild that raced with one is redone. */
+    private final AtomicLong generation = new AtomicLong();
+
+    private BigDecimal[] bandEdges;
+    private String[] bandLabels;
+    private State state = new State();
+    private volatile boolean built;
+
+    private Timer queryTimer;
+
+    @PostConstruct
+    void init() {
+        String[] edges = priceBands.isBlank() ? new String[0] : priceBands.trim().split("\\s*,\\s*");
+        bandEdges = Arrays.stream(edges).map(BigDecimal::new).sorted().toArray(BigDecimal[]::new);
+        bandLabels = new String[bandEdges.length + 1];
+        String lower = "0";
+        for (int i = 0; i < bandEdges.length; i++) {
+            bandLabels[i] = lower + "-" + bandEdges[i].toPlainString();
+            lower = bandEdges[i].toPlainString();
+        }
+        bandLabels[bandEdges.length] = lower + "+";
+
+        queryTimer = Timer.builder("wheelio.search.query")
+                .description("Catalogue search including facet counts")
+                .register(meterRegistry);
+        Gauge.builder("wheelio.search.documents", this, VehicleSearchIndex::size).register(meterRegistry);
+    }
+
+    /** Replaces the whole index with the current catalogue. */
+    @Scheduled(fixedDelayString = "${wheelio.search.rebuild-interval-ms:60000}",
+            initialDelayString = "${wheelio.search.rebuild-interval-ms:60000}")
+    public void rebuild() {
+        for (int attempt = 1;; attempt++) {
+            long gen = generation.get();
+            State fresh = new State();
+            for (Vehicle v : catalogueCache.all()) {
+                fresh.put(v);
+            }
+            lock.writeLock().lock();
+            try {
+                // a write that raced with the catalogue read would be lost by the swap
+                if (generation.get() == gen || attempt == 3) {
+                    state = fresh;
+                    built = true;
+                    logger.debug("Vehicle search index rebuilt with {} vehicle(s)", fresh.docIds.size());
+                    return;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void put(Vehicle vehicle) {
+        if (vehicle == null || vehicle.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            state.put(vehicle);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            state.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state.docIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public VehicleSearchResult search(Filters filters) {
+        if (!built) {
+            rebuild();
+        }
+        long t0 = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            return state.search(filters);
+        } finally {
+            lock.readLock().unlock();
+            queryTimer.record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String band(BigDecimal price) {
+        int i = 0;
+        while (i < bandEdges.length && price.compareTo(bandEdges[i]) >= 0) {
+            i++;
+        }
+        return bandLabels[i];
+    }
+
+    private List<String> valuesOf(Facet facet, Vehicle v) {
+        Object value = switch (facet) {
+            case TYPE -> v.getType();
+            case FUEL_TYPE -> v.getFuelType();
+            case TRANSMISSION -> v.getTransmission();
+            case SEATS -> v.getSeats();
+            case LOCATION -> v.getLocation();
+            case PRICE_BAND -> v.getPricePerDay() != null ? band(v.getPricePerDay()) : null;
+            case FEATURES -> v.getFeatures();
+            case STATUS -> v.getStatus();
+        };
+        if (value == null) {
+            return List.of();
+        }
+        if (value instanceof Collection<?> many) {
+            List<String> out = new ArrayList<>(many.size());
+            for (Object o : many) {
+                if (o != null && !o.toString().isBlank()) {
+                    out.add(o.toString().trim());
+                }
+            }
+            return out;
+        }
+        String s = value.toString().trim();
+        return s.isEmpty() ? List.of() : List.of(s);
+    }
+
+    private static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Posting {
+        final String label;
+        final BitSet docs = new BitSet();
+
+        Posting(String label) {
+            this.label = label;
+        }
+    }
+
+    /** Mutable index state; guarded by the outer lock once published. */
+    private final class State {
+        Vehicle[] docs = new Vehicle[64];
+        int highWater;
+        final BitSet live = new BitSet();
+        final Map<String, Integer> docIds = new HashMap<>();
+        final ArrayDeque<Integer> freeIds = new ArrayDeque<>();
+        final Map<Facet, Map<String, Posting>> postings = new EnumMap<>(Facet.class);
+
+        State() {
+            for (Facet f : Facet.values()) {
+                postings.put(f, new TreeMap<>());
+            }
+        }
+
+        void put(Vehicle v) {
+            Integer doc = docIds.get(v.getId());
+            if (doc != null) {
+                unindex(doc);
+            } else {
+                doc = freeIds.isEmpty() ? highWater++ : freeIds.pop();
+                if (doc >= docs.length) {
+                    docs = Arrays.copyOf(docs, docs.length * 2);
+                }
+                docIds.put(v.getId(), doc);
+            }
+            docs[doc] = v;
+            live.set(doc);
+            for (Facet f : Facet.values()) {
+                Map<String, Posting> byValue = postings.get(f);
+                for (String value : valuesOf(f, v)) {
+                    byValue.computeIfAbsent(key(value), k -> new Posting(value)).docs.set(doc);
+                }
+            }
+        }
+
+        void remove(String id) {
+            Integer doc = docIds.remove(id);
+            if (doc == null) {
+                return;
+            }
+            unindex(doc);
+            docs[doc] = null;
+            live.clear(doc);
+            freeIds.push(doc);
+        }
+
+        private void unindex(int doc) {
+            Vehicle old = docs[doc];
+            for (Facet f : Facet.values()) {
+                Map<String, Posting> byValue = postings.get(f);
+                for (String value : valuesOf(f, old)) {
+                    Posting p = byValue.get(key(value));
+                    if (p != null) {
+                        p.docs.clear(doc);
+                        if (p.docs.isEmpty()) {
+                            byValue.remove(key(value));
+                        }
+                    }
+                }
+            }
+        }
+
+        VehicleSearchResult search(Filters filters) {
+            BitSet base = (BitSet) live.clone();
+            if (filters.getMinPrice() != null || filters.getMaxPrice() != null || filters.getVehicleFilter() != null) {
+                for (int d = base.nextSetBit(0); d >= 0; d = base.nextSetBit(d + 1)) {
+                    if (!accept(docs[d], filters)) {
+                        base.clear(d);
+                    }
+                }
+            }
+
+            Map<Facet, BitSet> selected = new EnumMap<>(Facet.class);
+            for (Map.Entry<Facet, List<String>> e : filters.getValues().entrySet()) {
+                if (e.getValue() != null && !e.getValue().isEmpty()) {
+                    selected.put(e.getKey(), e.getKey() == Facet.FEATURES
+                            ? allOf(postings.get(Facet.FEATURES), e.getValue())
+                            : anyOf(postings.get(e.getKey()), e.getValue()));
+                }
+            }
+            if (filters.getMinSeats() != null) {
+                BitSet seats = new BitSet();
+                postings.get(Facet.SEATS).forEach((k, p) -> {
+                    if (Integer.parseInt(k) >= filters.getMinSeats()) {
+                        seats.or(p.docs);
+                    }
+                });
+                selected.merge(Facet.SEATS, seats, (a, b) -> {
+                    a.and(b);
+                    return a;
+                });
+            }
+
+            BitSet hits = (BitSet) base.clone();
+            selected.values().forEach(hits::and);
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            for (Facet f : Facet.values()) {
+                BitSet scope = hits;
+                if (f != Facet.FEATURES && selected.containsKey(f)) {
+                    scope = (BitSet) base.clone();
+                    for (Map.Entry<Facet, BitSet> e : selected.entrySet()) {
+                        if (e.getKey() != f) {
+                            scope.and(e.getValue());
+                        }
+                    }
+                }
+                Map<String, Integer> counts = new LinkedHashMap<>();
+                for (Posting p : postings.get(f).values()) {
+                    BitSet both = (BitSet) p.docs.clone();
+                    both.and(scope);
+                    int n = both.cardinality();
+                    if (n > 0) {
+                        counts.put(p.label, n);
+                    }
+                }
+                facets.put(f.param(), counts);
+            }
+
+            List<Vehicle> matches = new ArrayList<>(hits.cardinality());
+            for (int d = hits.nextSetBit(0); d >= 0; d = hits.nextSetBit(d + 1)) {
+                matches.add(docs[d]);
+            }
+            Comparator<Vehicle> order = comparator(filters.getSort());
+            if (order != null) {
+                matches.sort(order);
+            }
+            int size = Math.max(1, filters.getSize());
+            int from = Math.min(Math.max(filters.getPage(), 0) * size, matches.size());
+            int to = Math.min(from + size, matches.size());
+            return new VehicleSearchResult(matches.size(), Math.max(filters.getPage(), 0), size,
+                    List.copyOf(matches.subList(from, to)), facets);
+        }
+
+        private boolean accept(Vehicle v, Filters filters) {
+            if (filters.getMinPrice() != null || filters.getMaxPrice() != null) {
+                BigDecimal price = v.getPricePerDay();
+                if (price == null
+                        || (filters.getMinPrice() != null && price.compareTo(filters.getMinPrice()) < 0)
+                        || (filters.getMaxPrice() != null && price.compareTo(filters.getMaxPrice()) > 0)) {
+                    return false;
+                }
+            }
+            return filters.getVehicleFilter() == null || filters.getVehicleFilter().test(v.getId());
+        }
+
+        private BitSet anyOf(Map<String, Posting> byValue, List<String> values) {
+            BitSet out = new BitSet();
+            for (String value : values) {
+                Posting p = byValue.get(key(value));
+                if (p != null) {
+                    out.or(p.docs);
+                }
+            }
+            return out;
+        }
+
+        private BitSet allOf(Map<String, Posting> byValue, List<String> values) {
+            BitSet out = null;
+            for (String value : values) {
+                Posting p = byValue.get(key(value));
+                if (p == null) {
+                    return new BitSet();
+                }
+                if (out == null) {
+                    out = (BitSet) p.docs.clone();
+                } else {
+                    out.and(p.docs);
+                }
+            }
+            return out != null ? out : (BitSet) live.clone();
+        }
+    }
+
+    private static Comparator<Vehicle> comparator(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return null;
+        }
+        return switch (sort) {
+            case "price" -> Comparator.comparing(Vehicle::getPricePerDay,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case "-price" -> Comparator.comparing(Vehicle::getPricePerDay,
+                    Comparator.nullsLast(Comparator.reverseOrder()));
+            case "rating" -> Comparator.comparing(Vehicle::getRating, Comparator.nullsLast(Comparator.reverseOrder()));
+            case "name" -> Comparator.comparing(Vehicle::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+            default -> throw new IllegalArgumentException("sort must be one of price, -price, rating, name");
+        };
+    }
+}
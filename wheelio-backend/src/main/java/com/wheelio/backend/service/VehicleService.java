@@ -1,6 +1,13 @@
 package com.wheelio.backend.service;
 
+import com.wheelio.backend.model.NearbyVehicle;
 import com.wheelio.backend.model.Vehicle;
+import com.wheelio.backend.model.VehicleSearchResult;
+import com.wheelio.backend.util.CursorPage;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,9 +18,39 @@ public interface VehicleService {
 
     List<Vehicle> getAllVehicles();
 
+    /** The full catalogue as pre-rendered JSON. */
+    byte[] getAllVehiclesJson();
+
+    CursorPage<Vehicle> getVehiclesPage(String cursor, Integer limit, String sort);
+
     List<Vehicle> getAvailableVehicles();
 
+    byte[] getAvailableVehiclesJson();
+
+    Page<Vehicle> searchAvailableVehicles(LocalDateTime start, LocalDateTime end, String location,
+            Vehicle.VehicleType type, Integer seats, Pageable pageable);
+
+    /**
+     * Faceted search over the in-memory catalogue index; with {@code start}
+     * and {@code end} only vehicles free for that period match.
+     */
+    VehicleSearchResult searchCatalogue(VehicleSearchIndex.Filters filters, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Vehicles with coordinates within {@code radiusKm}, nearest first. With a
+     * period, vehicles free for it (and not in maintenance); otherwise those
+     * currently AVAILABLE.
+     */
+    List<NearbyVehicle> findNearby(double lat, double lng, double radiusKm, LocalDateTime start, LocalDateTime end,
+            int limit);
+
     Vehicle updateVehicle(Vehicle vehicle);
 
+    /**
+     * Sets only the status field, unless the vehicle is in MAINTENANCE (a manual
+     * state) or already has it. Returns whether anything changed.
+     */
+    boolean updateStatus(String id, Vehicle.Status status);
+
     void deleteVehicle(String id);
 }
@@ -1,23 +1,111 @@
 package com.wheelio.backend.service.impl;
 
+import com.wheelio.backend.exception.BookingConflictException;
+import com.wheelio.backend.exception.BookingStateConflictException;
 import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.model.ReservationLedger;
 import com.wheelio.backend.repository.BookingRepository;
+import com.wheelio.backend.service.AvailabilityCalendar;
+import com.wheelio.backend.service.AvailabilityIndex;
 import com.wheelio.backend.service.BookingService;
+import com.wheelio.backend.service.BookingStatusChangedEvent;
+import com.wheelio.backend.util.CursorPage;
+import com.wheelio.backend.util.KeysetPager;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
 
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    private static final Logger logger = LoggerFactory.getLogger(BookingServiceImpl.class);
+
+    private static final int RELOAD_ATTEMPTS = 3;
+
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private AvailabilityCalendar availabilityCalendar;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${wheelio.availability.index-enabled:true}")
+    private boolean indexEnabled;
+
+    /**
+     * Bookings written before @Version have no version field, which Spring Data
+     * would treat as new documents on save(); start them at 0.
+     */
+    @PostConstruct
+    void initVersions() {
+        long updated = mongoTemplate.updateMulti(new Query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L), Booking.class).getModifiedCount();
+        if (updated > 0) {
+            logger.info("Initialised version on {} booking(s)", updated);
+        }
+    }
+
     @Override
     public Booking createBooking(Booking booking) {
-        return bookingRepository.save(booking);
+        boolean reserved = false;
+        if (isReservable(booking)) {
+            if (booking.getId() == null) {
+                booking.setId(new ObjectId().toHexString());
+            }
+            if (!reserveSlot(booking)) {
+                throw new BookingConflictException("Vehicle is already booked for the selected period.");
+            }
+            reserved = true;
+        }
+        Booking saved;
+        try {
+            saved = bookingRepository.save(booking);
+        } catch (RuntimeException e) {
+            if (reserved) {
+                releaseSlot(booking.getVehicleId(), booking.getId());
+            }
+            throw e;
+        }
+        // the booking is stored and holds its slot from here on; listeners handle their own failures
+        availabilityIndex.apply(saved);
+        availabilityCalendar.apply(saved);
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(saved, null, saved.getStatus()));
+        return saved;
     }
 
     @Override
@@ -30,6 +118,11 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository.findAll();
     }
 
+    @Override
+    public CursorPage<Booking> getBookingsPage(String cursor, Integer limit, String sort) {
+        return KeysetPager.page(mongoTemplate, Booking.class, null, cursor, limit, sort, Set.of("id", "createdAt"));
+    }
+
     @Override
     public List<Booking> getBookingsByUserId(String userId) {
         return bookingRepository.findByUserIdOrderByCreatedAtDesc(userId);
@@ -47,19 +140,363 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Booking updateBooking(Booking booking) {
-        return bookingRepository.save(booking);
+        if (isReservable(booking)) {
+            boolean reserved = isSlotHeld(booking.getVehicleId(), booking.getId())
+                    ? moveSlot(booking)
+                    : reserveSlot(booking);
+            if (!reserved) {
+                throw new BookingConflictException("Vehicle is already booked for the selected period.");
+            }
+        } else if (booking.getId() != null && booking.getVehicleId() != null) {
+            releaseSlot(booking.getVehicleId(), booking.getId());
+        }
+        Booking saved = bookingRepository.save(booking);
+        availabilityIndex.apply(saved);
+        availabilityCalendar.apply(saved);
+        return saved;
+    }
+
+    /**
+     * One findAndModify whose filter is the guard (allowed source states, plus
+     * the caller's expected status and version if given) and whose update is a
+     * targeted $set, so the embedded vehicle summary and other fields are never
+     * rewritten. Only when it matches nothing is the booking read again, to
+     * tell a missing booking from a conflict. Repeating a transition that
+     * already happened (e.g. a retried cancel) without a version returns the
+     * booking unchanged, apart from a payment status it does not have yet.
+     */
+    @Override
+    public Optional<Booking> changeStatus(String id, Booking.BookingStatus target,
+            Booking.BookingStatus expectedStatus, Long expectedVersion) {
+        return changeStatus(id, target, null, expectedStatus, expectedVersion);
+    }
+
+    @Override
+    public Optional<Booking> changeStatus(String id, Booking.BookingStatus target, Booking.PaymentStatus paymentStatus,
+            Booking.BookingStatus expectedStatus, Long expectedVersion) {
+        List<Booking.BookingStatus> sources = Booking.BookingStatus.sourcesOf(target);
+        if (expectedStatus != null) {
+            sources = sources.contains(expectedStatus) ? List.of(expectedStatus) : List.of();
+        }
+        Criteria guard = Criteria.where("_id").is(id).and("status").in(sources);
+        if (expectedVersion != null) {
+            guard = guard.and("version").is(expectedVersion);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update().set("status", target).set("statusChangedAt", now).inc("version", 1);
+        if (paymentStatus != null) {
+            update.set("paymentStatus", paymentStatus);
+        }
+        Booking before = mongoTemplate.findAndModify(new Query(guard), update,
+                FindAndModifyOptions.options().returnNew(false), Booking.class);
+        if (before == null) {
+            Booking current = bookingRepository.findById(id).orElse(null);
+            if (current == null) {
+                return Optional.empty();
+            }
+            if (current.getStatus() == target && expectedVersion == null
+                    && (expectedStatus == null || expectedStatus == target)) {
+                if (paymentStatus != null && current.getPaymentStatus() != paymentStatus) {
+                    return changePaymentStatus(id, paymentStatus, current.getVersion());
+                }
+                return Optional.of(current);
+            }
+            throw new BookingStateConflictException("Cannot change booking from " + current.getStatus() + " to "
+                    + target + (expectedVersion != null ? " at version " + expectedVersion : ""),
+                    current.getStatus(), current.getVersion());
+        }
+
+        Booking.BookingStatus from = before.getStatus();
+        Booking after = before;
+        after.setStatus(target);
+        after.setStatusChangedAt(now);
+        if (paymentStatus != null) {
+            after.setPaymentStatus(paymentStatus);
+        }
+        after.setVersion((before.getVersion() != null ? before.getVersion() : 0L) + 1);
+        if (!AvailabilityIndex.isActive(after)) {
+            releaseSlot(after.getVehicleId(), after.getId());
+        }
+        availabilityIndex.apply(after);
+        availabilityCalendar.apply(after);
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(after, from, target));
+        return Optional.of(after);
+    }
+
+    @Override
+    public Optional<Booking> changePaymentStatus(String id, Booking.PaymentStatus target, Long expectedVersion) {
+        Criteria guard = Criteria.where("_id").is(id);
+        if (expectedVersion != null) {
+            guard = guard.and("version").is(expectedVersion);
+        }
+        Booking updated = mongoTemplate.findAndModify(new Query(guard),
+                new Update().set("paymentStatus", target).inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true), Booking.class);
+        if (updated != null) {
+            return Optional.of(updated);
+        }
+        Booking current = bookingRepository.findById(id).orElse(null);
+        if (current == null) {
+            return Optional.empty();
+        }
+        throw new BookingStateConflictException("Booking was modified (now at version " + current.getVersion() + ")",
+                current.getStatus(), current.getVersion());
+    }
+
+    /**
+     * Completes one batch of CONFIRMED bookings that ended by {@code cutoff},
+     * oldest first: a single updateMany guarded on the status (so a booking
+     * cancelled meanwhile is left alone), a read-back of the ids that actually
+     * changed, and one ledger update for their slots.
+     */
+    @Override
+    public List<Booking> completeExpiredBookings(LocalDateTime cutoff, int batchSize) {
+        List<Booking> batch = mongoTemplate.find(new Query(Criteria.where("status").is(Booking.BookingStatus.CONFIRMED)
+                .and("endDate").lte(cutoff)).with(Sort.by("endDate")).limit(batchSize), Booking.class);
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        List<String> ids = batch.stream().map(Booking::getId).toList();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(ids).and("status").is(Booking.BookingStatus.CONFIRMED)),
+                new Update().set("status", Booking.BookingStatus.COMPLETED).set("statusChangedAt", now).inc("version", 1),
+                Booking.class);
+        Query changedQuery = new Query(Criteria.where("_id").in(ids).and("status").is(Booking.BookingStatus.COMPLETED)
+                .and("statusChangedAt").is(now));
+        changedQuery.fields().include("_id");
+        Set<String> changed = new HashSet<>();
+        mongoTemplate.find(changedQuery, Booking.class).forEach(b -> changed.add(b.getId()));
+
+        List<Booking> completed = batch.stream().filter(b -> changed.contains(b.getId())).toList();
+        if (completed.isEmpty()) {
+            return completed;
+        }
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(completed.stream().map(Booking::getVehicleId).distinct().toList())),
+                new Update().pull("slots", new Document("bookingId", new Document("$in", List.copyOf(changed)))),
+                ReservationLedger.class);
+        for (Booking b : completed) {
+            b.setStatus(Booking.BookingStatus.COMPLETED);
+            b.setStatusChangedAt(now);
+            b.setVersion((b.getVersion() != null ? b.getVersion() : 0L) + 1);
+            availabilityIndex.apply(b);
+            availabilityCalendar.apply(b);
+            eventPublisher.publishEvent(new BookingStatusChangedEvent(b, Booking.BookingStatus.CONFIRMED,
+                    Booking.BookingStatus.COMPLETED));
+        }
+        return completed;
     }
 
     @Override
     public void deleteBooking(String id) {
+        bookingRepository.findById(id).ifPresent(b -> {
+            releaseSlot(b.getVehicleId(), b.getId());
+            availabilityIndex.remove(b.getId(), b.getVehicleId());
+            availabilityCalendar.remove(b.getId(), b.getVehicleId());
+        });
         bookingRepository.deleteById(id);
     }
 
     @Override
     public boolean isVehicleAvailable(String vehicleId, java.time.LocalDateTime start, java.time.LocalDateTime end) {
-        List<Booking.BookingStatus> activeStatuses = List.of(Booking.BookingStatus.PENDING,
-                Booking.BookingStatus.CONFIRMED);
-        List<Booking> overlaps = bookingRepository.findOverlappingBookings(vehicleId, start, end, activeStatuses);
+        if (indexEnabled && availabilityIndex.isReady()) {
+            return availabilityIndex.isAvailable(vehicleId, start, end);
+        }
+        List<Booking> overlaps = bookingRepository.findOverlappingBookings(vehicleId, start, end,
+                AvailabilityIndex.ACTIVE_STATUSES);
         return overlaps.isEmpty();
     }
+
+    private static boolean isReservable(Booking booking) {
+        return booking.getVehicleId() != null && booking.getStartDate() != null && booking.getEndDate() != null
+                && AvailabilityIndex.isActive(booking);
+    }
+
+    /**
+     * Claims the booking's slot on the vehicle's reservation ledger with one
+     * conditional upsert: the filter only matches when no other slot overlaps, so
+     * a conflicting claim either matches nothing and attempts an insert (which
+     * fails on the _id unique index) or loses the race outright. Overlap uses the
+     * same strict comparison as findOverlappingBookings.
+     */
+    private boolean reserveSlot(Booking booking) {
+        Query query = new Query(Criteria.where("_id").is(booking.getVehicleId())
+                .and("slots").not().elemMatch(new Criteria().orOperator(
+                        Criteria.where("bookingId").is(booking.getId()),
+                        Criteria.where("startDate").lt(booking.getEndDate())
+                                .and("endDate").gt(booking.getStartDate()))));
+        Update update = new Update().push("slots", new ReservationLedger.Slot(
+                booking.getId(), booking.getStartDate(), booking.getEndDate()));
+        // The first insert for a vehicle can lose an upsert race to another new
+        // ledger; the retry then runs against the existing document.
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                mongoTemplate.upsert(query, update, ReservationLedger.class);
+                return true;
+            } catch (DuplicateKeyException e) {
+                // ledger exists and the filter did not match: conflict or a lost create race
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets a held slot to the booking's current dates in one conditional update
+     * that only matches when no other slot overlaps the new period.
+     */
+    private boolean moveSlot(Booking booking) {
+        Query query = new Query(new Criteria().andOperator(
+                Criteria.where("_id").is(booking.getVehicleId()),
+                Criteria.where("slots").elemMatch(Criteria.where("bookingId").is(booking.getId())),
+                Criteria.where("slots").not().elemMatch(Criteria.where("bookingId").ne(booking.getId())
+                        .and("startDate").lt(booking.getEndDate())
+                        .and("endDate").gt(booking.getStartDate()))));
+        Update update = new Update()
+                .set("slots.$[held].startDate", booking.getStartDate())
+                .set("slots.$[held].endDate", booking.getEndDate())
+                .filterArray(Criteria.where("held.bookingId").is(booking.getId()));
+        return mongoTemplate.updateFirst(query, update, ReservationLedger.class).getMatchedCount() > 0;
+    }
+
+    private boolean isSlotHeld(String vehicleId, String bookingId) {
+        return mongoTemplate.exists(new Query(Criteria.where("_id").is(vehicleId)
+                .and("slots.bookingId").is(bookingId)), ReservationLedger.class);
+    }
+
+    private void releaseSlot(String vehicleId, String bookingId) {
+        if (vehicleId == null || bookingId == null) {
+            return;
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(vehicleId)),
+                new Update().pull("slots", new Document("bookingId", bookingId)), ReservationLedger.class);
+    }
+
+    /**
+     * Registers active bookings that predate the ledger (or were written by an
+     * older node) so they participate in overlap checks.
+     */
+    private void backfillLedger(List<Booking> active) {
+        Set<String> held = new HashSet<>();
+        for (ReservationLedger ledger : mongoTemplate.findAll(ReservationLedger.class)) {
+            ledger.getSlots().forEach(slot -> held.add(slot.getBookingId()));
+        }
+        int added = 0;
+        for (Booking b : active) {
+            if (b.getId() == null || held.contains(b.getId()) || !isReservable(b)) {
+                continue;
+            }
+            mongoTemplate.upsert(new Query(Criteria.where("_id").is(b.getVehicleId())),
+                    new Update().push("slots", new ReservationLedger.Slot(b.getId(), b.getStartDate(), b.getEndDate())),
+                    ReservationLedger.class);
+            added++;
+        }
+        if (added > 0) {
+            logger.info("Reservation ledger backfilled with {} existing booking(s)", added);
+        }
+    }
+
+    /** Warms the availability index, calendar and reservation ledger once the app is up. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmAvailabilityIndex() {
+        long t0 = System.currentTimeMillis();
+        long gen = availabilityIndex.generation();
+        long calendarGen = availabilityCalendar.generation();
+        List<Booking> active = bookingRepository.findByStatusIn(AvailabilityIndex.ACTIVE_STATUSES);
+        backfillLedger(active);
+        if (!availabilityCalendar.load(active, calendarGen)) {
+            reloadCalendar();
+        }
+        if (!indexEnabled || !(availabilityIndex.load(active, gen) || reloadIndex())) {
+            return;
+        }
+        logger.info("Availability index warmed: {} active bookings across {} vehicles in {} ms",
+                active.size(), availabilityIndex.vehicleCount(), System.currentTimeMillis() - t0);
+    }
+
+    private boolean reloadIndex() {
+        return reload("Availability index", availabilityIndex::generation, availabilityIndex::load);
+    }
+
+    private boolean reloadCalendar() {
+        return reload("Availability calendar", availabilityCalendar::generation, availabilityCalendar::load);
+    }
+
+    /**
+     * Re-reads the active bookings and loads them into the index or calendar. A
+     * booking written while the snapshot was being read makes the load refuse
+     * it, so the read is repeated; after the last attempt the current state is
+     * kept.
+     */
+    private boolean reload(String name, LongSupplier generation, BiPredicate<List<Booking>, Long> load) {
+        for (int attempt = 1; attempt <= RELOAD_ATTEMPTS; attempt++) {
+            long gen = generation.getAsLong();
+            if (load.test(bookingRepository.findByStatusIn(AvailabilityIndex.ACTIVE_STATUSES), gen)) {
+                return true;
+            }
+        }
+        logger.warn("{} reload kept racing with booking writes; retrying at the next reconcile", name);
+        return false;
+    }
+
+    /**
+     * Re-reads one vehicle's active bookings and swaps just that vehicle in the
+     * index, and in the calendar unless it is being rebuilt anyway. Only writes
+     * to the same vehicle make it retry, so traffic elsewhere in the fleet
+     * cannot starve it the way it can a full reload.
+     */
+    private void reloadVehicle(String vehicleId, boolean calendarToo) {
+        boolean indexDone = false;
+        boolean calendarDone = !calendarToo;
+        for (int attempt = 1; attempt <= RELOAD_ATTEMPTS && !(indexDone && calendarDone); attempt++) {
+            long gen = availabilityIndex.generation(vehicleId);
+            long calendarGen = availabilityCalendar.generation(vehicleId);
+            List<Booking> bookings = bookingRepository.findByVehicleIdAndStatusIn(vehicleId,
+                    AvailabilityIndex.ACTIVE_STATUSES);
+            indexDone = indexDone || availabilityIndex.reloadVehicle(vehicleId, bookings, gen);
+            calendarDone = calendarDone || availabilityCalendar.reloadVehicle(vehicleId, bookings, calendarGen);
+        }
+        if (!(indexDone && calendarDone)) {
+            logger.warn("Vehicle {} reload kept racing with its booking writes; retrying at the next reconcile",
+                    vehicleId);
+        }
+    }
+
+    /**
+     * Consistency check: compares the index with Mongo and reloads the vehicles
+     * that differ if another node (or a direct DB edit) changed bookings behind
+     * our back.
+     */
+    @Scheduled(fixedDelayString = "${wheelio.availability.reconcile-interval-ms:300000}",
+            initialDelayString = "${wheelio.availability.reconcile-interval-ms:300000}")
+    public void reconcileAvailabilityIndex() {
+        // slots that ended a day ago can never conflict with a new booking
+        Date cutoff = Date.from(LocalDateTime.now().minusDays(1).atZone(ZoneId.systemDefault()).toInstant());
+        mongoTemplate.updateMulti(new Query(), new Update().pull("slots",
+                new Document("endDate", new Document("$lt", cutoff))), ReservationLedger.class);
+
+        long gen = availabilityIndex.generation();
+        long calendarGen = availabilityCalendar.generation();
+        List<Booking> active = bookingRepository.findByStatusIn(AvailabilityIndex.ACTIVE_STATUSES);
+        boolean calendarStale = availabilityCalendar.needsRebase() || !availabilityCalendar.isReady();
+
+        if (!indexEnabled || !availabilityIndex.isReady()) {
+            if (indexEnabled && !availabilityIndex.load(active, gen)) {
+                reloadIndex();
+            }
+            if (calendarStale && !availabilityCalendar.load(active, calendarGen)) {
+                reloadCalendar();
+            }
+            return;
+        }
+        List<String> drifted = availabilityIndex.diff(active);
+        if (!drifted.isEmpty()) {
+            logger.warn("Availability index drifted for {} vehicle(s), reloading them: {}", drifted.size(), drifted);
+            for (String vehicleId : drifted) {
+                reloadVehicle(vehicleId, !calendarStale);
+            }
+        }
+        if (calendarStale && !availabilityCalendar.load(active, calendarGen)) {
+            reloadCalendar();
+        }
+    }
 }
@@ -1,25 +1,101 @@
 package com.wheelio.backend.service.impl;
 
 import com.wheelio.backend.model.DamageReport;
+import com.wheelio.backend.model.DamageReportSummary;
+import com.wheelio.backend.model.StoredFile;
 import com.wheelio.backend.repository.DamageReportRepository;
 import com.wheelio.backend.service.DamageReportService;
+import com.wheelio.backend.service.FileStorageService;
+import com.wheelio.backend.util.CursorPage;
+import com.wheelio.backend.util.DataUri;
+import com.wheelio.backend.util.KeysetPager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class DamageReportServiceImpl implements DamageReportService {
 
+    private static final Logger logger = LoggerFactory.getLogger(DamageReportServiceImpl.class);
+
+    private static final String COLLECTION = "damage_reports";
+    private static final String FILE_URL_PREFIX = "/api/files/";
+
     @Autowired
     private DamageReportRepository damageReportRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${wheelio.damage-reports.migrate-images-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    @Value("${wheelio.damage-reports.migration.batch-size:20}")
+    private int migrationBatchSize;
+
     @Override
     public DamageReport createDamageReport(DamageReport report) {
+        report.setImages(externalize(report.getImages(), report.getVehicleId()));
         return damageReportRepository.save(report);
     }
 
+    /**
+     * Stores every data URI in the list in the file store and returns the list
+     * with those entries replaced by file URLs. All-or-nothing: files already
+     * stored are released if a later image fails.
+     */
+    private List<String> externalize(List<String> images, String owner) {
+        if (images == null || images.stream().noneMatch(DataUri::isDataUri)) {
+            return images;
+        }
+        List<String> result = new ArrayList<>(images.size());
+        List<String> stored = new ArrayList<>();
+        try {
+            for (String image : images) {
+                if (!DataUri.isDataUri(image)) {
+                    result.add(image);
+                    continue;
+                }
+                String id = storeInline(image, "damage-" + owner + "-" + result.size());
+                stored.add(id);
+                result.add(FILE_URL_PREFIX + id);
+            }
+            return result;
+        } catch (RuntimeException | IOException e) {
+            stored.forEach(fileStorageService::deleteFile);
+            throw new IllegalArgumentException("Invalid image: " + e.getMessage(), e);
+        }
+    }
+
+    private String storeInline(String dataUri, String name) throws IOException {
+        try (InputStream in = DataUri.open(dataUri)) {
+            StoredFile file = fileStorageService.store(in, name, DataUri.contentType(dataUri));
+            return file.getId();
+        }
+    }
+
     @Override
     public Optional<DamageReport> getDamageReportById(String id) {
         return damageReportRepository.findById(id);
@@ -30,6 +106,11 @@ public class DamageReportServiceImpl implements DamageReportService {
         return damageReportRepository.findAll();
     }
 
+    @Override
+    public CursorPage<DamageReport> getDamageReportsPage(String cursor, Integer limit, String sort) {
+        return KeysetPager.page(mongoTemplate, DamageReport.class, null, cursor, limit, sort, Set.of("id", "createdAt"));
+    }
+
     @Override
     public List<DamageReport> getDamageReportsByVehicleId(String vehicleId) {
         return damageReportRepository.findByVehicleId(vehicleId);
@@ -50,8 +131,166 @@ public class DamageReportServiceImpl implements DamageReportService {
         return damageReportRepository.save(report);
     }
 
+    @Override
+    public Optional<DamageReport> updateDamageReportFields(String id, DamageReport.DamageStatus status,
+            DamageReport.Severity severity, BigDecimal estimatedCost, String razorpayPaymentId) {
+        Update update = new Update();
+        if (status != null) {
+            update.set("status", status);
+        }
+        if (severity != null) {
+            update.set("severity", severity);
+        }
+        if (estimatedCost != null) {
+            update.set("estimatedCost", estimatedCost);
+        }
+        if (razorpayPaymentId != null) {
+            update.set("razorpayPaymentId", razorpayPaymentId);
+        }
+        if (update.getUpdateObject().isEmpty()) {
+            return damageReportRepository.findById(id);
+        }
+        return Optional.ofNullable(mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), DamageReport.class));
+    }
+
     @Override
     public void deleteDamageReport(String id) {
         damageReportRepository.deleteById(id);
     }
+
+    @Override
+    public List<DamageReportSummary> getAllDamageReportSummaries() {
+        return summaries(new Query());
+    }
+
+    @Override
+    public CursorPage<DamageReportSummary> getDamageReportSummariesPage(String cursor, Integer limit, String sort) {
+        CursorPage<DamageReportSummary> page = KeysetPager.page(mongoTemplate, DamageReportSummary.class, COLLECTION,
+                DamageReportServiceImpl::summaryFields, null, cursor, limit, sort, Set.of("id", "createdAt"));
+        page.getItems().forEach(DamageReportServiceImpl::addThumbnails);
+        return page;
+    }
+
+    @Override
+    public List<DamageReportSummary> getDamageReportSummariesByVehicleId(String vehicleId) {
+        return summaries(new Query(Criteria.where("vehicleId").is(vehicleId)));
+    }
+
+    @Override
+    public List<DamageReportSummary> getDamageReportSummariesByUserId(String userId) {
+        return summaries(new Query(Criteria.where("reportedById").is(userId)));
+    }
+
+    @Override
+    public List<DamageReportSummary> getDamageReportSummariesByStatus(DamageReport.DamageStatus status) {
+        return summaries(new Query(Criteria.where("status").is(status)));
+    }
+
+    private List<DamageReportSummary> summaries(Query query) {
+        summaryFields(query);
+        List<DamageReportSummary> rows = mongoTemplate.find(query, DamageReportSummary.class, COLLECTION);
+        rows.forEach(DamageReportServiceImpl::addThumbnails);
+        return rows;
+    }
+
+    /**
+     * Server-side projection: inline images of not-yet-migrated reports are
+     * filtered out in Mongo, so they never cross the wire.
+     */
+    private static void summaryFields(Query query) {
+        query.fields().include("vehicleId", "vehicleName", "reportedById", "reportedByName", "description",
+                "severity", "status", "estimatedCost", "razorpayPaymentId", "createdAt");
+        query.fields().project(MongoExpression.create("{ $size: { $ifNull: ['$images', []] } }")).as("imageCount");
+        query.fields().project(MongoExpression.create("{ $filter: { input: { $ifNull: ['$images', []] }, as: 'img', "
+                + "cond: { $ne: [ { $substrCP: ['$$img', 0, 5] }, 'data:' ] } } }")).as("images");
+    }
+
+    private static void addThumbnails(DamageReportSummary summary) {
+        if (summary.getImages() == null) {
+            return;
+        }
+        List<String> thumbnails = new ArrayList<>(summary.getImages().size());
+        for (String image : summary.getImages()) {
+            thumbnails.add(image.startsWith(FILE_URL_PREFIX) && image.indexOf('?') < 0 ? image + "?size=thumb" : image);
+        }
+        summary.setThumbnails(thumbnails);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateInlineImagesOnStartup() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        Thread worker = new Thread(this::migrateInlineImages, "damage-image-migration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Walks reports with inline images in _id order, a batch of ids at a time.
+     * Each report's images are fetched one array element at a time ($slice),
+     * so memory stays at one image however large the report is.
+     */
+    @Override
+    public int migrateInlineImages() {
+        Criteria inline = Criteria.where("images").regex("^data:");
+        String lastId = null;
+        int migrated = 0;
+        while (true) {
+            Query batch = new Query(lastId == null ? inline
+                    : new Criteria().andOperator(inline, Criteria.where("_id").gt(lastId)))
+                    .with(Sort.by("_id")).limit(migrationBatchSize);
+            batch.fields().include("_id", "vehicleId");
+            List<DamageReport> reports = mongoTemplate.find(batch, DamageReport.class);
+            for (DamageReport report : reports) {
+                try {
+                    migrateReport(report.getId(), report.getVehicleId());
+                    migrated++;
+                } catch (Exception e) {
+                    logger.error("Could not migrate images of damage report {}: {}", report.getId(), e.getMessage());
+                }
+                lastId = report.getId();
+            }
+            if (reports.size() < migrationBatchSize) {
+                break;
+            }
+        }
+        if (migrated > 0) {
+            logger.info("Moved inline images of {} damage report(s) to the file store", migrated);
+        }
+        return migrated;
+    }
+
+    /**
+     * Each inline image is swapped for its stored copy with its own update,
+     * conditional on the element still holding that image. An image that was
+     * edited in the meantime keeps the edit, and its copy is deleted again.
+     */
+    private void migrateReport(String id, String vehicleId) throws IOException {
+        for (int i = 0;; i++) {
+            Query one = new Query(Criteria.where("_id").is(id));
+            one.fields().include("_id").slice("images", i, 1);
+            DamageReport slice = mongoTemplate.findOne(one, DamageReport.class);
+            if (slice == null || slice.getImages() == null || slice.getImages().isEmpty()) {
+                break;
+            }
+            String image = slice.getImages().get(0);
+            if (!DataUri.isDataUri(image)) {
+                continue;
+            }
+            String fileId = storeInline(image, "damage-" + vehicleId + "-" + i);
+            boolean swapped = false;
+            try {
+                swapped = mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(id).and("images." + i).is(image)),
+                        new Update().set("images." + i, FILE_URL_PREFIX + fileId), DamageReport.class)
+                        .getModifiedCount() > 0;
+            } finally {
+                if (!swapped) {
+                    fileStorageService.deleteFile(fileId);
+                }
+            }
+        }
+    }
 }
@@ -2,12 +2,24 @@ package com.wheelio.backend.service.impl;
 
 import com.wheelio.backend.model.DriverProfile;
 import com.wheelio.backend.repository.DriverProfileRepository;
+import com.wheelio.backend.service.DriverDispatchEngine;
+import com.wheelio.backend.service.DriverRoster;
 import com.wheelio.backend.service.DriverService;
+import com.wheelio.backend.util.CursorPage;
+import com.wheelio.backend.util.KeysetPager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class DriverServiceImpl implements DriverService {
@@ -15,9 +27,17 @@ public class DriverServiceImpl implements DriverService {
     @Autowired
     private DriverProfileRepository driverProfileRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private DriverDispatchEngine dispatchEngine;
+
     @Override
     public DriverProfile createDriver(DriverProfile profile) {
-        return driverProfileRepository.save(profile);
+        DriverProfile saved = driverProfileRepository.save(profile);
+        dispatchEngine.driverSaved(saved);
+        return saved;
     }
 
     @Override
@@ -30,18 +50,36 @@ public class DriverServiceImpl implements DriverService {
         return driverProfileRepository.findAll();
     }
 
+    @Override
+    public CursorPage<DriverProfile> getDriversPage(String cursor, Integer limit, String sort) {
+        return KeysetPager.page(mongoTemplate, DriverProfile.class, null, cursor, limit, sort, Set.of("id"));
+    }
+
     @Override
     public List<DriverProfile> getAvailableDrivers() {
         return driverProfileRepository.findByStatus("ACTIVE");
     }
 
+    @Override
+    public List<DriverProfile> getAvailableDrivers(String city, LocalDateTime start, LocalDateTime end, int limit) {
+        List<String> ranked = dispatchEngine.candidates(city, start, end, limit).stream()
+                .map(DriverRoster.Candidate::driverId)
+                .toList();
+        Map<String, DriverProfile> byUserId = mongoTemplate.find(new Query(Criteria.where("userId").in(ranked)),
+                DriverProfile.class).stream().collect(Collectors.toMap(DriverProfile::getUserId, Function.identity()));
+        return ranked.stream().map(byUserId::get).filter(p -> p != null).toList();
+    }
+
     @Override
     public DriverProfile updateDriver(DriverProfile profile) {
-        return driverProfileRepository.save(profile);
+        DriverProfile saved = driverProfileRepository.save(profile);
+        dispatchEngine.driverSaved(saved);
+        return saved;
     }
 
     @Override
     public void deleteDriver(String id) {
+        driverProfileRepository.findById(id).ifPresent(p -> dispatchEngine.driverRemoved(p.getUserId()));
         driverProfileRepository.deleteById(id);
     }
 
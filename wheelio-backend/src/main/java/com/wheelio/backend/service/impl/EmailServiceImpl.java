@@ -1,60 +1,41 @@
 package com.wheelio.backend.service.impl;
 
+import com.wheelio.backend.model.EmailOutbox;
+import com.wheelio.backend.repository.EmailOutboxRepository;
 import com.wheelio.backend.service.EmailService;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+/**
+ * Emails are written to the email_outbox collection and delivered in the
+ * background by EmailOutboxDispatcher, so request threads never wait on SMTP.
+ */
 @Service
 public class EmailServiceImpl implements EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailServiceImpl.class);
 
     @Autowired
-    private JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private EmailOutboxRepository emailOutboxRepository;
 
     @Override
     public void sendSimpleEmail(String to, String subject, String text) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(fromEmail);
-            message.setTo(to);
-            message.setSubject(subject);
-            message.setText(text);
-            mailSender.send(message);
-            logger.info("Simple email sent to {}", to);
-        } catch (Exception e) {
-            logger.error("Failed to send simple email to {}: {}", to, e.getMessage());
-        }
+        enqueue(new EmailOutbox(to, subject, text, false));
     }
 
     @Override
     public void sendHtmlEmail(String to, String subject, String htmlBody) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlBody, true);
+        enqueue(new EmailOutbox(to, subject, htmlBody, true));
+    }
 
-            mailSender.send(message);
-            logger.info("HTML email sent to {}", to);
-        } catch (MessagingException e) {
-            logger.error("Failed to send HTML email to {}: {}", to, e.getMessage());
+    private void enqueue(EmailOutbox message) {
+        try {
+            EmailOutbox saved = emailOutboxRepository.save(message);
+            logger.info("Email to {} queued as {}", message.getTo(), saved.getId());
         } catch (Exception e) {
-            logger.error("Unexpected error sending HTML email to {}: {}", to, e.getMessage());
+            logger.error("Failed to queue email to {}: {}", message.getTo(), e.getMessage());
         }
     }
 }
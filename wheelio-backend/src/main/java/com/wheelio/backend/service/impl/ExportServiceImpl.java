@@ -0,0 +1,95 @@
+package com.wheelio.backend.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.model.Payment;
+import com.wheelio.backend.service.ExportService;
+import com.wheelio.backend.util.ExportWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final int CURSOR_BATCH = 1000;
+
+    static final String[] BOOKING_COLUMNS = { "id", "userId", "userName", "vehicleId", "vehicleName", "driverId",
+            "startDate", "endDate", "totalAmount", "status", "paymentStatus", "pickupLocation", "dropLocation",
+            "createdAt" };
+
+    static final String[] PAYMENT_COLUMNS = { "id", "bookingId", "razorpayPaymentId", "razorpayOrderId", "amount",
+            "method", "status", "createdAt" };
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public long exportBookings(LocalDateTime from, LocalDateTime to, String status, ExportWriter.Format format,
+            OutputStream out) throws IOException {
+        Query query = filter(from, to, status != null ? Booking.BookingStatus.valueOf(status.toUpperCase()) : null);
+        try (Stream<Booking> rows = mongoTemplate.stream(query, Booking.class)) {
+            return ExportWriter.write(rows.iterator(), format, jsonWriter(), BOOKING_COLUMNS,
+                    ExportServiceImpl::bookingRow, out);
+        }
+    }
+
+    @Override
+    public long exportPayments(LocalDateTime from, LocalDateTime to, String status, ExportWriter.Format format,
+            OutputStream out) throws IOException {
+        Query query = filter(from, to, status != null ? status.toUpperCase() : null);
+        try (Stream<Payment> rows = mongoTemplate.stream(query, Payment.class)) {
+            return ExportWriter.write(rows.iterator(), format, jsonWriter(), PAYMENT_COLUMNS,
+                    ExportServiceImpl::paymentRow, out);
+        }
+    }
+
+    private ObjectWriter jsonWriter() {
+        return objectMapper.writer();
+    }
+
+    /** Date range is applied to createdAt for both collections; rows come out oldest first. */
+    private static Query filter(LocalDateTime from, LocalDateTime to, Object status) {
+        Criteria criteria = new Criteria();
+        if (from != null || to != null) {
+            criteria = Criteria.where("createdAt");
+            if (from != null) {
+                criteria = criteria.gte(from);
+            }
+            if (to != null) {
+                criteria = criteria.lt(to);
+            }
+        }
+        if (status != null) {
+            criteria = criteria.and("status").is(status);
+        }
+        // same keys as the createdAt_id index, so the range and the order come from one index scan
+        Query query = new Query(criteria).with(Sort.by("createdAt", "_id"));
+        query.cursorBatchSize(CURSOR_BATCH);
+        return query;
+    }
+
+    static Object[] bookingRow(Booking b) {
+        return new Object[] { b.getId(), b.getUserId(), b.getUserName(), b.getVehicleId(),
+                b.getVehicleSummary() != null ? b.getVehicleSummary().getName() : null, b.getDriverId(),
+                b.getStartDate(), b.getEndDate(), b.getTotalAmount(), b.getStatus(), b.getPaymentStatus(),
+                b.getPickupLocation(), b.getDropLocation(), b.getCreatedAt() };
+    }
+
+    static Object[] paymentRow(Payment p) {
+        return new Object[] { p.getId(), p.getBookingId(), p.getRazorpayPaymentId(), p.getRazorpayOrderId(),
+                p.getAmount(), p.getMethod(), p.getStatus(), p.getCreatedAt() };
+    }
+}
@@ -2,12 +2,17 @@ package com.wheelio.backend.service.impl;
 
 import com.wheelio.backend.model.User;
 import com.wheelio.backend.repository.UserRepository;
+import com.wheelio.backend.service.UserCache;
 import com.wheelio.backend.service.UserService;
+import com.wheelio.backend.util.CursorPage;
+import com.wheelio.backend.util.KeysetPager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class UserServiceImpl implements UserService {
@@ -15,19 +20,28 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserCache userCache;
+
     @Override
     public User createUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.put(copy(saved));
+        return saved;
     }
 
+    /** Returns a copy, since callers commonly modify the user before saving it. */
     @Override
     public Optional<User> getUserById(String id) {
-        return userRepository.findById(id);
+        return userCache.byId(id).map(UserServiceImpl::copy);
     }
 
     @Override
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userCache.byEmail(email).map(UserServiceImpl::copy);
     }
 
     @Override
@@ -35,6 +49,11 @@ public class UserServiceImpl implements UserService {
         return userRepository.findAll();
     }
 
+    @Override
+    public CursorPage<User> getUsersPage(String cursor, Integer limit, String sort) {
+        return KeysetPager.page(mongoTemplate, User.class, null, cursor, limit, sort, Set.of("id", "createdAt"));
+    }
+
     @Override
     public List<User> getUsersByRole(User.Role role) {
         return userRepository.findByRole(role);
@@ -42,12 +61,15 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User updateUser(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.put(copy(saved));
+        return saved;
     }
 
     @Override
     public void deleteUser(String id) {
         userRepository.deleteById(id);
+        userCache.remove(id);
     }
 
     @Override
@@ -59,4 +81,10 @@ public class UserServiceImpl implements UserService {
     public Optional<User> getUserByResetToken(String token) {
         return userRepository.findByResetToken(token);
     }
+
+    private static User copy(User u) {
+        return new User(u.getId(), u.getEmail(), u.getPasswordHash(), u.getFullName(), u.getRole(), u.getPhone(),
+                u.getCity(), u.getAvatarUrl(), u.getCreatedAt(), u.getUpdatedAt(), u.getResetToken(),
+                u.getResetTokenExpiry());
+    }
 }
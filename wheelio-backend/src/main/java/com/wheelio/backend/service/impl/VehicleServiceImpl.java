@@ -1,47 +1,224 @@
 package com.wheelio.backend.service.impl;
 
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.model.NearbyVehicle;
 import com.wheelio.backend.model.Vehicle;
+import com.wheelio.backend.model.VehicleSearchResult;
 import com.wheelio.backend.repository.VehicleRepository;
+import com.wheelio.backend.service.AvailabilityIndex;
+import com.wheelio.backend.service.VehicleCatalogueCache;
+import com.wheelio.backend.service.VehicleGeoIndex;
+import com.wheelio.backend.service.VehicleSearchIndex;
 import com.wheelio.backend.service.VehicleService;
+import com.wheelio.backend.util.CursorPage;
+import com.wheelio.backend.util.KeysetPager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 @Service
 public class VehicleServiceImpl implements VehicleService {
 
+    /** Upper bound on $geoNear candidates read before the availability filter. */
+    private static final int MAX_GEO_CANDIDATES = 1000;
+
     @Autowired
     private VehicleRepository vehicleRepository;
 
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private VehicleCatalogueCache catalogueCache;
+
+    @Autowired
+    private VehicleSearchIndex searchIndex;
+
+    @Autowired
+    private VehicleGeoIndex geoIndex;
+
+    @Value("${wheelio.geo.in-memory:true}")
+    private boolean geoInMemory;
+
     @Override
     public Vehicle createVehicle(Vehicle vehicle) {
-        return vehicleRepository.save(vehicle);
+        Vehicle saved = vehicleRepository.save(vehicle);
+        cache(saved);
+        return saved;
     }
 
+    /** Returns a copy, since callers commonly modify the vehicle before saving it. */
     @Override
     public Optional<Vehicle> getVehicleById(String id) {
-        return vehicleRepository.findById(id);
+        return catalogueCache.byId(id).map(VehicleServiceImpl::copy);
     }
 
     @Override
     public List<Vehicle> getAllVehicles() {
-        return vehicleRepository.findAll();
+        return catalogueCache.all();
+    }
+
+    @Override
+    public byte[] getAllVehiclesJson() {
+        return catalogueCache.allJson();
+    }
+
+    /** Sliced from the catalogue snapshot, so paging through the fleet costs no query once it is warm. */
+    @Override
+    public CursorPage<Vehicle> getVehiclesPage(String cursor, Integer limit, String sort) {
+        String key = KeysetPager.sortKey(sort, Set.of("id", "createdAt"));
+        return KeysetPager.page(catalogueCache.sorted(key, KeysetPager.comparator(key)), cursor, limit, key);
     }
 
     @Override
     public List<Vehicle> getAvailableVehicles() {
-        return vehicleRepository.findByStatus(Vehicle.Status.AVAILABLE);
+        return catalogueCache.available();
+    }
+
+    @Override
+    public byte[] getAvailableVehiclesJson() {
+        return catalogueCache.availableJson();
+    }
+
+    /**
+     * Served from the in-memory search index (attribute bitmaps) with the
+     * availability index as the per-vehicle filter, so a page costs no Mongo
+     * round trip once both are warm, whatever page is asked for. Location
+     * matches ignore case, as in the catalogue search.
+     */
+    @Override
+    public Page<Vehicle> searchAvailableVehicles(LocalDateTime start, LocalDateTime end, String location,
+            Vehicle.VehicleType type, Integer seats, Pageable pageable) {
+        VehicleSearchIndex.Filters filters = new VehicleSearchIndex.Filters();
+        filters.getValues().put(VehicleSearchIndex.Facet.STATUS,
+                List.of(Vehicle.Status.AVAILABLE.name(), Vehicle.Status.BOOKED.name()));
+        if (location != null && !location.isBlank()) {
+            filters.getValues().put(VehicleSearchIndex.Facet.LOCATION, List.of(location));
+        }
+        if (type != null) {
+            filters.getValues().put(VehicleSearchIndex.Facet.TYPE, List.of(type.name()));
+        }
+        filters.setMinSeats(seats);
+        filters.setPage(pageable.getPageNumber());
+        filters.setSize(pageable.getPageSize());
+        filters.setVehicleFilter(freeBetween(start, end));
+        VehicleSearchResult result = searchIndex.search(filters);
+        return new PageImpl<>(result.getItems(), pageable, result.getTotal());
+    }
+
+    @Override
+    public VehicleSearchResult searchCatalogue(VehicleSearchIndex.Filters filters, LocalDateTime start,
+            LocalDateTime end) {
+        if (start != null && end != null) {
+            filters.setVehicleFilter(freeBetween(start, end));
+        }
+        return searchIndex.search(filters);
+    }
+
+    /**
+     * Served from the in-memory geo index once it is built; otherwise (or with
+     * {@code wheelio.geo.in-memory=false}) by $geoNear on the 2dsphere index,
+     * reading up to {@value #MAX_GEO_CANDIDATES} candidates by distance.
+     */
+    @Override
+    public List<NearbyVehicle> findNearby(double lat, double lng, double radiusKm, LocalDateTime start,
+            LocalDateTime end, int limit) {
+        Predicate<Vehicle> eligible;
+        if (start != null && end != null) {
+            Predicate<String> free = freeBetween(start, end);
+            eligible = v -> v.getStatus() != Vehicle.Status.MAINTENANCE && free.test(v.getId());
+        } else {
+            eligible = v -> v.getStatus() == Vehicle.Status.AVAILABLE;
+        }
+        if (geoInMemory && geoIndex.isBuilt()) {
+            return geoIndex.nearest(lat, lng, radiusKm, limit, eligible).stream()
+                    .map(hit -> new NearbyVehicle(copy(hit.value()), hit.distanceKm()))
+                    .toList();
+        }
+        NearQuery near = NearQuery.near(new GeoJsonPoint(lng, lat))
+                .spherical(true)
+                .maxDistance(new Distance(radiusKm, Metrics.KILOMETERS))
+                .query(new Query(Criteria.where("status").ne(Vehicle.Status.MAINTENANCE)).limit(MAX_GEO_CANDIDATES));
+        return mongoTemplate.geoNear(near, Vehicle.class).getContent().stream()
+                .filter(result -> eligible.test(result.getContent()))
+                .limit(limit)
+                .map(result -> new NearbyVehicle(result.getContent(), result.getDistance().getValue()))
+                .toList();
+    }
+
+    /** Vehicle ids with no active booking overlapping the period. */
+    private Predicate<String> freeBetween(LocalDateTime start, LocalDateTime end) {
+        if (availabilityIndex.isReady()) {
+            return id -> availabilityIndex.isAvailable(id, start, end);
+        }
+        Query overlapping = new Query(Criteria.where("status").in(AvailabilityIndex.ACTIVE_STATUSES)
+                .and("startDate").lt(end)
+                .and("endDate").gt(start));
+        Set<String> busy = new HashSet<>(
+                mongoTemplate.findDistinct(overlapping, "vehicleId", Booking.class, String.class));
+        return id -> !busy.contains(id);
     }
 
     @Override
     public Vehicle updateVehicle(Vehicle vehicle) {
-        return vehicleRepository.save(vehicle);
+        Vehicle saved = vehicleRepository.save(vehicle);
+        cache(saved);
+        return saved;
+    }
+
+    @Override
+    public boolean updateStatus(String id, Vehicle.Status status) {
+        Vehicle updated = mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(id)
+                .and("status").nin(Vehicle.Status.MAINTENANCE, status)), new Update().set("status", status),
+                FindAndModifyOptions.options().returnNew(true), Vehicle.class);
+        if (updated == null) {
+            return false;
+        }
+        cache(updated);
+        return true;
     }
 
     @Override
     public void deleteVehicle(String id) {
         vehicleRepository.deleteById(id);
+        catalogueCache.remove(id);
+        searchIndex.remove(id);
+        geoIndex.remove(id);
+    }
+
+    /** Write-through to the catalogue cache and the search and geo indexes, which share one copy. */
+    private void cache(Vehicle saved) {
+        Vehicle cached = copy(saved);
+        catalogueCache.put(cached);
+        searchIndex.put(cached);
+        geoIndex.put(cached);
+    }
+
+    private static Vehicle copy(Vehicle v) {
+        return new Vehicle(v.getId(), v.getName(), v.getBrand(), v.getType(), v.getPricePerDay(), v.getLocation(),
+                v.getCoordinates(), v.getStatus(), v.getImageUrl(), v.getFeatures(), v.getDescription(), v.getSeats(),
+                v.getFuelType(), v.getTransmission(), v.getRating(), v.getReviews(), v.getDetails(), v.getCreatedAt());
     }
 }
@@ -0,0 +1,15 @@
+package com.wheelio.backend.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/** One page of a keyset-paginated list; pass nextCursor back to get the following page. */
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
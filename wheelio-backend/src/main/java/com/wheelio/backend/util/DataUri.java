@@ -0,0 +1,83 @@
+package com.wheelio.backend.util;
+
+import java.io.InputStream;
+import java.util.Base64;
+
+/**
+ * Reads base64 {@code data:} URIs (as sent by the frontend for inline images)
+ * without copying them: the payload is decoded on the fly from the string.
+ */
+public class DataUri {
+
+    private static final String PREFIX = "data:";
+    private static final String BASE64 = ";base64";
+
+    public static boolean isDataUri(String value) {
+        return value != null && value.regionMatches(true, 0, PREFIX, 0, PREFIX.length());
+    }
+
+    /** The declared media type, or application/octet-stream when absent. */
+    public static String contentType(String uri) {
+        String header = header(uri);
+        int end = header.indexOf(';');
+        String type = (end < 0 ? header : header.substring(0, end)).trim();
+        return type.isEmpty() ? "application/octet-stream" : type;
+    }
+
+    /** Decoding stream over the payload; only base64 data URIs are supported. */
+    public static InputStream open(String uri) {
+        String header = header(uri);
+        if (!header.toLowerCase().endsWith(BASE64)) {
+            throw new IllegalArgumentException("Only base64 data URIs are supported");
+        }
+        int start = PREFIX.length() + header.length() + 1;
+        return Base64.getMimeDecoder().wrap(new CharSequenceInputStream(uri, start));
+    }
+
+    private static String header(String uri) {
+        if (!isDataUri(uri)) {
+            throw new IllegalArgumentException("Not a data URI");
+        }
+        int comma = uri.indexOf(',', PREFIX.length());
+        if (comma < 0) {
+            throw new IllegalArgumentException("Malformed data URI");
+        }
+        return uri.substring(PREFIX.length(), comma);
+    }
+
+    /** Latin-1 view of a string; base64 is ASCII so nothing is lost. */
+    private static final class CharSequenceInputStream extends InputStream {
+        private final CharSequence chars;
+        private int pos;
+
+        CharSequenceInputStream(CharSequence chars, int start) {
+            this.chars = chars;
+            this.pos = start;
+        }
+
+        @Override
+        public int read() {
+            return pos < chars.length() ? chars.charAt(pos++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int n = Math.min(len, chars.length() - pos);
+            if (n <= 0) {
+                return -1;
+            }
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) chars.charAt(pos++);
+            }
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return chars.length() - pos;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.wheelio.backend.util;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+public class DateUtils {
+
+    /**
+     * Accepts the date formats the frontend sends (ISO with or without seconds,
+     * trailing Z, or a bare date). Falls back to now when nothing parses.
+     */
+    public static LocalDateTime parseFlexibleDate(String dateStr) {
+        if (dateStr == null || dateStr.isEmpty())
+            return LocalDateTime.now();
+        dateStr = dateStr.replace("Z", "");
+        try {
+            return LocalDateTime.parse(dateStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        } catch (DateTimeParseException e1) {
+            try {
+                return LocalDateTime.parse(dateStr, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm"));
+            } catch (DateTimeParseException e2) {
+                try {
+                    return LocalDateTime.parse(dateStr + "T00:00:00", DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+                } catch (DateTimeParseException e3) {
+                    return LocalDateTime.now();
+                }
+            }
+        }
+    }
+}
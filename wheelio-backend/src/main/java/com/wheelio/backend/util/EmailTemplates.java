@@ -72,6 +72,23 @@ public class EmailTemplates {
                 "</div></body></html>";
     }
 
+    public static String getBookingCancelledEmail(String name, Booking booking) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MMM yyyy, hh:mm a");
+        String vehicle = booking.getVehicleSummary() != null ? booking.getVehicleSummary().getName() : "your vehicle";
+        return "<html><body style=\"font-family: Arial, sans-serif; line-height: 1.6; color: #333;\">" +
+                "<div style=\"max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #eee; border-radius: 10px;\">"
+                +
+                "<h2 style=\"color: #ef4444;\">Booking Cancelled</h2>" +
+                "<p>Hi " + name + ",</p>" +
+                "<p>Your booking #" + booking.getId() + " for <strong>" + vehicle + "</strong>"
+                + (booking.getStartDate() != null ? " starting " + booking.getStartDate().format(formatter) : "")
+                + " has been cancelled.</p>" +
+                "<p>If you did not request this, please contact our 24/7 support.</p>" +
+                "<hr style=\"border: none; border-top: 1px solid #eee; margin: 20px 0;\">" +
+                "<p style=\"font-size: 12px; color: #888;\">Wheelio Car Rentals - Drive Your Dreams</p>" +
+                "</div></body></html>";
+    }
+
     // Fixed typo in variable name in my thought, using SECONDARY_COLOR instead of
     // SECOND_COLOR_PLACEHOLDER
 }
@@ -0,0 +1,82 @@
+package com.wheelio.backend.util;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * Writes rows to a response one at a time as NDJSON or CSV, so memory use does
+ * not depend on the number of rows. Output is flushed every FLUSH_EVERY rows;
+ * a client disconnect surfaces as an IOException from the write, which the
+ * caller uses to close its cursor.
+ */
+public class ExportWriter {
+
+    public static final int FLUSH_EVERY = 1000;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        public final String contentType;
+        public final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public static Format parse(String value) {
+            return value != null && value.equalsIgnoreCase("csv") ? CSV : NDJSON;
+        }
+    }
+
+    public static <T> long write(Iterator<T> rows, Format format, ObjectWriter json, String[] header,
+            Function<T, Object[]> csvColumns, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target, 64 * 1024);
+        if (format == Format.CSV) {
+            writeCsvLine(out, header);
+        }
+        long count = 0;
+        while (rows.hasNext()) {
+            T row = rows.next();
+            if (format == Format.CSV) {
+                writeCsvLine(out, csvColumns.apply(row));
+            } else {
+                out.write(json.writeValueAsBytes(row));
+                out.write('\n');
+            }
+            if (++count % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    private static void writeCsvLine(OutputStream out, Object[] values) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object v = values[i];
+            if (v == null) {
+                continue;
+            }
+            String s = v.toString();
+            if (s.indexOf(',') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0) {
+                line.append('"').append(s.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(s);
+            }
+        }
+        line.append('\n');
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
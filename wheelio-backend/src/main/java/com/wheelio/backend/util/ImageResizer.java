@@ -0,0 +1,113 @@
+package com.wheelio.backend.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/** Pure-JDK (ImageIO / Java2D) decoding, downscaling and encoding of images. */
+public class ImageResizer {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    /**
+     * Decodes the first image in the stream, subsampling while reading so the
+     * decoded bitmap is no more than about twice {@code maxDimension} on its
+     * longer side. Returns null when no ImageIO reader understands the format.
+     */
+    public static BufferedImage decode(InputStream in, int maxDimension) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            if (iis == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longest / (maxDimension * 2));
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Scales down to fit in a {@code max}-pixel box, halving repeatedly for quality; never upscales. */
+    public static BufferedImage scaleToFit(BufferedImage src, int max) {
+        int w = src.getWidth();
+        int h = src.getHeight();
+        if (w <= max && h <= max) {
+            return src;
+        }
+        double scale = (double) max / Math.max(w, h);
+        int targetW = Math.max(1, (int) Math.round(w * scale));
+        int targetH = Math.max(1, (int) Math.round(h * scale));
+        boolean alpha = src.getColorModel().hasAlpha();
+        BufferedImage current = src;
+        int curW = w;
+        int curH = h;
+        do {
+            curW = Math.max(targetW, curW / 2);
+            curH = Math.max(targetH, curH / 2);
+            BufferedImage next = new BufferedImage(curW, curH,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, curW, curH, null);
+            g.dispose();
+            current = next;
+        } while (curW != targetW || curH != targetH);
+        return current;
+    }
+
+    /** PNG for images with transparency, JPEG otherwise. */
+    public static String contentTypeFor(BufferedImage image) {
+        return image.getColorModel().hasAlpha() ? "image/png" : "image/jpeg";
+    }
+
+    public static byte[] encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (image.getColorModel().hasAlpha()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB && image.getType() != BufferedImage.TYPE_3BYTE_BGR) {
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            g.drawImage(image, 0, 0, null);
+            g.dispose();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,252 @@
+package com.wheelio.backend.util;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keyset (cursor) pagination over Mongo collections. Pages are ordered by a
+ * sort field plus _id as tie-breaker, and the cursor encodes the last row's
+ * (field, _id) so the next page is an index range scan instead of a skip.
+ *
+ * Supported sort keys are "id" and "createdAt"; prefix with '-' for descending.
+ * Without a sort, pages run newest first, or by id for collections that have
+ * no createdAt. Pages hold {@value #DEFAULT_LIMIT} rows unless {@code limit}
+ * asks for another size, capped at {@value #MAX_LIMIT}.
+ *
+ * The same cursors page in-memory lists sorted with {@link #comparator}, so a
+ * cached collection can be served without a query.
+ */
+public class KeysetPager {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    private static final String ID = "id";
+    private static final String NULL_VALUE = "~";
+
+    public static <T> CursorPage<T> page(MongoTemplate mongoTemplate, Class<T> type, Criteria filter,
+            String cursor, Integer limit, String sort, Set<String> allowedSorts) {
+        return page(mongoTemplate, type, mongoTemplate.getCollectionName(type), null, filter, cursor, limit, sort,
+                allowedSorts);
+    }
+
+    /**
+     * Pages {@code collection} into {@code type}, e.g. a summary view; {@code projection}
+     * can restrict or compute the returned fields (it must keep _id and the sort field).
+     */
+    public static <T> CursorPage<T> page(MongoTemplate mongoTemplate, Class<T> type, String collection,
+            Consumer<Query> projection, Criteria filter, String cursor, Integer limit, String sort,
+            Set<String> allowedSorts) {
+        SortKey key = SortKey.parse(sort, allowedSorts);
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        List<Criteria> parts = new ArrayList<>();
+        if (filter != null) {
+            parts.add(filter);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            parts.add(key.after(Cursor.decode(cursor, key)));
+        }
+        Query query = new Query();
+        if (!parts.isEmpty()) {
+            query.addCriteria(parts.size() == 1 ? parts.get(0) : new Criteria().andOperator(parts));
+        }
+        Sort.Direction dir = key.descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        query.with(key.field.equals(ID) ? Sort.by(dir, "_id") : Sort.by(dir, key.field).and(Sort.by(dir, "_id")));
+        query.limit(size + 1);
+        if (projection != null) {
+            projection.accept(query);
+        }
+
+        List<T> rows = mongoTemplate.find(query, type, collection);
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+        String next = hasMore ? Cursor.encode(key, rows.get(rows.size() - 1)) : null;
+        return new CursorPage<>(rows, next, hasMore);
+    }
+
+    /**
+     * The canonical form of {@code sort} (e.g. "-createdAt"), with the same
+     * fallback as the Mongo pager; key cached sorted views on it.
+     */
+    public static String sortKey(String sort, Set<String> allowedSorts) {
+        return SortKey.parse(sort, allowedSorts).toString();
+    }
+
+    /** Orders rows the way Mongo sorts them for a canonical {@code sortKey}, _id breaking ties. */
+    public static <T> Comparator<T> comparator(String sortKey) {
+        SortKey key = SortKey.of(sortKey);
+        return (a, b) -> key.compare(a, Cursor.of(key, b));
+    }
+
+    /**
+     * Pages a list already sorted with {@link #comparator}{@code (sortKey)}; the
+     * cursor position is found by binary search.
+     */
+    public static <T> CursorPage<T> page(List<T> sorted, String cursor, Integer limit, String sortKey) {
+        SortKey key = SortKey.of(sortKey);
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        int from = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor c = Cursor.decode(cursor, key);
+            int hi = sorted.size();
+            while (from < hi) {
+                int mid = (from + hi) >>> 1;
+                if (key.compare(sorted.get(mid), c) > 0) {
+                    hi = mid;
+                } else {
+                    from = mid + 1;
+                }
+            }
+        }
+        int to = Math.min(sorted.size(), from + size);
+        List<T> rows = List.copyOf(sorted.subList(from, to));
+        boolean hasMore = to < sorted.size();
+        String next = hasMore ? Cursor.encode(key, rows.get(rows.size() - 1)) : null;
+        return new CursorPage<>(rows, next, hasMore);
+    }
+
+    private static final class SortKey {
+        final String field;
+        final boolean descending;
+
+        SortKey(String field, boolean descending) {
+            this.field = field;
+            this.descending = descending;
+        }
+
+        static SortKey parse(String sort, Set<String> allowed) {
+            String s = sort == null || sort.isBlank() ? "-createdAt" : sort.trim();
+            boolean desc = s.startsWith("-");
+            String field = desc ? s.substring(1) : s;
+            if (field.equals("_id")) {
+                field = ID;
+            }
+            if (!allowed.contains(field)) {
+                if (sort == null || sort.isBlank()) {
+                    return new SortKey(ID, false);
+                }
+                throw new IllegalArgumentException("Unsupported sort: " + sort + " (allowed: " + allowed + ")");
+            }
+            return new SortKey(field, desc);
+        }
+
+        static SortKey of(String canonical) {
+            boolean desc = canonical.startsWith("-");
+            return new SortKey(desc ? canonical.substring(1) : canonical, desc);
+        }
+
+        /** Sign of row versus cursor position in page order; values compare at millisecond precision like cursors. */
+        int compare(Object row, Cursor c) {
+            Cursor r = Cursor.of(this, row);
+            int cmp = 0;
+            if (!field.equals(ID)) {
+                cmp = r.value == null ? (c.value == null ? 0 : -1)
+                        : c.value == null ? 1 : r.value.compareTo(c.value);
+            }
+            if (cmp == 0) {
+                cmp = r.id.compareTo(c.id);
+            }
+            return descending ? -cmp : cmp;
+        }
+
+        @Override
+        public String toString() {
+            return (descending ? "-" : "") + field;
+        }
+
+        /**
+         * Rows strictly after the cursor. Mongo orders null/missing before any
+         * value, so nulls come first ascending and last descending.
+         */
+        Criteria after(Cursor c) {
+            Criteria idAfter = descending ? Criteria.where("_id").lt(c.id) : Criteria.where("_id").gt(c.id);
+            if (field.equals(ID)) {
+                return idAfter;
+            }
+            if (c.value == null) {
+                Criteria sameNullAfter = new Criteria().andOperator(Criteria.where(field).is(null), idAfter);
+                return descending ? sameNullAfter
+                        : new Criteria().orOperator(sameNullAfter, Criteria.where(field).ne(null));
+            }
+            Criteria beyond = descending ? Criteria.where(field).lt(c.value) : Criteria.where(field).gt(c.value);
+            Criteria sameValueAfter = new Criteria().andOperator(Criteria.where(field).is(c.value), idAfter);
+            return descending
+                    ? new Criteria().orOperator(beyond, sameValueAfter, Criteria.where(field).is(null))
+                    : new Criteria().orOperator(beyond, sameValueAfter);
+        }
+    }
+
+    private static final class Cursor {
+        final LocalDateTime value;
+        final String id;
+
+        Cursor(LocalDateTime value, String id) {
+            this.value = value;
+            this.id = id;
+        }
+
+        static Cursor of(SortKey key, Object row) {
+            LocalDateTime v = key.field.equals(ID) ? null : (LocalDateTime) read(row, key.field);
+            return new Cursor(v == null ? null : v.truncatedTo(ChronoUnit.MILLIS), (String) read(row, ID));
+        }
+
+        static String encode(SortKey key, Object row) {
+            Cursor c = of(key, row);
+            String value = c.value == null ? NULL_VALUE
+                    : Long.toString(c.value.toInstant(ZoneOffset.UTC).toEpochMilli());
+            String raw = key + "|" + value + "|" + c.id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token, SortKey key) {
+            String raw;
+            try {
+                raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            String[] parts = raw.split("\\|", 3);
+            String expectedSort = key.toString();
+            if (parts.length != 3 || !parts[0].equals(expectedSort)) {
+                throw new IllegalArgumentException("Cursor does not match sort " + expectedSort);
+            }
+            LocalDateTime value = null;
+            if (!parts[1].equals(NULL_VALUE)) {
+                try {
+                    value = LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(parts[1])), ZoneOffset.UTC);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed cursor");
+                }
+            }
+            return new Cursor(value, parts[2]);
+        }
+
+        private static Object read(Object row, String name) {
+            Field f = ReflectionUtils.findField(row.getClass(), name);
+            if (f == null) {
+                throw new IllegalArgumentException(row.getClass().getSimpleName() + " has no field " + name);
+            }
+            ReflectionUtils.makeAccessible(f);
+            return ReflectionUtils.getField(f, row);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.wheelio.backend.util;
+
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the app's own worker pools. With
+ * {@code spring.threads.virtual.enabled=true} on Java 21+ they hand out virtual
+ * threads, matching what Spring Boot does for Tomcat and the scheduler;
+ * otherwise named daemon platform threads.
+ */
+public class WorkerThreads {
+
+    public static boolean virtualThreadsAvailable() {
+        return JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+    }
+
+    public static ThreadFactory factory(String prefix, boolean preferVirtual) {
+        if (preferVirtual && virtualThreadsAvailable()) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        AtomicInteger threadNo = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,40 @@
+package com.wheelio.backend;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A virtual thread that blocks inside a synchronized block pins its carrier
+ * thread on Java 21, so the request path must use java.util.concurrent locks
+ * (or lock-free structures) instead. This keeps synchronized out of our code.
+ */
+public class PinningGuardTest {
+
+    private static final Pattern SYNCHRONIZED = Pattern.compile("\\bsynchronized\\b");
+
+    @Test
+    public void testNoSynchronizedInMainSources() throws IOException {
+        List<String> offenders = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(Path.of("src/main/java"))) {
+            for (Path file : (Iterable<Path>) files.filter(p -> p.toString().endsWith(".java"))::iterator) {
+                List<String> lines = Files.readAllLines(file);
+                for (int i = 0; i < lines.size(); i++) {
+                    String line = lines.get(i).trim();
+                    if (!line.startsWith("//") && !line.startsWith("*") && SYNCHRONIZED.matcher(line).find()) {
+                        offenders.add(file + ":" + (i + 1));
+                    }
+                }
+            }
+        }
+        assertTrue(offenders.isEmpty(), "synchronized pins virtual threads, use a ReentrantLock: " + offenders);
+    }
+}
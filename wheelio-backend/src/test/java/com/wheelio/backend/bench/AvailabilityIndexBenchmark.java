@@ -0,0 +1,119 @@
+package com.wheelio.backend.bench;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.service.AvailabilityIndex;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One availability check through AvailabilityIndex versus the
+ * findOverlappingBookings query it replaces, over 2,000 vehicles with 20
+ * active bookings each. The query path seeds a throwaway {@code wheelio_bench}
+ * database at {@code -Dbench.mongo} (default mongodb://localhost:27017) and
+ * fails its setup when no MongoDB is reachable. Run with
+ * {@code mvn -Pbench test-compile exec:exec -Dbench=AvailabilityIndexBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityIndexBenchmark {
+
+    private static final int VEHICLES = 2000;
+    private static final int PER_VEHICLE = 20;
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private List<Booking> bookings;
+    private String[] vehicleIds;
+    private LocalDateTime[] starts;
+    private LocalDateTime[] ends;
+    private AvailabilityIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        bookings = new ArrayList<>(VEHICLES * PER_VEHICLE);
+        for (int v = 0; v < VEHICLES; v++) {
+            LocalDateTime t = BASE;
+            for (int i = 0; i < PER_VEHICLE; i++) {
+                t = t.plusHours(12 + random.nextInt(72));
+                Booking b = new Booking();
+                b.setId("b" + v + "-" + i);
+                b.setVehicleId("v" + v);
+                b.setStartDate(t);
+                t = t.plusHours(4 + random.nextInt(96));
+                b.setEndDate(t);
+                b.setStatus(i % 3 == 0 ? Booking.BookingStatus.PENDING : Booking.BookingStatus.CONFIRMED);
+                bookings.add(b);
+            }
+        }
+        index = new AvailabilityIndex();
+        index.load(bookings);
+
+        vehicleIds = new String[1024];
+        starts = new LocalDateTime[1024];
+        ends = new LocalDateTime[1024];
+        for (int i = 0; i < vehicleIds.length; i++) {
+            vehicleIds[i] = "v" + random.nextInt(VEHICLES);
+            starts[i] = BASE.plusHours(random.nextInt(24 * 120));
+            ends[i] = starts[i].plusHours(4 + random.nextInt(72));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @State(Scope.Benchmark)
+    public static class MongoPath {
+        MongoClient client;
+        MongoTemplate template;
+
+        @Setup
+        public void setUp(AvailabilityIndexBenchmark bench) {
+            client = MongoClients.create(System.getProperty("bench.mongo", "mongodb://localhost:27017"));
+            template = new MongoTemplate(client, "wheelio_bench");
+            template.dropCollection(Booking.class);
+            template.indexOps(Booking.class).ensureIndex(new Index().on("vehicleId", Sort.Direction.ASC));
+            template.insert(bench.bookings, Booking.class);
+        }
+
+        @TearDown
+        public void tearDown() {
+            template.dropCollection(Booking.class);
+            client.close();
+        }
+    }
+
+    @Benchmark
+    public boolean index(Cursor cursor) {
+        int i = cursor.next++ & 1023;
+        return index.isAvailable(vehicleIds[i], starts[i], ends[i]);
+    }
+
+    /** Same filter as BookingRepository.findOverlappingBookings. */
+    @Benchmark
+    public boolean mongoQuery(MongoPath mongo, Cursor cursor) {
+        int i = cursor.next++ & 1023;
+        Query q = new Query(Criteria.where("vehicleId").is(vehicleIds[i])
+                .and("status").in(AvailabilityIndex.ACTIVE_STATUSES)
+                .and("startDate").lt(ends[i])
+                .and("endDate").gt(starts[i]));
+        return mongo.template.find(q, Booking.class).isEmpty();
+    }
+}
@@ -0,0 +1,110 @@
+package com.wheelio.backend.bench;
+
+import com.wheelio.backend.service.DriverRoster;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory side of DriverDispatchEngine.assign (rank, then claim the first
+ * free candidate) for 2,000 drivers across ten cities. {@code burst} dispatches
+ * 10k bookings for one day into a fresh roster; {@code assign} samples the
+ * per-booking latency at steady state. Run with
+ * {@code mvn -Pbench test-compile exec:exec -Dbench=DriverDispatchBenchmark}.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DriverDispatchBenchmark {
+
+    private static final String[] CITIES = { "Mumbai", "Delhi", "Bangalore", "Hyderabad", "Chennai", "Pune",
+            "Kolkata", "Ahmedabad", "Jaipur", "Kochi" };
+    private static final int DRIVERS = 2000;
+    private static final int BURST = 10_000;
+    private static final long DAY_START = 2_000_000_000L;
+    private static final long HOUR = 3600;
+
+    private DriverRoster roster;
+    private String[] cities;
+    private long[] starts;
+    private long[] ends;
+    private int next;
+
+    private DriverRoster fillRoster() {
+        DriverRoster r = new DriverRoster(new DriverRoster.Weights(0.5, 0.3, 0.2, 24 * HOUR));
+        Random random = new Random(1);
+        for (int i = 0; i < DRIVERS; i++) {
+            r.putDriver("d" + i, CITIES[i % CITIES.length], 3.5 + random.nextInt(16) / 10.0, true);
+        }
+        return r;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        cities = new String[BURST];
+        starts = new long[BURST];
+        ends = new long[BURST];
+        for (int i = 0; i < BURST; i++) {
+            cities[i] = CITIES[random.nextInt(CITIES.length)];
+            starts[i] = DAY_START + random.nextInt(44) * HOUR / 2;
+            ends[i] = starts[i] + HOUR + random.nextInt(5) * HOUR / 2;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void freshRoster() {
+        roster = fillRoster();
+    }
+
+    private String dispatch(int i, String bookingId) {
+        for (DriverRoster.Candidate c : roster.rank(cities[i], starts[i], ends[i], 5)) {
+            if (roster.claim(c.driverId(), bookingId, starts[i], ends[i])) {
+                return c.driverId();
+            }
+        }
+        return null;
+    }
+
+    /** 10k bookings in one go; the score is time per booking. */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OperationsPerInvocation(BURST)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public void burst(Blackhole bh) {
+        for (int i = 0; i < BURST; i++) {
+            bh.consume(dispatch(i, "b" + i));
+        }
+    }
+
+    /** One booking, released again so the roster stays at its steady-state load. */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public String assign() {
+        int i = next++ % BURST;
+        String driver = dispatch(i, "s");
+        if (driver != null) {
+            roster.release(driver, "s");
+        }
+        return driver;
+    }
+
+    /** How many of the burst found a driver, printed once per iteration for context. */
+    @TearDown(Level.Iteration)
+    public void report() {
+        long busy = 0;
+        for (int d = 0; d < DRIVERS; d++) {
+            List<String> held = roster.bookingIds("d" + d);
+            busy += held.size();
+        }
+        if (busy > 1) {
+            System.out.println("assigned " + busy + " of " + BURST);
+        }
+    }
+}
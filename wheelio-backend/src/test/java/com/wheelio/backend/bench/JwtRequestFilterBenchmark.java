@@ -0,0 +1,106 @@
+package com.wheelio.backend.bench;
+
+import com.wheelio.backend.security.JwtRequestFilter;
+import com.wheelio.backend.security.JwtUtil;
+import com.wheelio.backend.security.JwtVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through JwtRequestFilter, against a replica of the
+ * filter as it was before JwtVerifier: four parses per request (email, then
+ * email and expiry again in validateToken, then role), each building a new key
+ * and parser. {@code filter} is the steady state where the token is already
+ * cached; {@code singleParse} is what a first request with a token costs. Run
+ * with {@code mvn -Pbench test-compile exec:exec -Dbench=JwtRequestFilterBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtRequestFilterBenchmark {
+
+    private static final String SECRET = "bench_secret_key_for_jwt_request_filter_at_least_32_bytes";
+    private static final FilterChain NOOP = (request, response) -> { };
+
+    private JwtUtil jwtUtil;
+    private JwtRequestFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expirationTime", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        JwtVerifier verifier = new JwtVerifier();
+        ReflectionTestUtils.setField(verifier, "jwtUtil", jwtUtil);
+        filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtVerifier", verifier);
+        token = jwtUtil.generateToken("bench@wheelio.com", "u1", "CUSTOMER");
+    }
+
+    @Benchmark
+    public Authentication filter() throws Exception {
+        MockHttpServletRequest request = request();
+        filter.doFilter(request, new MockHttpServletResponse(), NOOP);
+        return takeAuthentication();
+    }
+
+    @Benchmark
+    public Authentication legacyFilter() {
+        MockHttpServletRequest request = request();
+        String jwt = request.getHeader("Authorization").substring(7);
+        String email = legacyClaims(jwt).getSubject();
+        boolean valid = legacyClaims(jwt).getSubject().equals(email)
+                && !legacyClaims(jwt).getExpiration().before(new Date());
+        if (valid) {
+            String role = legacyClaims(jwt).get("role", String.class);
+            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                    email, null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(auth);
+        }
+        return takeAuthentication();
+    }
+
+    /** The parse a cache miss pays, with the key and parser built once. */
+    @Benchmark
+    public Claims singleParse() {
+        return jwtUtil.extractClaims(token);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/bookings");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private static Authentication takeAuthentication() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return auth;
+    }
+
+    private static Claims legacyClaims(String jwt) {
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes())).build()
+                .parseClaimsJws(jwt).getBody();
+    }
+}
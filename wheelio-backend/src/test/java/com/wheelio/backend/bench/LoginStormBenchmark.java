@@ -0,0 +1,100 @@
+package com.wheelio.backend.bench;
+
+import com.wheelio.backend.security.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a cheap catalogue request on a fixed 8-thread "request" pool
+ * while a login storm (16 logins in flight, BCrypt cost 10) hits the same
+ * pool. {@code inline} verifies passwords on the request threads as before
+ * PasswordHasher; {@code hasher} hands them to it. Compare the p0.99 rows. Run
+ * with {@code mvn -Pbench test-compile exec:exec -Dbench=LoginStormBenchmark}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginStormBenchmark {
+
+    private static final int IN_FLIGHT = 16;
+
+    @Param({ "inline", "hasher" })
+    public String mode;
+
+    private BCryptPasswordEncoder encoder;
+    private String stored;
+    private PasswordHasher hasher;
+    private ExecutorService requestThreads;
+    private ExecutorService completions;
+    private Thread storm;
+    private volatile boolean running;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(10);
+        stored = encoder.encode("Secret@123");
+        completions = Executors.newCachedThreadPool();
+        hasher = new PasswordHasher();
+        ReflectionTestUtils.setField(hasher, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(hasher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(hasher, "completionExecutor", completions);
+        ReflectionTestUtils.setField(hasher, "workers", 2);
+        ReflectionTestUtils.setField(hasher, "queueCapacity", IN_FLIGHT);
+        ReflectionTestUtils.invokeMethod(hasher, "init");
+        requestThreads = Executors.newFixedThreadPool(8);
+
+        Semaphore inFlight = new Semaphore(IN_FLIGHT);
+        running = true;
+        storm = new Thread(() -> {
+            while (running) {
+                try {
+                    inFlight.acquire();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                requestThreads.submit(() -> login(inFlight));
+            }
+        }, "login-storm");
+        storm.setDaemon(true);
+        storm.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        storm.interrupt();
+        storm.join();
+        requestThreads.shutdownNow();
+        ReflectionTestUtils.invokeMethod(hasher, "shutdown");
+        completions.shutdownNow();
+    }
+
+    /** One login request; the permit is returned when the password check is done. */
+    private void login(Semaphore inFlight) {
+        if (mode.equals("inline")) {
+            try {
+                encoder.matches("Secret@123", stored);
+            } finally {
+                inFlight.release();
+            }
+        } else {
+            hasher.matches("Secret@123", stored).whenComplete((ok, e) -> inFlight.release());
+        }
+    }
+
+    @Benchmark
+    public int catalogue() throws Exception {
+        return requestThreads.submit(() -> List.of("car", "bike", "van").hashCode()).get();
+    }
+}
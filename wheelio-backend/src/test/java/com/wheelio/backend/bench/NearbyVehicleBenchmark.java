@@ -0,0 +1,68 @@
+package com.wheelio.backend.bench;
+
+import com.wheelio.backend.service.GeoGrid;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * k-nearest lookups over 50k vehicles spread across ten metro areas, the
+ * shape of the in-memory path behind {@code /api/vehicles/nearby}. Run with
+ * {@code mvn -Pbench test-compile exec:exec -Dbench=NearbyVehicleBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NearbyVehicleBenchmark {
+
+    private static final double[][] METROS = {
+            { 19.076, 72.877 }, { 28.613, 77.209 }, { 12.971, 77.594 }, { 17.385, 78.486 }, { 13.082, 80.270 },
+            { 18.520, 73.856 }, { 22.572, 88.363 }, { 23.022, 72.571 }, { 26.912, 75.787 }, { 9.931, 76.267 } };
+
+    @Param({ "50000" })
+    public int vehicles;
+
+    @Param({ "10", "50" })
+    public double radiusKm;
+
+    private GeoGrid<Integer> grid;
+    private double[][] queries;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        grid = new GeoGrid<>(5);
+        for (int i = 0; i < vehicles; i++) {
+            double[] metro = METROS[i % METROS.length];
+            grid.put("v" + i, metro[0] + random.nextGaussian() * 0.15, metro[1] + random.nextGaussian() * 0.15, i);
+        }
+        queries = new double[1024][];
+        for (int i = 0; i < queries.length; i++) {
+            double[] metro = METROS[random.nextInt(METROS.length)];
+            queries[i] = new double[] { metro[0] + random.nextGaussian() * 0.1, metro[1] + random.nextGaussian() * 0.1 };
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    /** Twenty nearest, with a cheap per-vehicle check standing in for availability. */
+    @Benchmark
+    public List<GeoGrid.Hit<Integer>> nearest20(Cursor cursor) {
+        double[] q = queries[cursor.next++ & (queries.length - 1)];
+        return grid.nearest(q[0], q[1], radiusKm, 20, i -> (i & 7) != 0);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<GeoGrid.Hit<Integer>> nearest20Concurrent(Cursor cursor) {
+        return nearest20(cursor);
+    }
+}
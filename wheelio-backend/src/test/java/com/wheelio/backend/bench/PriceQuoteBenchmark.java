@@ -0,0 +1,74 @@
+package com.wheelio.backend.bench;
+
+import com.wheelio.backend.model.PriceQuote;
+import com.wheelio.backend.model.Vehicle;
+import com.wheelio.backend.service.PriceRules;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded quote throughput; the target is 10k quotes per second per
+ * core. Run with {@code mvn -Pbench test-compile exec:exec}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+public class PriceQuoteBenchmark {
+
+    private static final int PAGE = 20;
+
+    private PriceRules rules;
+    private Vehicle[] vehicles;
+    private LocalDateTime[] starts;
+    private LocalDateTime[] ends;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        rules = PriceRules.compile(new BigDecimal("800"), new BigDecimal("10"), "FRIDAY,SATURDAY,SUNDAY",
+                "3:5,7:10,30:20", new BigDecimal("18"), new BigDecimal("500"), "BIKE:300,SCOOTER:300");
+        Random random = new Random(42);
+        Vehicle.VehicleType[] types = Vehicle.VehicleType.values();
+        vehicles = new Vehicle[PAGE];
+        for (int i = 0; i < PAGE; i++) {
+            Vehicle v = new Vehicle();
+            v.setId("v" + i);
+            v.setType(types[i % types.length]);
+            v.setPricePerDay(BigDecimal.valueOf(800 + random.nextInt(4000)));
+            vehicles[i] = v;
+        }
+        starts = new LocalDateTime[1024];
+        ends = new LocalDateTime[1024];
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = base.plusHours(random.nextInt(24 * 365));
+            ends[i] = starts[i].plusHours(2 + random.nextInt(24 * 30));
+        }
+    }
+
+    /** One quote, including the rupee-to-paise conversion PricingService does per vehicle. */
+    @Benchmark
+    public PriceQuote quote() {
+        int i = next++ & (starts.length - 1);
+        Vehicle v = vehicles[i % PAGE];
+        return rules.quote(PriceRules.minor(v.getPricePerDay()), v.getType(), starts[i], ends[i], (i & 1) == 0);
+    }
+
+    /** A search-result page of {@value #PAGE} vehicles for one period, as the batch endpoint prices it. */
+    @Benchmark
+    public void quotePage(Blackhole bh) {
+        int i = next++ & (starts.length - 1);
+        for (Vehicle v : vehicles) {
+            bh.consume(rules.quote(PriceRules.minor(v.getPricePerDay()), v.getType(), starts[i], ends[i], false));
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.wheelio.backend.controller;
+
+import com.wheelio.backend.model.StoredFile;
+import com.wheelio.backend.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+public class FileControllerTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+    private FileStorageService storage;
+    private StoredFile original;
+    private MockMvc mvc;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        storage = mock(FileStorageService.class);
+        original = new StoredFile("f1", "scan.txt", "text/plain", CONTENT.length, "f1", null, null, "g1");
+        when(storage.getFile("f1", null)).thenReturn(original);
+        when(storage.openStream(same(original), anyLong())).thenAnswer(inv -> {
+            ByteArrayInputStream in = new ByteArrayInputStream(CONTENT);
+            in.skip(inv.getArgument(1));
+            return in;
+        });
+        FileController controller = new FileController();
+        ReflectionTestUtils.setField(controller, "fileStorageService", storage);
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    public void testFullDownloadStreamsWithEtag() throws Exception {
+        MvcResult started = mvc.perform(get("/api/files/f1")).andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"f1\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    public void testSingleRangeReturnsPartialContent() throws Exception {
+        MvcResult started = mvc.perform(get("/api/files/f1").header(HttpHeaders.RANGE, "bytes=5-9"))
+                .andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-9/20"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 5))
+                .andExpect(content().string("56789"));
+        verify(storage).openStream(original, 5);
+    }
+
+    @Test
+    public void testSuffixRange() throws Exception {
+        MvcResult started = mvc.perform(get("/api/files/f1").header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("hij"));
+    }
+
+    @Test
+    public void testIfNoneMatchAndUnsatisfiableRange() throws Exception {
+        mvc.perform(get("/api/files/f1").header(HttpHeaders.IF_NONE_MATCH, "\"f1\""))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/api/files/f1").header(HttpHeaders.RANGE, "bytes=50-60"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+        mvc.perform(get("/api/files/missing")).andExpect(status().isNotFound());
+        verify(storage, never()).openStream(any(StoredFile.class), anyLong());
+    }
+
+    @Test
+    public void testSizeSelectsRendition() throws Exception {
+        byte[] thumb = "thumb".getBytes(StandardCharsets.US_ASCII);
+        StoredFile rendition = new StoredFile("f1", "scan.txt", "image/jpeg", thumb.length, "f1-thumb", null,
+                "thumb", "g1-thumb");
+        when(storage.getFile("f1", "thumb")).thenReturn(rendition);
+        when(storage.openStream(rendition, 0)).thenReturn(new ByteArrayInputStream(thumb));
+
+        MvcResult started = mvc.perform(get("/api/files/f1").param("size", "THUMB"))
+                .andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"f1-thumb\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=86400, public"))
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(content().bytes(thumb));
+        // the body comes from the GridFS file the headers were built from, not from a second lookup
+        verify(storage, times(1)).getFile("f1", "thumb");
+        verify(storage).openStream(rendition, 0);
+        mvc.perform(get("/api/files/f1").param("size", "huge")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testMissingRenditionFallsBackWithoutLongCaching() throws Exception {
+        when(storage.getFile("f1", "card")).thenReturn(original);
+
+        MvcResult started = mvc.perform(get("/api/files/f1").param("size", "card"))
+                .andExpect(request().asyncStarted()).andReturn();
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(content().bytes(CONTENT));
+    }
+}
@@ -0,0 +1,133 @@
+package com.wheelio.backend.integration;
+
+import com.wheelio.backend.exception.BookingConflictException;
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.repository.BookingRepository;
+import com.wheelio.backend.service.BookingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingReservationStressTest {
+
+    private static final int THREADS = 64;
+    private static final int REQUESTS = 4000;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    public void testConcurrentConflictingBookingsNeverOverlap() throws Exception {
+        String vehicleId = "stress-vehicle-" + UUID.randomUUID();
+        LocalDateTime base = LocalDateTime.now().plusDays(30).withNano(0);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        for (int i = 0; i < REQUESTS; i++) {
+            pool.submit(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                // squeeze everything into a 10-day window so most requests collide
+                LocalDateTime from = base.plusHours(rnd.nextInt(240));
+                Booking booking = new Booking();
+                booking.setVehicleId(vehicleId);
+                booking.setStartDate(from);
+                booking.setEndDate(from.plusHours(1 + rnd.nextInt(48)));
+                booking.setStatus(Booking.BookingStatus.CONFIRMED);
+                try {
+                    start.await();
+                    bookingService.createBooking(booking);
+                    accepted.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    rejected.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                }
+            });
+        }
+
+        long t0 = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("Reservation stress: %d requests in %.2fs (%.0f req/s), accepted=%d rejected=%d%n",
+                REQUESTS, seconds, REQUESTS / seconds, accepted.get(), rejected.get());
+
+        assertEquals(0, failed.get());
+        assertEquals(REQUESTS, accepted.get() + rejected.get());
+        assertTrue(accepted.get() > 0);
+
+        List<Booking> stored = new ArrayList<>(bookingRepository.findByVehicleId(vehicleId));
+        assertEquals(accepted.get(), stored.size());
+        stored.sort(Comparator.comparing(Booking::getStartDate));
+        for (int i = 1; i < stored.size(); i++) {
+            Booking prev = stored.get(i - 1);
+            Booking next = stored.get(i);
+            assertFalse(next.getStartDate().isBefore(prev.getEndDate()),
+                    "Overlap between " + prev.getId() + " and " + next.getId());
+        }
+
+        stored.forEach(b -> bookingService.deleteBooking(b.getId()));
+    }
+
+    @Test
+    public void testRescheduleIsCheckedAgainstOtherSlots() {
+        String vehicleId = "reschedule-vehicle-" + UUID.randomUUID();
+        LocalDateTime base = LocalDateTime.now().plusDays(30).withNano(0);
+        Booking first = new Booking();
+        first.setVehicleId(vehicleId);
+        first.setStartDate(base);
+        first.setEndDate(base.plusDays(1));
+        first.setStatus(Booking.BookingStatus.CONFIRMED);
+        first = bookingService.createBooking(first);
+        Booking second = new Booking();
+        second.setVehicleId(vehicleId);
+        second.setStartDate(base.plusDays(2));
+        second.setEndDate(base.plusDays(3));
+        second.setStatus(Booking.BookingStatus.CONFIRMED);
+        second = bookingService.createBooking(second);
+
+        Booking moved = second;
+        moved.setStartDate(base.plusHours(12));
+        assertThrows(BookingConflictException.class, () -> bookingService.updateBooking(moved));
+
+        // the slot moved with the booking, so its old period is free again
+        second.setStartDate(base.plusDays(4));
+        second.setEndDate(base.plusDays(5));
+        bookingService.updateBooking(second);
+        Booking third = new Booking();
+        third.setVehicleId(vehicleId);
+        third.setStartDate(base.plusDays(2));
+        third.setEndDate(base.plusDays(3));
+        third.setStatus(Booking.BookingStatus.CONFIRMED);
+        third = bookingService.createBooking(third);
+
+        bookingService.deleteBooking(first.getId());
+        bookingService.deleteBooking(second.getId());
+        bookingService.deleteBooking(third.getId());
+    }
+}
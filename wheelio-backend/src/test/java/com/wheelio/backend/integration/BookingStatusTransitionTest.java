@@ -0,0 +1,116 @@
+package com.wheelio.backend.integration;
+
+import com.wheelio.backend.exception.BookingStateConflictException;
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.repository.BookingRepository;
+import com.wheelio.backend.service.BookingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingStatusTransitionTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Booking confirmedBooking() {
+        Booking booking = new Booking();
+        booking.setVehicleId("transition-vehicle-" + UUID.randomUUID());
+        booking.setStartDate(LocalDateTime.now().plusDays(3).withNano(0));
+        booking.setEndDate(booking.getStartDate().plusDays(2));
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        booking.setVehicleSummary(new Booking.VehicleSummary(booking.getVehicleId(), "Swift", "Maruti", "HATCHBACK",
+                null, BigDecimal.valueOf(1500), "Pune"));
+        return bookingService.createBooking(booking);
+    }
+
+    @Test
+    public void testConcurrentTransitionsFromTheSameStateHaveOneWinner() throws Exception {
+        Booking booking = confirmedBooking();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        for (int i = 0; i < 32; i++) {
+            Booking.BookingStatus target = i % 2 == 0 ? Booking.BookingStatus.COMPLETED
+                    : Booking.BookingStatus.CANCELLED;
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    bookingService.changeStatus(booking.getId(), target, Booking.BookingStatus.CONFIRMED,
+                            booking.getVersion());
+                    applied.incrementAndGet();
+                } catch (BookingStateConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(1, applied.get());
+        assertEquals(31, conflicts.get());
+        Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(booking.getVersion() + 1, stored.getVersion());
+        assertEquals("Swift", stored.getVehicleSummary().getName());
+    }
+
+    @Test
+    public void testStateMachineAndVersionGuards() {
+        Booking booking = confirmedBooking();
+
+        Booking cancelled = bookingService.changeStatus(booking.getId(), Booking.BookingStatus.CANCELLED, null, null)
+                .orElseThrow();
+        assertEquals(Booking.BookingStatus.CANCELLED, cancelled.getStatus());
+        // a retried cancel is a no-op, reopening is not allowed
+        assertEquals(cancelled.getVersion(), bookingService.changeStatus(booking.getId(),
+                Booking.BookingStatus.CANCELLED, null, null).orElseThrow().getVersion());
+        BookingStateConflictException reopen = assertThrows(BookingStateConflictException.class,
+                () -> bookingService.changeStatus(booking.getId(), Booking.BookingStatus.CONFIRMED, null, null));
+        assertEquals(Booking.BookingStatus.CANCELLED, reopen.getCurrentStatus());
+
+        assertThrows(BookingStateConflictException.class, () -> bookingService.changePaymentStatus(booking.getId(),
+                Booking.PaymentStatus.REFUNDED, booking.getVersion()));
+        assertEquals(Booking.PaymentStatus.REFUNDED, bookingService.changePaymentStatus(booking.getId(),
+                Booking.PaymentStatus.REFUNDED, cancelled.getVersion()).orElseThrow().getPaymentStatus());
+        assertTrue(bookingService.changeStatus("missing-" + UUID.randomUUID(), Booking.BookingStatus.CANCELLED,
+                null, null).isEmpty());
+    }
+
+    @Test
+    public void testStatusAndPaymentChangeTogether() {
+        Booking booking = confirmedBooking();
+
+        // a stale version applies neither field
+        assertThrows(BookingStateConflictException.class, () -> bookingService.changeStatus(booking.getId(),
+                Booking.BookingStatus.CANCELLED, Booking.PaymentStatus.REFUNDED, null, booking.getVersion() - 1));
+        Booking untouched = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(Booking.BookingStatus.CONFIRMED, untouched.getStatus());
+        assertEquals(booking.getPaymentStatus(), untouched.getPaymentStatus());
+
+        Booking refunded = bookingService.changeStatus(booking.getId(), Booking.BookingStatus.CANCELLED,
+                Booking.PaymentStatus.REFUNDED, null, booking.getVersion()).orElseThrow();
+        assertEquals(Booking.BookingStatus.CANCELLED, refunded.getStatus());
+        assertEquals(Booking.PaymentStatus.REFUNDED, refunded.getPaymentStatus());
+        assertEquals(booking.getVersion() + 1, refunded.getVersion());
+    }
+}
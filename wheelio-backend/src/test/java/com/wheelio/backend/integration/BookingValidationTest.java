@@ -21,7 +21,7 @@ public class BookingValidationTest {
 
     @Test
     public void testOverlappingBooking() {
-        String vehicleId = "test-vehicle-1";
+        String vehicleId = "test-vehicle-" + java.util.UUID.randomUUID();
         LocalDateTime start = LocalDateTime.now().plusDays(1);
         LocalDateTime end = start.plusDays(2);
 
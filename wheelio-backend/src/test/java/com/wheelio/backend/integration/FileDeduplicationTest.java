@@ -0,0 +1,58 @@
+package com.wheelio.backend.integration;
+
+import com.wheelio.backend.model.FileBlob;
+import com.wheelio.backend.model.StoredFile;
+import com.wheelio.backend.service.FileStorageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "wheelio.files.gc.grace-ms=0")
+public class FileDeduplicationTest {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    public void testIdenticalUploadsShareOneBlobUntilBothAreDeleted() throws Exception {
+        byte[] scan = ("licence scan " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+
+        StoredFile first = fileStorageService.store(new ByteArrayInputStream(scan), "licence.png", "image/png");
+        StoredFile second = fileStorageService.store(new ByteArrayInputStream(scan), "licence-again.png", "image/png");
+
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(first.getEtag(), second.getEtag());
+        assertEquals("licence-again.png", fileStorageService.getFile(second.getId()).getName());
+        try (InputStream in = fileStorageService.openStream(second.getId(), 0)) {
+            assertArrayEquals(scan, in.readAllBytes());
+        }
+        FileBlob blob = mongoTemplate.findById(first.getEtag(), FileBlob.class);
+        assertNotNull(blob);
+        assertEquals(2, blob.getRefCount());
+
+        fileStorageService.deleteFile(first.getId());
+        try (InputStream in = fileStorageService.openStream(second.getId(), 0)) {
+            assertArrayEquals(scan, in.readAllBytes());
+        }
+        fileStorageService.deleteFile(second.getId());
+        fileStorageService.collectGarbage();
+
+        assertNull(mongoTemplate.findById(first.getEtag(), FileBlob.class));
+        assertNull(fileStorageService.getFile(second.getId()));
+    }
+}
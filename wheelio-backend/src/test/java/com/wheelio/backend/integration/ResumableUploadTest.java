@@ -0,0 +1,83 @@
+package com.wheelio.backend.integration;
+
+import com.wheelio.backend.exception.UploadIntegrityException;
+import com.wheelio.backend.model.StoredFile;
+import com.wheelio.backend.model.UploadSession;
+import com.wheelio.backend.service.FileStorageService;
+import com.wheelio.backend.service.UploadSessionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "wheelio.uploads.max-chunk-bytes=300000")
+public class ResumableUploadTest {
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    private static byte[] video(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    public void testUnalignedChunksResumeAndVerify() throws Exception {
+        byte[] data = video(1_000_003);
+        String sha = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        UploadSession session = uploadSessionService.create("dashcam.mp4", "video/mp4", data.length, sha);
+
+        long offset = uploadSessionService.append(session.getId(), 0, new ByteArrayInputStream(data, 0, 123_457));
+        assertEquals(123_457, offset);
+        // a replayed or out-of-order chunk is rejected and the offset is unchanged
+        assertThrows(IllegalStateException.class,
+                () -> uploadSessionService.append(session.getId(), 0, new ByteArrayInputStream(data, 0, 10)));
+        assertEquals(offset, uploadSessionService.get(session.getId()).orElseThrow().getOffset());
+
+        while (offset < data.length) {
+            int n = (int) Math.min(299_999, data.length - offset);
+            offset = uploadSessionService.append(session.getId(), offset,
+                    new ByteArrayInputStream(data, (int) offset, n));
+        }
+        StoredFile file = uploadSessionService.complete(session.getId());
+
+        assertEquals(sha, file.getEtag());
+        assertEquals(data.length, file.getLength());
+        try (InputStream in = fileStorageService.openStream(file.getId(), 0)) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+        assertTrue(uploadSessionService.get(session.getId()).isEmpty());
+        fileStorageService.deleteFile(file.getId());
+    }
+
+    @Test
+    public void testIncompleteAndCorruptUploadsAreRejected() throws Exception {
+        byte[] data = video(50_000);
+        UploadSession session = uploadSessionService.create("scan.pdf", "application/pdf", data.length,
+                "0".repeat(64));
+
+        uploadSessionService.append(session.getId(), 0, new ByteArrayInputStream(data, 0, 20_000));
+        assertThrows(IllegalStateException.class, () -> uploadSessionService.complete(session.getId()));
+        assertThrows(IllegalArgumentException.class,
+                () -> uploadSessionService.append(session.getId(), 20_000, new ByteArrayInputStream(video(40_000))));
+
+        uploadSessionService.append(session.getId(), 20_000, new ByteArrayInputStream(data, 20_000, 30_000));
+        assertThrows(UploadIntegrityException.class, () -> uploadSessionService.complete(session.getId()));
+        assertTrue(uploadSessionService.get(session.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,75 @@
+package com.wheelio.backend.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtVerifierTest {
+
+    private static final String SECRET = "test_secret_key_for_jwt_verifier_tests_at_least_32_bytes";
+
+    private JwtUtil jwtUtil;
+    private JwtVerifier verifier;
+
+    private static JwtUtil jwtUtil(String secret, long expirationMs) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secretKey", secret);
+        ReflectionTestUtils.setField(util, "expirationTime", expirationMs);
+        util.init();
+        return util;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtil = jwtUtil(SECRET, 60_000);
+        verifier = new JwtVerifier();
+        ReflectionTestUtils.setField(verifier, "jwtUtil", jwtUtil);
+    }
+
+    @Test
+    public void testVerifiesOnceAndServesRepeatsFromCache() {
+        String token = jwtUtil.generateToken("a@wheelio.com", "u1", "ADMIN");
+
+        JwtPrincipal first = verifier.verify(token);
+        assertNotNull(first);
+        assertEquals("a@wheelio.com", first.getEmail());
+        assertEquals("u1", first.getUserId());
+        assertEquals("ROLE_ADMIN", first.getAuthorities().get(0).getAuthority());
+        assertSame(first, verifier.verify(token));
+        assertEquals(1, verifier.cacheSize());
+    }
+
+    @Test
+    public void testRejectsForeignSignatureAndGarbage() {
+        String foreign = jwtUtil("another_secret_key_for_jwt_verifier_tests_32_bytes!!", 60_000)
+                .generateToken("a@wheelio.com", "u1", "ADMIN");
+
+        assertNull(verifier.verify(foreign));
+        assertNull(verifier.verify("not.a.jwt"));
+        assertNull(verifier.verify(""));
+        assertEquals(0, verifier.cacheSize());
+    }
+
+    @Test
+    public void testCachedTokenStopsWorkingWhenItExpires() throws InterruptedException {
+        JwtUtil shortLived = jwtUtil(SECRET, 1_500);
+        ReflectionTestUtils.setField(verifier, "jwtUtil", shortLived);
+        String token = shortLived.generateToken("a@wheelio.com", "u1", "CUSTOMER");
+
+        assertNotNull(verifier.verify(token));
+        Thread.sleep(2_000);
+        assertNull(verifier.verify(token));
+        assertEquals(0, verifier.cacheSize());
+    }
+
+    @Test
+    public void testCacheIsBounded() {
+        ReflectionTestUtils.setField(verifier, "maxEntries", 50);
+        for (int i = 0; i < 500; i++) {
+            assertNotNull(verifier.verify(jwtUtil.generateToken("u" + i + "@wheelio.com", "u" + i, "CUSTOMER")));
+        }
+        assertTrue(verifier.cacheSize() <= 50, "cache grew to " + verifier.cacheSize());
+    }
+}
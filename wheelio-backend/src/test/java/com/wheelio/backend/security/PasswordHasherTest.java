@@ -0,0 +1,108 @@
+package com.wheelio.backend.security;
+
+import com.wheelio.backend.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTest {
+
+    private static final ExecutorService COMPLETIONS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "completion-" + r.hashCode());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static PasswordHasher hasher(int cost, int workers, int queue) {
+        return hasher(new BCryptPasswordEncoder(cost), workers, queue);
+    }
+
+    private static PasswordHasher hasher(PasswordEncoder encoder, int workers, int queue) {
+        PasswordHasher hasher = new PasswordHasher();
+        ReflectionTestUtils.setField(hasher, "passwordEncoder", encoder);
+        ReflectionTestUtils.setField(hasher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(hasher, "completionExecutor", COMPLETIONS);
+        ReflectionTestUtils.setField(hasher, "workers", workers);
+        ReflectionTestUtils.setField(hasher, "queueCapacity", queue);
+        hasher.init();
+        return hasher;
+    }
+
+    @Test
+    public void testEncodeMatchesAndRehashWhenCostIsRaised() throws Exception {
+        PasswordHasher cost4 = hasher(4, 1, 4);
+        String hash = cost4.encode("Secret@123").get(5, TimeUnit.SECONDS);
+
+        assertTrue(cost4.matches("Secret@123", hash).get(5, TimeUnit.SECONDS));
+        assertFalse(cost4.matches("wrong", hash).get(5, TimeUnit.SECONDS));
+        assertFalse(cost4.matches("Secret@123", null).get(5, TimeUnit.SECONDS));
+        assertFalse(cost4.needsRehash(hash));
+        assertTrue(hasher(6, 1, 4).needsRehash(hash));
+    }
+
+    @Test
+    public void testFullQueueIsRejectedImmediately() {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHasher hasher = hasher(new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                awaitQuietly(release);
+                return super.encode(rawPassword);
+            }
+        }, 1, 2);
+        try {
+            // one job holds the only worker and two wait in the queue; the rest must not block
+            int rejected = assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                int n = 0;
+                for (int i = 0; i < 50; i++) {
+                    try {
+                        hasher.encode("pw" + i);
+                    } catch (ServiceBusyException e) {
+                        n++;
+                        assertEquals(1, e.getRetryAfterSeconds());
+                    }
+                }
+                return n;
+            });
+            assertEquals(47, rejected);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testContinuationsDoNotRunOnHasherThreads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHasher hasher = hasher(new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                awaitQuietly(release);
+                return super.encode(rawPassword);
+            }
+        }, 1, 4);
+        // registered before the hash completes, so it runs on the thread that completes the future
+        CompletableFuture<String> thread = hasher.encode("Secret@123").thenApply(h -> Thread.currentThread().getName());
+        release.countDown();
+
+        assertTrue(thread.get(5, TimeUnit.SECONDS).startsWith("completion-"), thread.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
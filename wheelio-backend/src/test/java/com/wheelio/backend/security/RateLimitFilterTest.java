@@ -0,0 +1,114 @@
+package com.wheelio.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+    private static final String SECRET = "test_secret_key_for_rate_limit_filter_tests_32_bytes";
+
+    private JwtUtil jwtUtil;
+    private SimpleMeterRegistry registry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expirationTime", 60_000L);
+        jwtUtil.init();
+        JwtVerifier verifier = new JwtVerifier();
+        ReflectionTestUtils.setField(verifier, "jwtUtil", jwtUtil);
+
+        registry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter();
+        ReflectionTestUtils.setField(filter, "jwtVerifier", verifier);
+        ReflectionTestUtils.setField(filter, "meterRegistry", registry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maxClients", 100);
+        ReflectionTestUtils.setField(filter, "loginCapacity", 2);
+        ReflectionTestUtils.setField(filter, "loginPerMinute", 1.0);
+        ReflectionTestUtils.setField(filter, "loginKey", "ip");
+        ReflectionTestUtils.setField(filter, "forgotCapacity", 1);
+        ReflectionTestUtils.setField(filter, "forgotPerMinute", 1.0);
+        ReflectionTestUtils.setField(filter, "forgotKey", "ip");
+        ReflectionTestUtils.setField(filter, "bookingsCapacity", 1);
+        ReflectionTestUtils.setField(filter, "bookingsPerMinute", 1.0);
+        ReflectionTestUtils.setField(filter, "bookingsKey", "user");
+        ReflectionTestUtils.invokeMethod(filter, "init");
+    }
+
+    private static MockHttpServletRequest post(String uri, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    public void testLoginIsLimitedPerIp() throws Exception {
+        assertEquals(200, send(post("/api/auth/login", "10.0.0.1")).getStatus());
+        assertEquals(200, send(post("/api/auth/login", "10.0.0.1")).getStatus());
+
+        MockHttpServletResponse rejected = send(post("/api/auth/login", "10.0.0.1"));
+        assertEquals(429, rejected.getStatus());
+        assertEquals("60", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"error\""));
+
+        assertEquals(200, send(post("/api/auth/login", "10.0.0.2")).getStatus());
+        assertEquals(1.0, registry.get("wheelio.ratelimit.requests").tag("route", "login")
+                .tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    public void testEncodedSpellingsShareTheRouteLimit() throws Exception {
+        assertEquals(200, send(post("/api/auth/%6Cogin", "10.0.0.1")).getStatus());
+        assertEquals(200, send(post("/api/auth/login;jsessionid=x", "10.0.0.1")).getStatus());
+        assertEquals(429, send(post("//api/auth/login", "10.0.0.1")).getStatus());
+        assertEquals(429, send(post("/api/auth/login", "10.0.0.1")).getStatus());
+    }
+
+    @Test
+    public void testOtherMethodsAndPathsPassThrough() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send(new MockHttpServletRequest("GET", "/api/bookings")).getStatus());
+            assertEquals(200, send(post("/api/auth/signup", "10.0.0.1")).getStatus());
+        }
+    }
+
+    @Test
+    public void testBookingsAreLimitedPerUser() throws Exception {
+        MockHttpServletRequest alice = post("/api/bookings", "10.0.0.1");
+        alice.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("a@x.com", "u-alice", "USER"));
+        MockHttpServletRequest bob = post("/api/bookings", "10.0.0.1");
+        bob.addHeader("Authorization", "Bearer " + jwtUtil.generateToken("b@x.com", "u-bob", "USER"));
+
+        assertEquals(200, send(alice).getStatus());
+        assertEquals(429, send(alice).getStatus());
+        // same IP, different user
+        assertEquals(200, send(bob).getStatus());
+        // no token: keyed by IP instead
+        assertEquals(200, send(post("/api/bookings", "10.0.0.1")).getStatus());
+        assertEquals(429, send(post("/api/bookings", "10.0.0.1")).getStatus());
+    }
+
+    @Test
+    public void testDisabledLimiterAdmitsEverything() throws Exception {
+        ReflectionTestUtils.setField(filter, "enabled", false);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send(post("/api/auth/forgot-password", "10.0.0.1")).getStatus());
+        }
+    }
+}
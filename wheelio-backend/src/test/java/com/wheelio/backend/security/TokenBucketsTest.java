@@ -0,0 +1,98 @@
+package com.wheelio.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketsTest {
+
+    private static final long SECOND = 1_000_000_000L;
+    private static final long T0 = 5 * SECOND;
+
+    @Test
+    public void testBurstThenRefill() {
+        TokenBuckets buckets = new TokenBuckets(3, 1, 100, T0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, buckets.tryAcquire("1.2.3.4", T0));
+        }
+        assertEquals(SECOND, buckets.tryAcquire("1.2.3.4", T0));
+        assertEquals(SECOND / 2, buckets.tryAcquire("1.2.3.4", T0 + SECOND / 2));
+
+        // one token back after a second, and other clients are unaffected
+        assertEquals(0, buckets.tryAcquire("1.2.3.4", T0 + SECOND));
+        assertTrue(buckets.tryAcquire("1.2.3.4", T0 + SECOND) > 0);
+        assertEquals(0, buckets.tryAcquire("5.6.7.8", T0 + SECOND));
+    }
+
+    @Test
+    public void testIdleBucketsAreEvicted() {
+        TokenBuckets buckets = new TokenBuckets(2, 1, 100, T0);
+        buckets.tryAcquire("a", T0);
+        buckets.tryAcquire("b", T0);
+        buckets.tryAcquire("b", T0);
+        assertEquals(2, buckets.size());
+
+        // "a" is full again after one second, "b" only after two
+        assertEquals(1, buckets.evictIdle(T0 + SECOND));
+        assertEquals(1, buckets.size());
+        assertTrue(buckets.tryAcquire("b", T0 + SECOND / 2) > 0);
+        assertEquals(1, buckets.evictIdle(T0 + 2 * SECOND));
+        assertEquals(0, buckets.size());
+    }
+
+    @Test
+    public void testClientsBeyondCapShareOverflowBucket() {
+        TokenBuckets buckets = new TokenBuckets(2, 1, 2, T0);
+        buckets.tryAcquire("a", T0);
+        buckets.tryAcquire("b", T0);
+
+        assertEquals(0, buckets.tryAcquire("c", T0));
+        assertEquals(0, buckets.tryAcquire("d", T0));
+        assertTrue(buckets.tryAcquire("e", T0) > 0);
+        assertEquals(2, buckets.size());
+    }
+
+    @Test
+    public void testFullMapWaitsForSweepBeforeAdmittingNewClients() {
+        TokenBuckets buckets = new TokenBuckets(2, 1, 2, T0);
+        buckets.tryAcquire("a", T0);
+        buckets.tryAcquire("b", T0);
+
+        // "a" and "b" are idle by now, but only the sweep removes them
+        assertEquals(0, buckets.tryAcquire("c", T0 + 2 * SECOND));
+        assertEquals(2, buckets.size());
+        assertEquals(2, buckets.evictIdle(T0 + 2 * SECOND));
+        assertEquals(0, buckets.tryAcquire("c", T0 + 2 * SECOND));
+        assertEquals(1, buckets.size());
+    }
+
+    @Test
+    public void testConcurrentCallersNeverExceedCapacity() throws Exception {
+        TokenBuckets buckets = new TokenBuckets(50, 0.001, 100, T0);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger admitted = new AtomicInteger();
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                go.await();
+                for (int i = 0; i < 100; i++) {
+                    if (buckets.tryAcquire("shared", T0) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(50, admitted.get());
+    }
+}
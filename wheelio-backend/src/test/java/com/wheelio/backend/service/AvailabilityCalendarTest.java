@@ -0,0 +1,140 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Booking;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailabilityCalendarTest {
+
+    private static Booking booking(String id, String vehicleId, LocalDateTime start, LocalDateTime end) {
+        Booking b = new Booking();
+        b.setId(id);
+        b.setVehicleId(vehicleId);
+        b.setStartDate(start);
+        b.setEndDate(end);
+        b.setStatus(Booking.BookingStatus.CONFIRMED);
+        return b;
+    }
+
+    @Test
+    public void testBookingOccupiesEveryDayItTouches() {
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        LocalDate day = LocalDate.now().plusDays(10);
+        calendar.load(List.of(
+                booking("a", "v1", day.atTime(10, 0), day.plusDays(2).atTime(9, 0)),
+                // ends exactly at midnight: the next day stays free
+                booking("b", "v2", day.atTime(18, 0), day.plusDays(1).atStartOfDay())));
+
+        assertEquals(List.of(day, day.plusDays(1), day.plusDays(2)),
+                AvailabilityCalendar.toDates(calendar.bookedDays("v1", day.minusDays(5), 20), day.minusDays(5)));
+        assertEquals(List.of(day),
+                AvailabilityCalendar.toDates(calendar.bookedDays("v2", day, 7), day));
+    }
+
+    @Test
+    public void testOverlappingBookingsKeepSharedDaysWhenOneIsCancelled() {
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        LocalDate day = LocalDate.now().plusDays(3);
+        Booking a = booking("a", "v1", day.atTime(9, 0), day.plusDays(3).atTime(9, 0));
+        Booking b = booking("b", "v1", day.plusDays(2).atTime(9, 0), day.plusDays(5).atTime(9, 0));
+        calendar.load(List.of());
+        calendar.apply(a);
+        calendar.apply(b);
+
+        a.setStatus(Booking.BookingStatus.CANCELLED);
+        calendar.apply(a);
+        assertEquals(List.of(day.plusDays(2), day.plusDays(3), day.plusDays(4), day.plusDays(5)),
+                AvailabilityCalendar.toDates(calendar.bookedDays("v1", day, 10), day));
+
+        calendar.remove("b", "v1");
+        assertEquals(List.of(), AvailabilityCalendar.toDates(calendar.bookedDays("v1", day, 10), day));
+    }
+
+    @Test
+    public void testMultiVehicleQueriesAcrossWordBoundaries() {
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate weekend = from.plusDays(70);
+        calendar.load(List.of(
+                booking("a", "v1", weekend.atTime(8, 0), weekend.plusDays(1).atTime(20, 0)),
+                booking("b", "v2", weekend.plusDays(1).atTime(8, 0), weekend.plusDays(1).atTime(20, 0)),
+                booking("c", "v3", from.plusDays(2).atTime(8, 0), from.plusDays(3).atTime(8, 0))));
+
+        List<String> ids = List.of("v1", "v2", "v3");
+        assertEquals(List.of("v3"), calendar.freeForWholeRange(ids, weekend, 2));
+        assertEquals(List.of(weekend.plusDays(1)),
+                AvailabilityCalendar.toDates(calendar.allBooked(List.of("v1", "v2"), from, 100), from));
+        assertEquals(List.of(from.plusDays(2), from.plusDays(3), weekend, weekend.plusDays(1)),
+                AvailabilityCalendar.toDates(calendar.anyBooked(ids, from, 100), from));
+
+        List<LocalDate[]> runs = AvailabilityCalendar.toRuns(calendar.bookedDays("v1", from, 100), from);
+        assertEquals(1, runs.size());
+        assertEquals(weekend, runs.get(0)[0]);
+        assertEquals(weekend.plusDays(1), runs.get(0)[1]);
+    }
+
+    @Test
+    public void testDaysOutsideWindowReadAsFree() {
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        LocalDate day = LocalDate.now();
+        calendar.load(List.of(booking("a", "v1", day.minusDays(400).atStartOfDay(), day.plusDays(2000).atStartOfDay())));
+
+        LocalDate before = calendar.getBaseDay().minusDays(10);
+        assertEquals(List.of(calendar.getBaseDay()),
+                AvailabilityCalendar.toDates(calendar.bookedDays("v1", before, 11), before));
+        LocalDate beyond = calendar.getBaseDay().plusDays(calendar.getDays());
+        assertEquals(List.of(), AvailabilityCalendar.toDates(calendar.bookedDays("v1", beyond, 30), beyond));
+    }
+
+    @Test
+    public void testBookingsPastWindowAreFlagged() {
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        LocalDate end = LocalDate.now().plusDays(calendar.getDays());
+        Booking far = booking("a", "v1", end.plusDays(30).atStartOfDay(), end.plusDays(32).atStartOfDay());
+        calendar.load(List.of(far, booking("b", "v2", end.minusDays(60).atStartOfDay(), end.minusDays(59).atStartOfDay())));
+
+        assertTrue(calendar.hasBookingsAfterWindow("v1"));
+        assertFalse(calendar.hasBookingsAfterWindow("v2"));
+        far.setStatus(Booking.BookingStatus.CANCELLED);
+        calendar.apply(far);
+        assertFalse(calendar.hasBookingsAfterWindow("v1"));
+    }
+
+    @Test
+    public void testReloadRacingWithWriteIsRefused() {
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        LocalDate day = LocalDate.now().plusDays(5);
+        long gen = calendar.generation();
+        calendar.apply(booking("a", "v1", day.atTime(9, 0), day.atTime(17, 0)));
+
+        // the snapshot was read before "a" was written, so it must not replace it
+        assertFalse(calendar.load(List.of(), gen));
+        assertEquals(List.of(day), AvailabilityCalendar.toDates(calendar.bookedDays("v1", day, 3), day));
+        assertTrue(calendar.load(List.of(), calendar.generation()));
+        assertTrue(calendar.isReady());
+    }
+
+    @Test
+    public void testVehicleReloadIgnoresWritesToOtherVehicles() {
+        AvailabilityCalendar calendar = new AvailabilityCalendar();
+        LocalDate day = LocalDate.now().plusDays(5);
+        calendar.load(List.of(booking("stale", "v1", day.atTime(9, 0), day.atTime(17, 0))));
+        long gen = calendar.generation("v1");
+        calendar.apply(booking("other", "v2", day.atTime(9, 0), day.atTime(17, 0)));
+
+        assertTrue(calendar.reloadVehicle("v1",
+                List.of(booking("fresh", "v1", day.plusDays(1).atTime(9, 0), day.plusDays(1).atTime(17, 0))), gen));
+        assertEquals(List.of(day.plusDays(1)), AvailabilityCalendar.toDates(calendar.bookedDays("v1", day, 3), day));
+        assertEquals(List.of(day), AvailabilityCalendar.toDates(calendar.bookedDays("v2", day, 3), day));
+
+        gen = calendar.generation("v1");
+        calendar.apply(booking("late", "v1", day.atTime(9, 0), day.atTime(17, 0)));
+        assertFalse(calendar.reloadVehicle("v1", List.of(), gen));
+        assertEquals(2, AvailabilityCalendar.toDates(calendar.bookedDays("v1", day, 3), day).size());
+    }
+}
@@ -0,0 +1,143 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Booking;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailabilityIndexTest {
+
+    private static Booking booking(String id, String vehicleId, LocalDateTime start, LocalDateTime end,
+            Booking.BookingStatus status) {
+        Booking b = new Booking();
+        b.setId(id);
+        b.setVehicleId(vehicleId);
+        b.setStartDate(start);
+        b.setEndDate(end);
+        b.setStatus(status);
+        return b;
+    }
+
+    @Test
+    public void testOverlapSemanticsMatchRepositoryQuery() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 10, 0);
+        LocalDateTime end = start.plusDays(2);
+        index.apply(booking("b1", "v1", start, end, Booking.BookingStatus.CONFIRMED));
+
+        assertFalse(index.isAvailable("v1", start, end));
+        assertFalse(index.isAvailable("v1", start.plusHours(1), end.plusHours(1)));
+        assertFalse(index.isAvailable("v1", start.minusHours(1), end.minusHours(1)));
+        assertFalse(index.isAvailable("v1", start.plusMinutes(1), end.minusMinutes(1)));
+        assertFalse(index.isAvailable("v1", start.minusDays(1), end.plusDays(1)));
+
+        // touching intervals do not overlap
+        assertTrue(index.isAvailable("v1", end, end.plusDays(1)));
+        assertTrue(index.isAvailable("v1", start.minusDays(1), start));
+        assertTrue(index.isAvailable("v2", start, end));
+    }
+
+    @Test
+    public void testLongEarlyBookingIsFoundBehindLaterShortOnes() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        LocalDateTime base = LocalDateTime.of(2030, 3, 1, 0, 0);
+        index.apply(booking("long", "v1", base, base.plusDays(30), Booking.BookingStatus.PENDING));
+        index.apply(booking("s1", "v1", base.plusDays(2), base.plusDays(3), Booking.BookingStatus.CONFIRMED));
+        index.apply(booking("s2", "v1", base.plusDays(5), base.plusDays(6), Booking.BookingStatus.CONFIRMED));
+
+        assertFalse(index.isAvailable("v1", base.plusDays(20), base.plusDays(21)));
+        assertEquals(List.of("long", "s1", "s2"), index.bookingIds("v1"));
+    }
+
+    @Test
+    public void testStatusChangesMoveBookingsInAndOut() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        LocalDateTime start = LocalDateTime.of(2030, 5, 1, 9, 0);
+        Booking b = booking("b1", "v1", start, start.plusDays(1), Booking.BookingStatus.CONFIRMED);
+        index.apply(b);
+        assertFalse(index.isAvailable("v1", start, start.plusHours(2)));
+
+        b.setStatus(Booking.BookingStatus.CANCELLED);
+        index.apply(b);
+        assertTrue(index.isAvailable("v1", start, start.plusHours(2)));
+        assertEquals(0, index.vehicleCount());
+
+        b.setStatus(Booking.BookingStatus.PENDING);
+        b.setStartDate(start.plusDays(3));
+        b.setEndDate(start.plusDays(4));
+        index.apply(b);
+        index.apply(b);
+        assertEquals(List.of("b1"), index.bookingIds("v1"));
+        assertTrue(index.isAvailable("v1", start, start.plusHours(2)));
+        assertFalse(index.isAvailable("v1", start.plusDays(3), start.plusDays(3).plusHours(1)));
+    }
+
+    @Test
+    public void testDiffReportsDriftAgainstAuthoritativeBookings() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        LocalDateTime start = LocalDateTime.of(2030, 7, 1, 9, 0);
+        Booking a = booking("a", "v1", start, start.plusDays(1), Booking.BookingStatus.CONFIRMED);
+        Booking b = booking("b", "v2", start, start.plusDays(1), Booking.BookingStatus.CONFIRMED);
+        index.load(List.of(a, b));
+        assertTrue(index.isReady());
+        assertTrue(index.diff(List.of(a, b)).isEmpty());
+
+        Booking moved = booking("b", "v2", start.plusDays(2), start.plusDays(3), Booking.BookingStatus.CONFIRMED);
+        Booking added = booking("c", "v3", start, start.plusDays(1), Booking.BookingStatus.PENDING);
+        List<String> drifted = index.diff(List.of(moved, added));
+        assertTrue(drifted.containsAll(List.of("v1", "v2", "v3")));
+        assertEquals(3, drifted.size());
+
+        index.load(List.of(moved, added));
+        assertTrue(index.diff(List.of(moved, added)).isEmpty());
+        assertTrue(index.isAvailable("v1", start, start.plusDays(1)));
+    }
+
+    @Test
+    public void testReloadRacingWithWriteIsRefused() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        LocalDateTime start = LocalDateTime.of(2030, 6, 1, 9, 0);
+        long gen = index.generation();
+        List<Booking> snapshot = List.of(booking("old", "v1", start, start.plusDays(1),
+                Booking.BookingStatus.CONFIRMED));
+        // a booking created after the snapshot was read
+        index.apply(booking("new", "v2", start, start.plusDays(1), Booking.BookingStatus.CONFIRMED));
+
+        assertFalse(index.load(snapshot, gen));
+        assertFalse(index.isReady());
+        assertFalse(index.isAvailable("v2", start, start.plusHours(1)));
+
+        assertTrue(index.load(List.of(snapshot.get(0),
+                booking("new", "v2", start, start.plusDays(1), Booking.BookingStatus.CONFIRMED)),
+                index.generation()));
+        assertTrue(index.isReady());
+        assertEquals(List.of("new"), index.bookingIds("v2"));
+    }
+
+    @Test
+    public void testVehicleReloadIgnoresWritesToOtherVehicles() {
+        AvailabilityIndex index = new AvailabilityIndex();
+        LocalDateTime start = LocalDateTime.of(2030, 7, 1, 9, 0);
+        index.load(List.of(booking("stale", "v1", start, start.plusDays(1), Booking.BookingStatus.CONFIRMED)));
+        long gen = index.generation("v1");
+        List<Booking> snapshot = List.of(booking("fresh", "v1", start.plusDays(3), start.plusDays(4),
+                Booking.BookingStatus.CONFIRMED));
+        // traffic on another vehicle does not refuse the swap
+        index.apply(booking("other", "v2", start, start.plusDays(1), Booking.BookingStatus.CONFIRMED));
+
+        assertTrue(index.reloadVehicle("v1", snapshot, gen));
+        assertEquals(List.of("fresh"), index.bookingIds("v1"));
+        assertEquals(List.of("other"), index.bookingIds("v2"));
+
+        // a write to the vehicle itself does
+        gen = index.generation("v1");
+        index.apply(booking("late", "v1", start, start.plusDays(1), Booking.BookingStatus.CONFIRMED));
+        assertFalse(index.reloadVehicle("v1", snapshot, gen));
+        assertEquals(List.of("late", "fresh"), index.bookingIds("v1"));
+        assertTrue(index.reloadVehicle("v1", List.of(), index.generation("v1")));
+        assertEquals(0, index.bookingIds("v1").size());
+    }
+}
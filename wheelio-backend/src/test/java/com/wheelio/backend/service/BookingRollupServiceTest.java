@@ -0,0 +1,78 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.model.BookingRollup;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingRollupServiceTest {
+
+    private static Booking booking() {
+        Booking b = new Booking();
+        b.setId("b1");
+        b.setVehicleId("v1");
+        b.setStartDate(LocalDateTime.of(2030, 3, 1, 10, 0));
+        b.setEndDate(LocalDateTime.of(2030, 3, 3, 12, 30));
+        b.setTotalAmount(new BigDecimal("5400.50"));
+        b.setVehicleSummary(new Booking.VehicleSummary("v1", "Creta", "Hyundai", "SUV", null,
+                new BigDecimal("2500"), "Pune"));
+        return b;
+    }
+
+    private static BookingRollupService.Contribution delta(Booking b, Booking.BookingStatus from,
+            Booking.BookingStatus to) {
+        return BookingRollupService.Contribution.of(b, to).minus(BookingRollupService.Contribution.of(b, from));
+    }
+
+    @Test
+    public void testCreateAddsRevenueAndHours() {
+        BookingRollupService.Contribution d = delta(booking(), null, Booking.BookingStatus.PENDING);
+        assertEquals(1, d.bookings);
+        assertEquals(0, d.cancelled);
+        assertEquals(540050, d.revenueMinor);
+        assertEquals((2 * 24 + 2) * 60 + 30, d.bookedMinutes);
+    }
+
+    @Test
+    public void testConfirmChangesNothing() {
+        assertTrue(delta(booking(), Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED).isZero());
+    }
+
+    @Test
+    public void testCancelTakesBackWhatCreateAdded() {
+        Booking b = booking();
+        BookingRollupService.Contribution created = delta(b, null, Booking.BookingStatus.PENDING);
+        BookingRollupService.Contribution cancelled = delta(b, Booking.BookingStatus.CONFIRMED,
+                Booking.BookingStatus.CANCELLED);
+        assertEquals(0, created.bookings + cancelled.bookings);
+        assertEquals(0, created.revenueMinor + cancelled.revenueMinor);
+        assertEquals(0, created.bookedMinutes + cancelled.bookedMinutes);
+        assertEquals(1, cancelled.cancelled);
+    }
+
+    @Test
+    public void testCompleteOnlyCountsCompletion() {
+        BookingRollupService.Contribution d = delta(booking(), Booking.BookingStatus.CONFIRMED,
+                Booking.BookingStatus.COMPLETED);
+        assertEquals(1, d.completed);
+        assertEquals(0, d.bookings);
+        assertEquals(0, d.revenueMinor);
+    }
+
+    @Test
+    public void testBucketKeys() {
+        Booking b = booking();
+        assertEquals("2030-03-01", BookingRollupService.keyOf(b, BookingRollup.Dimension.DAY));
+        assertEquals("v1", BookingRollupService.keyOf(b, BookingRollup.Dimension.VEHICLE));
+        assertEquals("Pune", BookingRollupService.keyOf(b, BookingRollup.Dimension.CITY));
+
+        b.setVehicleSummary(null);
+        b.setStartDate(null);
+        assertEquals("unknown", BookingRollupService.keyOf(b, BookingRollup.Dimension.CITY));
+        assertEquals("unknown", BookingRollupService.keyOf(b, BookingRollup.Dimension.DAY));
+    }
+}
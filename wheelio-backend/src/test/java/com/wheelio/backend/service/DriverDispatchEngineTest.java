@@ -0,0 +1,165 @@
+package com.wheelio.backend.service;
+
+import com.mongodb.client.result.UpdateResult;
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.model.DriverLedger;
+import com.wheelio.backend.model.DriverProfile;
+import com.wheelio.backend.repository.DriverProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class DriverDispatchEngineTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 2, 9, 0);
+
+    private DriverDispatchEngine engine;
+    private MongoTemplate mongoTemplate;
+    private SimpleMeterRegistry registry;
+
+    private static DriverProfile driver(String userId, String city, String rating, String status) {
+        DriverProfile p = new DriverProfile();
+        p.setUserId(userId);
+        p.setCity(city);
+        p.setRating(new BigDecimal(rating));
+        p.setStatus(status);
+        return p;
+    }
+
+    private static Booking booking(String id, String city) {
+        Booking b = new Booking();
+        b.setId(id);
+        b.setVehicleId("v-" + id);
+        b.setVehicleSummary(new Booking.VehicleSummary("v-" + id, "Car", "Brand", "SUV", null, null, city));
+        b.setStartDate(START);
+        b.setEndDate(START.plusHours(4));
+        b.setStatus(Booking.BookingStatus.CONFIRMED);
+        b.setDriverRequested(true);
+        b.setVersion(0L);
+        return b;
+    }
+
+    private static Query ledgerFor(String driverId) {
+        return argThat(q -> q != null && driverId.equals(q.getQueryObject().get("_id")));
+    }
+
+    @BeforeEach
+    public void setUp() {
+        mongoTemplate = Mockito.mock(MongoTemplate.class);
+        DriverProfileRepository profiles = Mockito.mock(DriverProfileRepository.class);
+        when(profiles.findAll()).thenReturn(List.of(
+                driver("u-pune", "Pune", "4.50", "ACTIVE"),
+                driver("u-pune-top", "Pune", "5.00", "ACTIVE"),
+                driver("u-delhi", "Delhi", "5.00", "ACTIVE"),
+                driver("u-off", "Pune", "5.00", "SUSPENDED")));
+        when(mongoTemplate.findAll(DriverLedger.class)).thenReturn(List.of());
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Booking.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+        registry = new SimpleMeterRegistry();
+        engine = new DriverDispatchEngine();
+        ReflectionTestUtils.setField(engine, "driverProfileRepository", profiles);
+        ReflectionTestUtils.setField(engine, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(engine, "meterRegistry", registry);
+        ReflectionTestUtils.setField(engine, "enabled", true);
+        ReflectionTestUtils.setField(engine, "cityWeight", 0.5);
+        ReflectionTestUtils.setField(engine, "ratingWeight", 0.3);
+        ReflectionTestUtils.setField(engine, "idleWeight", 0.2);
+        ReflectionTestUtils.setField(engine, "idleCapHours", 24L);
+        ReflectionTestUtils.setField(engine, "candidates", 5);
+        ReflectionTestUtils.setField(engine, "historyDays", 2);
+        engine.init();
+        engine.reload();
+    }
+
+    @Test
+    public void testAssignsBestDriverInPickupCity() {
+        Booking b = booking("b1", "Pune");
+        assertEquals(Optional.of("u-pune-top"), engine.assign(b));
+        assertEquals("u-pune-top", b.getDriverId());
+        assertEquals(1L, b.getVersion());
+        verify(mongoTemplate).upsert(ledgerFor("u-pune-top"), any(Update.class), eq(DriverLedger.class));
+
+        // the same driver is now busy for an overlapping booking
+        assertEquals(Optional.of("u-pune"), engine.assign(booking("b2", "Pune")));
+        assertEquals(2, registry.get("wheelio.dispatch.assign").tag("result", "assigned").timer().count());
+    }
+
+    @Test
+    public void testLedgerConflictMovesToNextCandidate() {
+        when(mongoTemplate.upsert(ledgerFor("u-pune-top"), any(Update.class), eq(DriverLedger.class)))
+                .thenThrow(new DuplicateKeyException("busy on another node"));
+
+        assertEquals(Optional.of("u-pune"), engine.assign(booking("b1", "Pune")));
+        assertEquals(1.0, registry.get("wheelio.dispatch.conflicts").counter().count());
+        // the failed in-memory claim was undone
+        assertEquals(1, engine.candidates("Pune", START, START.plusHours(1), 10).stream()
+                .filter(c -> c.driverId().equals("u-pune-top")).count());
+    }
+
+    @Test
+    public void testBookingChangedMeanwhileReleasesDriver() {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Booking.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        Booking b = booking("b1", "Pune");
+        assertEquals(Optional.empty(), engine.assign(b));
+        assertNull(b.getDriverId());
+        verify(mongoTemplate).updateFirst(ledgerFor("u-pune-top"), any(Update.class), eq(DriverLedger.class));
+        assertEquals(4 - 1, engine.candidates("Pune", START, START.plusHours(1), 10).size());
+        assertEquals(1, registry.get("wheelio.dispatch.assign").tag("result", "stale").timer().count());
+    }
+
+    @Test
+    public void testSkipsBookingsThatDidNotAskOrAreClosed() {
+        Booking selfDrive = booking("b1", "Pune");
+        selfDrive.setDriverRequested(null);
+        Booking cancelled = booking("b2", "Pune");
+        cancelled.setStatus(Booking.BookingStatus.CANCELLED);
+
+        assertEquals(Optional.empty(), engine.assign(selfDrive));
+        assertEquals(Optional.empty(), engine.assign(cancelled));
+        verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(DriverLedger.class));
+    }
+
+    @Test
+    public void testCancellationFreesDriver() {
+        Booking b = booking("b1", "Delhi");
+        engine.assign(b);
+        assertEquals("u-delhi", b.getDriverId());
+        assertTrue(engine.candidates("Delhi", START, START.plusHours(1), 10).stream()
+                .noneMatch(c -> c.driverId().equals("u-delhi")));
+
+        b.setStatus(Booking.BookingStatus.CANCELLED);
+        engine.onStatusChanged(new BookingStatusChangedEvent(b, Booking.BookingStatus.CONFIRMED,
+                Booking.BookingStatus.CANCELLED));
+        assertEquals("u-delhi", engine.candidates("Delhi", START, START.plusHours(1), 10).get(0).driverId());
+    }
+
+    @Test
+    public void testLedgerFailureOnCreationDoesNotEscapeListener() {
+        when(mongoTemplate.upsert(ledgerFor("u-delhi"), any(Update.class), eq(DriverLedger.class)))
+                .thenThrow(new DataAccessResourceFailureException("mongo down"));
+        Booking b = booking("b1", "Delhi");
+        b.setDriverId("u-delhi");
+
+        assertDoesNotThrow(() -> engine.onStatusChanged(
+                new BookingStatusChangedEvent(b, null, Booking.BookingStatus.CONFIRMED)));
+    }
+}
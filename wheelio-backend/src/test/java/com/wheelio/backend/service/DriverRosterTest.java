@@ -0,0 +1,117 @@
+package com.wheelio.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DriverRosterTest {
+
+    private static final long HOUR = 3600;
+    private static final long T0 = 2_000_000_000L;
+
+    private static DriverRoster roster() {
+        DriverRoster r = new DriverRoster(new DriverRoster.Weights(0.5, 0.3, 0.2, 24 * HOUR));
+        r.putDriver("pune-4", "Pune", 4.0, true);
+        r.putDriver("pune-5", "pune ", 5.0, true);
+        r.putDriver("delhi-5", "Delhi", 5.0, true);
+        r.putDriver("off", "Pune", 5.0, false);
+        return r;
+    }
+
+    private static List<String> ids(List<DriverRoster.Candidate> candidates) {
+        return candidates.stream().map(DriverRoster.Candidate::driverId).toList();
+    }
+
+    @Test
+    public void testRanksByCityThenRatingAndSkipsInactive() {
+        DriverRoster r = roster();
+        assertEquals(List.of("pune-5", "pune-4", "delhi-5"), ids(r.rank("Pune", T0, T0 + HOUR, 10)));
+        assertEquals(List.of("delhi-5", "pune-5"), ids(r.rank("Delhi", T0, T0 + HOUR, 2)));
+    }
+
+    @Test
+    public void testOtherCitiesCompeteWhenCityWeightIsLow() {
+        DriverRoster r = new DriverRoster(new DriverRoster.Weights(0.1, 0.7, 0.2, 24 * HOUR));
+        r.putDriver("pune-3", "Pune", 3.0, true);
+        r.putDriver("delhi-5", "Delhi", 5.0, true);
+        // 0.1 + 0.42 + 0.2 for the local driver against 0.7 + 0.2
+        assertEquals(List.of("delhi-5"), ids(r.rank("Pune", T0, T0 + HOUR, 1)));
+
+        r.removeDriver("delhi-5");
+        assertEquals(List.of("pune-3"), ids(r.rank("Pune", T0, T0 + HOUR, 1)));
+    }
+
+    @Test
+    public void testIdleTimeFavoursRestedDriver() {
+        DriverRoster r = roster();
+        // pune-5 finished a job just before; pune-4 has been idle all day
+        r.occupy("pune-5", "earlier", T0 - 2 * HOUR, T0);
+        List<DriverRoster.Candidate> ranked = r.rank("Pune", T0, T0 + HOUR, 10);
+        assertEquals(List.of("pune-4", "pune-5", "delhi-5"), ids(ranked));
+        assertEquals(0.5 + 0.3 * 5 / 5, ranked.get(1).score(), 1e-9);
+    }
+
+    @Test
+    public void testClaimRejectsOverlapAndReleaseFrees() {
+        DriverRoster r = roster();
+        assertTrue(r.claim("pune-5", "b1", T0, T0 + 2 * HOUR));
+        assertFalse(r.claim("pune-5", "b2", T0 + HOUR, T0 + 3 * HOUR));
+        assertTrue(r.claim("pune-5", "b3", T0 + 2 * HOUR, T0 + 3 * HOUR));
+        assertFalse(r.claim("off", "b4", T0, T0 + HOUR));
+        assertFalse(r.claim("nobody", "b4", T0, T0 + HOUR));
+        assertFalse(ids(r.rank("Pune", T0 + HOUR, T0 + 90 * 60, 10)).contains("pune-5"));
+
+        r.release("pune-5", "b1");
+        assertTrue(r.claim("pune-5", "b2", T0 + HOUR, T0 + 2 * HOUR));
+        assertEquals(List.of("b2", "b3"), r.bookingIds("pune-5"));
+
+        r.prune(T0 + 3 * HOUR);
+        assertEquals(List.of("b3"), r.bookingIds("pune-5"));
+    }
+
+    @Test
+    public void testDriverUpdateKeepsBusyIntervals() {
+        DriverRoster r = roster();
+        r.claim("pune-4", "b1", T0, T0 + HOUR);
+        r.putDriver("pune-4", "Mumbai", 4.5, true);
+        assertEquals(List.of("b1"), r.bookingIds("pune-4"));
+        assertEquals(List.of("pune-4"), ids(r.rank("Mumbai", T0 + HOUR, T0 + 2 * HOUR, 1)));
+    }
+
+    @Test
+    public void testConcurrentClaimsNeverOverlap() throws Exception {
+        DriverRoster r = roster();
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        ConcurrentLinkedQueue<String> won = new ConcurrentLinkedQueue<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            pool.submit(() -> {
+                go.await();
+                // every thread tries the same 100 hour-long slots, offset by half an hour on odd threads
+                for (int i = 0; i < 100; i++) {
+                    long start = T0 + i * HOUR + (thread % 2) * HOUR / 2;
+                    if (r.claim("pune-5", "t" + thread + "-" + i, start, start + HOUR)) {
+                        won.add("t" + thread + "-" + i);
+                    }
+                }
+                return null;
+            });
+        }
+        go.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        List<String> held = r.bookingIds("pune-5");
+        assertEquals(won.size(), held.size());
+        assertTrue(held.size() >= 99, "slots left unclaimed: " + held.size());
+    }
+}
@@ -0,0 +1,86 @@
+package com.wheelio.backend.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.wheelio.backend.model.EmailOutbox;
+import com.wheelio.backend.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.Mockito;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxDispatcher dispatcher;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("127.0.0.1");
+        sender.setPort(greenMail.getSmtp().getPort());
+
+        registry = new SimpleMeterRegistry();
+        dispatcher = new EmailOutboxDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "mailSender", sender);
+        ReflectionTestUtils.setField(dispatcher, "meterRegistry", registry);
+        ReflectionTestUtils.setField(dispatcher, "emailOutboxRepository", Mockito.mock(EmailOutboxRepository.class));
+        ReflectionTestUtils.setField(dispatcher, "fromEmail", "noreply@wheelio.com");
+        ReflectionTestUtils.setField(dispatcher, "workers", 1);
+        dispatcher.init();
+    }
+
+    private static EmailOutbox entry(String id, String to, boolean html) {
+        EmailOutbox e = new EmailOutbox(to, "Subject " + id, html ? "<p>Hello " + id + "</p>" : "Hello " + id, html);
+        e.setId(id);
+        return e;
+    }
+
+    @Test
+    public void testBatchIsDeliveredToSmtp() throws Exception {
+        Map<String, String> failures = dispatcher.deliver(List.of(
+                entry("1", "a@example.com", true),
+                entry("2", "b@example.com", false),
+                entry("3", "c@example.com", true)));
+
+        assertTrue(failures.isEmpty());
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Subject 1", received[0].getSubject());
+        assertEquals(1, registry.get("wheelio.email.send.latency").timer().count());
+    }
+
+    @Test
+    public void testInvalidRecipientFailsOnlyThatEntry() {
+        Map<String, String> failures = dispatcher.deliver(List.of(
+                entry("1", "a@example.com", true),
+                entry("bad", "not an address", true)));
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey("bad"));
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    public void testUnreachableServerFailsWholeBatch() {
+        greenMail.stop();
+        Map<String, String> failures = dispatcher.deliver(List.of(
+                entry("1", "a@example.com", true),
+                entry("2", "b@example.com", true)));
+
+        assertEquals(Map.of("1", failures.get("1"), "2", failures.get("2")), failures);
+        assertNotNull(failures.get("1"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Booking;
+import com.wheelio.backend.model.Vehicle;
+import com.wheelio.backend.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class FleetStatusEngineTest {
+
+    private FleetStatusEngine engine;
+    private BookingService bookingService;
+    private VehicleService vehicleService;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        bookingService = Mockito.mock(BookingService.class);
+        vehicleService = Mockito.mock(VehicleService.class);
+        BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+        when(bookingRepository.findByStatusIn(any())).thenReturn(Collections.emptyList());
+        when(vehicleService.getAllVehicles()).thenReturn(Collections.emptyList());
+        when(bookingService.completeExpiredBookings(any(), anyInt())).thenReturn(Collections.emptyList());
+        when(vehicleService.updateStatus(anyString(), any())).thenReturn(true);
+
+        registry = new SimpleMeterRegistry();
+        engine = new FleetStatusEngine();
+        ReflectionTestUtils.setField(engine, "bookingService", bookingService);
+        ReflectionTestUtils.setField(engine, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(engine, "vehicleService", vehicleService);
+        ReflectionTestUtils.setField(engine, "meterRegistry", registry);
+        ReflectionTestUtils.setField(engine, "enabled", true);
+        ReflectionTestUtils.setField(engine, "sweepBatchSize", 2);
+        engine.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        engine.stop();
+    }
+
+    private static Booking booking(String id, LocalDateTime start, LocalDateTime end) {
+        Booking b = new Booking();
+        b.setId(id);
+        b.setVehicleId("v1");
+        b.setStartDate(start);
+        b.setEndDate(end);
+        b.setStatus(Booking.BookingStatus.CONFIRMED);
+        return b;
+    }
+
+    @Test
+    public void testVehicleFollowsBookingStartAndEnd() {
+        LocalDateTime start = LocalDateTime.now().plusNanos(300_000_000);
+        LocalDateTime end = start.plusNanos(300_000_000);
+        when(bookingService.isVehicleAvailable(eq("v1"), any(), any())).thenAnswer(inv -> {
+            LocalDateTime from = inv.getArgument(1);
+            LocalDateTime to = inv.getArgument(2);
+            return !(start.isBefore(to) && end.isAfter(from));
+        });
+
+        engine.start();
+        engine.onStatusChanged(new BookingStatusChangedEvent(booking("b1", start, end), null,
+                Booking.BookingStatus.CONFIRMED));
+
+        ArgumentCaptor<Vehicle.Status> statuses = ArgumentCaptor.forClass(Vehicle.Status.class);
+        verify(vehicleService, timeout(3000).times(3)).updateStatus(eq("v1"), statuses.capture());
+        assertEquals(List.of(Vehicle.Status.AVAILABLE, Vehicle.Status.BOOKED, Vehicle.Status.AVAILABLE),
+                statuses.getAllValues());
+        verify(bookingService, timeout(2000).atLeastOnce()).completeExpiredBookings(any(), eq(2));
+    }
+
+    @Test
+    public void testSweepRunsBatchesUntilShort() {
+        LocalDateTime ended = LocalDateTime.now().minusMinutes(5);
+        when(bookingService.completeExpiredBookings(any(), eq(2))).thenReturn(
+                List.of(booking("b1", ended.minusDays(1), ended), booking("b2", ended.minusDays(1), ended)),
+                List.of(booking("b3", ended.minusDays(1), ended)));
+
+        assertEquals(3, engine.sweepExpired());
+        verify(bookingService, times(2)).completeExpiredBookings(any(), eq(2));
+        assertEquals(3.0, registry.counter("wheelio.fleet.bookings.completed").count());
+        assertTrue(registry.timer("wheelio.fleet.expiry.lag").max(TimeUnit.MINUTES) >= 4);
+    }
+
+    @Test
+    public void testInactiveBookingOnlyRefreshes() {
+        Booking cancelled = booking("b1", LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        cancelled.setStatus(Booking.BookingStatus.CANCELLED);
+
+        engine.onStatusChanged(new BookingStatusChangedEvent(cancelled, Booking.BookingStatus.CONFIRMED,
+                Booking.BookingStatus.CANCELLED));
+
+        assertEquals(1, engine.pendingTicks());
+    }
+}
@@ -0,0 +1,84 @@
+package com.wheelio.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeoGridTest {
+
+    // Pune city centre
+    private static final double LAT = 18.5204;
+    private static final double LNG = 73.8567;
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(7);
+        GeoGrid<Integer> grid = new GeoGrid<>(5);
+        double[][] points = new double[5000][];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new double[] { LAT + random.nextGaussian() * 0.5, LNG + random.nextGaussian() * 0.5 };
+            grid.put("v" + i, points[i][0], points[i][1], i);
+        }
+
+        for (int q = 0; q < 50; q++) {
+            double lat = LAT + random.nextGaussian() * 0.5;
+            double lng = LNG + random.nextGaussian() * 0.5;
+            double radius = 1 + random.nextDouble() * 60;
+            int limit = 1 + random.nextInt(30);
+
+            List<double[]> expected = new ArrayList<>();
+            for (int i = 0; i < points.length; i++) {
+                double d = GeoGrid.distanceKm(lat, lng, points[i][0], points[i][1]);
+                if (d <= radius && i % 3 != 0) {
+                    expected.add(new double[] { i, d });
+                }
+            }
+            expected.sort(Comparator.comparingDouble(e -> e[1]));
+
+            List<GeoGrid.Hit<Integer>> hits = grid.nearest(lat, lng, radius, limit, i -> i % 3 != 0);
+            assertEquals(Math.min(limit, expected.size()), hits.size());
+            for (int i = 0; i < hits.size(); i++) {
+                assertEquals(expected.get(i)[1], hits.get(i).distanceKm(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void testPutReplacesAndRemoveDrops() {
+        GeoGrid<String> grid = new GeoGrid<>(5);
+        grid.put("a", LAT, LNG, "a");
+        grid.put("b", LAT + 0.05, LNG, "b");
+        grid.put("a", LAT + 1, LNG, "a-moved");
+        assertEquals(2, grid.size());
+
+        List<GeoGrid.Hit<String>> hits = grid.nearest(LAT, LNG, 20, 10, null);
+        assertEquals(List.of("b"), hits.stream().map(GeoGrid.Hit::value).toList());
+        assertEquals(5.56, hits.get(0).distanceKm(), 0.01);
+
+        grid.remove("b");
+        assertTrue(grid.nearest(LAT, LNG, 20, 10, null).isEmpty());
+        assertEquals(1, grid.nearest(LAT, LNG, 200, 10, null).size());
+    }
+
+    @Test
+    public void testWrapsAroundAntimeridian() {
+        GeoGrid<String> grid = new GeoGrid<>(5);
+        grid.put("east", -17.0, 179.99, "east");
+        grid.put("west", -17.0, -179.99, "west");
+        List<GeoGrid.Hit<String>> hits = grid.nearest(-17.0, 179.999, 5, 10, null);
+        assertEquals(List.of("east", "west"), hits.stream().map(GeoGrid.Hit::value).toList());
+    }
+
+    @Test
+    public void testRejectsBadInput() {
+        assertThrows(IllegalArgumentException.class, () -> new GeoGrid<>(0));
+        GeoGrid<String> grid = new GeoGrid<>(5);
+        assertThrows(IllegalArgumentException.class, () -> grid.put("x", 91, 0, "x"));
+        assertThrows(IllegalArgumentException.class, () -> grid.put("x", Double.NaN, 0, "x"));
+    }
+}
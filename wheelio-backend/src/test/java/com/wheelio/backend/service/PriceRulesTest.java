@@ -0,0 +1,80 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.PriceQuote;
+import com.wheelio.backend.model.Vehicle;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PriceRulesTest {
+
+    private static final PriceRules RULES = PriceRules.compile(new BigDecimal("800"), new BigDecimal("10"),
+            "FRIDAY,SATURDAY,SUNDAY", "3:5,7:10,30:20", new BigDecimal("18"), new BigDecimal("500"),
+            "BIKE:300,SCOOTER:300");
+
+    // 2030-01-02 is a Wednesday
+    private static final LocalDateTime WEDNESDAY = LocalDateTime.of(2030, 1, 2, 10, 0);
+
+    @Test
+    public void testFiveDayRentalWithDriver() {
+        PriceQuote q = RULES.quote(200_000, Vehicle.VehicleType.SUV, WEDNESDAY, WEDNESDAY.plusDays(4).plusHours(2),
+                true);
+
+        assertEquals(5, q.getDays());
+        assertEquals(3, q.getWeekendDays());
+        assertEquals(1_000_000, q.getRentalMinor());
+        assertEquals(60_000, q.getWeekendSurchargeMinor());
+        assertEquals(53_000, q.getDurationDiscountMinor());
+        assertEquals(400_000, q.getDriverMinor());
+        assertEquals(253_260, q.getTaxMinor());
+        assertEquals(1_660_260, q.getTotalMinor());
+        assertEquals(50_000, q.getDepositMinor());
+        assertEquals(new BigDecimal("16602.60"), q.getTotal());
+        assertEquals(new BigDecimal("17102.60"), q.getPayableNow());
+    }
+
+    @Test
+    public void testWeekendDaysOverWholeWeeks() {
+        PriceQuote q = RULES.quote(100_000, Vehicle.VehicleType.BIKE, WEDNESDAY, WEDNESDAY.plusDays(15), false);
+
+        assertEquals(15, q.getDays());
+        assertEquals(6, q.getWeekendDays());
+        assertEquals(30_000, q.getDepositMinor());
+        assertEquals(0, q.getDriverMinor());
+        // 7-day tier: 10% of rental plus surcharge
+        assertEquals((1_500_000 + 60_000) / 10, q.getDurationDiscountMinor());
+    }
+
+    @Test
+    public void testPartialDayIsBilledAsOneDay() {
+        PriceQuote q = RULES.quote(150_000, Vehicle.VehicleType.SEDAN, WEDNESDAY, WEDNESDAY.plusHours(2), false);
+        assertEquals(1, q.getDays());
+        assertEquals(0, q.getWeekendDays());
+        assertEquals(0, q.getDurationDiscountMinor());
+        assertEquals(150_000 + 27_000, q.getTotalMinor());
+    }
+
+    @Test
+    public void testSaturdayStartCountsWeekend() {
+        LocalDateTime saturday = LocalDateTime.of(2030, 1, 5, 9, 0);
+        PriceQuote q = RULES.quote(100_000, null, saturday, saturday.plusDays(2), false);
+        assertEquals(2, q.getDays());
+        assertEquals(2, q.getWeekendDays());
+        assertEquals(50_000, q.getDepositMinor());
+    }
+
+    @Test
+    public void testRejectsEmptyPeriodAndBadRules() {
+        assertThrows(IllegalArgumentException.class,
+                () -> RULES.quote(100_000, null, WEDNESDAY, WEDNESDAY, false));
+        assertThrows(IllegalArgumentException.class, () -> PriceRules.compile(BigDecimal.ZERO, BigDecimal.ZERO,
+                "FUNDAY", "", BigDecimal.ZERO, BigDecimal.ZERO, ""));
+        assertThrows(IllegalArgumentException.class, () -> PriceRules.compile(BigDecimal.ZERO, BigDecimal.ZERO,
+                "", "3-5", BigDecimal.ZERO, BigDecimal.ZERO, ""));
+        assertThrows(IllegalArgumentException.class, () -> PriceRules.compile(BigDecimal.ZERO, new BigDecimal("150"),
+                "", "", BigDecimal.ZERO, BigDecimal.ZERO, ""));
+    }
+}
@@ -0,0 +1,112 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.User;
+import com.wheelio.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class UserCacheTest {
+
+    private UserRepository repository;
+    private SimpleMeterRegistry registry;
+    private UserCache cache;
+
+    private static User user(String id, String email, User.Role role) {
+        User u = new User();
+        u.setId(id);
+        u.setEmail(email);
+        u.setRole(role);
+        return u;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(UserRepository.class);
+        registry = new SimpleMeterRegistry();
+        cache = new UserCache();
+        ReflectionTestUtils.setField(cache, "userRepository", repository);
+        ReflectionTestUtils.setField(cache, "meterRegistry", registry);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "negativeTtlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        when(repository.findByEmail("a@x.com")).thenReturn(Optional.of(user("u1", "a@x.com", User.Role.USER)));
+        when(repository.findByEmail("ghost@x.com")).thenReturn(Optional.empty());
+    }
+
+    private double count(String result) {
+        return registry.get("wheelio.users.cache.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    public void testEmailLookupFillsBothKeys() {
+        assertEquals("u1", cache.byEmail("a@x.com").orElseThrow().getId());
+        assertEquals("u1", cache.byEmail("a@x.com").orElseThrow().getId());
+        assertEquals("a@x.com", cache.byId("u1").orElseThrow().getEmail());
+
+        verify(repository, times(1)).findByEmail("a@x.com");
+        verify(repository, never()).findById(any());
+        assertEquals(1, count("miss"));
+        assertEquals(2, count("hit"));
+        assertEquals(2.0 / 3, registry.get("wheelio.users.cache.hit.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    public void testUnknownEmailIsRememberedUntilSignup() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cache.byEmail("ghost@x.com").isEmpty());
+        }
+        verify(repository, times(1)).findByEmail("ghost@x.com");
+        assertEquals(4, count("negative"));
+
+        cache.put(user("u2", "ghost@x.com", User.Role.USER));
+        assertEquals("u2", cache.byEmail("ghost@x.com").orElseThrow().getId());
+    }
+
+    @Test
+    public void testWriteThroughAndDelete() {
+        cache.byEmail("a@x.com");
+        cache.put(user("u1", "a@x.com", User.Role.ADMIN));
+        assertEquals(User.Role.ADMIN, cache.byEmail("a@x.com").orElseThrow().getRole());
+        assertEquals(User.Role.ADMIN, cache.byId("u1").orElseThrow().getRole());
+
+        cache.remove("u1");
+        when(repository.findByEmail("a@x.com")).thenReturn(Optional.empty());
+        assertTrue(cache.byEmail("a@x.com").isEmpty());
+        verify(repository, times(2)).findByEmail("a@x.com");
+    }
+
+    @Test
+    public void testEmailChangeDropsOldKey() {
+        cache.byEmail("a@x.com");
+        cache.put(user("u1", "b@x.com", User.Role.USER));
+        when(repository.findByEmail("a@x.com")).thenReturn(Optional.empty());
+
+        assertTrue(cache.byEmail("a@x.com").isEmpty());
+        assertEquals("u1", cache.byEmail("b@x.com").orElseThrow().getId());
+    }
+
+    @Test
+    public void testExpiredEntriesAreReloaded() {
+        ReflectionTestUtils.setField(cache, "ttlMs", 0L);
+        cache.byEmail("a@x.com");
+        cache.byEmail("a@x.com");
+        verify(repository, times(2)).findByEmail("a@x.com");
+    }
+
+    @Test
+    public void testSizeIsBounded() {
+        for (int i = 0; i < 500; i++) {
+            cache.byEmail("probe" + i + "@x.com");
+        }
+        assertTrue(registry.get("wheelio.users.cache.size").gauge().value() <= 100);
+        assertTrue(registry.get("wheelio.users.cache.evictions").counter().count() > 0);
+    }
+}
@@ -0,0 +1,125 @@
+package com.wheelio.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wheelio.backend.model.Vehicle;
+import com.wheelio.backend.repository.VehicleRepository;
+import com.wheelio.backend.util.CursorPage;
+import com.wheelio.backend.util.KeysetPager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class VehicleCatalogueCacheTest {
+
+    private VehicleRepository repository;
+    private SimpleMeterRegistry registry;
+    private VehicleCatalogueCache cache;
+
+    private static Vehicle vehicle(String id, Vehicle.Status status) {
+        Vehicle v = new Vehicle();
+        v.setId(id);
+        v.setName("Car " + id);
+        v.setStatus(status);
+        return v;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        repository = mock(VehicleRepository.class);
+        registry = new SimpleMeterRegistry();
+        cache = new VehicleCatalogueCache();
+        ReflectionTestUtils.setField(cache, "vehicleRepository", repository);
+        ReflectionTestUtils.setField(cache, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "meterRegistry", registry);
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        when(repository.findAll()).thenReturn(new ArrayList<>(List.of(
+                vehicle("v1", Vehicle.Status.AVAILABLE), vehicle("v2", Vehicle.Status.MAINTENANCE))));
+    }
+
+    private double count(String result) {
+        return registry.get("wheelio.vehicles.cache.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    public void testListIsLoadedOnceAndJsonReused() {
+        byte[] first = cache.allJson();
+        byte[] second = cache.allJson();
+
+        assertSame(first, second);
+        assertTrue(new String(first, StandardCharsets.UTF_8).contains("\"id\":\"v2\""));
+        assertEquals(List.of("v1"), cache.available().stream().map(Vehicle::getId).toList());
+        assertEquals("v2", cache.byId("v2").orElseThrow().getId());
+        verify(repository, times(1)).findAll();
+        verify(repository, never()).findById(any());
+        assertEquals(1, count("miss"));
+        assertEquals(3, count("hit"));
+    }
+
+    @Test
+    public void testWriteThroughUpdatesListAndAvailableViews() {
+        byte[] before = cache.availableJson();
+
+        cache.put(vehicle("v1", Vehicle.Status.BOOKED));
+        cache.put(vehicle("v3", Vehicle.Status.AVAILABLE));
+        cache.remove("v2");
+
+        assertNotSame(before, cache.availableJson());
+        assertEquals(List.of("v3"), cache.available().stream().map(Vehicle::getId).toList());
+        assertEquals(List.of("v1", "v3"), cache.all().stream().map(Vehicle::getId).toList());
+        assertEquals(Vehicle.Status.BOOKED, cache.byId("v1").orElseThrow().getStatus());
+        assertTrue(cache.byId("v2").isEmpty());
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    public void testPerIdEntriesAreBoundedAndExpire() {
+        ReflectionTestUtils.setField(cache, "ttlMs", 0L);
+        when(repository.findById(anyString())).thenAnswer(inv -> Optional.of(
+                vehicle(inv.getArgument(0), Vehicle.Status.AVAILABLE)));
+        for (int i = 0; i < 300; i++) {
+            cache.byId("id" + i);
+        }
+
+        assertTrue(registry.get("wheelio.vehicles.cache.size").gauge().value() <= 100);
+        assertTrue(registry.get("wheelio.vehicles.cache.evictions").counter().count() > 0);
+        verify(repository, times(300)).findById(anyString());
+    }
+
+    @Test
+    public void testKeysetPagesAreSlicedFromTheSnapshot() {
+        LocalDateTime t = LocalDateTime.of(2030, 1, 1, 9, 0);
+        List<Vehicle> fleet = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Vehicle v = vehicle("v" + i, Vehicle.Status.AVAILABLE);
+            // v5 and v6 share a timestamp (id breaks the tie); v0 has none and sorts last descending
+            v.setCreatedAt(i == 0 ? null : t.plusMinutes(Math.min(i, 5)).plusNanos(123_456));
+            fleet.add(v);
+        }
+        when(repository.findAll()).thenReturn(fleet);
+
+        String key = KeysetPager.sortKey(null, Set.of("id", "createdAt"));
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<Vehicle> page = KeysetPager.page(cache.sorted(key, KeysetPager.comparator(key)), cursor, 3, key);
+            page.getItems().forEach(v -> seen.add(v.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("v6", "v5", "v4", "v3", "v2", "v1", "v0"), seen);
+        verify(repository, times(1)).findAll();
+    }
+}
@@ -0,0 +1,134 @@
+package com.wheelio.backend.service;
+
+import com.wheelio.backend.model.Vehicle;
+import com.wheelio.backend.model.VehicleSearchResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+public class VehicleSearchIndexTest {
+
+    private VehicleSearchIndex index;
+
+    private static Vehicle vehicle(String id, Vehicle.VehicleType type, String fuel, int seats, String location,
+            int price, String... features) {
+        Vehicle v = new Vehicle();
+        v.setId(id);
+        v.setName("Vehicle " + id);
+        v.setType(type);
+        v.setFuelType(fuel);
+        v.setTransmission("Manual");
+        v.setSeats(seats);
+        v.setLocation(location);
+        v.setPricePerDay(BigDecimal.valueOf(price));
+        v.setFeatures(List.of(features));
+        return v;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        VehicleCatalogueCache cache = Mockito.mock(VehicleCatalogueCache.class);
+        when(cache.all()).thenReturn(List.of(
+                vehicle("1", Vehicle.VehicleType.SUV, "Diesel", 7, "Pune", 3500, "GPS", "Sunroof"),
+                vehicle("2", Vehicle.VehicleType.SUV, "Petrol", 5, "Mumbai", 2500, "GPS"),
+                vehicle("3", Vehicle.VehicleType.SEDAN, "Petrol", 5, "Pune", 1800, "Bluetooth"),
+                vehicle("4", Vehicle.VehicleType.BIKE, "Petrol", 2, "Pune", 600),
+                vehicle("5", Vehicle.VehicleType.SEDAN, "Electric", 5, "Delhi", 2200, "GPS", "Bluetooth")));
+        index = new VehicleSearchIndex();
+        ReflectionTestUtils.setField(index, "catalogueCache", cache);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "priceBands", "1000,2000,3000");
+        index.init();
+        index.rebuild();
+    }
+
+    private static VehicleSearchIndex.Filters filters(Object... facetValues) {
+        VehicleSearchIndex.Filters f = new VehicleSearchIndex.Filters();
+        for (int i = 0; i < facetValues.length; i += 2) {
+            @SuppressWarnings("unchecked")
+            List<String> values = (List<String>) facetValues[i + 1];
+            f.getValues().put((VehicleSearchIndex.Facet) facetValues[i], values);
+        }
+        return f;
+    }
+
+    private static List<String> ids(VehicleSearchResult r) {
+        return r.getItems().stream().map(Vehicle::getId).toList();
+    }
+
+    @Test
+    public void testUnfilteredReturnsAllWithFacets() {
+        VehicleSearchResult r = index.search(filters());
+        assertEquals(5, r.getTotal());
+        assertEquals(Map.of("SUV", 2, "SEDAN", 2, "BIKE", 1), r.getFacets().get("type"));
+        assertEquals(Map.of("0-1000", 1, "1000-2000", 1, "2000-3000", 2, "3000+", 1), r.getFacets().get("priceBand"));
+        assertEquals(3, r.getFacets().get("features").get("GPS"));
+    }
+
+    @Test
+    public void testOrWithinFacetAndAcrossFacets() {
+        VehicleSearchResult r = index.search(filters(
+                VehicleSearchIndex.Facet.TYPE, List.of("suv", "sedan"),
+                VehicleSearchIndex.Facet.LOCATION, List.of("Pune")));
+        assertEquals(List.of("1", "3"), ids(r));
+
+        // type counts ignore the type filter but keep the location filter
+        assertEquals(Map.of("SUV", 1, "SEDAN", 1, "BIKE", 1), r.getFacets().get("type"));
+        // location counts ignore the location filter but keep the type filter
+        assertEquals(Map.of("Pune", 2, "Mumbai", 1, "Delhi", 1), r.getFacets().get("location"));
+    }
+
+    @Test
+    public void testFeaturesAreAllRequired() {
+        VehicleSearchResult r = index.search(filters(VehicleSearchIndex.Facet.FEATURES, List.of("GPS", "Bluetooth")));
+        assertEquals(List.of("5"), ids(r));
+        assertEquals(0, index.search(filters(VehicleSearchIndex.Facet.FEATURES, List.of("Jetpack"))).getTotal());
+    }
+
+    @Test
+    public void testSeatsPriceAndVehicleFilter() {
+        VehicleSearchIndex.Filters f = filters();
+        f.setMinSeats(5);
+        f.setMaxPrice(BigDecimal.valueOf(2500));
+        f.setVehicleFilter(id -> !id.equals("2"));
+        f.setSort("-price");
+        assertEquals(List.of("5", "3"), ids(index.search(f)));
+    }
+
+    @Test
+    public void testWritesUpdateIndexInPlace() {
+        Vehicle moved = vehicle("3", Vehicle.VehicleType.SEDAN, "Petrol", 5, "Delhi", 1800, "Bluetooth");
+        index.put(moved);
+        index.remove("4");
+        index.put(vehicle("6", Vehicle.VehicleType.SCOOTER, "Electric", 2, "Pune", 400));
+
+        VehicleSearchResult r = index.search(filters(VehicleSearchIndex.Facet.LOCATION, List.of("Pune")));
+        assertEquals(List.of("1", "6"), ids(r));
+        assertEquals(Map.of("Pune", 2, "Mumbai", 1, "Delhi", 2), r.getFacets().get("location"));
+        assertNull(index.search(filters()).getFacets().get("type").get("BIKE"));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    public void testPagingAndBadSort() {
+        VehicleSearchIndex.Filters f = filters();
+        f.setSort("price");
+        f.setSize(2);
+        f.setPage(1);
+        VehicleSearchResult r = index.search(f);
+        assertEquals(5, r.getTotal());
+        assertEquals(List.of("5", "2"), ids(r));
+
+        f.setSort("popularity");
+        assertThrows(IllegalArgumentException.class, () -> index.search(f));
+    }
+}
@@ -0,0 +1,42 @@
+package com.wheelio.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DataUriTest {
+
+    @Test
+    public void testDecodesPayloadAsStream() throws Exception {
+        byte[] payload = new byte[3 * 1024 * 1024 + 7];
+        new Random(42).nextBytes(payload);
+        String uri = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(payload);
+
+        assertTrue(DataUri.isDataUri(uri));
+        assertEquals("image/jpeg", DataUri.contentType(uri));
+        try (InputStream in = DataUri.open(uri)) {
+            assertArrayEquals(payload, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void testHeaderVariants() {
+        assertEquals("application/octet-stream", DataUri.contentType("data:;base64,AAAA"));
+        assertEquals("image/png", DataUri.contentType("DATA:image/png;name=a.png;base64,AAAA"));
+        assertFalse(DataUri.isDataUri("/api/files/abc"));
+        assertThrows(IllegalArgumentException.class, () -> DataUri.open("data:text/plain,hello"));
+        assertThrows(IllegalArgumentException.class, () -> DataUri.open("data:image/png;base64"));
+    }
+
+    @Test
+    public void testInvalidBase64FailsWhileReading() throws Exception {
+        try (InputStream in = DataUri.open("data:image/png;base64,AA*=")) {
+            assertThrows(IOException.class, in::readAllBytes);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.wheelio.backend.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.wheelio.backend.model.Booking;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExportWriterTest {
+
+    private static final String[] COLUMNS = { "id", "vehicleId", "pickupLocation", "totalAmount", "startDate" };
+
+    private static final Function<Booking, Object[]> ROW = b -> new Object[] { b.getId(), b.getVehicleId(),
+            b.getPickupLocation(), b.getTotalAmount(), b.getStartDate() };
+
+    private final ObjectWriter json = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writer();
+
+    private static Booking booking(long i) {
+        Booking b = new Booking();
+        b.setId("b" + i);
+        b.setVehicleId("v" + (i % 500));
+        b.setUserId("u" + (i % 10_000));
+        b.setPickupLocation("Depot " + (i % 20));
+        b.setTotalAmount(BigDecimal.valueOf(1000 + i % 5000));
+        b.setStartDate(LocalDateTime.of(2025, 1, 1, 10, 0).plusHours(i % 8000));
+        b.setEndDate(b.getStartDate().plusDays(2));
+        b.setStatus(Booking.BookingStatus.COMPLETED);
+        return b;
+    }
+
+    /** Generates bookings lazily, sampling retained heap every {@code sampleEvery} rows. */
+    private static Iterator<Booking> synthetic(long total, long sampleEvery, List<Long> retained) {
+        return new Iterator<>() {
+            long next;
+
+            @Override
+            public boolean hasNext() {
+                return next < total;
+            }
+
+            @Override
+            public Booking next() {
+                if (next > 0 && next % sampleEvery == 0) {
+                    System.gc();
+                    Runtime rt = Runtime.getRuntime();
+                    retained.add(rt.totalMemory() - rt.freeMemory());
+                }
+                return booking(next++);
+            }
+        };
+    }
+
+    private static final class CountingSink extends OutputStream {
+        long bytes;
+        long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] buf, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (buf[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMillionRowExportKeepsRetainedHeapFlat() throws IOException {
+        List<Long> retained = new ArrayList<>();
+        CountingSink sink = new CountingSink();
+
+        long rows = ExportWriter.write(synthetic(1_000_000, 200_000, retained), ExportWriter.Format.NDJSON, json,
+                COLUMNS, ROW, sink);
+
+        assertEquals(1_000_000, rows);
+        assertEquals(1_000_000, sink.lines);
+        assertEquals(4, retained.size());
+        long growth = retained.get(retained.size() - 1) - retained.get(0);
+        // a materialised list of 1M bookings would retain hundreds of MB
+        assertTrue(growth < 16L * 1024 * 1024, "retained heap grew by " + growth + " bytes");
+    }
+
+    @Test
+    public void testCsvHasHeaderAndEscapesFields() throws IOException {
+        Booking b = booking(1);
+        b.setPickupLocation("Gate 3, \"North\" wing");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        ExportWriter.write(List.of(b).iterator(), ExportWriter.Format.CSV, json, COLUMNS, ROW, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,vehicleId,pickupLocation,totalAmount,startDate", lines[0]);
+        assertEquals("b1,v1,\"Gate 3, \"\"North\"\" wing\",1001," + b.getStartDate(), lines[1]);
+    }
+
+    @Test
+    public void testClientDisconnectStopsReadingTheCursor() {
+        long[] produced = new long[1];
+        Iterator<Booking> source = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Booking next() {
+                return booking(produced[0]++);
+            }
+        };
+        OutputStream broken = new OutputStream() {
+            long written;
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] buf, int off, int len) throws IOException {
+                written += len;
+                if (written > 256 * 1024) {
+                    throw new IOException("Broken pipe");
+                }
+            }
+        };
+
+        assertThrows(IOException.class, () -> ExportWriter.write(source, ExportWriter.Format.NDJSON, json,
+                COLUMNS, ROW, broken));
+        assertTrue(produced[0] < 10_000, "kept reading after disconnect: " + produced[0]);
+    }
+}
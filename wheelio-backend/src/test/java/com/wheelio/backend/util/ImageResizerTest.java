@@ -0,0 +1,65 @@
+package com.wheelio.backend.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageResizerTest {
+
+    private static byte[] png(int w, int h, int type) throws Exception {
+        BufferedImage img = new BufferedImage(w, h, type);
+        Graphics2D g = img.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, w / 2, h);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void testDecodeSubsamplesLargeImages() throws Exception {
+        BufferedImage decoded = ImageResizer.decode(
+                new ByteArrayInputStream(png(4000, 1000, BufferedImage.TYPE_INT_RGB)), 500);
+        assertNotNull(decoded);
+        assertTrue(decoded.getWidth() >= 500 && decoded.getWidth() <= 1000, "width " + decoded.getWidth());
+    }
+
+    @Test
+    public void testDecodeReturnsNullForNonImages() throws Exception {
+        assertNull(ImageResizer.decode(new ByteArrayInputStream("%PDF-1.4 not an image".getBytes()), 160));
+    }
+
+    @Test
+    public void testScaleToFitKeepsAspectAndNeverUpscales() throws Exception {
+        BufferedImage src = new BufferedImage(1600, 900, BufferedImage.TYPE_INT_RGB);
+        BufferedImage card = ImageResizer.scaleToFit(src, 480);
+        assertEquals(480, card.getWidth());
+        assertEquals(270, card.getHeight());
+
+        BufferedImage small = new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB);
+        assertSame(small, ImageResizer.scaleToFit(small, 160));
+    }
+
+    @Test
+    public void testEncodeUsesJpegUnlessTransparent() throws Exception {
+        BufferedImage opaque = ImageResizer.decode(
+                new ByteArrayInputStream(png(300, 200, BufferedImage.TYPE_INT_RGB)), 1600);
+        assertEquals("image/jpeg", ImageResizer.contentTypeFor(opaque));
+        BufferedImage jpeg = ImageIO.read(new ByteArrayInputStream(ImageResizer.encode(opaque)));
+        assertEquals(300, jpeg.getWidth());
+
+        BufferedImage alpha = ImageResizer.scaleToFit(new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB), 160);
+        assertEquals("image/png", ImageResizer.contentTypeFor(alpha));
+        byte[] encoded = ImageResizer.encode(alpha);
+        assertEquals((byte) 0x89, encoded[0]);
+        assertTrue(ImageIO.read(new ByteArrayInputStream(encoded)).getColorModel().hasAlpha());
+    }
+}